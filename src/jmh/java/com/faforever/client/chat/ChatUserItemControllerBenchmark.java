@@ -0,0 +1,161 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.avatar.AvatarService;
+import com.faforever.client.clan.ClanService;
+import com.faforever.client.fx.PlatformService;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
+import com.faforever.client.preferences.Preferences;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.theme.UiService;
+import com.faforever.client.util.TimeService;
+import com.google.common.eventbus.EventBus;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXMLLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.MessageSourceResourceBundle;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the creation of a chat user row, i.e. loading its FXML and showing a player in it, and the update of a row
+ * when a player info changes the avatar, clan, country and status of its player at once. Both run on the JavaFX
+ * application thread, so the times include a hop to it. Run with {@code -prof gc} for the allocations per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChatUserItemControllerBenchmark {
+
+  private PreferencesService preferencesService;
+  private AvatarService avatarService;
+  private CountryFlagService countryFlagService;
+  private I18n i18n;
+  private UiService uiService;
+  private EventBus eventBus;
+  private ClanService clanService;
+  private PlayerService playerService;
+  private PlatformService platformService;
+  private TimeService timeService;
+  private MessageSourceResourceBundle resources;
+
+  private ChatUserItemController row;
+  private Player rowPlayer;
+  private int update;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Platform.startup(() -> {
+    });
+
+    preferencesService = mock(PreferencesService.class, withSettings().stubOnly());
+    when(preferencesService.getPreferences()).thenReturn(new Preferences());
+    avatarService = mock(AvatarService.class, withSettings().stubOnly());
+    countryFlagService = mock(CountryFlagService.class, withSettings().stubOnly());
+    when(countryFlagService.setCountryFlag(any(), anyString())).thenReturn(true);
+    i18n = mock(I18n.class, withSettings().stubOnly());
+    uiService = mock(UiService.class, withSettings().stubOnly());
+    when(uiService.currentThemeProperty()).thenReturn(new SimpleObjectProperty<>());
+    eventBus = mock(EventBus.class, withSettings().stubOnly());
+    clanService = mock(ClanService.class, withSettings().stubOnly());
+    when(clanService.getClanByTag(anyString())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+    playerService = mock(PlayerService.class, withSettings().stubOnly());
+    platformService = mock(PlatformService.class, withSettings().stubOnly());
+    timeService = mock(TimeService.class, withSettings().stubOnly());
+
+    ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+    messageSource.setBasename("i18n.messages");
+    resources = new MessageSourceResourceBundle(messageSource, Locale.US);
+
+    rowPlayer = createPlayer("updated");
+    row = runOnFxThread(() -> createRow(rowPlayer));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    Platform.exit();
+  }
+
+  @Benchmark
+  public ChatUserItemController createRow() throws Exception {
+    Player player = createPlayer("junit");
+    return runOnFxThread(() -> createRow(player));
+  }
+
+  @Benchmark
+  public ChatUserItemController updateRow() throws Exception {
+    int value = update++ % 2;
+    return runOnFxThread(() -> {
+      rowPlayer.setAvatarUrl("http://example.com/avatar" + value + ".png");
+      rowPlayer.setClan("clan" + value);
+      rowPlayer.setCountry(value == 0 ? "US" : "DE");
+      rowPlayer.setIdleSince(Instant.ofEpochSecond(value));
+      return row;
+    });
+  }
+
+  private ChatUserItemController createRow(Player player) throws Exception {
+    ChatUserItemController controller = new ChatUserItemController(preferencesService, avatarService,
+        countryFlagService, i18n, uiService, eventBus, clanService, playerService, platformService, timeService);
+
+    FXMLLoader loader = new FXMLLoader();
+    loader.setLocation(new ClassPathResource("/theme/chat/chat_user_item.fxml").getURL());
+    loader.setResources(resources);
+    loader.setControllerFactory(param -> controller);
+    loader.load();
+
+    ChatChannelUser chatUser = new ChatChannelUser(player.getUsername(), null, false);
+    chatUser.setPlayer(player);
+    controller.setChatUser(chatUser);
+    return controller;
+  }
+
+  private static Player createPlayer(String username) {
+    Player player = new Player(username);
+    player.setClan("ABC");
+    player.setCountry("US");
+    player.setAvatarUrl("http://example.com/avatar.png");
+    return player;
+  }
+
+  /** Runs the task on the JavaFX application thread and also waits for the row updates it scheduled there. */
+  private static <T> T runOnFxThread(Callable<T> callable) throws Exception {
+    FutureTask<T> task = new FutureTask<>(callable);
+    Platform.runLater(task);
+    T result = task.get();
+    FutureTask<Void> scheduledUpdates = new FutureTask<>(() -> null);
+    Platform.runLater(scheduledUpdates);
+    scheduledUpdates.get();
+    return result;
+  }
+}
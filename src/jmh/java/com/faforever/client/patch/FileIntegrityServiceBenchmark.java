@@ -0,0 +1,142 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.io.FileUtils;
+import com.faforever.client.preferences.PreferencesService;
+import com.google.common.hash.Hashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares verifying a featured mod's files without a manifest, where every file has to be hashed, against verifying
+ * them once the manifest is up to date, which is what happens on every game start. The baseline is how files were
+ * verified before, hashing one file after another using {@link com.google.common.io.Files#hash}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileIntegrityServiceBenchmark {
+
+  private static final int FILE_COUNT = 50;
+  private static final int FILE_SIZE = 4 * 1024 * 1024;
+
+  private Path baseDirectory;
+  private Path cacheDirectory;
+  private List<FeaturedModFile> featuredModFiles;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    baseDirectory = Files.createTempDirectory("benchmark");
+    cacheDirectory = Files.createTempDirectory("benchmark-cache");
+
+    Random random = new Random(42);
+    byte[] content = new byte[FILE_SIZE];
+    featuredModFiles = new ArrayList<>();
+    for (int i = 0; i < FILE_COUNT; i++) {
+      String group = i % 2 == 0 ? "bin" : "gamedata";
+      String name = "file" + i + ".scd";
+      random.nextBytes(content);
+      Files.createDirectories(baseDirectory.resolve(group));
+      Files.write(baseDirectory.resolve(group).resolve(name), content);
+
+      FeaturedModFile featuredModFile = new FeaturedModFile();
+      featuredModFile.setGroup(group);
+      featuredModFile.setName(name);
+      featuredModFile.setMd5("00000000000000000000000000000000");
+      featuredModFiles.add(featuredModFile);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileUtils.deleteRecursively(baseDirectory);
+    FileUtils.deleteRecursively(cacheDirectory);
+  }
+
+  @State(Scope.Benchmark)
+  public static class ColdManifest {
+    private FileIntegrityService instance;
+
+    @Setup(Level.Invocation)
+    public void setUp(FileIntegrityServiceBenchmark benchmark) throws IOException {
+      FileUtils.deleteRecursively(benchmark.cacheDirectory);
+      Files.createDirectories(benchmark.cacheDirectory);
+      instance = benchmark.createService();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      instance.destroy();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class WarmManifest {
+    private FileIntegrityService instance;
+
+    @Setup(Level.Trial)
+    public void setUp(FileIntegrityServiceBenchmark benchmark) throws IOException {
+      instance = benchmark.createService();
+      instance.findOutdatedFiles(benchmark.baseDirectory, benchmark.featuredModFiles);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      instance.destroy();
+    }
+  }
+
+  @Benchmark
+  @SuppressWarnings("deprecation")
+  public List<FeaturedModFile> findOutdatedFilesSequentially() throws IOException {
+    List<FeaturedModFile> outdatedFiles = new ArrayList<>();
+    for (FeaturedModFile featuredModFile : featuredModFiles) {
+      Path file = baseDirectory.resolve(featuredModFile.getGroup()).resolve(featuredModFile.getName());
+      if (!Files.exists(file)
+          || !featuredModFile.getMd5().equals(com.google.common.io.Files.hash(file.toFile(), Hashing.md5()).toString())) {
+        outdatedFiles.add(featuredModFile);
+      }
+    }
+    return outdatedFiles;
+  }
+
+  @Benchmark
+  public List<FeaturedModFile> findOutdatedFilesWithoutManifest(ColdManifest state) throws IOException {
+    return state.instance.findOutdatedFiles(baseDirectory, featuredModFiles);
+  }
+
+  @Benchmark
+  public List<FeaturedModFile> findOutdatedFilesWithManifest(WarmManifest state) throws IOException {
+    return state.instance.findOutdatedFiles(baseDirectory, featuredModFiles);
+  }
+
+  private FileIntegrityService createService() {
+    PreferencesService preferencesService = mock(PreferencesService.class);
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory);
+    return new FileIntegrityService(preferencesService);
+  }
+}
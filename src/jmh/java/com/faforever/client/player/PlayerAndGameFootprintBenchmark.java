@@ -0,0 +1,129 @@
+package com.faforever.client.player;
+
+import com.faforever.client.game.Game;
+import com.faforever.client.remote.domain.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the heap footprint of a typical registry of 5000 online players and 500 games. Run with {@code -prof gc}:
+ * since almost everything that is allocated is retained, {@code gc.alloc.rate.norm} is the footprint in bytes. The
+ * variant that requests all properties corresponds to eagerly created properties, as before they were created lazily.
+ * The variant that requests the properties a chat user row listens to is the worst case of lazy properties, in which
+ * every player has been displayed in a chat user list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlayerAndGameFootprintBenchmark {
+
+  private static final int PLAYER_COUNT = 5000;
+  private static final int GAME_COUNT = 500;
+
+  @Benchmark
+  public List<Object> createPlayersAndGames() {
+    return create(false);
+  }
+
+  @Benchmark
+  public List<Object> createPlayersAndGamesWithAllProperties() {
+    return create(true);
+  }
+
+  @Benchmark
+  public List<Object> createPlayersAndGamesWithChatUserRowProperties() {
+    List<Object> registry = create(false);
+    for (Object object : registry) {
+      if (object instanceof Player) {
+        Player player = (Player) object;
+        player.statusProperty();
+        player.avatarUrlProperty();
+        player.clanProperty();
+        player.countryProperty();
+      }
+    }
+    return registry;
+  }
+
+  private static List<Object> create(boolean requestProperties) {
+    List<Object> registry = new ArrayList<>(PLAYER_COUNT + GAME_COUNT);
+    for (int i = 0; i < PLAYER_COUNT; i++) {
+      Player player = new Player("player" + i);
+      player.setId(i);
+      player.setClan("clan" + (i % 100));
+      player.setCountry("DE");
+      player.setGlobalRatingMean(1500);
+      player.setGlobalRatingDeviation(100);
+      player.setLeaderboardRatingMean(1500);
+      player.setLeaderboardRatingDeviation(100);
+      player.setNumberOfGames(i);
+      if (requestProperties) {
+        player.idProperty();
+        player.usernameProperty();
+        player.clanProperty();
+        player.countryProperty();
+        player.avatarUrlProperty();
+        player.avatarTooltipProperty();
+        player.socialStatusProperty();
+        player.globalRatingMeanProperty();
+        player.globalRatingDeviationProperty();
+        player.leaderboardRatingMeanProperty();
+        player.leaderboardRatingDeviationProperty();
+        player.gameProperty();
+        player.numberOfGamesProperty();
+        player.idleSinceProperty();
+      }
+      registry.add(player);
+    }
+
+    for (int i = 0; i < GAME_COUNT; i++) {
+      Game game = new Game();
+      game.setId(i);
+      game.setHost("player" + i);
+      game.setTitle("game " + i);
+      game.setMapFolderName("scmp_009");
+      game.setFeaturedMod("faf");
+      game.setNumPlayers(4);
+      game.setMaxPlayers(8);
+      game.setStatus(GameStatus.OPEN);
+      game.getTeams().put("1", List.of("player" + i, "player" + (i + GAME_COUNT)));
+      if (requestProperties) {
+        game.idProperty();
+        game.hostProperty();
+        game.titleProperty();
+        game.mapFolderNameProperty();
+        game.featuredModProperty();
+        game.numPlayersProperty();
+        game.maxPlayersProperty();
+        game.averageRatingProperty();
+        game.minRatingProperty();
+        game.maxRatingProperty();
+        game.statusProperty();
+        game.victoryConditionProperty();
+        game.visibilityProperty();
+        game.passwordProtectedProperty();
+        game.passwordProperty();
+        game.startTimeProperty();
+        game.simModsProperty();
+        game.teamsProperty();
+        game.featuredModVersionsProperty();
+      }
+      registry.add(game);
+    }
+    return registry;
+  }
+}
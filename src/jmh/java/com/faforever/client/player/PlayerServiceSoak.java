@@ -0,0 +1,168 @@
+package com.faforever.client.player;
+
+import com.faforever.client.game.Game;
+import com.faforever.client.game.GameAddedEvent;
+import com.faforever.client.game.GameRemovedEvent;
+import com.faforever.client.remote.FafService;
+import com.faforever.client.remote.domain.GameStatus;
+import com.faforever.client.remote.domain.PlayersMessage;
+import com.faforever.client.user.UserService;
+import com.google.common.eventbus.EventBus;
+import javafx.application.Platform;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Soak test for the player registry. Replays lobby traffic through the {@link PlayerService} for the given number of
+ * minutes (default 60): players come online, play a game and go offline again, half of them announced by the server
+ * and half by leaving the chat. After every minute the heap is sampled after a GC and the harness fails if the
+ * registry holds more than the befriended players or if the heap grew by more than 10% since the first sample.
+ * <p>
+ * Run with {@code java -cp <jmh classpath> com.faforever.client.player.PlayerServiceSoak [minutes]}.
+ */
+public final class PlayerServiceSoak {
+
+  private static final int FRIEND_COUNT = 100;
+  private static final int PLAYERS_PER_ROUND = 500;
+  private static final int PLAYERS_PER_GAME = 8;
+  private static final double MAX_HEAP_GROWTH = 1.1;
+
+  private final PlayerService playerService;
+  private final Consumer<PlayersMessage> playersInfoListener;
+  private int nextPlayerId = FRIEND_COUNT;
+
+  @SuppressWarnings("unchecked")
+  private PlayerServiceSoak() {
+    FafService fafService = mock(FafService.class);
+    UserService userService = mock(UserService.class);
+    when(userService.getUsername()).thenReturn("soak");
+
+    playerService = new PlayerService(fafService, userService, new EventBus());
+    playerService.afterPropertiesSet();
+
+    ArgumentCaptor<Consumer<PlayersMessage>> captor = ArgumentCaptor.forClass(Consumer.class);
+    verify(fafService).addOnMessageListener(eq(PlayersMessage.class), captor.capture());
+    playersInfoListener = captor.getValue();
+
+    for (int id = 0; id < FRIEND_COUNT; id++) {
+      Player friend = playerService.createAndGetPlayerForUsername("friend" + id);
+      friend.setId(id);
+      playerService.addFriend(friend);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Duration duration = Duration.ofMinutes(args.length > 0 ? Long.parseLong(args[0]) : 60);
+    Platform.startup(() -> {
+    });
+    try {
+      new PlayerServiceSoak().run(duration);
+    } finally {
+      Platform.exit();
+    }
+  }
+
+  private void run(Duration duration) throws InterruptedException {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    Instant end = Instant.now().plus(duration);
+    Instant nextSample = Instant.now();
+    long firstHeapUsed = -1;
+    long rounds = 0;
+
+    while (Instant.now().isBefore(end)) {
+      replayRound(rounds++);
+
+      if (Instant.now().isAfter(nextSample)) {
+        nextSample = nextSample.plus(Duration.ofMinutes(1));
+        System.gc();
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        int playerCount = playerService.getOnlinePlayerCount();
+        System.out.printf("rounds: %d, players: %d, heap used: %d KB%n", rounds, playerCount, heapUsed / 1024);
+
+        if (firstHeapUsed < 0) {
+          firstHeapUsed = heapUsed;
+        }
+        if (playerCount != FRIEND_COUNT) {
+          throw new AssertionError("Expected " + FRIEND_COUNT + " players but registry holds " + playerCount);
+        }
+        if (heapUsed > firstHeapUsed * MAX_HEAP_GROWTH) {
+          throw new AssertionError("Heap grew from " + firstHeapUsed + " to " + heapUsed + " bytes");
+        }
+      }
+    }
+  }
+
+  private void replayRound(long round) throws InterruptedException {
+    List<com.faforever.client.remote.domain.Player> playerInfos = new ArrayList<>(PLAYERS_PER_ROUND + FRIEND_COUNT);
+    for (int i = 0; i < PLAYERS_PER_ROUND; i++) {
+      playerInfos.add(playerInfo(nextPlayerId++, "player" + round + "_" + i, null));
+    }
+    for (int id = 0; id < FRIEND_COUNT; id++) {
+      playerInfos.add(playerInfo(id, "friend" + id, null));
+    }
+    playersInfoListener.accept(playersMessage(playerInfos));
+    awaitFxThread();
+
+    List<Game> games = new ArrayList<>();
+    for (int i = 0; i < PLAYERS_PER_ROUND; i += PLAYERS_PER_GAME) {
+      Game game = new Game();
+      game.setId(i);
+      game.setStatus(GameStatus.OPEN);
+      game.setHost(playerInfos.get(i).getLogin());
+      for (int j = i; j < Math.min(i + PLAYERS_PER_GAME, PLAYERS_PER_ROUND); j++) {
+        game.getTeams().put(String.valueOf(j), List.of(playerInfos.get(j).getLogin()));
+      }
+      playerService.onGameAdded(new GameAddedEvent(game));
+      games.add(game);
+    }
+    games.forEach(game -> playerService.onGameRemoved(new GameRemovedEvent(game)));
+
+    List<com.faforever.client.remote.domain.Player> offlineInfos = new ArrayList<>(PLAYERS_PER_ROUND / 2 + FRIEND_COUNT);
+    for (int i = 0; i < PLAYERS_PER_ROUND; i++) {
+      com.faforever.client.remote.domain.Player playerInfo = playerInfos.get(i);
+      if (i % 2 == 0) {
+        offlineInfos.add(playerInfo(playerInfo.getId(), playerInfo.getLogin(), "offline"));
+      } else {
+        playerService.onUserOffline(new UserOfflineEvent(playerInfo.getLogin()));
+      }
+    }
+    for (int id = 0; id < FRIEND_COUNT; id++) {
+      offlineInfos.add(playerInfo(id, "friend" + id, "offline"));
+    }
+    playersInfoListener.accept(playersMessage(offlineInfos));
+    awaitFxThread();
+  }
+
+  private static void awaitFxThread() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    Platform.runLater(latch::countDown);
+    latch.await();
+  }
+
+  private static PlayersMessage playersMessage(List<com.faforever.client.remote.domain.Player> players) {
+    PlayersMessage playersMessage = new PlayersMessage();
+    playersMessage.setPlayers(players);
+    return playersMessage;
+  }
+
+  private static com.faforever.client.remote.domain.Player playerInfo(int id, String login, String state) {
+    com.faforever.client.remote.domain.Player player = new com.faforever.client.remote.domain.Player();
+    player.setId(id);
+    player.setLogin(login);
+    player.setState(state);
+    return player;
+  }
+}
@@ -0,0 +1,125 @@
+package com.faforever.client.rating;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.TrueSkill;
+import com.faforever.client.game.Game;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
+import com.faforever.client.replay.Replay;
+import com.faforever.client.replay.Replay.PlayerStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the match quality evaluation of replays and live games with two teams of 2 to 8 players. The uncached
+ * replay variant is what every replay card used to calculate while rendering. The recalculated game variant changes a
+ * rating before every evaluation, so the cached quality can't be used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JSkillsRatingServiceBenchmark {
+
+  @Param({"2", "3", "4", "5", "6", "7", "8"})
+  private int teamSize;
+
+  private JSkillsRatingService instance;
+  private ExecutorService executorService;
+  private Replay uncachedReplay;
+  private Replay cachedReplay;
+  private Game game;
+  private Player changingPlayer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ClientProperties clientProperties = new ClientProperties();
+    TrueSkill trueSkill = clientProperties.getTrueSkill();
+    trueSkill.setInitialMean(1500);
+    trueSkill.setInitialStandardDeviation(500);
+    trueSkill.setBeta(240);
+    trueSkill.setDynamicFactor(10);
+    trueSkill.setDrawProbability(0.1f);
+
+    PlayerService playerService = mock(PlayerService.class, withSettings().stubOnly());
+    executorService = Executors.newSingleThreadExecutor();
+    instance = new JSkillsRatingService(clientProperties, playerService, executorService);
+
+    uncachedReplay = new Replay();
+    cachedReplay = new Replay();
+    cachedReplay.setId(1);
+    game = new Game();
+    game.setId(1);
+
+    int playerId = 0;
+    for (int team = 2; team <= 3; team++) {
+      List<PlayerStats> playerStats = new ArrayList<>();
+      List<String> playerNames = new ArrayList<>();
+      for (int i = 0; i < teamSize; i++) {
+        double mean = 1200 + (playerId * 97) % 600;
+        playerStats.add(new PlayerStats(playerId, mean, 100, null, null, 0, null));
+
+        Player player = new Player("player" + playerId);
+        player.setGlobalRatingMean((float) mean);
+        player.setGlobalRatingDeviation(100);
+        when(playerService.getPlayerForUsername(player.getUsername())).thenReturn(Optional.of(player));
+        playerNames.add(player.getUsername());
+        changingPlayer = player;
+        playerId++;
+      }
+      uncachedReplay.getTeamPlayerStats().put(String.valueOf(team), playerStats);
+      cachedReplay.getTeamPlayerStats().put(String.valueOf(team), playerStats);
+      game.getTeams().put(String.valueOf(team), playerNames);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Benchmark
+  public double replayQualityUncached() {
+    return instance.calculateQuality(uncachedReplay);
+  }
+
+  @Benchmark
+  public double replayQualityCached() {
+    return instance.calculateQuality(cachedReplay);
+  }
+
+  @Benchmark
+  public double gameQualityCached() {
+    return instance.calculateQuality(game);
+  }
+
+  @Benchmark
+  public double gameQualityRecalculated() {
+    changingPlayer.setGlobalRatingDeviation(changingPlayer.getGlobalRatingDeviation() == 100 ? 101 : 100);
+    return instance.calculateQuality(game);
+  }
+}
@@ -0,0 +1,124 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.fa.relay.GpgClientMessageSerializer;
+import com.faforever.client.fa.relay.GpgGameMessage;
+import com.faforever.client.remote.domain.ClientMessage;
+import com.faforever.client.remote.domain.ListPersonalAvatarsMessage;
+import com.faforever.client.remote.domain.SerializableMessage;
+import com.faforever.client.remote.io.QDataWriter;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of serializing outbound messages, most of which are GPGNet messages relayed from the game while in
+ * a lobby. The baseline is how messages were written before, through a {@link StringWriter} and two {@link
+ * ByteArrayOutputStream}s per message. Run with {@code -prof gc} to see the allocation rate per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServerWriterBenchmark {
+
+  private ServerWriter serverWriter;
+  private LegacyServerWriter legacyServerWriter;
+  private GpgGameMessage gpgGameMessage;
+  private ListPersonalAvatarsMessage clientMessage;
+
+  @Setup
+  public void setUp() {
+    serverWriter = new ServerWriter(OutputStream.nullOutputStream());
+    serverWriter.registerMessageSerializer(new ClientMessageSerializer(), ClientMessage.class);
+    serverWriter.registerMessageSerializer(new GpgClientMessageSerializer(), GpgGameMessage.class);
+    legacyServerWriter = new LegacyServerWriter(OutputStream.nullOutputStream(), new GpgClientMessageSerializer());
+
+    gpgGameMessage = new GpgGameMessage("GameOption", List.of("ScenarioFile", "/maps/scmp_009/scmp_009_scenario.lua"));
+    clientMessage = new ListPersonalAvatarsMessage();
+  }
+
+  @Benchmark
+  public void writeGpgGameMessage() {
+    serverWriter.write(gpgGameMessage);
+  }
+
+  @Benchmark
+  public void writeGpgGameMessageLegacy() throws IOException {
+    legacyServerWriter.write(gpgGameMessage);
+  }
+
+  @Benchmark
+  public void writeClientMessage() {
+    serverWriter.write(clientMessage);
+  }
+
+  /**
+   * Writes messages the way {@link ServerWriter} and {@link JsonMessageSerializer} did before messages were encoded
+   * into a reusable buffer.
+   */
+  private static class LegacyServerWriter {
+    private final QDataWriter qDataWriter;
+    private final Gson gson;
+
+    private LegacyServerWriter(OutputStream outputStream, JsonMessageSerializer<?> typeAdapterSource) {
+      qDataWriter = new QDataWriter(new BufferedOutputStream(outputStream));
+      GsonBuilder gsonBuilder = new GsonBuilder()
+          .disableHtmlEscaping()
+          .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
+      typeAdapterSource.addTypeAdapters(gsonBuilder);
+      gson = gsonBuilder.create();
+    }
+
+    private void write(SerializableMessage message) throws IOException {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      Writer jsonStringWriter = new StringWriter();
+      gson.toJson(message, message.getClass(), fixedJsonWriter(jsonStringWriter));
+      QDataWriter messageWriter = new QDataWriter(byteArrayOutputStream);
+      messageWriter.append(jsonStringWriter.toString());
+      outputStream.write(byteArrayOutputStream.toByteArray());
+
+      synchronized (qDataWriter) {
+        qDataWriter.appendWithSize(outputStream.toByteArray());
+        qDataWriter.flush();
+      }
+    }
+
+    private static JsonWriter fixedJsonWriter(Writer writer) {
+      try {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setSerializeNulls(false);
+        Field separatorField = JsonWriter.class.getDeclaredField("separator");
+        separatorField.setAccessible(true);
+        separatorField.set(jsonWriter, ": ");
+        return jsonWriter;
+      } catch (NoSuchFieldException | IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
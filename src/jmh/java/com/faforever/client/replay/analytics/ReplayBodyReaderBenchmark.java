@@ -0,0 +1,50 @@
+package com.faforever.client.replay.analytics;
+
+import com.faforever.client.replay.ReplayFileReaderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many replay bodies {@link ReplayBodyReader} parses per second, which bounds how fast {@link
+ * ReplayAnalyticsService} gets through the local replay library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplayBodyReaderBenchmark {
+
+  private byte[] replayData;
+
+  @Setup
+  public void setUp() throws IOException {
+    Path replayFile = Files.createTempFile("benchmark", ".fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, replayFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    replayData = new ReplayFileReaderImpl().readRawReplayData(replayFile);
+    Files.delete(replayFile);
+  }
+
+  @Benchmark
+  public ReplayStatistics read() throws IOException {
+    return ReplayBodyReader.read(replayData);
+  }
+}
@@ -0,0 +1,98 @@
+package com.faforever.client.util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link MapUtil#updateMap(Map, Map)} with the {@code clear()} and {@code putAll()} it replaced, applied to
+ * the observable teams map of an 8v8 lobby with a listener attached. Each game info carries freshly deserialized but
+ * mostly equal teams, so one variant applies unchanged teams and one variant two players swapping slots. Run with
+ * {@code -prof gc} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapUtilBenchmark {
+
+  private static final int TEAM_SIZE = 8;
+
+  private ObservableMap<String, List<String>> teams;
+  private Map<String, List<String>> unchangedTeams;
+  private Map<String, List<String>> swappedTeams;
+  private boolean swapped;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    teams = FXCollections.observableHashMap();
+    teams.addListener((MapChangeListener<String, List<String>>) blackhole::consume);
+    unchangedTeams = createTeams(false);
+    swappedTeams = createTeams(true);
+    teams.putAll(createTeams(false));
+  }
+
+  @Benchmark
+  public ObservableMap<String, List<String>> clearAndPutAllUnchanged() {
+    teams.clear();
+    teams.putAll(unchangedTeams);
+    return teams;
+  }
+
+  @Benchmark
+  public boolean updateMapUnchanged() {
+    return MapUtil.updateMap(teams, unchangedTeams);
+  }
+
+  @Benchmark
+  public ObservableMap<String, List<String>> clearAndPutAllSwapped() {
+    teams.clear();
+    teams.putAll(nextTeams());
+    return teams;
+  }
+
+  @Benchmark
+  public boolean updateMapSwapped() {
+    return MapUtil.updateMap(teams, nextTeams());
+  }
+
+  private Map<String, List<String>> nextTeams() {
+    swapped = !swapped;
+    return swapped ? swappedTeams : unchangedTeams;
+  }
+
+  private static Map<String, List<String>> createTeams(boolean swapped) {
+    Map<String, List<String>> teams = new HashMap<>();
+    for (int team = 2; team <= 3; team++) {
+      List<String> players = new ArrayList<>();
+      for (int i = 0; i < TEAM_SIZE; i++) {
+        players.add("player" + team + "_" + i);
+      }
+      teams.put(String.valueOf(team), players);
+    }
+    if (swapped) {
+      String player = teams.get("2").set(0, teams.get("3").get(0));
+      teams.get("3").set(0, player);
+    }
+    return teams;
+  }
+}
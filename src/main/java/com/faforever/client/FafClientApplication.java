@@ -5,6 +5,10 @@ import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.main.MainController;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.startup.MainWindowShownEvent;
+import com.faforever.client.startup.StartupTracer;
+import com.faforever.client.startup.StartupTracer.Span;
+import com.faforever.client.startup.StartupTracingBeanPostProcessor;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.ui.StageHolder;
 import com.faforever.client.ui.taskbar.WindowsTaskbarProgressUpdater;
@@ -12,6 +16,7 @@ import com.faforever.client.util.WindowsUtil;
 import com.github.nocatch.NoCatch.NoCatchRunnable;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
@@ -35,6 +40,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import static com.github.nocatch.NoCatch.noCatch;
@@ -52,7 +58,9 @@ public class FafClientApplication extends Application {
   public static final String PROFILE_LINUX = "linux";
   public static final String PROFILE_MAC = "mac";
   public static final int EXIT_STATUS_RAN_AS_ADMIN = 3;
+  private static final String STARTUP_REPORT_FILE_NAME = "startup-report.txt";
 
+  private final StartupTracer startupTracer = new StartupTracer();
   private ConfigurableApplicationContext applicationContext;
 
   public static void applicationMain(String[] args) {
@@ -91,18 +99,28 @@ public class FafClientApplication extends Application {
     Font.loadFont(FafClientApplication.class.getResourceAsStream("/font/dfc-icons.ttf"), 10);
     JavaFxUtil.fixTooltipDuration();
 
-    applicationContext = new SpringApplicationBuilder(FafClientApplication.class)
-        .profiles(getAdditionalProfiles())
-        .bannerMode(Mode.OFF)
-        .run(getParameters().getRaw().toArray(new String[0]));
+    try (Span span = startupTracer.start("phase", "springContext")) {
+      applicationContext = new SpringApplicationBuilder(FafClientApplication.class)
+          .profiles(getAdditionalProfiles())
+          .bannerMode(Mode.OFF)
+          .initializers(context -> {
+            context.getBeanFactory().registerSingleton("startupTracer", startupTracer);
+            context.getBeanFactory().addBeanPostProcessor(new StartupTracingBeanPostProcessor(startupTracer));
+          })
+          .run(getParameters().getRaw().toArray(new String[0]));
+    }
+    startupTracer.milestone("springContextStarted");
   }
 
   @Override
   public void start(Stage stage) {
     StageHolder.setStage(stage);
     stage.initStyle(StageStyle.UNDECORATED);
-    showMainWindow();
+    try (Span span = startupTracer.start("phase", "showMainWindow")) {
+      showMainWindow();
+    }
     JavaFxUtil.fixJDK8089296();
+    onFirstFrame(stage.getScene(), this::onMainWindowShown);
 
     // TODO publish event instead
     if (!applicationContext.getBeansOfType(WindowsTaskbarProgressUpdater.class).isEmpty()) {
@@ -110,6 +128,28 @@ public class FafClientApplication extends Application {
     }
   }
 
+  /**
+   * Runs the specified action once the scene has been laid out and rendered for the first time.
+   */
+  private static void onFirstFrame(Scene scene, Runnable action) {
+    scene.addPostLayoutPulseListener(new Runnable() {
+      @Override
+      public void run() {
+        scene.removePostLayoutPulseListener(this);
+        Platform.runLater(action);
+      }
+    });
+  }
+
+  private void onMainWindowShown() {
+    startupTracer.milestone("loginWindowInteractive");
+    applicationContext.publishEvent(new MainWindowShownEvent());
+
+    PreferencesService preferencesService = applicationContext.getBean(PreferencesService.class);
+    applicationContext.getBean(ExecutorService.class).execute(() ->
+        startupTracer.finish(preferencesService.getFafLogDirectory().resolve(STARTUP_REPORT_FILE_NAME)));
+  }
+
   @Bean
   public PlatformService platformService() {
     return new PlatformService(getHostServices());
@@ -26,10 +26,10 @@ import com.faforever.client.game.KnownFeaturedMod;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
-import com.faforever.commons.io.ByteCountListener;
+import org.springframework.core.io.Resource;
 
 import java.io.IOException;
-import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -73,9 +73,9 @@ public interface FafApiAccessor {
 
   List<Game> getLastGamesOnMap(int playerId, String mapVersionId, int count);
 
-  void uploadMod(Path file, ByteCountListener listener);
+  void uploadMod(Resource zipFile);
 
-  void uploadMap(Path file, boolean isRanked, ByteCountListener listener) throws IOException;
+  void uploadMap(Resource zipFile, boolean isRanked) throws IOException;
 
   List<CoopMission> getCoopMissions();
 
@@ -117,6 +117,15 @@ public interface FafApiAccessor {
 
   List<Map> findMapsByQuery(SearchConfig searchConfig, int page, int count);
 
+  List<Map> findMapsByIds(List<String> ids);
+
+  /**
+   * Returns maps, including hidden ones, that have been updated at or after the specified time, oldest update first
+   * and then by ID. Entities updated exactly at the specified time are included, since more entities might have been
+   * updated at the same time after the last sync; callers need to deduplicate them by ID.
+   */
+  List<Map> getMapsUpdatedSince(OffsetDateTime since, int page, int count);
+
   Optional<MapVersion> findMapVersionById(String id);
 
   void deleteMapVersionReview(String id);
@@ -127,6 +136,15 @@ public interface FafApiAccessor {
 
   List<Mod> findModsByQuery(SearchConfig query, int page, int maxResults);
 
+  List<Mod> findModsByIds(List<String> ids);
+
+  /**
+   * Returns mods, including hidden ones, that have been updated at or after the specified time, oldest update first
+   * and then by ID. Entities updated exactly at the specified time are included, since more entities might have been
+   * updated at the same time after the last sync; callers need to deduplicate them by ID.
+   */
+  List<Mod> getModsUpdatedSince(OffsetDateTime since, int page, int count);
+
   List<Ladder1v1Map> getLadder1v1Maps(int count, int page);
 
   List<Tournament> getAllTournaments();
@@ -29,13 +29,11 @@ import com.faforever.client.config.CacheNames;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Api;
 import com.faforever.client.game.KnownFeaturedMod;
-import com.faforever.client.io.CountingFileSystemResource;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.user.event.LoggedOutEvent;
 import com.faforever.client.user.event.LoginSuccessEvent;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
-import com.faforever.commons.io.ByteCountListener;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
 import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
 import com.github.rutledgepaulv.qbuilders.conditions.Condition;
@@ -51,6 +49,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
@@ -65,7 +64,7 @@ import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.Serializable;
-import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -88,6 +87,8 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   private static final String COOP_RESULT_INCLUDES = "game.playerStats.player";
   private static final String PLAYER_INCLUDES = "globalRating,ladder1v1Rating,names";
   private static final String MOD_ENDPOINT = "/data/mod";
+  private static final String MAP_INCLUDES = "latestVersion,latestVersion.reviews,latestVersion.reviews.player,author,statistics,latestVersion.reviewsSummary";
+  private static final String MOD_INCLUDES = "latestVersion,latestVersion.reviews,latestVersion.reviews.player,latestVersion.reviewsSummary";
   private static final String OAUTH_TOKEN_PATH = "/oauth/token";
 
   private final EventBus eventBus;
@@ -274,14 +275,14 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   }
 
   @Override
-  public void uploadMod(Path file, ByteCountListener listener) {
-    MultiValueMap<String, Object> multipartContent = createFileMultipart(file, listener);
+  public void uploadMod(Resource zipFile) {
+    MultiValueMap<String, Object> multipartContent = createFileMultipart(zipFile);
     post("/mods/upload", multipartContent, false);
   }
 
   @Override
-  public void uploadMap(Path file, boolean isRanked, ByteCountListener listener) {
-    MultiValueMap<String, Object> multipartContent = createFileMultipart(file, listener);
+  public void uploadMap(Resource zipFile, boolean isRanked) {
+    MultiValueMap<String, Object> multipartContent = createFileMultipart(zipFile);
     multipartContent.add("metadata", ImmutableMap.of("isRanked", isRanked));
     post("/maps/upload", multipartContent, false);
   }
@@ -413,11 +414,30 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
     if (searchConfig.hasQuery()) {
       parameterMap.add("filter", searchConfig.getSearchQuery() + ";latestVersion.hidden==\"false\"");
     }
-    parameterMap.add("include", "latestVersion,latestVersion.reviews,latestVersion.reviews.player,latestVersion.reviewsSummary");
+    parameterMap.add("include", MOD_INCLUDES);
     parameterMap.add("sort", searchConfig.getSortConfig().toQuery());
     return getPage(MOD_ENDPOINT, count, page, parameterMap);
   }
 
+  @Override
+  public List<Mod> findModsByIds(List<String> ids) {
+    return getMany(MOD_ENDPOINT, ids.size(), ImmutableMap.of(
+        "filter", rsql(qBuilder().string("id").in(ids)),
+        "include", MOD_INCLUDES
+    ));
+  }
+
+  @Override
+  public List<Mod> getModsUpdatedSince(OffsetDateTime since, int page, int count) {
+    return getPage(MOD_ENDPOINT, count, page, ImmutableMap.of(
+        "filter", rsql(qBuilder().instant("updateTime").after(since.toInstant(), false)
+            .or().instant("latestVersion.updateTime").after(since.toInstant(), false)),
+        "include", "latestVersion,latestVersion.reviewsSummary,uploader",
+        // Sorted by ID as well, so that entities with the same update time keep their order across pages
+        "sort", "updateTime,id"
+    ));
+  }
+
   @Override
   public void deleteModVersionReview(String id) {
     delete("/data/modVersionReview/" + id);
@@ -472,11 +492,30 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
     if (searchConfig.hasQuery()) {
       parameterMap.add("filter", searchConfig.getSearchQuery() + ";latestVersion.hidden==\"false\"");
     }
-    parameterMap.add("include", "latestVersion,latestVersion.reviews,latestVersion.reviews.player,author,statistics,latestVersion.reviewsSummary");
+    parameterMap.add("include", MAP_INCLUDES);
     parameterMap.add("sort", searchConfig.getSortConfig().toQuery());
     return getPage(MAP_ENDPOINT, count, page, parameterMap);
   }
 
+  @Override
+  public List<Map> findMapsByIds(List<String> ids) {
+    return getMany(MAP_ENDPOINT, ids.size(), ImmutableMap.of(
+        "filter", rsql(qBuilder().string("id").in(ids)),
+        "include", MAP_INCLUDES
+    ));
+  }
+
+  @Override
+  public List<Map> getMapsUpdatedSince(OffsetDateTime since, int page, int count) {
+    return getPage(MAP_ENDPOINT, count, page, ImmutableMap.of(
+        "filter", rsql(qBuilder().instant("updateTime").after(since.toInstant(), false)
+            .or().instant("latestVersion.updateTime").after(since.toInstant(), false)),
+        "include", "latestVersion,author,statistics",
+        // Sorted by ID as well, so that entities with the same update time keep their order across pages
+        "sort", "updateTime,id"
+    ));
+  }
+
   @Override
   public Optional<MapVersion> findMapVersionById(String id) {
     // FIXME: that is not gonna work this way
@@ -535,9 +574,9 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   }
 
   @NotNull
-  private MultiValueMap<String, Object> createFileMultipart(Path file, ByteCountListener listener) {
+  private MultiValueMap<String, Object> createFileMultipart(Resource file) {
     MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
-    form.add("file", new CountingFileSystemResource(file, listener));
+    form.add("file", file);
     return form;
   }
 
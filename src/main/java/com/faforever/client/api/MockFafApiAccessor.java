@@ -29,12 +29,11 @@ import com.faforever.client.game.KnownFeaturedMod;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
-import com.faforever.commons.io.ByteCountListener;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collection;
@@ -153,12 +152,12 @@ public class MockFafApiAccessor implements FafApiAccessor {
   }
 
   @Override
-  public void uploadMod(Path file, ByteCountListener listener) {
+  public void uploadMod(Resource zipFile) {
 
   }
 
   @Override
-  public void uploadMap(Path file, boolean isRanked, ByteCountListener listener) {
+  public void uploadMap(Resource zipFile, boolean isRanked) {
 
   }
 
@@ -252,6 +251,16 @@ public class MockFafApiAccessor implements FafApiAccessor {
     return Collections.emptyList();
   }
 
+  @Override
+  public List<Map> findMapsByIds(List<String> ids) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Map> getMapsUpdatedSince(OffsetDateTime since, int page, int count) {
+    return Collections.emptyList();
+  }
+
   @Override
   public Optional<MapVersion> findMapVersionById(String id) {
     return Optional.empty();
@@ -277,6 +286,16 @@ public class MockFafApiAccessor implements FafApiAccessor {
     return Collections.emptyList();
   }
 
+  @Override
+  public List<Mod> findModsByIds(List<String> ids) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Mod> getModsUpdatedSince(OffsetDateTime since, int page, int count) {
+    return Collections.emptyList();
+  }
+
   @Override
   public List<Ladder1v1Map> getLadder1v1Maps(int count, int page) {
     return Collections.emptyList();
@@ -1,6 +1,7 @@
 package com.faforever.client.chat;
 
 import com.faforever.client.audio.AudioService;
+import com.faforever.client.chat.ChatLog.Position;
 import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.fx.WebViewConfigurer;
@@ -25,6 +26,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.eventbus.EventBus;
 import com.google.common.io.CharStreams;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -46,6 +48,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import netscape.javascript.JSObject;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
@@ -60,10 +63,13 @@ import java.io.Reader;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -110,6 +116,17 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
    */
   private static final String ACTION_CSS_CLASS = "action";
   private static final String MESSAGE_CSS_CLASS = "message";
+  /**
+   * How long a tab has to be in background before its web view is unloaded. Until the tab is selected again, its
+   * messages are only kept in {@link #messageHistory}.
+   */
+  private static final Duration HIBERNATION_DELAY = Duration.minutes(1);
+  /** The number of older messages that are loaded from the chat log whenever the user scrolls to the top. */
+  private static final int HISTORY_PAGE_SIZE = 100;
+  /** The maximum number of matches that are returned when searching the chat log. */
+  private static final int LOG_SEARCH_RESULT_LIMIT = 100;
+  /** The name under which the {@link ChatTabCallback} is accessible from JavaScript. */
+  private static final String CHAT_TAB_REFERENCE_IN_JAVASCRIPT = "chatTab";
   protected final UserService userService;
   protected final ChatService chatService;
   protected final PreferencesService preferencesService;
@@ -124,18 +141,32 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   protected final WebViewConfigurer webViewConfigurer;
   private final ImageUploadService imageUploadService;
   private final CountryFlagService countryFlagService;
+  private final ChatLogService chatLogService;
 
   /**
-   * Messages that arrived before the web view was ready. Those are appended as soon as it is ready.
+   * The most recent messages, at most as many as the web view displays. Whenever the web view has been (re)loaded, it's
+   * populated from this history, so messages that arrive while it's not ready don't get lost.
    */
-  private final List<ChatMessage> waitingMessages;
+  private final Deque<ChatMessage> messageHistory;
   private final IntegerProperty unreadMessagesCount;
   private final ChangeListener<Boolean> resetUnreadMessagesListener;
   private final ChangeListener<Number> zoomChangeListener;
   private final ChangeListener<Boolean> tabPaneFocusedListener;
   private final ChangeListener<Boolean> stageFocusedListener;
+  /** Referenced here since the web view only references it weakly. */
+  private final ChatTabCallback chatTabCallback;
   private int lastEntryId;
   private boolean isChatReady;
+  /** Whether the web view's content has been unloaded because the tab is in background. */
+  private boolean hibernated;
+  @VisibleForTesting
+  PauseTransition hibernationTimer;
+  /** The number of pages of older messages that have been loaded from the chat log and are displayed above the others. */
+  private int historyPageCount;
+  /** Where to continue reading older messages from the chat log, or {@code null} if no page has been loaded yet. */
+  private Position historyPosition;
+  private boolean loadingHistoryPage;
+  private boolean historyExhausted;
   /**
    * Either a channel like "#aeolus" or a user like "Visionik".
    */
@@ -153,7 +184,8 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
                                    TimeService timeService, I18n i18n,
                                    ImageUploadService imageUploadService,
                                    NotificationService notificationService, ReportingService reportingService, UiService uiService,
-                                   EventBus eventBus, CountryFlagService countryFlagService) {
+                                   EventBus eventBus, CountryFlagService countryFlagService,
+                                   ChatLogService chatLogService) {
 
     this.webViewConfigurer = webViewConfigurer;
     this.uiService = uiService;
@@ -169,8 +201,10 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     this.reportingService = reportingService;
     this.eventBus = eventBus;
     this.countryFlagService = countryFlagService;
+    this.chatLogService = chatLogService;
 
-    waitingMessages = new ArrayList<>();
+    messageHistory = new ArrayDeque<>();
+    chatTabCallback = new ChatTabCallback(this::loadOlderMessages);
     unreadMessagesCount = new SimpleIntegerProperty();
     resetUnreadMessagesListener = (observable, oldValue, newValue) -> {
       if (hasFocus()) {
@@ -258,6 +292,7 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
 
     addFocusListeners();
     addImagePasteListener();
+    configureHibernation();
 
     unreadMessagesCount.addListener((observable, oldValue, newValue) -> chatService.incrementUnreadMessagesCount(newValue.intValue() - oldValue.intValue()));
     JavaFxUtil.addListener(StageHolder.getStage().focusedProperty(), new WeakChangeListener<>(resetUnreadMessagesListener));
@@ -292,6 +327,60 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     });
   }
 
+  private void configureHibernation() {
+    hibernationTimer = new PauseTransition(HIBERNATION_DELAY);
+    hibernationTimer.setOnFinished(event -> hibernate());
+
+    JavaFxUtil.addListener(getRoot().selectedProperty(), (observable, oldValue, newValue) -> {
+      if (newValue) {
+        hibernationTimer.stop();
+        wakeUp();
+      } else {
+        hibernationTimer.playFromStart();
+      }
+    });
+    if (!getRoot().isSelected()) {
+      hibernationTimer.playFromStart();
+    }
+  }
+
+  /**
+   * Unloads the web view's content, which is by far the biggest part of a chat tab's memory footprint. Incoming
+   * messages are then only added to the message history.
+   */
+  private void hibernate() {
+    JavaFxUtil.assertApplicationThread();
+    if (hibernated || getRoot().isSelected()) {
+      return;
+    }
+    logger.debug("Hibernating chat tab '{}'", receiver);
+    synchronized (messageHistory) {
+      isChatReady = false;
+      hibernated = true;
+    }
+    engine.loadContent("");
+  }
+
+  @VisibleForTesting
+  boolean isHibernated() {
+    return hibernated;
+  }
+
+  /**
+   * Reloads the web view's content, which is then populated from the message history.
+   */
+  private void wakeUp() {
+    JavaFxUtil.assertApplicationThread();
+    if (!hibernated) {
+      return;
+    }
+    logger.debug("Waking up chat tab '{}'", receiver);
+    hibernated = false;
+    lastMessage = null;
+    lastEntryId = 0;
+    loadChatContainer();
+  }
+
   private void addImagePasteListener() {
     TextInputControl messageTextField = messageTextField();
     messageTextField.setOnKeyReleased(event -> {
@@ -369,15 +458,17 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
 
   private void configureLoadListener() {
     JavaFxUtil.addListener(engine.getLoadWorker().stateProperty(), (observable, oldValue, newValue) -> {
-      if (newValue != Worker.State.SUCCEEDED) {
+      if (newValue != Worker.State.SUCCEEDED || hibernated) {
         return;
       }
-      synchronized (waitingMessages) {
-        waitingMessages.forEach(AbstractChatTabController.this::addMessage);
-        waitingMessages.clear();
+      resetHistoryPages();
+      getJsObject().setMember(CHAT_TAB_REFERENCE_IN_JAVASCRIPT, chatTabCallback);
+      synchronized (messageHistory) {
+        messageHistory.forEach(AbstractChatTabController.this::addMessage);
         isChatReady = true;
         onWebViewLoaded();
       }
+      scrollToBottomIfDesired();
     });
   }
 
@@ -387,6 +478,17 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     return (JSObject) engine.executeScript("window");
   }
 
+  /**
+   * Calls the specified JavaScript function of the chat container, unless the web view isn't ready or has been unloaded.
+   * In that case the call is skipped, since the content is rendered according to the current state once it's loaded.
+   */
+  protected void callJsFunction(String functionName, Object... arguments) {
+    if (!isChatReady) {
+      return;
+    }
+    getJsObject().call(functionName, arguments);
+  }
+
   protected void onWebViewLoaded() {
     // Default implementation does nothing, can be overridden by subclass.
   }
@@ -454,16 +556,43 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   }
 
   protected void onChatMessage(ChatMessage chatMessage) {
-    synchronized (waitingMessages) {
-      if (!isChatReady) {
-        waitingMessages.add(chatMessage);
-      } else {
-        Platform.runLater(() -> {
-          addMessage(chatMessage);
-          removeTopmostMessages();
-          scrollToBottomIfDesired();
-        });
+    chatLogService.append(receiver, chatMessage);
+
+    boolean render;
+    synchronized (messageHistory) {
+      messageHistory.addLast(chatMessage);
+      int maxMessages = preferencesService.getPreferences().getChat().getMaxMessages();
+      while (messageHistory.size() > maxMessages) {
+        messageHistory.removeFirst();
       }
+      // Otherwise, the message is rendered from the history as soon as the web view has been loaded
+      render = isChatReady;
+    }
+
+    Platform.runLater(() -> {
+      if (render && isChatReady) {
+        addMessage(chatMessage);
+        removeTopmostMessages();
+        scrollToBottomIfDesired();
+      }
+      if (mentionPattern.matcher(chatMessage.getMessage()).find()) {
+        onMention(chatMessage);
+      }
+    });
+  }
+
+  /**
+   * Searches the whole chat log of this tab, not only the displayed messages, and returns the most recent matches
+   * first.
+   */
+  protected CompletableFuture<List<ChatMessage>> searchChatLog(String text) {
+    return chatLogService.search(receiver, text, LOG_SEARCH_RESULT_LIMIT);
+  }
+
+  @VisibleForTesting
+  List<ChatMessage> getMessageHistory() {
+    synchronized (messageHistory) {
+      return new ArrayList<>(messageHistory);
     }
   }
 
@@ -472,6 +601,15 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   }
 
   private void removeTopmostMessages() {
+    if (historyPageCount > 0) {
+      if (!(Boolean) engine.executeScript("isScrolledToBottom")) {
+        // The user is reading older messages, don't pull them away
+        return;
+      }
+      engine.executeScript("removeHistoryPages()");
+      resetHistoryPages();
+    }
+
     int maxMessageItems = preferencesService.getPreferences().getChat().getMaxMessages();
 
     int numberOfMessages = (int) engine.executeScript("document.getElementsByClassName('" + MESSAGE_ITEM_CLASS + "').length");
@@ -481,29 +619,91 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     }
   }
 
+  /**
+   * Called from JavaScript through the {@link ChatTabCallback} when the user scrolls to the top of the chat. Loads the
+   * next page of older messages from the chat log and inserts it above the displayed messages.
+   */
+  private void loadOlderMessages() {
+    JavaFxUtil.assertApplicationThread();
+    if (!isChatReady || loadingHistoryPage || historyExhausted) {
+      return;
+    }
+    loadingHistoryPage = true;
+
+    Instant oldestDisplayedMessageTime;
+    synchronized (messageHistory) {
+      oldestDisplayedMessageTime = messageHistory.isEmpty() ? null : messageHistory.getFirst().getTime();
+    }
+    chatLogService.readBefore(receiver, historyPosition, oldestDisplayedMessageTime, HISTORY_PAGE_SIZE)
+        .thenAccept(page -> Platform.runLater(() -> {
+          if (!loadingHistoryPage || !isChatReady) {
+            // The history pages have been reset in the meantime
+            return;
+          }
+          loadingHistoryPage = false;
+          historyPosition = page.getStart();
+          if (page.getMessages().isEmpty()) {
+            historyExhausted = true;
+            return;
+          }
+          prependHistoryPage(page.getMessages());
+        }))
+        .exceptionally(throwable -> {
+          logger.warn("Older messages of '{}' could not be loaded", receiver, throwable);
+          Platform.runLater(() -> loadingHistoryPage = false);
+          return null;
+        });
+  }
+
+  private void prependHistoryPage(List<ChatMessage> messages) {
+    String pageId = "chat-history-" + ++historyPageCount;
+    Object previousScrollHeight = engine.executeScript("prependHistoryPage('" + pageId + "')");
+
+    noCatch(() -> renderHistoryPage(messages, pageId));
+    engine.executeScript("restoreScrollPosition(" + previousScrollHeight + ")");
+  }
+
+  private void renderHistoryPage(List<ChatMessage> messages, String pageId) throws IOException {
+    ChatMessage previousMessage = null;
+    int sectionCount = 0;
+    for (ChatMessage chatMessage : messages) {
+      if (requiresNewChatSection(previousMessage, chatMessage)) {
+        appendChatMessageSection(chatMessage, pageId, pageId + "-" + ++sectionCount);
+      }
+      appendMessage(chatMessage, pageId + "-" + sectionCount);
+      previousMessage = chatMessage;
+    }
+  }
+
+  private void resetHistoryPages() {
+    historyPageCount = 0;
+    historyPosition = null;
+    loadingHistoryPage = false;
+    historyExhausted = false;
+  }
+
   /**
    * Either inserts a new chat entry or, if the same user as before sent another message, appends it do the previous
    * entry.
    */
   private void addMessage(ChatMessage chatMessage) {
     noCatch(() -> {
-      if (requiresNewChatSection(chatMessage)) {
-        appendChatMessageSection(chatMessage);
-      } else {
-        appendMessage(chatMessage);
+      if (requiresNewChatSection(lastMessage, chatMessage)) {
+        appendChatMessageSection(chatMessage, MESSAGE_CONTAINER_ID, String.valueOf(++lastEntryId));
       }
+      appendMessage(chatMessage, String.valueOf(lastEntryId));
       lastMessage = chatMessage;
     });
   }
 
-  private boolean requiresNewChatSection(ChatMessage chatMessage) {
-    return lastMessage == null
-        || !lastMessage.getUsername().equals(chatMessage.getUsername())
-        || lastMessage.getTime().isBefore(chatMessage.getTime().minus(1, MINUTES))
-        || lastMessage.isAction();
+  private boolean requiresNewChatSection(@Nullable ChatMessage previousMessage, ChatMessage chatMessage) {
+    return previousMessage == null
+        || !previousMessage.getUsername().equals(chatMessage.getUsername())
+        || previousMessage.getTime().isBefore(chatMessage.getTime().minus(1, MINUTES))
+        || previousMessage.isAction();
   }
 
-  private void appendMessage(ChatMessage chatMessage) throws IOException {
+  private void appendMessage(ChatMessage chatMessage, String sectionId) throws IOException {
     URL themeFileUrl;
     if (preferencesService.getPreferences().getChat().getChatFormat() == ChatFormat.COMPACT) {
       themeFileUrl = uiService.getThemeFileUrl(CHAT_TEXT_COMPACT);
@@ -513,10 +713,10 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
 
     String html = renderHtml(chatMessage, themeFileUrl, null);
 
-    insertIntoContainer(html, "chat-section-" + lastEntryId);
+    insertIntoContainer(html, "chat-section-" + sectionId);
   }
 
-  private void appendChatMessageSection(ChatMessage chatMessage) throws IOException {
+  private void appendChatMessageSection(ChatMessage chatMessage, String containerId, String sectionId) throws IOException {
     URL themeFileURL;
     if (preferencesService.getPreferences().getChat().getChatFormat() == ChatFormat.COMPACT) {
       themeFileURL = uiService.getThemeFileUrl(CHAT_SECTION_COMPACT);
@@ -524,12 +724,11 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
       themeFileURL = uiService.getThemeFileUrl(CHAT_SECTION_EXTENDED);
     }
 
-    String html = renderHtml(chatMessage, themeFileURL, ++lastEntryId);
-    insertIntoContainer(html, MESSAGE_CONTAINER_ID);
-    appendMessage(chatMessage);
+    String html = renderHtml(chatMessage, themeFileURL, sectionId);
+    insertIntoContainer(html, containerId);
   }
 
-  private String renderHtml(ChatMessage chatMessage, URL themeFileUrl, @Nullable Integer sectionId) throws IOException {
+  private String renderHtml(ChatMessage chatMessage, URL themeFileUrl, @Nullable String sectionId) throws IOException {
     String html;
     try (Reader reader = new InputStreamReader(themeFileUrl.openStream())) {
       html = CharStreams.toString(reader);
@@ -583,7 +782,6 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     Matcher matcher = mentionPattern.matcher(text);
     if (matcher.find()) {
       text = matcher.replaceAll("<span class='self'>" + matcher.group(1) + "</span>");
-      onMention(chatMessage);
     }
 
     return html
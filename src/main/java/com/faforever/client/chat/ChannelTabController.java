@@ -3,11 +3,12 @@ package com.faforever.client.chat;
 import com.faforever.client.audio.AudioService;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.fx.PlatformService;
+import com.faforever.client.fx.StringListCell;
 import com.faforever.client.fx.WebViewConfigurer;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.player.Player;
-import com.faforever.client.player.PlayerOnlineEvent;
+import com.faforever.client.player.PlayersChangedEvent;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.player.SocialStatus;
 import com.faforever.client.preferences.ChatPrefs;
@@ -55,11 +56,14 @@ import javafx.scene.web.WebView;
 import javafx.stage.Popup;
 import javafx.stage.PopupWindow;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -81,6 +85,7 @@ import static java.util.Locale.US;
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class ChannelTabController extends AbstractChatTabController {
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private static final String USER_CSS_CLASS_FORMAT = "user-%s";
 
   private static final Comparator<CategoryOrChatUserListItem> CHAT_USER_ITEM_COMPARATOR = (o1, o2) -> {
@@ -124,6 +129,9 @@ public class ChannelTabController extends AbstractChatTabController {
   /** Maps usernames to all chat user list items that belong to that user. */
   private final Map<String, List<CategoryOrChatUserListItem>> userNamesToListItems;
 
+  /** Indexes the usernames of {@link #userNamesToListItems} for auto completion and the user search. */
+  private final UserNameIndex userNameIndex;
+
   private final FilteredList<CategoryOrChatUserListItem> filteredChatUserList;
 
   /** The list of chat user (or category) items that backs the chat user list view. */
@@ -148,7 +156,13 @@ public class ChannelTabController extends AbstractChatTabController {
   public TextFlow topicText;
 
   private Channel channel;
+  /** The usernames that match the text of the user search field, or {@code null} if there's nothing to search for. */
+  private Set<String> usernameMatches;
   private Popup filterUserPopup;
+  /** Lists the matches of a chat log search below the search field, created on the first search. */
+  private Popup logSearchPopup;
+  @VisibleForTesting
+  ListView<ChatMessage> logSearchResults;
   private UserFilterController userFilterController;
   private MapChangeListener<String, ChatChannelUser> usersChangeListener;
   /** For a set of usernames. */
@@ -163,11 +177,12 @@ public class ChannelTabController extends AbstractChatTabController {
                               NotificationService notificationService, ReportingService reportingService,
                               UiService uiService, EventBus eventBus,
                               WebViewConfigurer webViewConfigurer,
-                              CountryFlagService countryFlagService, PlatformService platformService) {
+                              CountryFlagService countryFlagService, PlatformService platformService,
+                              ChatLogService chatLogService) {
 
     super(webViewConfigurer, userService, chatService, preferencesService, playerService, audioService,
         timeService, i18n, imageUploadService, notificationService, reportingService, uiService,
-        eventBus, countryFlagService);
+        eventBus, countryFlagService, chatLogService);
     this.platformService = platformService;
 
     hideFoeMessagesListeners = new HashMap<>();
@@ -176,15 +191,11 @@ public class ChannelTabController extends AbstractChatTabController {
     categoriesToUserListItems = new HashMap<>();
     categoriesToCategoryListItems = new HashMap<>();
     userNamesToListItems = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    userNameIndex = new UserNameIndex();
     chatUserListItems = FXCollections.observableArrayList();
     filteredChatUserList = new FilteredList<>(chatUserListItems);
 
-    autoCompletionHelper = new AutoCompletionHelper(
-        currentWord -> userNamesToListItems.keySet().stream()
-            .filter(playerName -> playerName.toLowerCase(US).startsWith(currentWord.toLowerCase()))
-            .sorted()
-            .collect(Collectors.toList())
-    );
+    autoCompletionHelper = new AutoCompletionHelper(userNameIndex::startingWith);
 
     chatColorModeChangeListener = (observable, oldValue, newValue) -> {
       if (newValue != DEFAULT) {
@@ -318,17 +329,16 @@ public class ChannelTabController extends AbstractChatTabController {
     Map<String, String> userToColor = new HashMap<>();
     channel.getUsers().stream().filter(chatUser -> chatUser.getColor() != null).forEach(chatUser
         -> userToColor.put(chatUser.getUsername(), JavaFxUtil.toRgbCode(chatUser.getColor())));
-    getJsObject().call("setAllMessageColors", new Gson().toJson(userToColor));
+    callJsFunction("setAllMessageColors", new Gson().toJson(userToColor));
   }
 
   private void removeAllMessageColors() {
-    getJsObject().call("removeAllMessageColors");
+    callJsFunction("removeAllMessageColors");
   }
 
   @VisibleForTesting
   boolean isUsernameMatch(ChatChannelUser user) {
-    String lowerCaseSearchString = user.getUsername().toLowerCase(US);
-    return lowerCaseSearchString.contains(userSearchTextField.getText().toLowerCase(US));
+    return usernameMatches == null || usernameMatches.contains(user.getUsername());
   }
 
   @Override
@@ -393,7 +403,7 @@ public class ChannelTabController extends AbstractChatTabController {
     if (chatUser.getColor() != null) {
       color = JavaFxUtil.toRgbCode(chatUser.getColor());
     }
-    getJsObject().call("updateUserMessageColor", chatUser.getUsername(), color);
+    callJsFunction("updateUserMessageColor", chatUser.getUsername(), color);
   }
 
   private void removeUserMessageClass(ChatChannelUser chatUser, String cssClass) {
@@ -413,25 +423,18 @@ public class ChannelTabController extends AbstractChatTabController {
   }
 
   private void addUserMessageClass(ChatChannelUser player, String cssClass) {
-    Platform.runLater(() -> getJsObject().call("addUserMessageClass", String.format(USER_CSS_CLASS_FORMAT, player.getUsername()), cssClass));
+    Platform.runLater(() -> callJsFunction("addUserMessageClass", String.format(USER_CSS_CLASS_FORMAT, player.getUsername()), cssClass));
   }
 
   private void updateUserMessageDisplay(ChatChannelUser chatUser, String display) {
-    Platform.runLater(() -> getJsObject().call("updateUserMessageDisplay", chatUser.getUsername(), display));
+    Platform.runLater(() -> callJsFunction("updateUserMessageDisplay", chatUser.getUsername(), display));
   }
 
   /** Filters by username "contains" case insensitive. */
   @SuppressWarnings("unchecked")
   private void filterChatUsers(String searchString) {
-    setUserFilter(listItem -> {
-      if (Strings.isNullOrEmpty(searchString)) {
-        return true;
-      }
-
-      ChatChannelUser user = listItem.getUser();
-
-      return listItem.getCategory() != null || user.getUsername().toLowerCase(US).contains(searchString.toLowerCase(US));
-    });
+    usernameMatches = Strings.isNullOrEmpty(searchString) ? null : userNameIndex.containing(searchString);
+    setUserFilter(listItem -> listItem.getCategory() != null || isUsernameMatch(listItem.getUser()));
   }
 
   private void associateChatUserWithPlayer(Player player, ChatChannelUser chatUser) {
@@ -468,7 +471,12 @@ public class ChannelTabController extends AbstractChatTabController {
 
   private void updateInChatUserList(ChatChannelUser chatUser) {
     Platform.runLater(() -> {
-      userNamesToListItems.computeIfAbsent(chatUser.getUsername(), s -> new ArrayList<>());
+      String username = chatUser.getUsername();
+      userNamesToListItems.computeIfAbsent(username, s -> new ArrayList<>());
+      userNameIndex.add(username);
+      if (usernameMatches != null && username.toLowerCase(US).contains(userSearchTextField.getText().toLowerCase(US))) {
+        usernameMatches.add(username);
+      }
       updateChatUserListItemsForCategories(chatUser);
     });
   }
@@ -566,6 +574,10 @@ public class ChannelTabController extends AbstractChatTabController {
       List<CategoryOrChatUserListItem> items = userNamesToListItems.get(username);
       List<CategoryOrChatUserListItem> listItemsToBeRemoved = userNamesToListItems.remove(username);
       chatUserListItems.removeAll(items);
+      userNameIndex.remove(username);
+      if (usernameMatches != null) {
+        usernameMatches.remove(username);
+      }
 
       hideFoeMessagesListeners.remove(username);
       socialStatusMessagesListeners.remove(username);
@@ -601,14 +613,54 @@ public class ChannelTabController extends AbstractChatTabController {
   public void onSearchFieldClose() {
     searchField.setVisible(false);
     searchField.clear();
+    if (logSearchPopup != null) {
+      logSearchPopup.hide();
+    }
+  }
+
+  /**
+   * Searches the channel's whole chat log for the text of the search field, since only the most recent messages are
+   * displayed and can be highlighted.
+   */
+  public void onSearchLog() {
+    String text = searchField.getText().trim();
+    if (text.isEmpty()) {
+      return;
+    }
+    searchChatLog(text)
+        .thenAccept(messages -> JavaFxUtil.runLater(() -> showLogSearchResults(messages)))
+        .exceptionally(throwable -> {
+          logger.warn("Chat log of '{}' could not be searched", channel.getName(), throwable);
+          return null;
+        });
+  }
+
+  private void showLogSearchResults(List<ChatMessage> messages) {
+    if (logSearchPopup == null) {
+      logSearchResults = new ListView<>();
+      logSearchResults.setPlaceholder(new Label(i18n.get("chat.logSearch.noResults")));
+      logSearchResults.setCellFactory(param -> new StringListCell<>(message -> i18n.get("chat.logSearch.result",
+          timeService.asDate(message.getTime()), timeService.asShortTime(message.getTime()),
+          message.getUsername(), message.getMessage())));
+
+      logSearchPopup = new Popup();
+      logSearchPopup.setAutoFix(false);
+      logSearchPopup.setAutoHide(true);
+      logSearchPopup.setAnchorLocation(PopupWindow.AnchorLocation.CONTENT_TOP_RIGHT);
+      logSearchPopup.getContent().setAll(logSearchResults);
+    }
+    logSearchResults.getItems().setAll(messages);
+
+    Bounds screenBounds = searchField.localToScreen(searchField.getBoundsInLocal());
+    logSearchPopup.show(searchField.getScene().getWindow(), screenBounds.getMaxX(), screenBounds.getMaxY());
   }
 
   private void addSearchFieldListener() {
     searchField.textProperty().addListener((observable, oldValue, newValue) -> {
       if (newValue.trim().isEmpty()) {
-        getJsObject().call("removeHighlight");
+        callJsFunction("removeHighlight");
       } else {
-        getJsObject().call("highlightText", newValue);
+        callJsFunction("highlightText", newValue);
       }
     });
   }
@@ -655,10 +707,14 @@ public class ChannelTabController extends AbstractChatTabController {
   }
 
   @Subscribe
-  public void onPlayerOnline(PlayerOnlineEvent event) {
+  public void onPlayersChanged(PlayersChangedEvent event) {
     // We could add a listener on chatChannelUser.playerProperty() but this would result in thousands of mostly idle
     // listeners which we're trying to avoid.
-    ChatChannelUser chatUser = chatService.getChatUser(event.getPlayer().getUsername(), channel.getName());
-    associateChatUserWithPlayer(event.getPlayer(), chatUser);
+    for (Player player : event.getPlayers()) {
+      ChatChannelUser chatUser = channel.getUser(player.getUsername());
+      if (chatUser != null) {
+        associateChatUserWithPlayer(player, chatUser);
+      }
+    }
   }
 }
@@ -0,0 +1,352 @@
+package com.faforever.client.chat;
+
+import com.google.common.io.CountingInputStream;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Locale.US;
+
+/**
+ * The append-only message log of a single channel or private chat. Messages are stored in one segment per (UTC) day,
+ * each consisting of a {@code .log} file with the records and an {@code .idx} file with the offset of each record, so
+ * that pages of messages can be read from the end of the log without reading the whole segment. The files of the
+ * segment that is currently appended to are kept open until {@link #close()} is called.
+ * <p>
+ * Instances are not thread safe.
+ */
+@Slf4j
+class ChatLog {
+
+  private static final String LOG_SUFFIX = ".log";
+  private static final String INDEX_SUFFIX = ".idx";
+  /** Searches read this many records of a segment at once, starting from its end. */
+  private static final int SEARCH_CHUNK_SIZE = 256;
+
+  private final Path directory;
+  private final String source;
+  /** The record offsets of the segments that have been accessed, by segment name. */
+  private final Map<String, List<Long>> offsetsBySegment;
+  /** The segment that {@link #logChannel} and {@link #indexChannel} belong to, or {@code null} if they're closed. */
+  private String appendSegment;
+  private FileChannel logChannel;
+  private FileChannel indexChannel;
+
+  ChatLog(Path directory, String source) {
+    this.directory = directory;
+    this.source = source;
+    offsetsBySegment = new HashMap<>();
+  }
+
+  private static String segmentName(Instant time) {
+    return LocalDate.ofInstant(time, ZoneOffset.UTC).toString();
+  }
+
+  void append(ChatMessage chatMessage) throws IOException {
+    String segment = segmentName(chatMessage.getTime());
+    List<Long> offsets = getOffsets(segment);
+
+    ByteArrayOutputStream record = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(record)) {
+      out.writeLong(chatMessage.getTime().toEpochMilli());
+      out.writeUTF(chatMessage.getUsername());
+      out.writeBoolean(chatMessage.isAction());
+      out.writeUTF(chatMessage.getMessage());
+    }
+
+    if (!segment.equals(appendSegment)) {
+      close();
+      Files.createDirectories(directory);
+      logChannel = FileChannel.open(directory.resolve(segment + LOG_SUFFIX), CREATE, WRITE, APPEND);
+      indexChannel = FileChannel.open(directory.resolve(segment + INDEX_SUFFIX), CREATE, WRITE, APPEND);
+      appendSegment = segment;
+    }
+
+    try {
+      long offset = logChannel.size();
+      logChannel.write(ByteBuffer.wrap(record.toByteArray()));
+      indexChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(offset).flip());
+      offsets.add(offset);
+    } catch (IOException e) {
+      // Reopened by the next append; a mismatching index is rebuilt once the segment is read again
+      close();
+      offsetsBySegment.remove(segment);
+      throw e;
+    }
+  }
+
+  /**
+   * Closes the files of the segment that has been appended to last.
+   */
+  void close() {
+    appendSegment = null;
+    for (FileChannel channel : new FileChannel[]{logChannel, indexChannel}) {
+      if (channel == null) {
+        continue;
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        log.warn("Chat log segment could not be closed in: {}", directory, e);
+      }
+    }
+    logChannel = null;
+    indexChannel = null;
+  }
+
+  /**
+   * Deletes the segments of all days before the specified one from the specified log directory. Must not be called
+   * while a {@code ChatLog} of that directory is open.
+   */
+  static void deleteSegmentsBefore(Path directory, LocalDate day) throws IOException {
+    String firstKeptSegment = day.toString();
+    for (String segment : listSegments(directory)) {
+      if (segment.compareTo(firstKeptSegment) >= 0) {
+        break;
+      }
+      Files.deleteIfExists(directory.resolve(segment + INDEX_SUFFIX));
+      Files.delete(directory.resolve(segment + LOG_SUFFIX));
+    }
+  }
+
+  /**
+   * Returns the position right after the last message in the log.
+   */
+  Position end() throws IOException {
+    List<String> segments = listSegments();
+    if (segments.isEmpty()) {
+      return new Position(segmentName(Instant.now()), 0);
+    }
+    String lastSegment = segments.get(segments.size() - 1);
+    return new Position(lastSegment, getOffsets(lastSegment).size());
+  }
+
+  /**
+   * Returns the position of the first message that has been sent at or after the specified time, or {@link #end()}.
+   */
+  Position positionOf(Instant time) throws IOException {
+    String segment = segmentName(time);
+    List<Long> offsets = getOffsets(segment);
+    if (offsets.isEmpty()) {
+      return new Position(segment, 0);
+    }
+
+    int low = 0;
+    int high = offsets.size();
+    try (FileChannel logChannel = openForReading(segment)) {
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        logChannel.read(buffer, offsets.get(middle));
+        if (buffer.flip().remaining() == Long.BYTES && buffer.getLong() < time.toEpochMilli()) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+    }
+    return new Position(segment, low);
+  }
+
+  /**
+   * Reads up to {@code count} messages right before the specified position, possibly spanning several segments.
+   *
+   * @return the messages in chronological order and the position to continue reading older messages from
+   */
+  Page readBefore(Position position, int count) throws IOException {
+    List<ChatMessage> messages = new ArrayList<>();
+    List<String> segments = listSegments();
+
+    String segment = position.getSegment();
+    int end = position.getRecord();
+    while (true) {
+      List<Long> offsets = getOffsets(segment);
+      end = Math.min(end, offsets.size());
+      int start = Math.max(0, end - (count - messages.size()));
+      if (start < end) {
+        messages.addAll(0, readRecords(segment, offsets, start, end));
+      }
+      if (messages.size() >= count) {
+        return new Page(messages, new Position(segment, start));
+      }
+
+      int index = Collections.binarySearch(segments, segment);
+      int previousIndex = (index >= 0 ? index : -index - 1) - 1;
+      if (previousIndex < 0) {
+        return new Page(messages, new Position(segment, 0));
+      }
+      segment = segments.get(previousIndex);
+      end = Integer.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Returns the most recent messages whose text or sender contains the specified text, ignoring case, newest first.
+   * Segments are read backwards in chunks, so only a bounded number of messages is held in memory at a time.
+   */
+  List<ChatMessage> search(String text, int maxResults) throws IOException {
+    String foldedText = text.toLowerCase(US);
+    List<ChatMessage> results = new ArrayList<>();
+    List<String> segments = listSegments();
+    Collections.reverse(segments);
+
+    for (String segment : segments) {
+      List<Long> offsets = getOffsets(segment);
+      for (int end = offsets.size(); end > 0; end -= SEARCH_CHUNK_SIZE) {
+        List<ChatMessage> messages = readRecords(segment, offsets, Math.max(0, end - SEARCH_CHUNK_SIZE), end);
+        Collections.reverse(messages);
+        for (ChatMessage message : messages) {
+          if (message.getMessage().toLowerCase(US).contains(foldedText)
+              || message.getUsername().toLowerCase(US).contains(foldedText)) {
+            results.add(message);
+            if (results.size() >= maxResults) {
+              return results;
+            }
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  private List<ChatMessage> readRecords(String segment, List<Long> offsets, int start, int end) throws IOException {
+    List<ChatMessage> messages = new ArrayList<>(Math.max(0, end - start));
+    if (start >= end) {
+      return messages;
+    }
+    try (FileChannel logChannel = openForReading(segment)) {
+      logChannel.position(offsets.get(start));
+      DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(logChannel)));
+      for (int i = start; i < end; i++) {
+        messages.add(readRecord(in));
+      }
+    }
+    return messages;
+  }
+
+  private ChatMessage readRecord(DataInputStream in) throws IOException {
+    Instant time = Instant.ofEpochMilli(in.readLong());
+    String username = in.readUTF();
+    boolean action = in.readBoolean();
+    String message = in.readUTF();
+    return new ChatMessage(source, time, username, message, action);
+  }
+
+  private FileChannel openForReading(String segment) throws IOException {
+    return FileChannel.open(directory.resolve(segment + LOG_SUFFIX), READ);
+  }
+
+  private List<String> listSegments() throws IOException {
+    return listSegments(directory);
+  }
+
+  private static List<String> listSegments(Path directory) throws IOException {
+    if (Files.notExists(directory)) {
+      return new ArrayList<>();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(fileName -> fileName.endsWith(LOG_SUFFIX))
+          .map(fileName -> fileName.substring(0, fileName.length() - LOG_SUFFIX.length()))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private List<Long> getOffsets(String segment) throws IOException {
+    List<Long> offsets = offsetsBySegment.get(segment);
+    if (offsets == null) {
+      offsets = readOffsets(segment);
+      offsetsBySegment.put(segment, offsets);
+    }
+    return offsets;
+  }
+
+  /**
+   * Reads the offsets of a segment from its index file. If the index doesn't match the log, e.g. because the client
+   * has been killed between writing both files, it's rebuilt from the log, dropping any incomplete trailing record.
+   */
+  private List<Long> readOffsets(String segment) throws IOException {
+    Path logFile = directory.resolve(segment + LOG_SUFFIX);
+    Path indexFile = directory.resolve(segment + INDEX_SUFFIX);
+    if (Files.notExists(logFile)) {
+      return new ArrayList<>();
+    }
+
+    long logSize = Files.size(logFile);
+    if (Files.exists(indexFile) && Files.size(indexFile) % Long.BYTES == 0) {
+      List<Long> offsets = new ArrayList<>();
+      try (DataInputStream in = new DataInputStream(Files.newInputStream(indexFile))) {
+        for (long i = Files.size(indexFile) / Long.BYTES; i > 0; i--) {
+          offsets.add(in.readLong());
+        }
+      }
+      if (offsets.isEmpty() ? logSize == 0 : offsets.get(offsets.size() - 1) < logSize) {
+        return offsets;
+      }
+    }
+
+    log.info("Rebuilding index of chat log segment: {}", logFile);
+    List<Long> offsets = new ArrayList<>();
+    long validSize = 0;
+    try (CountingInputStream countingInputStream = new CountingInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+      DataInputStream in = new DataInputStream(countingInputStream);
+      while (validSize < logSize) {
+        readRecord(in);
+        offsets.add(validSize);
+        validSize = countingInputStream.getCount();
+      }
+    } catch (EOFException e) {
+      log.warn("Dropping incomplete record at the end of chat log segment: {}", logFile);
+    }
+    try (FileChannel logChannel = FileChannel.open(logFile, WRITE)) {
+      logChannel.truncate(validSize);
+    }
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(indexFile))) {
+      for (Long offset : offsets) {
+        out.writeLong(offset);
+      }
+    }
+    return offsets;
+  }
+
+  @Value
+  static class Position {
+    /** The name of the segment, which is the day of its messages. */
+    String segment;
+    /** The number of the record within the segment. */
+    int record;
+  }
+
+  @Value
+  static class Page {
+    List<ChatMessage> messages;
+    Position start;
+  }
+}
@@ -0,0 +1,159 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatLog.Page;
+import com.faforever.client.chat.ChatLog.Position;
+import com.faforever.client.preferences.ChatPrefs;
+import com.faforever.client.preferences.PreferencesService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.US;
+
+/**
+ * Keeps a log of the messages of each channel and private chat in the data directory, so that chat tabs only need to
+ * keep a small number of messages in memory but can still load older ones when the user scrolls back. All log access
+ * happens on a single thread, so that messages are written in order and reads see all previously written messages.
+ * <p>
+ * Private chats are only logged if enabled separately. Once a day, the segments of all logs that are older than the
+ * configured retention are deleted.
+ */
+@Lazy
+@Service
+@Slf4j
+public class ChatLogService implements DisposableBean {
+
+  private final PreferencesService preferencesService;
+  private final ExecutorService logExecutor;
+  /** Only accessed by {@link #logExecutor}. */
+  private final Map<String, ChatLog> logsBySource;
+  /** The day logs have been pruned last, only accessed by {@link #logExecutor}. */
+  private LocalDate prunedAt;
+
+  public ChatLogService(PreferencesService preferencesService) {
+    this.preferencesService = preferencesService;
+    logExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "chat-log");
+      thread.setDaemon(true);
+      return thread;
+    });
+    logsBySource = new HashMap<>();
+  }
+
+  /**
+   * Appends the message to the log of the specified channel or private chat in background, unless logging has been
+   * disabled.
+   */
+  public void append(String source, ChatMessage chatMessage) {
+    ChatPrefs chatPrefs = preferencesService.getPreferences().getChat();
+    if (!chatPrefs.isLogMessages() || (!source.startsWith("#") && !chatPrefs.isLogPrivateMessages())) {
+      return;
+    }
+    logExecutor.execute(() -> {
+      try {
+        getLog(source).append(chatMessage);
+      } catch (IOException e) {
+        log.warn("Message could not be written to the chat log of '{}'", source, e);
+      }
+    });
+  }
+
+  /**
+   * Reads the messages that have been logged before the specified position. If no position is specified, reading
+   * starts before the first message that has been sent at or after {@code before}, or at the end of the log if that's
+   * {@code null} as well.
+   */
+  public CompletableFuture<Page> readBefore(String source, @Nullable Position position, @Nullable Instant before, int count) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        ChatLog chatLog = getLog(source);
+        Position start = position;
+        if (start == null) {
+          start = before != null ? chatLog.positionOf(before) : chatLog.end();
+        }
+        return chatLog.readBefore(start, count);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, logExecutor);
+  }
+
+  /**
+   * Returns the most recent logged messages of the specified channel or private chat that contain the specified text,
+   * newest first.
+   */
+  public CompletableFuture<List<ChatMessage>> search(String source, String text, int maxResults) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return getLog(source).search(text, maxResults);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, logExecutor);
+  }
+
+  private ChatLog getLog(String source) {
+    pruneIfDue();
+    String key = source.toLowerCase(US);
+    return logsBySource.computeIfAbsent(key, name ->
+        new ChatLog(preferencesService.getChatLogDirectory().resolve(URLEncoder.encode(name, UTF_8)), source));
+  }
+
+  /**
+   * Deletes the log segments that are older than the retention, at most once a day. Open logs are closed and dropped
+   * before, so that none of them refers to a deleted segment.
+   */
+  private void pruneIfDue() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    if (today.equals(prunedAt)) {
+      return;
+    }
+    prunedAt = today;
+
+    int retentionDays = preferencesService.getPreferences().getChat().getLogRetentionDays();
+    Path chatLogDirectory = preferencesService.getChatLogDirectory();
+    if (retentionDays <= 0 || Files.notExists(chatLogDirectory)) {
+      return;
+    }
+    logsBySource.values().forEach(ChatLog::close);
+    logsBySource.clear();
+
+    LocalDate oldestKeptDay = today.minusDays(retentionDays - 1);
+    try (Stream<Path> directories = Files.list(chatLogDirectory)) {
+      directories.filter(Files::isDirectory).forEach(directory -> {
+        try {
+          ChatLog.deleteSegmentsBefore(directory, oldestKeptDay);
+        } catch (IOException e) {
+          log.warn("Old chat log segments could not be deleted from: {}", directory, e);
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Chat log directory could not be listed: {}", chatLogDirectory, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    logExecutor.execute(() -> logsBySource.values().forEach(ChatLog::close));
+    logExecutor.shutdown();
+  }
+}
@@ -0,0 +1,21 @@
+package com.faforever.client.chat;
+
+/**
+ * The only object of a chat tab that is accessible from JavaScript. Since the chat web view renders messages of other
+ * users, it only exposes what the chat container script needs instead of the whole tab controller.
+ */
+public class ChatTabCallback {
+
+  private final Runnable olderMessagesLoader;
+
+  ChatTabCallback(Runnable olderMessagesLoader) {
+    this.olderMessagesLoader = olderMessagesLoader;
+  }
+
+  /**
+   * Called when the user scrolls to the top of the chat.
+   */
+  public void loadOlderMessages() {
+    olderMessagesLoader.run();
+  }
+}
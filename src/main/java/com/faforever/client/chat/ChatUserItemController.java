@@ -13,11 +13,13 @@ import com.faforever.client.player.Player;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.preferences.ChatPrefs;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.theme.Theme;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.TimeService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.eventbus.EventBus;
+import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.WeakInvalidationListener;
 import javafx.beans.value.ChangeListener;
@@ -28,7 +30,6 @@ import javafx.scene.control.Label;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.Tooltip;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.ContextMenuEvent;
 import javafx.scene.input.MouseButton;
@@ -36,7 +37,6 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.stage.PopupWindow;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -45,11 +45,10 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.io.IOException;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.faforever.client.chat.ChatColorMode.CUSTOM;
 import static com.faforever.client.player.SocialStatus.SELF;
@@ -65,8 +64,6 @@ public class ChatUserItemController implements Controller<Node> {
 
   private static final PseudoClass COMPACT = PseudoClass.getPseudoClass("compact");
 
-  private static volatile Map<PlayerStatus, Image> playerStatusIcons;
-
   private final AvatarService avatarService;
   private final CountryFlagService countryFlagService;
   private final PreferencesService preferencesService;
@@ -81,23 +78,30 @@ public class ChatUserItemController implements Controller<Node> {
   private final InvalidationListener colorChangeListener;
   private final InvalidationListener formatChangeListener;
   private final InvalidationListener colorPerUserInvalidationListener;
-  private final ChangeListener<String> avatarChangeListener;
-  private final ChangeListener<String> clanChangeListener;
-  private final ChangeListener<String> countryChangeListener;
-  private final ChangeListener<PlayerStatus> gameStatusChangeListener;
+  /**
+   * A single listener for all displayed properties of the player. It schedules one update of the row no matter how many
+   * of them change at once, e.g. when a player info is applied. Listening creates the player's lazy properties, but
+   * since rows are list cells, this only happens for players that have been scrolled into view. The idle time is only
+   * shown in the tooltip, which is updated when it's hovered, so it isn't listened to.
+   */
+  private final InvalidationListener playerPropertyListener;
+  /** The status icons are part of the theme, so they need to be set again once it has changed. */
+  private final ChangeListener<Theme> themeChangeListener;
   private final ChangeListener<Player> playerChangeListener;
-  private final InvalidationListener userActivityListener;
   private final InvalidationListener usernameInvalidationListener;
   private final WeakChangeListener<Player> weakPlayerChangeListener;
   private final WeakInvalidationListener weakUsernameInvalidationListener;
   private final WeakInvalidationListener weakColorInvalidationListener;
   private final WeakInvalidationListener weakFormatInvalidationListener;
-  private final WeakInvalidationListener weakUserActivityListener;
-  private final WeakChangeListener<PlayerStatus> weakGameStatusListener;
-  private final WeakChangeListener<String> weakAvatarChangeListener;
-  private final WeakChangeListener<String> weakClanChangeListener;
-  private final WeakChangeListener<String> weakCountryChangeListener;
+  private final WeakInvalidationListener weakPlayerPropertyListener;
+  private final WeakChangeListener<Theme> weakThemeChangeListener;
   private final WeakInvalidationListener weakColorPerUserInvalidationListener;
+  private final AtomicBoolean playerUpdateScheduled = new AtomicBoolean();
+  /** Whether the player has been replaced since the row was last updated, so that all values need to be applied. */
+  private volatile boolean playerChanged;
+  private String avatarUrl;
+  private String clanTag;
+  private String country;
 
   public ImageView playerStatusIndicator;
 
@@ -150,56 +154,32 @@ public class ChatUserItemController implements Controller<Node> {
     JavaFxUtil.addListener(chatPrefs.chatColorModeProperty(), weakColorInvalidationListener);
     JavaFxUtil.addListener(chatPrefs.chatFormatProperty(), weakFormatInvalidationListener);
 
-    userActivityListener = (observable) -> JavaFxUtil.runLater(this::onUserActivity);
-    gameStatusChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(this::updateGameStatus);
-    avatarChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(() -> setAvatarUrl(newValue));
-    clanChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(() -> setClanTag(newValue));
-    countryChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(() -> setCountry(newValue));
+    playerPropertyListener = observable -> schedulePlayerUpdate();
+    weakPlayerPropertyListener = new WeakInvalidationListener(playerPropertyListener);
 
-    weakUserActivityListener = new WeakInvalidationListener(userActivityListener);
-    weakGameStatusListener = new WeakChangeListener<>(gameStatusChangeListener);
-    weakAvatarChangeListener = new WeakChangeListener<>(avatarChangeListener);
-    weakClanChangeListener = new WeakChangeListener<>(clanChangeListener);
-    weakCountryChangeListener = new WeakChangeListener<>(countryChangeListener);
+    themeChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(this::updateGameStatus);
+    weakThemeChangeListener = new WeakChangeListener<>(themeChangeListener);
+    JavaFxUtil.addListener(uiService.currentThemeProperty(), weakThemeChangeListener);
 
-    playerChangeListener = (observable, oldValue, newValue) -> JavaFxUtil.runLater(() -> {
+    playerChangeListener = (observable, oldValue, newValue) -> {
       if (oldValue != null) {
-        JavaFxUtil.removeListener(oldValue.idleSinceProperty(), weakUserActivityListener);
-        JavaFxUtil.removeListener(oldValue.statusProperty(), weakUserActivityListener);
-        JavaFxUtil.removeListener(oldValue.statusProperty(), weakGameStatusListener);
-        JavaFxUtil.removeListener(oldValue.avatarUrlProperty(), weakAvatarChangeListener);
-        JavaFxUtil.removeListener(oldValue.clanProperty(), weakClanChangeListener);
-        JavaFxUtil.removeListener(oldValue.countryProperty(), weakCountryChangeListener);
-
-        weakGameStatusListener.changed(oldValue.statusProperty(), oldValue.getStatus(), null);
-        weakAvatarChangeListener.changed(oldValue.avatarUrlProperty(), oldValue.getAvatarUrl(), null);
-        weakClanChangeListener.changed(oldValue.clanProperty(), oldValue.getClan(), null);
-        weakCountryChangeListener.changed(oldValue.countryProperty(), oldValue.getCountry(), null);
+        JavaFxUtil.removeListener(oldValue.statusProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.removeListener(oldValue.avatarUrlProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.removeListener(oldValue.clanProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.removeListener(oldValue.countryProperty(), weakPlayerPropertyListener);
       }
-
       if (newValue != null) {
-        JavaFxUtil.addListener(newValue.idleSinceProperty(), weakUserActivityListener);
-        JavaFxUtil.addListener(newValue.statusProperty(), weakUserActivityListener);
-        JavaFxUtil.addListener(newValue.statusProperty(), weakGameStatusListener);
-        JavaFxUtil.addListener(newValue.avatarUrlProperty(), weakAvatarChangeListener);
-        JavaFxUtil.addListener(newValue.clanProperty(), weakClanChangeListener);
-        JavaFxUtil.addListener(newValue.countryProperty(), weakCountryChangeListener);
-
-        weakUserActivityListener.invalidated(newValue.idleSinceProperty());
-        weakGameStatusListener.changed(newValue.statusProperty(), null, newValue.getStatus());
-        weakAvatarChangeListener.changed(newValue.avatarUrlProperty(), null, newValue.getAvatarUrl());
-        weakClanChangeListener.changed(newValue.clanProperty(), null, newValue.getClan());
-        weakCountryChangeListener.changed(newValue.countryProperty(), null, newValue.getCountry());
+        JavaFxUtil.addListener(newValue.statusProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.addListener(newValue.avatarUrlProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.addListener(newValue.clanProperty(), weakPlayerPropertyListener);
+        JavaFxUtil.addListener(newValue.countryProperty(), weakPlayerPropertyListener);
       }
-
-      if (this.chatUser != null) {
-        userActivityListener.invalidated(null);
-      }
-    });
+      playerChanged = true;
+      schedulePlayerUpdate();
+    };
     weakPlayerChangeListener = new WeakChangeListener<>(playerChangeListener);
 
     usernameInvalidationListener = observable -> {
-      updateNameLabelTooltip();
       if (this.chatUser == null) {
         usernameLabel.setText("");
       } else {
@@ -209,6 +189,10 @@ public class ChatUserItemController implements Controller<Node> {
     weakUsernameInvalidationListener = new WeakInvalidationListener(usernameInvalidationListener);
   }
 
+  /**
+   * Tooltips are only created once the user hovers the respective node since most rows are never hovered, and the clan
+   * tooltip even needs to load an FXML file.
+   */
   private void initClanTooltip() {
     clanTooltipController = uiService.loadFxml("theme/chat/clan_tooltip.fxml");
 
@@ -241,7 +225,8 @@ public class ChatUserItemController implements Controller<Node> {
     weakFormatInvalidationListener.invalidated(chatPrefs.chatFormatProperty());
 
     updateFormat();
-    initClanTooltip();
+    countryImageView.setOnMouseEntered(event -> updateCountryTooltip());
+    avatarImageView.setOnMouseEntered(event -> updateAvatarTooltip());
   }
 
   private WeakReference<ChatUserContextMenuController> contextMenuController = null;
@@ -307,7 +292,6 @@ public class ChatUserItemController implements Controller<Node> {
   }
 
   private void setAvatarUrl(@Nullable String avatarUrl) {
-    updateAvatarTooltip();
     if (Strings.isNullOrEmpty(avatarUrl)) {
       avatarImageView.setVisible(false);
     } else {
@@ -318,7 +302,7 @@ public class ChatUserItemController implements Controller<Node> {
   }
 
   private void setClanTag(String clanTag) {
-    if (!chatUser.getPlayer().isPresent() || Strings.isNullOrEmpty(clanTag)) {
+    if (chatUser == null || chatUser.getPlayer().isEmpty() || Strings.isNullOrEmpty(clanTag)) {
       clanMenu.setVisible(false);
       return;
     }
@@ -327,13 +311,6 @@ public class ChatUserItemController implements Controller<Node> {
     setClan();
   }
 
-  private static void loadPlayerStatusIcons(UiService uiService) throws IOException {
-    playerStatusIcons = new HashMap<>();
-    playerStatusIcons.put(PlayerStatus.HOSTING, uiService.getThemeImage(UiService.CHAT_LIST_STATUS_HOSTING));
-    playerStatusIcons.put(PlayerStatus.LOBBYING, uiService.getThemeImage(UiService.CHAT_LIST_STATUS_LOBBYING));
-    playerStatusIcons.put(PlayerStatus.PLAYING, uiService.getThemeImage(UiService.CHAT_LIST_STATUS_PLAYING));
-  }
-
   public Pane getRoot() {
     return chatUserItemRoot;
   }
@@ -358,33 +335,20 @@ public class ChatUserItemController implements Controller<Node> {
   }
 
   private void updateCountryTooltip() {
-    Optional.ofNullable(countryTooltip).ifPresent(imageView -> Tooltip.uninstall(countryImageView, countryTooltip));
-
-    chatUser.getPlayer().ifPresent(player -> {
-      countryTooltip = new Tooltip(player.getCountry());
-      countryTooltip.setText(player.getCountry());
+    if (chatUser == null || chatUser.getPlayer().isEmpty()) {
+      return;
+    }
+    if (countryTooltip == null) {
+      countryTooltip = new Tooltip();
       Tooltip.install(countryImageView, countryTooltip);
-    });
+    }
+    countryTooltip.setText(chatUser.getPlayer().get().getCountry());
   }
 
   private void setClan() {
     chatUser.getPlayer().ifPresent(this::setClan);
   }
 
-  private void updateNameLabelTooltip() {
-    Optional.ofNullable(usernameLabel.getTooltip()).ifPresent(tooltip -> usernameLabel.setTooltip(null));
-
-    if (chatUser == null || !chatUser.getPlayer().isPresent()) {
-      return;
-    }
-
-    chatUser.getPlayer().ifPresent(player -> {
-      userTooltip = new Tooltip();
-      usernameLabel.setTooltip(userTooltip);
-      updateNameLabelText(player);
-    });
-  }
-
   private void updateNameLabelText(Player player) {
     userTooltip.setText(String.format("%s\n%s",
         i18n.get("userInfo.ratingFormat", getGlobalRating(player), getLeaderboardRating(player)),
@@ -412,12 +376,8 @@ public class ChatUserItemController implements Controller<Node> {
   private void setCountry(String country) {
     if (StringUtils.isEmpty(country)) {
       countryImageView.setVisible(false);
-    } else {
-      countryFlagService.loadCountryFlag(country).ifPresent(image -> {
-        countryImageView.setImage(image);
-        countryImageView.setVisible(true);
-        updateCountryTooltip();
-      });
+    } else if (countryFlagService.setCountryFlag(countryImageView, country)) {
+      countryImageView.setVisible(true);
     }
   }
 
@@ -426,11 +386,40 @@ public class ChatUserItemController implements Controller<Node> {
     chatUserItemRoot.setManaged(visible);
   }
 
-  private void onUserActivity() {
+  private void schedulePlayerUpdate() {
+    // Not JavaFxUtil.runLater, so that changes on the application thread are coalesced as well
+    if (playerUpdateScheduled.compareAndSet(false, true)) {
+      Platform.runLater(this::updatePlayer);
+    }
+  }
+
+  /** Applies the values of the current player that differ from the displayed ones. */
+  private void updatePlayer() {
+    playerUpdateScheduled.set(false);
+    boolean applyAll = playerChanged;
+    playerChanged = false;
+
+    Player player = chatUser == null ? null : chatUser.getPlayer().orElse(null);
+    String newAvatarUrl = player == null ? null : player.getAvatarUrl();
+    String newClanTag = player == null ? null : player.getClan();
+    String newCountry = player == null ? null : player.getCountry();
+
+    if (applyAll || !Objects.equals(avatarUrl, newAvatarUrl)) {
+      avatarUrl = newAvatarUrl;
+      setAvatarUrl(newAvatarUrl);
+    }
+    if (applyAll || !Objects.equals(clanTag, newClanTag)) {
+      clanTag = newClanTag;
+      setClanTag(newClanTag);
+    }
+    if (applyAll || !Objects.equals(country, newCountry)) {
+      country = newCountry;
+      setCountry(newCountry);
+    }
     // TODO only until server-side support
     updateGameStatus();
-    if (chatUser.getPlayer().isPresent() && userTooltip != null) {
-      updateNameLabelText(chatUser.getPlayer().get());
+    if (player != null && usernameLabel.getTooltip() != null) {
+      updateNameLabelText(player);
     }
   }
 
@@ -448,15 +437,15 @@ public class ChatUserItemController implements Controller<Node> {
   }
 
   public void updateAvatarTooltip() {
-    Optional.ofNullable(avatarTooltip).ifPresent(tooltip -> Tooltip.uninstall(avatarImageView, tooltip));
-
-    chatUser.getPlayer().ifPresent(player -> {
-      avatarTooltip = new Tooltip(player.getAvatarTooltip());
-      avatarTooltip.textProperty().bind(player.avatarTooltipProperty());
+    if (chatUser == null || chatUser.getPlayer().isEmpty()) {
+      return;
+    }
+    if (avatarTooltip == null) {
+      avatarTooltip = new Tooltip();
       avatarTooltip.setAnchorLocation(PopupWindow.AnchorLocation.CONTENT_TOP_LEFT);
-
       Tooltip.install(avatarImageView, avatarTooltip);
-    });
+    }
+    avatarTooltip.setText(chatUser.getPlayer().get().getAvatarTooltip());
   }
 
   private void updateGameStatus() {
@@ -474,22 +463,20 @@ public class ChatUserItemController implements Controller<Node> {
     if (player.getStatus() == PlayerStatus.IDLE) {
       playerStatusIndicator.setVisible(false);
     } else {
-      playerStatusIndicator.setVisible(true);
-      playerStatusIndicator.setImage(getPlayerStatusIcon(player.getStatus()));
+      playerStatusIndicator.setVisible(countryFlagService.setPlayerStatusIcon(playerStatusIndicator, player.getStatus()));
     }
   }
 
-  @SneakyThrows(IOException.class)
-  private Image getPlayerStatusIcon(PlayerStatus status) {
-    if (playerStatusIcons == null) {
-      loadPlayerStatusIcons(uiService);
-    }
-
-    return playerStatusIcons.get(status);
-  }
-
   public void onMouseEnteredUserNameLabel() {
-    chatUser.getPlayer().ifPresent(this::updateNameLabelText);
+    if (chatUser == null || chatUser.getPlayer().isEmpty()) {
+      usernameLabel.setTooltip(null);
+      return;
+    }
+    if (userTooltip == null) {
+      userTooltip = new Tooltip();
+    }
+    usernameLabel.setTooltip(userTooltip);
+    updateNameLabelText(chatUser.getPlayer().get());
   }
 
   /**
@@ -529,6 +516,9 @@ public class ChatUserItemController implements Controller<Node> {
     if (clan == null) {
       return;
     }
+    if (clanTooltipController == null) {
+      initClanTooltip();
+    }
     clanTooltipController.setClan(clan);
     clanTooltip.setMaxHeight(clanTooltipController.getRoot().getHeight());
   }
@@ -1,57 +1,139 @@
 package com.faforever.client.chat;
 
-import javafx.scene.image.Image;
-import lombok.SneakyThrows;
+import com.faforever.client.fx.JavaFxUtil;
+import com.faforever.client.fx.SpriteAtlas;
+import com.faforever.client.game.PlayerStatus;
+import com.faforever.client.theme.UiService;
+import com.google.common.base.Suppliers;
+import javafx.scene.image.ImageView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
-import static com.faforever.client.config.CacheNames.COUNTRY_FLAGS;
-
+/**
+ * Provides country flags and player status icons. All of them are packed into a single {@link SpriteAtlas} which is
+ * loaded on first use, so that displaying them in thousands of chat user rows doesn't load thousands of images. Since
+ * the status icons are part of the theme, the atlas is loaded again after the theme has changed. Image views that
+ * display one of its sprites need to be set again to show the new one.
+ */
 @Lazy
 @Service
-public class CountryFlagService {
+public class CountryFlagService implements InitializingBean {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   private static final Collection<String> NON_COUNTRY_CODES = Arrays.asList("A1", "A2", "");
+  private static final String FLAGS_LOCATION_PATTERN = "classpath*:/images/flags/*.png";
+  private static final String EARTH = "earth";
+  private static final String STATUS_KEY_PREFIX = "status:";
+  private static final Map<PlayerStatus, String> PLAYER_STATUS_ICONS = Map.of(
+      PlayerStatus.HOSTING, UiService.CHAT_LIST_STATUS_HOSTING,
+      PlayerStatus.LOBBYING, UiService.CHAT_LIST_STATUS_LOBBYING,
+      PlayerStatus.PLAYING, UiService.CHAT_LIST_STATUS_PLAYING
+  );
 
-  @Cacheable(COUNTRY_FLAGS)
-  public Optional<Image> loadCountryFlag(final String country) {
-    if (country == null) {
-      return Optional.empty();
-    }
+  private final UiService uiService;
+  /** Maps the lower case image name, e.g. "de" or "earth", to the URL of its flag. */
+  private final Supplier<Map<String, URL>> flagUrls;
+  /** {@code null} until first use and after the theme has changed. */
+  private volatile SpriteAtlas atlas;
+
+  public CountryFlagService(UiService uiService) {
+    this.uiService = uiService;
+    flagUrls = Suppliers.memoize(CountryFlagService::findFlagUrls);
+  }
 
-    return getCountryFlagUrl(country)
-        .map(url -> new Image(url.toString(), true));
+  @Override
+  public void afterPropertiesSet() {
+    JavaFxUtil.addListener(uiService.currentThemeProperty(), (observable, oldValue, newValue) -> atlas = null);
   }
 
-  @SneakyThrows
   public Optional<URL> getCountryFlagUrl(String country) {
     if (country == null) {
       return Optional.empty();
     }
-    String imageName;
+    return Optional.ofNullable(flagUrls.get().get(toImageName(country)));
+  }
+
+  /**
+   * Lets the specified image view display the flag of the specified country.
+   *
+   * @return {@code false} if there is no flag for the specified country, in which case the image view is left untouched
+   */
+  public boolean setCountryFlag(ImageView imageView, String country) {
+    if (country == null) {
+      return false;
+    }
+    return getAtlas().apply(imageView, toImageName(country));
+  }
+
+  /**
+   * Lets the specified image view display the icon of the specified player status.
+   *
+   * @return {@code false} if there is no icon for the specified status, in which case the image view is left
+   * untouched
+   */
+  public boolean setPlayerStatusIcon(ImageView imageView, PlayerStatus playerStatus) {
+    return getAtlas().apply(imageView, STATUS_KEY_PREFIX + playerStatus.name());
+  }
+
+  private static String toImageName(String country) {
     if (NON_COUNTRY_CODES.contains(country)) {
-      imageName = "earth";
-    } else {
-      imageName = country.toLowerCase();
+      return EARTH;
     }
+    return country.toLowerCase(Locale.US);
+  }
 
-    String path = "/images/flags/" + imageName + ".png";
-    ClassPathResource classPathResource = new ClassPathResource(path);
-    if (!classPathResource.exists()) {
-      return Optional.empty();
+  private static Map<String, URL> findFlagUrls() {
+    Map<String, URL> urls = new HashMap<>();
+    try {
+      for (Resource resource : new PathMatchingResourcePatternResolver().getResources(FLAGS_LOCATION_PATTERN)) {
+        String fileName = resource.getFilename();
+        if (fileName != null) {
+          urls.put(fileName.substring(0, fileName.length() - ".png".length()), resource.getURL());
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Country flags could not be listed", e);
     }
-    return Optional.of(classPathResource.getURL());
+    logger.debug("Found {} country flags", urls.size());
+    return Map.copyOf(urls);
+  }
+
+  private SpriteAtlas getAtlas() {
+    SpriteAtlas currentAtlas = atlas;
+    if (currentAtlas == null) {
+      synchronized (this) {
+        currentAtlas = atlas;
+        if (currentAtlas == null) {
+          currentAtlas = buildAtlas();
+          atlas = currentAtlas;
+        }
+      }
+    }
+    return currentAtlas;
+  }
+
+  private SpriteAtlas buildAtlas() {
+    SpriteAtlas.Builder builder = SpriteAtlas.builder();
+    flagUrls.get().forEach(builder::add);
+    PLAYER_STATUS_ICONS.forEach((playerStatus, themeImage) ->
+        builder.add(STATUS_KEY_PREFIX + playerStatus.name(), uiService.getThemeFileUrl(themeImage)));
+    return builder.build();
   }
 }
@@ -8,7 +8,7 @@ import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.net.ConnectionState;
 import com.faforever.client.player.Player;
-import com.faforever.client.player.PlayerOnlineEvent;
+import com.faforever.client.player.PlayersChangedEvent;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.player.SocialStatus;
 import com.faforever.client.player.UserOfflineEvent;
@@ -174,7 +174,7 @@ public class PircBotXChatService implements ChatService, InitializingBean, Dispo
 
     ChatPrefs chatPrefs = preferencesService.getPreferences().getChat();
     JavaFxUtil.addListener(chatPrefs.userToColorProperty(),
-        (MapChangeListener<? super String, ? super Color>) change -> preferencesService.store()
+        (MapChangeListener<? super String, ? super Color>) change -> preferencesService.storeInBackground()
     );
     JavaFxUtil.addListener(chatPrefs.chatColorModeProperty(), (observable, oldValue, newValue) -> {
       synchronized (chatChannelUsersByChannelAndName) {
@@ -342,8 +342,12 @@ public class PircBotXChatService implements ChatService, InitializingBean, Dispo
         channels.remove(channelName);
       }
     }
+    ChatChannelUser chatUser;
     synchronized (chatChannelUsersByChannelAndName) {
-      chatChannelUsersByChannelAndName.remove(mapKey(username, channelName));
+      chatUser = chatChannelUsersByChannelAndName.remove(mapKey(username, channelName));
+    }
+    if (chatUser != null) {
+      chatUser.getPlayer().ifPresent(player -> player.getChatChannelUsers().remove(chatUser));
     }
     // The server doesn't yet tell us when a user goes offline, so we have to rely on the user leaving IRC.
     if (defaultChannelName.equals(channelName)) {
@@ -654,17 +658,17 @@ public class PircBotXChatService implements ChatService, InitializingBean, Dispo
   }
 
   @Subscribe
-  public void onPlayerOnline(PlayerOnlineEvent event) {
-    Player player = event.getPlayer();
-
+  public void onPlayersChanged(PlayersChangedEvent event) {
     synchronized (channels) {
-      List<ChatChannelUser> channelUsers = channels.values().stream()
-          .map(channel -> chatChannelUsersByChannelAndName.get(mapKey(player.getUsername(), channel.getName())))
-          .filter(Objects::nonNull)
-          .peek(chatChannelUser -> chatChannelUser.setPlayer(player))
-          .collect(Collectors.toList());
-
-      player.getChatChannelUsers().addAll(channelUsers);
+      for (Player player : event.getPlayers()) {
+        List<ChatChannelUser> channelUsers = channels.values().stream()
+            .map(channel -> chatChannelUsersByChannelAndName.get(mapKey(player.getUsername(), channel.getName())))
+            .filter(Objects::nonNull)
+            .peek(chatChannelUser -> chatChannelUser.setPlayer(player))
+            .collect(Collectors.toList());
+
+        player.getChatChannelUsers().addAll(channelUsers);
+      }
     }
   }
 
@@ -125,7 +125,7 @@ public class PrivateUserInfoController implements Controller<Node> {
     userImageView.setImage(IdenticonUtil.createIdenticon(player.getId()));
     userImageView.setVisible(true);
 
-    countryFlagService.loadCountryFlag(player.getCountry()).ifPresent(image -> countryImageView.setImage(image));
+    countryFlagService.setCountryFlag(countryImageView, player.getCountry());
     countryLabel.setText(countryCode == null ? player.getCountry() : countryCode.getName());
     countryLabel.setVisible(true);
 
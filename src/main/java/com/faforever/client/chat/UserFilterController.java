@@ -41,6 +41,10 @@ public class UserFilterController implements Controller<Node> {
   ChannelTabController channelTabController;
   @VisibleForTesting
   PlayerStatus playerStatusFilter;
+  /** The criteria of the text fields, parsed once per change rather than once per filtered user. */
+  private String clanFilter;
+  private int minRating;
+  private int maxRating;
 
   public UserFilterController(I18n i18n) {
     this.i18n = i18n;
@@ -52,12 +56,14 @@ public class UserFilterController implements Controller<Node> {
   }
 
   public void initialize() {
+    updateCriteria();
     clanFilterField.textProperty().addListener((observable, oldValue, newValue) -> filterUsers());
     minRatingFilterField.textProperty().addListener((observable, oldValue, newValue) -> filterUsers());
     maxRatingFilterField.textProperty().addListener((observable, oldValue, newValue) -> filterUsers());
   }
 
   private void filterUsers() {
+    updateCriteria();
     channelTabController.setUserFilter(this::filterUser);
     filterApplied.set(
         !maxRatingFilterField.getText().isEmpty()
@@ -67,6 +73,20 @@ public class UserFilterController implements Controller<Node> {
     );
   }
 
+  private void updateCriteria() {
+    clanFilter = clanFilterField.getText();
+    minRating = parseRating(minRatingFilterField.getText(), Integer.MIN_VALUE);
+    maxRating = parseRating(maxRatingFilterField.getText(), Integer.MAX_VALUE);
+  }
+
+  private static int parseRating(String text, int defaultValue) {
+    try {
+      return Integer.parseInt(text);
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
   private boolean filterUser(CategoryOrChatUserListItem userListItem) {
     if (userListItem.getUser() == null) {
       return false;
@@ -88,7 +108,7 @@ public class UserFilterController implements Controller<Node> {
 
   @VisibleForTesting
   boolean isInClan(ChatChannelUser chatUser) {
-    if (clanFilterField.getText().isEmpty()) {
+    if (clanFilter.isEmpty()) {
       return true;
     }
 
@@ -104,13 +124,21 @@ public class UserFilterController implements Controller<Node> {
       return false;
     }
 
-    String lowerCaseSearchString = clan.toLowerCase();
-    return lowerCaseSearchString.contains(clanFilterField.getText().toLowerCase());
+    return containsIgnoreCase(clan, clanFilter);
+  }
+
+  private static boolean containsIgnoreCase(String string, String searchString) {
+    for (int i = 0; i + searchString.length() <= string.length(); i++) {
+      if (string.regionMatches(true, i, searchString, 0, searchString.length())) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @VisibleForTesting
   boolean isBoundByRating(ChatChannelUser chatUser) {
-    if (minRatingFilterField.getText().isEmpty() && maxRatingFilterField.getText().isEmpty()) {
+    if (minRating == Integer.MIN_VALUE && maxRating == Integer.MAX_VALUE) {
       return true;
     }
 
@@ -123,20 +151,6 @@ public class UserFilterController implements Controller<Node> {
     Player player = optionalPlayer.get();
 
     int globalRating = RatingUtil.getGlobalRating(player);
-    int minRating;
-    int maxRating;
-
-    try {
-      minRating = Integer.parseInt(minRatingFilterField.getText());
-    } catch (NumberFormatException e) {
-      minRating = Integer.MIN_VALUE;
-    }
-    try {
-      maxRating = Integer.parseInt(maxRatingFilterField.getText());
-    } catch (NumberFormatException e) {
-      maxRating = Integer.MAX_VALUE;
-    }
-
     return globalRating >= minRating && globalRating <= maxRating;
   }
 
@@ -191,7 +191,7 @@ public class UserInfoWindowController implements Controller<Node> {
     this.player = player;
 
     usernameLabel.setText(player.getUsername());
-    countryFlagService.loadCountryFlag(player.getCountry()).ifPresent(image -> countryImageView.setImage(image));
+    countryFlagService.setCountryFlag(countryImageView, player.getCountry());
     avatarImageView.setImage(IdenticonUtil.createIdenticon(player.getId()));
     gamesPlayedLabel.setText(i18n.number(player.getNumberOfGames()));
     ratingLabelGlobal.setText(i18n.number(RatingUtil.getGlobalRating(player)));
@@ -0,0 +1,114 @@
+package com.faforever.client.chat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.util.Locale.US;
+
+/**
+ * Indexes the names of the users in a channel so that the user list can be searched while typing. Names are case
+ * folded; prefix queries are answered by a range of the sorted names, substring queries by intersecting the trigrams of
+ * the search string. The index is updated incrementally as users join and leave and is not thread safe, it's meant to
+ * be used on the JavaFX application thread only.
+ */
+class UserNameIndex {
+
+  private static final int GRAM_LENGTH = 3;
+
+  /** Maps case folded names to the names as they have been added. */
+  private final NavigableMap<String, String> namesByFoldedName;
+  /** Maps trigrams to the case folded names that contain them. */
+  private final Map<String, Set<String>> foldedNamesByGram;
+
+  UserNameIndex() {
+    namesByFoldedName = new TreeMap<>();
+    foldedNamesByGram = new HashMap<>();
+  }
+
+  private static String fold(String string) {
+    return string.toLowerCase(US);
+  }
+
+  private static Set<String> grams(String foldedString) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= foldedString.length(); i++) {
+      grams.add(foldedString.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  void add(String name) {
+    String foldedName = fold(name);
+    if (namesByFoldedName.put(foldedName, name) != null) {
+      return;
+    }
+    grams(foldedName).forEach(gram -> foldedNamesByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(foldedName));
+  }
+
+  void remove(String name) {
+    String foldedName = fold(name);
+    if (namesByFoldedName.remove(foldedName) == null) {
+      return;
+    }
+    for (String gram : grams(foldedName)) {
+      Set<String> foldedNames = foldedNamesByGram.get(gram);
+      foldedNames.remove(foldedName);
+      if (foldedNames.isEmpty()) {
+        foldedNamesByGram.remove(gram);
+      }
+    }
+  }
+
+  int size() {
+    return namesByFoldedName.size();
+  }
+
+  /**
+   * Returns the names that start with the specified prefix, ignoring case, in case insensitive order.
+   */
+  List<String> startingWith(String prefix) {
+    String foldedPrefix = fold(prefix);
+    return new ArrayList<>(namesByFoldedName.subMap(foldedPrefix, true, foldedPrefix + Character.MAX_VALUE, false).values());
+  }
+
+  /**
+   * Returns the names that contain the specified string, ignoring case.
+   */
+  Set<String> containing(String string) {
+    String foldedString = fold(string);
+    Set<String> names = new HashSet<>();
+    if (foldedString.length() < GRAM_LENGTH) {
+      namesByFoldedName.forEach((foldedName, name) -> {
+        if (foldedName.contains(foldedString)) {
+          names.add(name);
+        }
+      });
+      return names;
+    }
+
+    // Only names that contain all trigrams can match, so it's sufficient to check those of the rarest one
+    Set<String> candidates = null;
+    for (String gram : grams(foldedString)) {
+      Set<String> foldedNames = foldedNamesByGram.get(gram);
+      if (foldedNames == null) {
+        return names;
+      }
+      if (candidates == null || foldedNames.size() < candidates.size()) {
+        candidates = foldedNames;
+      }
+    }
+
+    for (String foldedName : candidates) {
+      if (foldedName.contains(foldedString)) {
+        names.add(namesByFoldedName.get(foldedName));
+      }
+    }
+    return names;
+  }
+}
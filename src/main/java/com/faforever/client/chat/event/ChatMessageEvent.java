@@ -1,7 +1,12 @@
 package com.faforever.client.chat.event;
 
 import com.faforever.client.chat.ChatMessage;
+import com.faforever.client.eventbus.AsyncEvent;
 
+/**
+ * Posted for every chat message, so busy channels don't block the IRC connection while subscribers handle it.
+ */
+@AsyncEvent
 public class ChatMessageEvent {
 
   private final ChatMessage message;
@@ -1,5 +1,6 @@
 package com.faforever.client.config;
 
+import com.faforever.client.eventbus.PartitionedEventBus;
 import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
@@ -8,6 +9,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * This configuration has to be imported by other configurations and should only contain beans that are necessary to run
  * the application.
@@ -26,9 +29,8 @@ public class BaseConfig {
   }
 
   @Bean
-  EventBus eventBus() {
-    EventBus bus = new EventBus((exception, context) -> log.warn("Exception in '{}#{}' while handling event: {}",
-        context.getSubscriber().getClass(), context.getSubscriberMethod().getName(), context.getEvent(), exception));
+  EventBus eventBus(ExecutorService taskExecutor) {
+    EventBus bus = new PartitionedEventBus(taskExecutor);
     bus.register(new DeadEventHandler());
     return bus;
   }
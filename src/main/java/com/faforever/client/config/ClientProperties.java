@@ -75,6 +75,11 @@ public class ClientProperties {
   public static class Server {
     private String host;
     private int port = 8001;
+    /**
+     * How long the last known games are kept after the connection has been lost. If the client reconnects within this
+     * time, they are reconciled with the games sent by the server instead of being recreated.
+     */
+    private Duration reconnectGracePeriod = Duration.ofSeconds(30);
   }
 
   @Data
@@ -96,6 +101,8 @@ public class ClientProperties {
     private String replayFileGlob = "*.fafreplay";
     // TODO this should acutally be reported by the server
     private int watchDelaySeconds = 300;
+    /** How many bytes of downloaded online replays are kept, so they don't need to be downloaded again. */
+    private long cacheSize = 256L * 1024 * 1024;
   }
 
   @Data
@@ -0,0 +1,19 @@
+package com.faforever.client.eventbus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an event type whose events may be dispatched asynchronously by the {@link PartitionedEventBus} when they are
+ * posted from a background thread. Events of such a type are delivered in the order they have been posted, but not in
+ * order with events of other types, so only event types whose subscribers don't depend on other events should be
+ * marked.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AsyncEvent {
+}
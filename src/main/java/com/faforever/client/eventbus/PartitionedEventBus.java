@@ -0,0 +1,349 @@
+package com.faforever.client.eventbus;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+import javafx.application.Platform;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * An {@link EventBus} that can dispatch high-volume events asynchronously, so that publishers (like the IRC
+ * connection's reader thread) aren't blocked by slow subscribers.
+ * <p>
+ * Like Guava's event bus, events are dispatched on the posting thread, which keeps them in the order they have been
+ * posted. An event that is posted by a subscriber is queued on that thread and only dispatched once the current event
+ * has been delivered to all of its subscribers, so subscribers always receive events in the order they have been
+ * posted. Only events whose type is annotated with {@link AsyncEvent} and that are posted from a background thread are
+ * queued per event type ("partition") instead. Each partition is drained by at most one thread at a time, so events of
+ * the same type are still received in order.
+ * <p>
+ * Events are neither coalesced nor dispatched asynchronously by default, since many subscribers depend on events of
+ * other types having been handled first. The high-volume player and game events are batched by their services and
+ * posted on the JavaFX application thread, so they don't block the server connection's reader thread anyway.
+ * <p>
+ * Subscribers are found like by Guava's event bus: methods annotated with {@link Subscribe} are invoked one at a time
+ * unless they are also annotated with {@link AllowConcurrentEvents}. For each subscriber, the number of invocations and
+ * the time spent are recorded, as well as the maximum queue depth of each partition.
+ */
+@Slf4j
+public class PartitionedEventBus extends EventBus {
+
+  private static final Map<Class<?>, List<Method>> SUBSCRIBER_METHODS_CACHE = new ConcurrentHashMap<>();
+  private static final Map<Class<?>, Set<Class<?>>> EVENT_TYPES_CACHE = new ConcurrentHashMap<>();
+  private static final ClassValue<Boolean> ASYNC_EVENT_TYPES = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return type.isAnnotationPresent(AsyncEvent.class);
+    }
+  };
+
+  private final Executor executor;
+  private final BooleanSupplier inlineDispatch;
+  private final Map<Class<?>, CopyOnWriteArraySet<Subscriber>> subscribersByEventType;
+  private final Map<Class<?>, Partition> partitions;
+  /** Events that have been posted on the current thread while it is dispatching another event. */
+  private final ThreadLocal<ArrayDeque<Object>> queuedEvents;
+  private final ThreadLocal<Boolean> dispatching;
+
+  public PartitionedEventBus(Executor executor) {
+    this(executor, Platform::isFxApplicationThread);
+  }
+
+  /**
+   * @param inlineDispatch decides whether an {@link AsyncEvent} has to be dispatched on the posting thread anyway
+   */
+  @VisibleForTesting
+  PartitionedEventBus(Executor executor, BooleanSupplier inlineDispatch) {
+    super("partitioned");
+    this.executor = executor;
+    this.inlineDispatch = inlineDispatch;
+    subscribersByEventType = new ConcurrentHashMap<>();
+    partitions = new ConcurrentHashMap<>();
+    queuedEvents = ThreadLocal.withInitial(ArrayDeque::new);
+    dispatching = ThreadLocal.withInitial(() -> false);
+  }
+
+  @Override
+  public void register(Object object) {
+    for (Method method : getSubscriberMethods(object.getClass())) {
+      subscribersByEventType.computeIfAbsent(method.getParameterTypes()[0], type -> new CopyOnWriteArraySet<>())
+          .add(new Subscriber(object, method));
+    }
+  }
+
+  @Override
+  public void unregister(Object object) {
+    List<Method> methods = getSubscriberMethods(object.getClass());
+    boolean removed = methods.isEmpty();
+    for (Method method : methods) {
+      CopyOnWriteArraySet<Subscriber> subscribers = subscribersByEventType.get(method.getParameterTypes()[0]);
+      if (subscribers != null) {
+        removed |= subscribers.remove(new Subscriber(object, method));
+      }
+    }
+    if (!removed) {
+      throw new IllegalArgumentException("Missing event subscriber for an annotated method. Is " + object + " registered?");
+    }
+  }
+
+  @Override
+  public void post(Object event) {
+    if (!ASYNC_EVENT_TYPES.get(event.getClass()) || inlineDispatch.getAsBoolean()) {
+      dispatchOnCurrentThread(event);
+      return;
+    }
+
+    Partition partition = partitions.computeIfAbsent(event.getClass(), Partition::new);
+    boolean schedule;
+    synchronized (partition) {
+      partition.pending.add(event);
+      partition.maxDepth = Math.max(partition.maxDepth, partition.pending.size());
+      schedule = !partition.draining;
+      partition.draining = true;
+    }
+    if (schedule) {
+      try {
+        executor.execute(() -> drain(partition));
+      } catch (RejectedExecutionException e) {
+        log.debug("Executor is shut down, dispatching {} on posting thread", event.getClass().getSimpleName());
+        drain(partition);
+      }
+    }
+  }
+
+  private void drain(Partition partition) {
+    while (true) {
+      Object event;
+      synchronized (partition) {
+        event = partition.pending.poll();
+        if (event == null) {
+          partition.draining = false;
+          return;
+        }
+      }
+      dispatchOnCurrentThread(event);
+    }
+  }
+
+  /**
+   * Dispatches the event unless the current thread is already dispatching an event, in which case it is queued and
+   * dispatched afterwards, like by Guava's event bus.
+   */
+  private void dispatchOnCurrentThread(Object event) {
+    ArrayDeque<Object> queue = queuedEvents.get();
+    queue.add(event);
+    if (dispatching.get()) {
+      return;
+    }
+
+    dispatching.set(true);
+    try {
+      Object next;
+      while ((next = queue.poll()) != null) {
+        dispatch(next);
+      }
+    } finally {
+      dispatching.remove();
+      queuedEvents.remove();
+    }
+  }
+
+  private void dispatch(Object event) {
+    boolean dispatched = false;
+    for (Class<?> eventType : getEventTypes(event.getClass())) {
+      CopyOnWriteArraySet<Subscriber> subscribers = subscribersByEventType.get(eventType);
+      if (subscribers == null) {
+        continue;
+      }
+      for (Subscriber subscriber : subscribers) {
+        dispatched = true;
+        subscriber.invoke(event);
+      }
+    }
+
+    if (!dispatched && !(event instanceof DeadEvent)) {
+      dispatch(new DeadEvent(this, event));
+    }
+  }
+
+  /**
+   * Returns the statistics of all subscribers, slowest first.
+   */
+  public List<SubscriberStatistics> getSubscriberStatistics() {
+    return subscribersByEventType.values().stream()
+        .flatMap(Collection::stream)
+        .map(Subscriber::toStatistics)
+        .sorted(Comparator.comparingLong(SubscriberStatistics::getTotalNanos).reversed())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the statistics of all partitions, i.e. asynchronous event types that have been posted from background
+   * threads.
+   */
+  public List<PartitionStatistics> getPartitionStatistics() {
+    List<PartitionStatistics> statistics = new ArrayList<>();
+    partitions.values().forEach(partition -> {
+      synchronized (partition) {
+        statistics.add(new PartitionStatistics(partition.eventType, partition.pending.size(), partition.maxDepth));
+      }
+    });
+    return statistics;
+  }
+
+  /**
+   * Logs the collected statistics. Called by Spring when the application is shut down.
+   */
+  public void close() {
+    getSubscriberStatistics().stream()
+        .filter(statistics -> statistics.getInvocations() > 0)
+        .forEach(statistics -> log.debug("Subscriber {}: {} invocations, {} ms total, {} ms max",
+            statistics.getSubscriber(), statistics.getInvocations(),
+            TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos()),
+            TimeUnit.NANOSECONDS.toMillis(statistics.getMaxNanos())));
+    getPartitionStatistics().forEach(statistics -> log.debug("Event queue {}: max depth {}",
+        statistics.getEventType().getSimpleName(), statistics.getMaxDepth()));
+  }
+
+  private static List<Method> getSubscriberMethods(Class<?> clazz) {
+    return SUBSCRIBER_METHODS_CACHE.computeIfAbsent(clazz, PartitionedEventBus::findSubscriberMethods);
+  }
+
+  private static List<Method> findSubscriberMethods(Class<?> clazz) {
+    Map<String, Method> methodsBySignature = new HashMap<>();
+    for (Class<?> type : TypeToken.of(clazz).getTypes().rawTypes()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (!method.isAnnotationPresent(Subscribe.class) || method.isSynthetic()) {
+          continue;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1) {
+          throw new IllegalArgumentException("Method " + method + " has @Subscribe annotation but has "
+              + parameterTypes.length + " parameters. Subscriber methods must have exactly 1 parameter.");
+        }
+        method.setAccessible(true);
+        // Overridden methods are only registered once, using the most specific declaration
+        methodsBySignature.putIfAbsent(method.getName() + parameterTypes[0].getName(), method);
+      }
+    }
+    return List.copyOf(methodsBySignature.values());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Set<Class<?>> getEventTypes(Class<?> eventClass) {
+    return EVENT_TYPES_CACHE.computeIfAbsent(eventClass,
+        type -> Set.copyOf((Set<Class<?>>) (Set<?>) TypeToken.of(type).getTypes().rawTypes()));
+  }
+
+  @Value
+  public static class SubscriberStatistics {
+    String subscriber;
+    long invocations;
+    long totalNanos;
+    long maxNanos;
+  }
+
+  @Value
+  public static class PartitionStatistics {
+    Class<?> eventType;
+    int depth;
+    int maxDepth;
+  }
+
+  private class Subscriber {
+    private final Object target;
+    private final Method method;
+    private final boolean threadSafe;
+    private final LongAdder invocations;
+    private final LongAdder totalNanos;
+    private final AtomicLong maxNanos;
+
+    private Subscriber(Object target, Method method) {
+      this.target = target;
+      this.method = method;
+      threadSafe = method.isAnnotationPresent(AllowConcurrentEvents.class);
+      invocations = new LongAdder();
+      totalNanos = new LongAdder();
+      maxNanos = new AtomicLong();
+    }
+
+    private void invoke(Object event) {
+      long start = System.nanoTime();
+      try {
+        if (threadSafe) {
+          method.invoke(target, event);
+        } else {
+          synchronized (this) {
+            method.invoke(target, event);
+          }
+        }
+      } catch (InvocationTargetException e) {
+        log.warn("Exception in '{}#{}' while handling event: {}", target.getClass(), method.getName(), event, e.getCause());
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Subscriber method became inaccessible: " + method, e);
+      } finally {
+        long duration = System.nanoTime() - start;
+        invocations.increment();
+        totalNanos.add(duration);
+        maxNanos.accumulateAndGet(duration, Math::max);
+      }
+    }
+
+    private SubscriberStatistics toStatistics() {
+      return new SubscriberStatistics(target.getClass().getSimpleName() + "#" + method.getName(),
+          invocations.sum(), totalNanos.sum(), maxNanos.get());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Subscriber)) {
+        return false;
+      }
+      Subscriber that = (Subscriber) o;
+      return target == that.target && method.equals(that.method);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(target), method);
+    }
+  }
+
+  private static class Partition {
+    private final Class<?> eventType;
+    /** Queued events in the order they have been posted. */
+    private final ArrayDeque<Object> pending;
+    private boolean draining;
+    private int maxDepth;
+
+    private Partition(Class<?> eventType) {
+      this.eventType = eventType;
+      pending = new ArrayDeque<>();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.faforever.client.fx;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A single image containing many small images ("sprites"), each of which is rendered by setting the atlas as the image
+ * of an {@link ImageView} and the sprite's region as its viewport. This way, thousands of image views share one
+ * texture instead of loading one image each.
+ */
+public final class SpriteAtlas {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** Transparent gap between sprites so that smooth scaling doesn't bleed pixels of neighbouring sprites. */
+  private static final int PADDING = 1;
+  private static final int MAX_ROW_WIDTH = 1024;
+
+  private final Image image;
+  private final Map<String, Rectangle2D> regions;
+
+  private SpriteAtlas(Image image, Map<String, Rectangle2D> regions) {
+    this.image = image;
+    this.regions = regions;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Image getImage() {
+    return image;
+  }
+
+  public Optional<Rectangle2D> getRegion(String key) {
+    return Optional.ofNullable(regions.get(key));
+  }
+
+  public boolean contains(String key) {
+    return regions.containsKey(key);
+  }
+
+  /**
+   * Lets the specified image view display the sprite with the specified key.
+   *
+   * @return {@code false} if there is no such sprite, in which case the image view is left untouched
+   */
+  public boolean apply(ImageView imageView, String key) {
+    Rectangle2D region = regions.get(key);
+    if (region == null) {
+      return false;
+    }
+    imageView.setImage(image);
+    imageView.setViewport(region);
+    return true;
+  }
+
+  public static class Builder {
+    private final Map<String, URL> sprites = new LinkedHashMap<>();
+
+    public Builder add(String key, URL url) {
+      sprites.put(key, url);
+      return this;
+    }
+
+    /**
+     * Loads all sprites synchronously and packs them row by row into a single image. Sprites that can't be loaded are
+     * skipped.
+     */
+    public SpriteAtlas build() {
+      Map<String, Image> images = new LinkedHashMap<>();
+      sprites.forEach((key, url) -> {
+        Image sprite = new Image(url.toString());
+        if (sprite.isError()) {
+          logger.warn("Could not load sprite '{}' from: {}", key, url, sprite.getException());
+          return;
+        }
+        images.put(key, sprite);
+      });
+
+      Map<String, Rectangle2D> regions = new HashMap<>(images.size());
+      int x = 0;
+      int y = 0;
+      int rowHeight = 0;
+      int atlasWidth = 1;
+      for (Map.Entry<String, Image> entry : images.entrySet()) {
+        int width = (int) entry.getValue().getWidth();
+        int height = (int) entry.getValue().getHeight();
+        if (x > 0 && x + width > MAX_ROW_WIDTH) {
+          x = 0;
+          y += rowHeight + PADDING;
+          rowHeight = 0;
+        }
+        regions.put(entry.getKey(), new Rectangle2D(x, y, width, height));
+        atlasWidth = Math.max(atlasWidth, x + width);
+        rowHeight = Math.max(rowHeight, height);
+        x += width + PADDING;
+      }
+      int atlasHeight = Math.max(1, y + rowHeight);
+
+      WritableImage atlas = new WritableImage(atlasWidth, atlasHeight);
+      images.forEach((key, sprite) -> {
+        Rectangle2D region = regions.get(key);
+        PixelReader pixelReader = sprite.getPixelReader();
+        atlas.getPixelWriter().setPixels((int) region.getMinX(), (int) region.getMinY(),
+            (int) region.getWidth(), (int) region.getHeight(), pixelReader, 0, 0);
+      });
+
+      logger.debug("Packed {} sprites into an atlas of {}x{} pixels", regions.size(), atlasWidth, atlasHeight);
+      return new SpriteAtlas(atlas, Map.copyOf(regions));
+    }
+  }
+}
@@ -20,303 +20,677 @@ import javafx.collections.ObservableMap;
 import java.time.Instant;
 import java.util.List;
 
+/**
+ * A game as announced by the server. Like {@link com.faforever.client.player.Player}, values are stored in plain fields
+ * and JavaFX properties are only created when they are requested, e.g. by a UI binding. Games are read by background
+ * threads as well, so properties are published the same way as a player's.
+ */
 public class Game {
-  private final StringProperty host;
-  private final StringProperty title;
-  private final StringProperty mapFolderName;
-  private final StringProperty featuredMod;
-  private final IntegerProperty id;
-  private final IntegerProperty numPlayers;
-  private final IntegerProperty maxPlayers;
-  private final DoubleProperty averageRating;
-  private final IntegerProperty minRating;
-  private final IntegerProperty maxRating;
-  private final BooleanProperty passwordProtected;
-  private final StringProperty password;
-  private final ObjectProperty<GameVisibility> visibility;
-  private final ObjectProperty<GameStatus> status;
-  private final ObjectProperty<VictoryCondition> victoryCondition;
-  private final ObjectProperty<Instant> startTime;
+  private volatile String host;
+  private volatile StringProperty hostProperty;
+  private volatile String title;
+  private volatile StringProperty titleProperty;
+  private volatile String mapFolderName;
+  private volatile StringProperty mapFolderNameProperty;
+  private volatile String featuredMod;
+  private volatile StringProperty featuredModProperty;
+  private volatile int id;
+  private volatile IntegerProperty idProperty;
+  private volatile int numPlayers;
+  private volatile IntegerProperty numPlayersProperty;
+  private volatile int maxPlayers;
+  private volatile IntegerProperty maxPlayersProperty;
+  private volatile double averageRating;
+  private volatile DoubleProperty averageRatingProperty;
+  private volatile int minRating;
+  private volatile IntegerProperty minRatingProperty;
+  private volatile int maxRating;
+  private volatile IntegerProperty maxRatingProperty;
+  private volatile GameStatus status;
+  private volatile ObjectProperty<GameStatus> statusProperty;
+  private volatile VictoryCondition victoryCondition;
+  private volatile ObjectProperty<VictoryCondition> victoryConditionProperty;
+  private volatile GameVisibility visibility;
+  private volatile ObjectProperty<GameVisibility> visibilityProperty;
+  private volatile boolean passwordProtected;
+  private volatile BooleanProperty passwordProtectedProperty;
+  private volatile String password;
+  private volatile StringProperty passwordProperty;
+  private volatile Instant startTime;
+  private volatile ObjectProperty<Instant> startTimeProperty;
   /**
    * Maps a sim mod's UID to its name.
    */
-  private final MapProperty<String, String> simMods;
-  private final MapProperty<String, List<String>> teams;
+  private volatile ObservableMap<String, String> simMods;
+  private volatile MapProperty<String, String> simModsProperty;
+  private volatile ObservableMap<String, List<String>> teams;
+  private volatile MapProperty<String, List<String>> teamsProperty;
   /**
    * Maps an index (1,2,3,4...) to a version number. Don't ask me what this index maps to.
    */
-  private final MapProperty<String, Integer> featuredModVersions;
+  private volatile ObservableMap<String, Integer> featuredModVersions;
+  private volatile MapProperty<String, Integer> featuredModVersionsProperty;
 
   public Game() {
-    id = new SimpleIntegerProperty();
-    host = new SimpleStringProperty();
-    title = new SimpleStringProperty();
-    mapFolderName = new SimpleStringProperty();
-    featuredMod = new SimpleStringProperty();
-    numPlayers = new SimpleIntegerProperty();
-    maxPlayers = new SimpleIntegerProperty();
-    averageRating = new SimpleDoubleProperty(0);
-    minRating = new SimpleIntegerProperty(0);
-    maxRating = new SimpleIntegerProperty(3000);
-    passwordProtected = new SimpleBooleanProperty();
-    password = new SimpleStringProperty();
-    victoryCondition = new SimpleObjectProperty<>();
-    visibility = new SimpleObjectProperty<>();
-    simMods = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    teams = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    featuredModVersions = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    status = new SimpleObjectProperty<>();
-    startTime = new SimpleObjectProperty<>();
+    maxRating = 3000;
+    simMods = FXCollections.observableHashMap();
+    teams = FXCollections.observableHashMap();
+    featuredModVersions = FXCollections.observableHashMap();
   }
 
   public String getHost() {
-    return host.get();
+    StringProperty property = hostProperty;
+    return property == null ? host : property.get();
   }
 
   public void setHost(String host) {
-    this.host.set(host);
+    StringProperty property;
+    synchronized (this) {
+      property = hostProperty;
+      if (property == null) {
+        this.host = host;
+      }
+    }
+    if (property != null) {
+      property.set(host);
+    }
   }
 
   public StringProperty hostProperty() {
-    return host;
+    StringProperty property = hostProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (hostProperty == null) {
+          hostProperty = new SimpleStringProperty(this, "host", host);
+        }
+        property = hostProperty;
+      }
+    }
+    return property;
   }
 
   public String getTitle() {
-    return title.get();
+    StringProperty property = titleProperty;
+    return property == null ? title : property.get();
   }
 
   public void setTitle(String title) {
-    this.title.set(title);
+    StringProperty property;
+    synchronized (this) {
+      property = titleProperty;
+      if (property == null) {
+        this.title = title;
+      }
+    }
+    if (property != null) {
+      property.set(title);
+    }
   }
 
   public StringProperty titleProperty() {
-    return title;
+    StringProperty property = titleProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (titleProperty == null) {
+          titleProperty = new SimpleStringProperty(this, "title", title);
+        }
+        property = titleProperty;
+      }
+    }
+    return property;
   }
 
   public String getMapFolderName() {
-    return mapFolderName.get();
+    StringProperty property = mapFolderNameProperty;
+    return property == null ? mapFolderName : property.get();
   }
 
   public void setMapFolderName(String mapFolderName) {
-    this.mapFolderName.set(mapFolderName);
+    StringProperty property;
+    synchronized (this) {
+      property = mapFolderNameProperty;
+      if (property == null) {
+        this.mapFolderName = mapFolderName;
+      }
+    }
+    if (property != null) {
+      property.set(mapFolderName);
+    }
   }
 
   public StringProperty mapFolderNameProperty() {
-    return mapFolderName;
+    StringProperty property = mapFolderNameProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (mapFolderNameProperty == null) {
+          mapFolderNameProperty = new SimpleStringProperty(this, "mapFolderName", mapFolderName);
+        }
+        property = mapFolderNameProperty;
+      }
+    }
+    return property;
   }
 
   public String getFeaturedMod() {
-    return featuredMod.get();
+    StringProperty property = featuredModProperty;
+    return property == null ? featuredMod : property.get();
   }
 
   public void setFeaturedMod(String featuredMod) {
-    this.featuredMod.set(featuredMod);
+    StringProperty property;
+    synchronized (this) {
+      property = featuredModProperty;
+      if (property == null) {
+        this.featuredMod = featuredMod;
+      }
+    }
+    if (property != null) {
+      property.set(featuredMod);
+    }
   }
 
   public StringProperty featuredModProperty() {
-    return featuredMod;
+    StringProperty property = featuredModProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (featuredModProperty == null) {
+          featuredModProperty = new SimpleStringProperty(this, "featuredMod", featuredMod);
+        }
+        property = featuredModProperty;
+      }
+    }
+    return property;
   }
 
   public int getId() {
-    return id.get();
+    IntegerProperty property = idProperty;
+    return property == null ? id : property.get();
   }
 
   public void setId(int id) {
-    this.id.set(id);
+    IntegerProperty property;
+    synchronized (this) {
+      property = idProperty;
+      if (property == null) {
+        this.id = id;
+      }
+    }
+    if (property != null) {
+      property.set(id);
+    }
   }
 
   public IntegerProperty idProperty() {
-    return id;
+    IntegerProperty property = idProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (idProperty == null) {
+          idProperty = new SimpleIntegerProperty(this, "id", id);
+        }
+        property = idProperty;
+      }
+    }
+    return property;
   }
 
   public int getNumPlayers() {
-    return numPlayers.get();
+    IntegerProperty property = numPlayersProperty;
+    return property == null ? numPlayers : property.get();
   }
 
   public void setNumPlayers(int numPlayers) {
-    this.numPlayers.set(numPlayers);
+    IntegerProperty property;
+    synchronized (this) {
+      property = numPlayersProperty;
+      if (property == null) {
+        this.numPlayers = numPlayers;
+      }
+    }
+    if (property != null) {
+      property.set(numPlayers);
+    }
   }
 
   public IntegerProperty numPlayersProperty() {
-    return numPlayers;
+    IntegerProperty property = numPlayersProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (numPlayersProperty == null) {
+          numPlayersProperty = new SimpleIntegerProperty(this, "numPlayers", numPlayers);
+        }
+        property = numPlayersProperty;
+      }
+    }
+    return property;
   }
 
   public int getMaxPlayers() {
-    return maxPlayers.get();
+    IntegerProperty property = maxPlayersProperty;
+    return property == null ? maxPlayers : property.get();
   }
 
   public void setMaxPlayers(int maxPlayers) {
-    this.maxPlayers.set(maxPlayers);
+    IntegerProperty property;
+    synchronized (this) {
+      property = maxPlayersProperty;
+      if (property == null) {
+        this.maxPlayers = maxPlayers;
+      }
+    }
+    if (property != null) {
+      property.set(maxPlayers);
+    }
   }
 
   public IntegerProperty maxPlayersProperty() {
-    return maxPlayers;
+    IntegerProperty property = maxPlayersProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (maxPlayersProperty == null) {
+          maxPlayersProperty = new SimpleIntegerProperty(this, "maxPlayers", maxPlayers);
+        }
+        property = maxPlayersProperty;
+      }
+    }
+    return property;
   }
 
   public double getAverageRating() {
-    return averageRating.get();
+    DoubleProperty property = averageRatingProperty;
+    return property == null ? averageRating : property.get();
   }
 
-  public DoubleProperty averageRatingProperty() {
-    return averageRating;
+  public void setAverageRating(double averageRating) {
+    DoubleProperty property;
+    synchronized (this) {
+      property = averageRatingProperty;
+      if (property == null) {
+        this.averageRating = averageRating;
+      }
+    }
+    if (property != null) {
+      property.set(averageRating);
+    }
   }
 
-  public void setAverageRating(double averageRating) {
-    this.averageRating.set(averageRating);
+  public DoubleProperty averageRatingProperty() {
+    DoubleProperty property = averageRatingProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (averageRatingProperty == null) {
+          averageRatingProperty = new SimpleDoubleProperty(this, "averageRating", averageRating);
+        }
+        property = averageRatingProperty;
+      }
+    }
+    return property;
   }
 
   public int getMinRating() {
-    return minRating.get();
+    IntegerProperty property = minRatingProperty;
+    return property == null ? minRating : property.get();
   }
 
   public void setMinRating(int minRating) {
-    this.minRating.set(minRating);
+    IntegerProperty property;
+    synchronized (this) {
+      property = minRatingProperty;
+      if (property == null) {
+        this.minRating = minRating;
+      }
+    }
+    if (property != null) {
+      property.set(minRating);
+    }
   }
 
   public IntegerProperty minRatingProperty() {
-    return minRating;
+    IntegerProperty property = minRatingProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (minRatingProperty == null) {
+          minRatingProperty = new SimpleIntegerProperty(this, "minRating", minRating);
+        }
+        property = minRatingProperty;
+      }
+    }
+    return property;
   }
 
   public int getMaxRating() {
-    return maxRating.get();
+    IntegerProperty property = maxRatingProperty;
+    return property == null ? maxRating : property.get();
   }
 
   public void setMaxRating(int maxRating) {
-    this.maxRating.set(maxRating);
+    IntegerProperty property;
+    synchronized (this) {
+      property = maxRatingProperty;
+      if (property == null) {
+        this.maxRating = maxRating;
+      }
+    }
+    if (property != null) {
+      property.set(maxRating);
+    }
   }
 
   public IntegerProperty maxRatingProperty() {
-    return maxRating;
+    IntegerProperty property = maxRatingProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (maxRatingProperty == null) {
+          maxRatingProperty = new SimpleIntegerProperty(this, "maxRating", maxRating);
+        }
+        property = maxRatingProperty;
+      }
+    }
+    return property;
   }
 
   public GameStatus getStatus() {
-    return status.get();
+    ObjectProperty<GameStatus> property = statusProperty;
+    return property == null ? status : property.get();
   }
 
   public void setStatus(GameStatus status) {
-    this.status.set(status);
+    ObjectProperty<GameStatus> property;
+    synchronized (this) {
+      property = statusProperty;
+      if (property == null) {
+        this.status = status;
+      }
+    }
+    if (property != null) {
+      property.set(status);
+    }
   }
 
   public ObjectProperty<GameStatus> statusProperty() {
-    return status;
+    ObjectProperty<GameStatus> property = statusProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (statusProperty == null) {
+          statusProperty = new SimpleObjectProperty<>(this, "status", status);
+        }
+        property = statusProperty;
+      }
+    }
+    return property;
   }
 
   public VictoryCondition getVictoryCondition() {
-    return victoryCondition.get();
+    ObjectProperty<VictoryCondition> property = victoryConditionProperty;
+    return property == null ? victoryCondition : property.get();
   }
 
   public void setVictoryCondition(VictoryCondition victoryCondition) {
-    this.victoryCondition.set(victoryCondition);
+    ObjectProperty<VictoryCondition> property;
+    synchronized (this) {
+      property = victoryConditionProperty;
+      if (property == null) {
+        this.victoryCondition = victoryCondition;
+      }
+    }
+    if (property != null) {
+      property.set(victoryCondition);
+    }
   }
 
   public ObjectProperty<VictoryCondition> victoryConditionProperty() {
-    return victoryCondition;
+    ObjectProperty<VictoryCondition> property = victoryConditionProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (victoryConditionProperty == null) {
+          victoryConditionProperty = new SimpleObjectProperty<>(this, "victoryCondition", victoryCondition);
+        }
+        property = victoryConditionProperty;
+      }
+    }
+    return property;
   }
 
-  /**
-   * Returns a map of simulation mod UIDs to the mod's name.
-   */
-  public ObservableMap<String, String> getSimMods() {
-    return simMods.get();
+  public GameVisibility getVisibility() {
+    ObjectProperty<GameVisibility> property = visibilityProperty;
+    return property == null ? visibility : property.get();
   }
 
-  public void setSimMods(ObservableMap<String, String> simMods) {
-    this.simMods.set(simMods);
+  public void setVisibility(GameVisibility visibility) {
+    ObjectProperty<GameVisibility> property;
+    synchronized (this) {
+      property = visibilityProperty;
+      if (property == null) {
+        this.visibility = visibility;
+      }
+    }
+    if (property != null) {
+      property.set(visibility);
+    }
   }
 
-  public MapProperty<String, String> simModsProperty() {
-    return simMods;
+  public ObjectProperty<GameVisibility> visibilityProperty() {
+    ObjectProperty<GameVisibility> property = visibilityProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (visibilityProperty == null) {
+          visibilityProperty = new SimpleObjectProperty<>(this, "visibility", visibility);
+        }
+        property = visibilityProperty;
+      }
+    }
+    return property;
   }
 
-  /**
-   * Maps team names ("1", "2", ...) to a list of player names. <strong>Make sure to synchronize on the return
-   * value.</strong>
-   */
-  public ObservableMap<String, List<String>> getTeams() {
-    return teams.get();
+  public boolean isPasswordProtected() {
+    BooleanProperty property = passwordProtectedProperty;
+    return property == null ? passwordProtected : property.get();
   }
 
-  public void setTeams(ObservableMap<String, List<String>> teams) {
-    this.teams.set(teams);
+  public void setPasswordProtected(boolean passwordProtected) {
+    BooleanProperty property;
+    synchronized (this) {
+      property = passwordProtectedProperty;
+      if (property == null) {
+        this.passwordProtected = passwordProtected;
+      }
+    }
+    if (property != null) {
+      property.set(passwordProtected);
+    }
   }
 
-  public MapProperty<String, List<String>> teamsProperty() {
-    return teams;
+  public BooleanProperty passwordProtectedProperty() {
+    BooleanProperty property = passwordProtectedProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (passwordProtectedProperty == null) {
+          passwordProtectedProperty = new SimpleBooleanProperty(this, "passwordProtected", passwordProtected);
+        }
+        property = passwordProtectedProperty;
+      }
+    }
+    return property;
   }
 
-  public ObservableMap<String, Integer> getFeaturedModVersions() {
-    return featuredModVersions.get();
+  public String getPassword() {
+    StringProperty property = passwordProperty;
+    return property == null ? password : property.get();
   }
 
-  public void setFeaturedModVersions(ObservableMap<String, Integer> featuredModVersions) {
-    this.featuredModVersions.set(featuredModVersions);
+  public void setPassword(String password) {
+    StringProperty property;
+    synchronized (this) {
+      property = passwordProperty;
+      if (property == null) {
+        this.password = password;
+      }
+    }
+    if (property != null) {
+      property.set(password);
+    }
   }
 
-  public MapProperty<String, Integer> featuredModVersionsProperty() {
-    return featuredModVersions;
+  public StringProperty passwordProperty() {
+    StringProperty property = passwordProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (passwordProperty == null) {
+          passwordProperty = new SimpleStringProperty(this, "password", password);
+        }
+        property = passwordProperty;
+      }
+    }
+    return property;
   }
 
-  @Override
-  public int hashCode() {
-    return id.getValue().hashCode();
+  public Instant getStartTime() {
+    ObjectProperty<Instant> property = startTimeProperty;
+    return property == null ? startTime : property.get();
   }
 
-  @Override
-  public boolean equals(Object obj) {
-    return obj instanceof Game
-        && id.getValue().equals(((Game) obj).id.getValue());
+  public void setStartTime(Instant startTime) {
+    ObjectProperty<Instant> property;
+    synchronized (this) {
+      property = startTimeProperty;
+      if (property == null) {
+        this.startTime = startTime;
+      }
+    }
+    if (property != null) {
+      property.set(startTime);
+    }
   }
 
-  public GameVisibility getVisibility() {
-    return visibility.get();
+  public ObjectProperty<Instant> startTimeProperty() {
+    ObjectProperty<Instant> property = startTimeProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (startTimeProperty == null) {
+          startTimeProperty = new SimpleObjectProperty<>(this, "startTime", startTime);
+        }
+        property = startTimeProperty;
+      }
+    }
+    return property;
   }
 
-  public ObjectProperty<GameVisibility> visibilityProperty() {
-    return visibility;
+  /**
+   * Returns a map of simulation mod UIDs to the mod's name.
+   */
+  public ObservableMap<String, String> getSimMods() {
+    MapProperty<String, String> property = simModsProperty;
+    return property == null ? simMods : property.get();
   }
 
-  public boolean isPasswordProtected() {
-    return passwordProtected.get();
+  public void setSimMods(ObservableMap<String, String> simMods) {
+    MapProperty<String, String> property;
+    synchronized (this) {
+      property = simModsProperty;
+      if (property == null) {
+        this.simMods = simMods;
+      }
+    }
+    if (property != null) {
+      property.set(simMods);
+    }
   }
 
-  public BooleanProperty passwordProtectedProperty() {
-    return passwordProtected;
+  public MapProperty<String, String> simModsProperty() {
+    MapProperty<String, String> property = simModsProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (simModsProperty == null) {
+          simModsProperty = new SimpleMapProperty<>(this, "simMods", simMods);
+        }
+        property = simModsProperty;
+      }
+    }
+    return property;
   }
 
-  public void setPasswordProtected(boolean passwordProtected) {
-    this.passwordProtected.set(passwordProtected);
+  /**
+   * Maps team names ("1", "2", ...) to a list of player names. <strong>Make sure to synchronize on the return
+   * value.</strong>
+   */
+  public ObservableMap<String, List<String>> getTeams() {
+    MapProperty<String, List<String>> property = teamsProperty;
+    return property == null ? teams : property.get();
   }
 
-  public String getPassword() {
-    return password.get();
+  public void setTeams(ObservableMap<String, List<String>> teams) {
+    MapProperty<String, List<String>> property;
+    synchronized (this) {
+      property = teamsProperty;
+      if (property == null) {
+        this.teams = teams;
+      }
+    }
+    if (property != null) {
+      property.set(teams);
+    }
   }
 
-  public void setPassword(String password) {
-    this.password.set(password);
+  public MapProperty<String, List<String>> teamsProperty() {
+    MapProperty<String, List<String>> property = teamsProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (teamsProperty == null) {
+          teamsProperty = new SimpleMapProperty<>(this, "teams", teams);
+        }
+        property = teamsProperty;
+      }
+    }
+    return property;
   }
 
-  public StringProperty passwordProperty() {
-    return password;
+  public ObservableMap<String, Integer> getFeaturedModVersions() {
+    MapProperty<String, Integer> property = featuredModVersionsProperty;
+    return property == null ? featuredModVersions : property.get();
   }
 
-  public Instant getStartTime() {
-    return startTime.get();
+  public void setFeaturedModVersions(ObservableMap<String, Integer> featuredModVersions) {
+    MapProperty<String, Integer> property;
+    synchronized (this) {
+      property = featuredModVersionsProperty;
+      if (property == null) {
+        this.featuredModVersions = featuredModVersions;
+      }
+    }
+    if (property != null) {
+      property.set(featuredModVersions);
+    }
   }
 
-  public void setStartTime(Instant startTime) {
-    this.startTime.set(startTime);
+  public MapProperty<String, Integer> featuredModVersionsProperty() {
+    MapProperty<String, Integer> property = featuredModVersionsProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (featuredModVersionsProperty == null) {
+          featuredModVersionsProperty = new SimpleMapProperty<>(this, "featuredModVersions", featuredModVersions);
+        }
+        property = featuredModVersionsProperty;
+      }
+    }
+    return property;
   }
 
-  public ObjectProperty<Instant> startTimeProperty() {
-    return startTime;
+  @Override
+  public int hashCode() {
+    return Integer.hashCode(getId());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof Game
+        && getId() == ((Game) obj).getId();
   }
 
   @Override
   public String toString() {
     return "Game{" +
-        "title=" + title.get() +
-        ", id=" + id.get() +
-        ", status=" + status.get() +
+        "title=" + getTitle() +
+        ", id=" + getId() +
+        ", status=" + getStatus() +
         '}';
   }
 }
@@ -37,6 +37,7 @@ import com.faforever.client.remote.domain.LoginMessage;
 import com.faforever.client.replay.ReplayServer;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.ui.preferences.event.GameDirectoryChooseEvent;
+import com.faforever.client.util.MapUtil;
 import com.faforever.client.util.RatingUtil;
 import com.faforever.client.util.TimeUtil;
 import com.google.common.annotations.VisibleForTesting;
@@ -68,6 +69,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -83,6 +85,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -141,6 +144,7 @@ public class GameService implements InitializingBean {
   private final DiscordRichPresenceService discordRichPresenceService;
   private final ReplayServer replayServer;
   private final ReconnectTimerService reconnectTimerService;
+  private final Duration reconnectGracePeriod;
 
   @VisibleForTesting
   RatingMode ratingMode;
@@ -152,6 +156,13 @@ public class GameService implements InitializingBean {
   private Process process;
   private boolean rehostRequested;
   private int localReplayPort;
+  /**
+   * IDs of the games that were known when the connection was lost and haven't been confirmed by the server since, or
+   * {@code null} if there's nothing to reconcile. Only accessed on the application thread.
+   */
+  private Set<Integer> unconfirmedGameIds;
+  /** Counts connection losses so that a grace period timeout can tell whether it's still the latest one. */
+  private int disconnectCount;
 
   @Inject
   public GameService(ClientProperties clientProperties,
@@ -191,6 +202,7 @@ public class GameService implements InitializingBean {
     this.reconnectTimerService = reconnectTimerService;
 
     faWindowTitle = clientProperties.getForgedAlliance().getWindowTitle();
+    reconnectGracePeriod = clientProperties.getServer().getReconnectGracePeriod();
     uidToGameInfoBean = FXCollections.observableMap(new ConcurrentHashMap<>());
     searching1v1 = new SimpleBooleanProperty();
     gameRunning = new SimpleBooleanProperty();
@@ -232,9 +244,7 @@ public class GameService implements InitializingBean {
         fafService.connectionStateProperty(),
         (observable, oldValue, newValue) -> {
           if (newValue == ConnectionState.DISCONNECTED) {
-            synchronized (uidToGameInfoBean) {
-              uidToGameInfoBean.clear();
-            }
+            onDisconnected();
           }
         }
     );
@@ -687,15 +697,53 @@ public class GameService implements InitializingBean {
     }
   }
 
+  /**
+   * Keeps the known games when the connection is lost, so that they can be reconciled with the games sent after
+   * reconnecting. Games that are still running keep their identity and therefore all UI bindings, which avoids
+   * rebuilding every view after a short connection drop. Games that haven't been confirmed within {@link
+   * #reconnectGracePeriod} are removed, whether the client has reconnected by then or not, since the server doesn't
+   * necessarily send the full game list after reconnecting.
+   */
+  private void onDisconnected() {
+    JavaFxUtil.assertApplicationThread();
+    if (unconfirmedGameIds == null) {
+      synchronized (uidToGameInfoBean) {
+        unconfirmedGameIds = new HashSet<>(uidToGameInfoBean.keySet());
+      }
+    }
+
+    int disconnect = ++disconnectCount;
+    CompletableFuture.delayedExecutor(reconnectGracePeriod.toMillis(), TimeUnit.MILLISECONDS).execute(() -> Platform.runLater(() -> {
+      if (disconnect == disconnectCount) {
+        removeUnconfirmedGames();
+      }
+    }));
+  }
+
+  private void removeUnconfirmedGames() {
+    if (unconfirmedGameIds == null) {
+      return;
+    }
+    log.debug("Removing {} games that are no longer known to the server", unconfirmedGameIds.size());
+    unconfirmedGameIds.forEach(this::removeGame);
+    unconfirmedGameIds = null;
+  }
+
   private void onGameInfo(GameInfoMessage gameInfoMessage) {
     // Since all game updates are usually reflected on the UI and to prevent deadlocks
     JavaFxUtil.assertApplicationThread();
 
     if (gameInfoMessage.getGames() != null) {
       gameInfoMessage.getGames().forEach(this::onGameInfo);
+      // The server sends all games after login, so any game that hasn't been confirmed by now doesn't exist anymore
+      removeUnconfirmedGames();
       return;
     }
 
+    if (unconfirmedGameIds != null) {
+      unconfirmedGameIds.remove(gameInfoMessage.getUid());
+    }
+
     // We may receive game info before we receive our player info
     Optional<Player> currentPlayerOptional = playerService.getCurrentPlayer();
 
@@ -726,8 +774,9 @@ public class GameService implements InitializingBean {
         }
       }
     }
+  }
 
-
+  private void focusGameWindowWhenStarted(Game game) {
     JavaFxUtil.addListener(game.statusProperty(), (observable, oldValue, newValue) -> {
       if (oldValue == GameStatus.OPEN
           && newValue == GameStatus.PLAYING
@@ -741,12 +790,15 @@ public class GameService implements InitializingBean {
   private Game createOrUpdateGame(GameInfoMessage gameInfoMessage) {
     Integer gameId = gameInfoMessage.getUid();
     final Game game;
+    final Object event;
     synchronized (uidToGameInfoBean) {
       if (!uidToGameInfoBean.containsKey(gameId)) {
         game = new Game();
         uidToGameInfoBean.put(gameId, game);
         updateFromGameInfo(gameInfoMessage, game);
-        eventBus.post(new GameAddedEvent(game));
+        // Registered once per game since each game info would otherwise add another listener
+        focusGameWindowWhenStarted(game);
+        event = new GameAddedEvent(game);
       } else {
         game = uidToGameInfoBean.get(gameId);
 
@@ -757,9 +809,11 @@ public class GameService implements InitializingBean {
         JavaFxUtil.assertApplicationThread();
 
         updateFromGameInfo(gameInfoMessage, game);
-        eventBus.post(new GameUpdatedEvent(game));
+        event = new GameUpdatedEvent(game);
       }
     }
+    // Subscribers must not run while the games are locked
+    eventBus.post(event);
     return game;
   }
 
@@ -810,24 +864,15 @@ public class GameService implements InitializingBean {
     game.setAverageRating(calcAverageRating(gameInfoMessage));
 
     synchronized (game.getSimMods()) {
-      game.getSimMods().clear();
-      if (gameInfoMessage.getSimMods() != null) {
-        game.getSimMods().putAll(gameInfoMessage.getSimMods());
-      }
+      MapUtil.updateMap(game.getSimMods(), gameInfoMessage.getSimMods());
     }
 
     synchronized (game.getTeams()) {
-      game.getTeams().clear();
-      if (gameInfoMessage.getTeams() != null) {
-        game.getTeams().putAll(gameInfoMessage.getTeams());
-      }
+      MapUtil.updateMap(game.getTeams(), gameInfoMessage.getTeams());
     }
 
     synchronized (game.getFeaturedModVersions()) {
-      game.getFeaturedModVersions().clear();
-      if (gameInfoMessage.getFeaturedModVersions() != null) {
-        game.getFeaturedModVersions().putAll(gameInfoMessage.getFeaturedModVersions());
-      }
+      MapUtil.updateMap(game.getFeaturedModVersions(), gameInfoMessage.getFeaturedModVersions());
     }
 
     // TODO this can be removed as soon as we valueOf server side support. Until then, let's be hacky
@@ -872,6 +917,16 @@ public class GameService implements InitializingBean {
     eventBus.post(new GameRemovedEvent(game));
   }
 
+  private void removeGame(int gameId) {
+    Game game;
+    synchronized (uidToGameInfoBean) {
+      game = uidToGameInfoBean.remove(gameId);
+    }
+    if (game != null) {
+      eventBus.post(new GameRemovedEvent(game));
+    }
+  }
+
   public void killGame() {
     if (process != null && process.isAlive()) {
       log.info("ForgedAlliance still running, destroying process");
@@ -7,13 +7,17 @@ import com.faforever.client.fx.StringCell;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
 import com.faforever.client.map.MapService.PreviewSize;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.rating.RatingService;
 import com.faforever.client.remote.domain.RatingRange;
 import com.faforever.client.theme.UiService;
 import com.google.common.base.Joiner;
 import javafx.application.Platform;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -41,11 +45,14 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.lang.ref.WeakReference;
 import java.text.DecimalFormat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -60,11 +67,16 @@ public class GamesTableController implements Controller<Node> {
   private final I18n i18n;
   private final UiService uiService;
   private final PreferencesService preferencesService;
+  private final RatingService ratingService;
+  private final PlayerService playerService;
+  /** Weakly keyed, the bindings only reference their games weakly. */
+  private final Map<Game, DoubleBinding> qualityBindings = new WeakHashMap<>();
   public TableView<Game> gamesTable;
   public TableColumn<Game, Image> mapPreviewColumn;
   public TableColumn<Game, String> gameTitleColumn;
   public TableColumn<Game, PlayerFill> playersColumn;
   public TableColumn<Game, Number> averageRatingColumn;
+  public TableColumn<Game, Number> qualityColumn;
   public TableColumn<Game, RatingRange> ratingRangeColumn;
   public TableColumn<Game, String> modsColumn;
   public TableColumn<Game, String> hostColumn;
@@ -144,6 +156,11 @@ public class GamesTableController implements Controller<Node> {
       );
     }
 
+    if (qualityColumn != null) {
+      qualityColumn.setCellValueFactory(param -> qualityBinding(param.getValue()));
+      qualityColumn.setCellFactory(param -> qualityCell());
+    }
+
     if (coopMissionNameProvider != null) {
       coopMissionName.setCellFactory(param -> new StringCell<>(name -> name));
       coopMissionName.setCellValueFactory(param -> new SimpleObjectProperty<>(coopMissionNameProvider.apply(param.getValue().getMapFolderName())));
@@ -247,6 +264,61 @@ public class GamesTableController implements Controller<Node> {
         playerFill.getPlayers(), playerFill.getMaxPlayers()), Pos.CENTER);
   }
 
+  /**
+   * Returns the game's quality binding, which is created once per game and caches the quality until the teams or the
+   * ratings of the seated players change, so sorting doesn't recalculate it. Since the seated players change with the
+   * teams, their ratings are observed anew whenever the quality is recalculated. The binding only references the game
+   * weakly, so that it's removed from the cache along with the game.
+   */
+  private DoubleBinding qualityBinding(Game game) {
+    return qualityBindings.computeIfAbsent(game, QualityBinding::new);
+  }
+
+  private Observable[] getRatingObservables(Game game) {
+    List<String> playerNames;
+    synchronized (game.getTeams()) {
+      playerNames = game.getTeams().values().stream()
+          .flatMap(List::stream)
+          .collect(Collectors.toList());
+    }
+    return playerNames.stream()
+        .map(playerService::getPlayerForUsername)
+        .flatMap(Optional::stream)
+        .map(Player::ratingsObservable)
+        .toArray(Observable[]::new);
+  }
+
+  private class QualityBinding extends DoubleBinding {
+    private final WeakReference<Game> gameReference;
+    private Observable[] ratingObservables = new Observable[0];
+
+    private QualityBinding(Game game) {
+      gameReference = new WeakReference<>(game);
+      bind(game.teamsProperty());
+    }
+
+    @Override
+    protected double computeValue() {
+      Game game = gameReference.get();
+      if (game == null) {
+        return Double.NaN;
+      }
+      unbind(ratingObservables);
+      ratingObservables = getRatingObservables(game);
+      bind(ratingObservables);
+      return ratingService.calculateQuality(game);
+    }
+  }
+
+  private TableCell<Game, Number> qualityCell() {
+    return new StringCell<>(quality -> {
+      if (Double.isNaN(quality.doubleValue())) {
+        return i18n.get("gameQuality.undefined");
+      }
+      return i18n.get("percentage", Math.round(quality.doubleValue() * 100));
+    }, Pos.CENTER);
+  }
+
   private TableCell<Game, RatingRange> ratingTableCell() {
     return new StringCell<>(ratingRange -> {
       if (ratingRange.getMin() == null && ratingRange.getMax() == null) {
@@ -0,0 +1,207 @@
+package com.faforever.client.io;
+
+import com.faforever.client.task.ResourceLocks;
+import com.faforever.commons.io.ByteCountListener;
+import com.faforever.commons.io.Unzipper;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Installs an archive that contains a single top-level folder, like a map or a mod, into a directory. The archive is
+ * unzipped while it's being read into a staging folder next to its final location, which is ignored by the {@link
+ * DirectoryWatcherService}. Only if it has been unzipped completely and its content has been verified, an old version
+ * of the folder is replaced by moving the staged one into place. This way, an interrupted download never leaves a
+ * half-written folder behind. Staging folders that are left over because the client has been killed during an
+ * installation are deleted by the next installation into the same directory.
+ */
+public final class ArchiveInstaller {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** Folders with this suffix are ignored by the directory watcher as well as by the map and mod services. */
+  public static final String STAGING_SUFFIX = ".tmp";
+  private static final long ZIP_BOMB_BYTE_COUNT_THRESHOLD = 100_000_000;
+  private static final String STAGING_PREFIX = ".";
+  /** Staging folders of other clients that are still installing aren't deleted unless they're older than this. */
+  private static final Duration STALE_STAGING_FOLDER_AGE = Duration.ofHours(1);
+  /** The staging folders of installations that are currently running in this client. */
+  private static final Set<Path> ACTIVE_STAGING_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+  private final InputStream inputStream;
+  private Path targetDirectory;
+  private long totalBytes = -1;
+  private ByteCountListener listener = (written, total) -> {
+  };
+  private Predicate<Path> verifier = folder -> true;
+
+  private ArchiveInstaller(InputStream inputStream) {
+    this.inputStream = inputStream;
+  }
+
+  public static ArchiveInstaller from(InputStream inputStream) {
+    return new ArchiveInstaller(inputStream);
+  }
+
+  public static boolean isStagingFolder(Path path) {
+    return path.getFileName().toString().endsWith(STAGING_SUFFIX);
+  }
+
+  public ArchiveInstaller to(Path targetDirectory) {
+    this.targetDirectory = targetDirectory;
+    return this;
+  }
+
+  public ArchiveInstaller totalBytes(long totalBytes) {
+    this.totalBytes = totalBytes;
+    return this;
+  }
+
+  public ArchiveInstaller listener(ByteCountListener listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  /**
+   * @param verifier tests whether the unzipped top-level folder is complete, e.g. whether it contains a scenario file
+   */
+  public ArchiveInstaller verifier(Predicate<Path> verifier) {
+    this.verifier = verifier;
+    return this;
+  }
+
+  /**
+   * Unzips the archive and moves its top-level folder into the target directory, replacing an existing folder of the
+   * same name.
+   *
+   * @return the installed folder
+   */
+  public Path install() throws IOException, ArchiveException {
+    Objects.requireNonNull(targetDirectory, "targetDirectory has not been set");
+
+    Files.createDirectories(targetDirectory);
+    deleteStaleStagingDirectories(targetDirectory);
+    Path stagingDirectory = targetDirectory.resolve(STAGING_PREFIX + UUID.randomUUID() + STAGING_SUFFIX);
+    ACTIVE_STAGING_DIRECTORIES.add(stagingDirectory);
+    Files.createDirectory(stagingDirectory);
+    try {
+      logger.debug("Unzipping archive to staging directory {}", stagingDirectory);
+      Unzipper.from(inputStream)
+          .to(stagingDirectory)
+          .zipBombByteCountThreshold(ZIP_BOMB_BYTE_COUNT_THRESHOLD)
+          .totalBytes(totalBytes)
+          .listener(listener)
+          .unzip();
+
+      Path stagedFolder = getSingleTopLevelFolder(stagingDirectory);
+      if (!verifier.test(stagedFolder)) {
+        throw new IOException("Archive content is incomplete: " + stagedFolder.getFileName());
+      }
+
+      Path installedFolder = targetDirectory.resolve(stagedFolder.getFileName().toString());
+      ResourceLocks.acquireDiskLock();
+      try {
+        replace(stagedFolder, installedFolder, stagingDirectory, ArchiveInstaller::move);
+      } finally {
+        ResourceLocks.freeDiskLock();
+      }
+      logger.info("Installed {}", installedFolder);
+      return installedFolder;
+    } finally {
+      try {
+        if (Files.exists(stagingDirectory)) {
+          FileUtils.deleteRecursively(stagingDirectory);
+        }
+      } finally {
+        ACTIVE_STAGING_DIRECTORIES.remove(stagingDirectory);
+      }
+    }
+  }
+
+  private static void deleteStaleStagingDirectories(Path targetDirectory) {
+    Instant staleBefore = Instant.now().minus(STALE_STAGING_FOLDER_AGE);
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(targetDirectory,
+        path -> path.getFileName().toString().startsWith(STAGING_PREFIX) && isStagingFolder(path) && Files.isDirectory(path))) {
+      for (Path stagingDirectory : directoryStream) {
+        if (ACTIVE_STAGING_DIRECTORIES.contains(stagingDirectory)
+            || Files.getLastModifiedTime(stagingDirectory).toInstant().isAfter(staleBefore)) {
+          continue;
+        }
+        logger.info("Deleting stale staging directory {}", stagingDirectory);
+        FileUtils.deleteRecursively(stagingDirectory);
+      }
+    } catch (IOException e) {
+      logger.warn("Stale staging directories could not be deleted from {}", targetDirectory, e);
+    }
+  }
+
+  private static Path getSingleTopLevelFolder(Path stagingDirectory) throws IOException {
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(stagingDirectory)) {
+      Iterator<Path> iterator = directoryStream.iterator();
+      Path folder = iterator.hasNext() ? iterator.next() : null;
+      if (folder == null || iterator.hasNext() || !Files.isDirectory(folder)) {
+        throw new IOException("Archive does not contain exactly one top-level folder");
+      }
+      return folder;
+    }
+  }
+
+  /**
+   * Moves the old folder into the staging directory first, so that the new one can be moved into place in a single
+   * step. The old folder is then deleted along with the staging directory. If the new folder can't be moved into
+   * place, e.g. because a file in the target directory is locked, the old folder is moved back before the staging
+   * directory is deleted.
+   */
+  @VisibleForTesting
+  static void replace(Path stagedFolder, Path installedFolder, Path stagingDirectory, FolderMover mover) throws IOException {
+    if (Files.notExists(installedFolder)) {
+      mover.move(stagedFolder, installedFolder);
+      return;
+    }
+
+    logger.debug("Replacing old version of {}", installedFolder);
+    Path oldFolder = stagingDirectory.resolve(installedFolder.getFileName() + ".old");
+    mover.move(installedFolder, oldFolder);
+    try {
+      mover.move(stagedFolder, installedFolder);
+    } catch (IOException | RuntimeException e) {
+      try {
+        mover.move(oldFolder, installedFolder);
+      } catch (IOException restoreException) {
+        e.addSuppressed(restoreException);
+      }
+      throw e;
+    }
+  }
+
+  @VisibleForTesting
+  interface FolderMover {
+    void move(Path source, Path target) throws IOException;
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package com.faforever.client.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches directories and their top-level subdirectories for created, modified and deleted files using a single
+ * background thread for all watched directories. Deeper subdirectories aren't watched, since a watch key per directory
+ * would be needed for e.g. every texture folder of every map, while listeners only look at the top-level entries anyway.
+ * <p>
+ * Changes are reported per top-level entry of a watched directory, e.g. the map folder {@code maps/foo} if the file
+ * {@code maps/foo/foo_scenario.lua} has been modified. Events are coalesced until the directory has been quiet for
+ * {@link #DEFAULT_DEBOUNCE_DELAY} so that copying or unpacking a folder results in a single notification. Listeners
+ * are notified in background, one notification at a time per watched directory. Whether an entry has been created,
+ * modified or deleted is up to the listener to determine, which also gets rid of short-lived entries. Temporary files
+ * created by the client itself are ignored.
+ */
+@Lazy
+@Service
+@Slf4j
+public class DirectoryWatcherService implements DisposableBean {
+
+  @VisibleForTesting
+  static final Duration DEFAULT_DEBOUNCE_DELAY = Duration.ofMillis(500);
+  private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+  private final ExecutorService executorService;
+  private final Duration debounceDelay;
+  private final Map<WatchKey, WatchedPath> watchedPaths;
+  private final CopyOnWriteArrayList<Registration> registrations;
+  private WatchService watchService;
+  private Thread watcherThread;
+
+  public DirectoryWatcherService(ExecutorService executorService) {
+    this(executorService, DEFAULT_DEBOUNCE_DELAY);
+  }
+
+  @VisibleForTesting
+  DirectoryWatcherService(ExecutorService executorService, Duration debounceDelay) {
+    this.executorService = executorService;
+    this.debounceDelay = debounceDelay;
+    watchedPaths = new ConcurrentHashMap<>();
+    registrations = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Starts watching the specified directory and its top-level subdirectories.
+   *
+   * @param onEntriesChanged called with the top-level entries of the directory that have been created, modified or
+   * deleted
+   * @param onOverflow called if events have been lost, so that the directory needs to be rescanned completely
+   * @return a registration that needs to be closed in order to stop watching the directory
+   */
+  public synchronized Registration watch(Path directory, Consumer<Set<Path>> onEntriesChanged, Runnable onOverflow) throws IOException {
+    if (watchService == null) {
+      watchService = FileSystems.getDefault().newWatchService();
+      watcherThread = new Thread(this::watchLoop, "directory-watcher");
+      watcherThread.setDaemon(true);
+      watcherThread.start();
+    }
+
+    Registration registration = new Registration(directory, onEntriesChanged, onOverflow);
+    registrations.add(registration);
+    register(registration, directory);
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, Files::isDirectory)) {
+      for (Path subdirectory : entries) {
+        registerSubdirectory(registration, subdirectory);
+      }
+    }
+    log.debug("Watching directory: {}", directory);
+    return registration;
+  }
+
+  private void register(Registration registration, Path directory) throws IOException {
+    WatchKey watchKey = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+    watchedPaths.put(watchKey, new WatchedPath(registration, directory));
+  }
+
+  private void registerSubdirectory(Registration registration, Path subdirectory) {
+    try {
+      register(registration, subdirectory);
+    } catch (IOException e) {
+      log.debug("Could not watch: {}", subdirectory, e);
+    }
+  }
+
+  private void watchLoop() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey watchKey = watchService.poll(debounceDelay.toMillis(), TimeUnit.MILLISECONDS);
+        if (watchKey != null) {
+          onWatchKey(watchKey);
+        }
+        dispatchQuietRegistrations();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      log.debug("Directory watcher terminated ({})", e.getMessage());
+    }
+  }
+
+  private void onWatchKey(WatchKey watchKey) {
+    WatchedPath watchedPath = watchedPaths.get(watchKey);
+    if (watchedPath == null || watchedPath.getRegistration().closed) {
+      watchKey.cancel();
+      return;
+    }
+
+    Registration registration = watchedPath.getRegistration();
+    for (WatchEvent<?> event : watchKey.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        registration.overflow = true;
+        registration.lastEventNanos = System.nanoTime();
+        continue;
+      }
+
+      Path path = watchedPath.getDirectory().resolve((Path) event.context());
+      if (isTemporaryFile(path)) {
+        continue;
+      }
+
+      if (event.kind() == ENTRY_CREATE && watchedPath.getDirectory().equals(registration.directory) && Files.isDirectory(path)) {
+        registerSubdirectory(registration, path);
+      }
+
+      registration.changedEntries.add(registration.directory.resolve(registration.directory.relativize(path).getName(0)));
+      registration.lastEventNanos = System.nanoTime();
+    }
+
+    if (!watchKey.reset()) {
+      watchedPaths.remove(watchKey);
+    }
+  }
+
+  private void dispatchQuietRegistrations() {
+    long now = System.nanoTime();
+    for (Registration registration : registrations) {
+      if (registration.closed || (registration.changedEntries.isEmpty() && !registration.overflow)
+          || now - registration.lastEventNanos < debounceDelay.toNanos()) {
+        continue;
+      }
+
+      boolean overflow = registration.overflow;
+      Set<Path> changedEntries = new HashSet<>(registration.changedEntries);
+      registration.overflow = false;
+      registration.changedEntries.clear();
+
+      registration.dispatch(() -> {
+        if (overflow) {
+          log.debug("Events have been lost for directory: {}", registration.directory);
+          registration.onOverflow.run();
+        } else {
+          log.trace("Entries changed in {}: {}", registration.directory, changedEntries);
+          registration.onEntriesChanged.accept(changedEntries);
+        }
+      });
+    }
+  }
+
+  private static boolean isTemporaryFile(Path path) {
+    return path.getFileName().toString().endsWith(TEMPORARY_FILE_SUFFIX);
+  }
+
+  @Override
+  public synchronized void destroy() throws IOException {
+    if (watcherThread != null) {
+      watcherThread.interrupt();
+    }
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  @Value
+  private static class WatchedPath {
+    Registration registration;
+    Path directory;
+  }
+
+  public class Registration implements AutoCloseable {
+    private final Path directory;
+    private final Consumer<Set<Path>> onEntriesChanged;
+    private final Runnable onOverflow;
+    /** Only accessed by the watcher thread. */
+    private final Set<Path> changedEntries;
+    private boolean overflow;
+    private long lastEventNanos;
+    private volatile boolean closed;
+    private CompletableFuture<Void> lastDispatch;
+
+    private Registration(Path directory, Consumer<Set<Path>> onEntriesChanged, Runnable onOverflow) {
+      this.directory = directory;
+      this.onEntriesChanged = onEntriesChanged;
+      this.onOverflow = onOverflow;
+      changedEntries = new HashSet<>();
+      lastDispatch = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Runs the notification after all previous notifications of this registration have completed.
+     */
+    private void dispatch(Runnable notification) {
+      lastDispatch = lastDispatch.thenRunAsync(() -> {
+        if (!closed) {
+          notification.run();
+        }
+      }, executorService).exceptionally(throwable -> {
+        log.warn("Directory change listener failed for: {}", directory, throwable);
+        return null;
+      });
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      registrations.remove(this);
+      watchedPaths.entrySet().removeIf(entry -> {
+        if (entry.getValue().getRegistration() != this) {
+          return false;
+        }
+        entry.getKey().cancel();
+        return true;
+      });
+      log.debug("Stopped watching directory: {}", directory);
+    }
+  }
+}
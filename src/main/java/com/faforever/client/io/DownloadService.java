@@ -1,6 +1,5 @@
 package com.faforever.client.io;
 
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.io.ByteCopier;
 import com.faforever.commons.io.ByteCountListener;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +25,6 @@ public class DownloadService {
 
     HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
 
-    ResourceLocks.acquireDownloadLock();
     try (InputStream inputStream = url.openStream();
          OutputStream outputStream = Files.newOutputStream(tempFile)) {
 
@@ -38,7 +36,6 @@ public class DownloadService {
 
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
-      ResourceLocks.freeDownloadLock();
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
@@ -0,0 +1,119 @@
+package com.faforever.client.io;
+
+import com.faforever.commons.io.ByteCountListener;
+import com.faforever.commons.io.Zipper;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A resource whose content is the ZIP archive of a directory, which is compressed while it's being read. This way, a
+ * directory can be uploaded without writing the archive to a temporary file first. Since its length is unknown in
+ * advance, the archive is sent using chunked transfer encoding.
+ * <p>
+ * Each call to {@link #getInputStream()} compresses the directory anew, in background using the specified executor.
+ * Compression is throttled by the reader, so the progress reported to the listener is the progress of the upload.
+ */
+public class ZippingResource extends AbstractResource {
+
+  private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
+  private final Path directory;
+  private final Executor executor;
+  private final ByteCountListener listener;
+
+  public ZippingResource(Path directory, Executor executor, ByteCountListener listener) {
+    this.directory = directory;
+    this.executor = executor;
+    this.listener = listener;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    PipedInputStream inputStream = new PipedInputStream(PIPE_BUFFER_SIZE);
+    PipedOutputStream outputStream = new PipedOutputStream(inputStream);
+
+    CompletableFuture<Void> zipFuture = CompletableFuture.runAsync(() -> {
+      try (outputStream) {
+        Zipper.of(directory)
+            .to(outputStream)
+            .listener(listener)
+            .zip();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, executor);
+
+    return new CompressingInputStream(inputStream, zipFuture);
+  }
+
+  /**
+   * Returns -1 so that the length isn't determined by reading the whole archive.
+   */
+  @Override
+  public long contentLength() {
+    return -1;
+  }
+
+  @Override
+  public String getFilename() {
+    return directory.getFileName() + ".zip";
+  }
+
+  @Override
+  public String getDescription() {
+    return "ZIP archive of directory [" + directory + "]";
+  }
+
+  /**
+   * Reports an error that occurred during compression once all compressed bytes have been read, so that a truncated
+   * archive is never mistaken for a complete one.
+   */
+  private class CompressingInputStream extends FilterInputStream {
+    private final CompletableFuture<Void> zipFuture;
+
+    private CompressingInputStream(InputStream inputStream, CompletableFuture<Void> zipFuture) {
+      super(inputStream);
+      this.zipFuture = zipFuture;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value == -1) {
+        awaitCompression();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int bytesRead = super.read(buffer, offset, length);
+      if (bytesRead == -1) {
+        awaitCompression();
+      }
+      return bytesRead;
+    }
+
+    private void awaitCompression() throws IOException {
+      try {
+        zipFuture.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while compressing " + directory);
+      } catch (ExecutionException e) {
+        throw new IOException("Could not compress " + directory, e.getCause());
+      }
+    }
+  }
+}
@@ -1,9 +1,9 @@
 package com.faforever.client.map;
 
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.ArchiveInstaller;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.commons.io.Unzipper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -11,16 +11,19 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-public class DownloadMapTask extends CompletableTask<Void> {
+public class DownloadMapTask extends CompletableTask<Path> {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
@@ -39,7 +42,7 @@ public class DownloadMapTask extends CompletableTask<Void> {
   }
 
   @Override
-  protected Void call() throws Exception {
+  protected Path call() throws Exception {
     Objects.requireNonNull(mapUrl, "mapUrl has not been set");
     Objects.requireNonNull(folderName, "folderName has not been set");
 
@@ -52,15 +55,22 @@ public class DownloadMapTask extends CompletableTask<Void> {
     Path targetDirectory = preferencesService.getPreferences().getForgedAlliance().getCustomMapsDirectory();
 
     try (InputStream inputStream = urlConnection.getInputStream()) {
-      Unzipper.from(inputStream)
-          .zipBombByteCountThreshold(100_000_000)
+      return ArchiveInstaller.from(inputStream)
           .to(targetDirectory)
           .totalBytes(bytesToRead)
           .listener(this::updateProgress)
-          .unzip();
+          .verifier(DownloadMapTask::containsScenarioFile)
+          .install();
     }
+  }
 
-    return null;
+  private static boolean containsScenarioFile(Path mapFolder) {
+    try (Stream<Path> files = Files.list(mapFolder)) {
+      return files.anyMatch(file -> file.getFileName().toString().endsWith("_scenario.lua"));
+    } catch (IOException e) {
+      logger.warn("Could not list files of map folder: {}", mapFolder, e);
+      return false;
+    }
   }
 
   public void setMapUrl(URL mapUrl) {
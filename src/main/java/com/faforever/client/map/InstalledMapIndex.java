@@ -0,0 +1,191 @@
+package com.faforever.client.map;
+
+import com.faforever.client.map.MapBean.Type;
+import com.google.gson.Gson;
+import lombok.Data;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persistent index of the metadata of installed maps, so that a map's {@code *_scenario.lua} only needs to be evaluated
+ * if it has been changed since it was last read. An entry is considered valid as long as the scenario file's name, last
+ * modification time and size are unchanged.
+ * <p>
+ * The index is modified and stored concurrently by the initial scan, the directory watcher and map installations, so
+ * all mutators are synchronized on the index to keep them from interleaving with {@link #store()}.
+ */
+class InstalledMapIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int INDEX_VERSION = 1;
+
+  @Nullable
+  private final Path indexFile;
+  private final Gson gson;
+  private final Map<String, Entry> entries;
+
+  /**
+   * @param indexFile the file to persist the index to, or {@code null} if the index should only be kept in memory
+   */
+  InstalledMapIndex(@Nullable Path indexFile) {
+    this.indexFile = indexFile;
+    gson = new Gson();
+    entries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Loads the persisted entries of the specified map folders. Entries of folders that no longer exist are dropped, and
+   * entries that have been added since the index was created are kept.
+   */
+  synchronized void load(Collection<Path> mapFolders) {
+    if (indexFile == null || Files.notExists(indexFile)) {
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(indexFile, UTF_8)) {
+      IndexFile content = gson.fromJson(reader, IndexFile.class);
+      if (content == null || content.getVersion() != INDEX_VERSION || content.getEntries() == null) {
+        logger.debug("Ignoring outdated map index: {}", indexFile);
+        return;
+      }
+      Set<String> keys = mapFolders.stream().map(InstalledMapIndex::key).collect(Collectors.toSet());
+      content.getEntries().forEach((key, entry) -> {
+        if (keys.contains(key)) {
+          entries.putIfAbsent(key, entry);
+        }
+      });
+      logger.debug("Loaded {} entries from map index", entries.size());
+    } catch (Exception e) {
+      logger.warn("Map index could not be read, maps will be re-indexed: " + indexFile, e);
+    }
+  }
+
+  synchronized void store() {
+    if (indexFile == null) {
+      return;
+    }
+    IndexFile content = new IndexFile();
+    content.setVersion(INDEX_VERSION);
+    content.setEntries(Map.copyOf(entries));
+
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+      try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        gson.toJson(content, writer);
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.warn("Map index could not be written: " + indexFile, e);
+    }
+  }
+
+  /**
+   * Returns the indexed map of the specified folder if its scenario file is unchanged since it was indexed.
+   */
+  Optional<MapBean> get(Path mapFolder) {
+    Entry entry = entries.get(key(mapFolder));
+    if (entry == null) {
+      return Optional.empty();
+    }
+
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(mapFolder.resolve(entry.getScenarioFileName()), BasicFileAttributes.class);
+      if (attributes.lastModifiedTime().toMillis() != entry.getLastModified() || attributes.size() != entry.getSize()) {
+        return Optional.empty();
+      }
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      logger.debug("Could not read attributes of scenario file in: {}", mapFolder, e);
+      return Optional.empty();
+    }
+
+    return Optional.of(entry.toMapBean(mapFolder));
+  }
+
+  synchronized void put(Path mapFolder, Path scenarioFile, MapBean mapBean) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(scenarioFile, BasicFileAttributes.class);
+      entries.put(key(mapFolder), Entry.fromMapBean(mapBean, scenarioFile, attributes));
+    } catch (IOException e) {
+      logger.debug("Could not index map: {}", mapFolder, e);
+    }
+  }
+
+  synchronized void remove(Path mapFolder) {
+    entries.remove(key(mapFolder));
+  }
+
+  private static String key(Path mapFolder) {
+    return mapFolder.toAbsolutePath().normalize().toString();
+  }
+
+  @Data
+  private static class IndexFile {
+    private int version;
+    private Map<String, Entry> entries;
+  }
+
+  @Data
+  private static class Entry {
+    private String scenarioFileName;
+    private long lastModified;
+    private long size;
+    private String displayName;
+    private String description;
+    private String type;
+    private int widthInPixels;
+    private int heightInPixels;
+    private int players;
+    private String version;
+
+    static Entry fromMapBean(MapBean mapBean, Path scenarioFile, BasicFileAttributes attributes) {
+      Entry entry = new Entry();
+      entry.setScenarioFileName(scenarioFile.getFileName().toString());
+      entry.setLastModified(attributes.lastModifiedTime().toMillis());
+      entry.setSize(attributes.size());
+      entry.setDisplayName(mapBean.getDisplayName());
+      entry.setDescription(mapBean.getDescription());
+      entry.setType(mapBean.getType().name());
+      entry.setWidthInPixels(mapBean.getSize().getWidthInPixels());
+      entry.setHeightInPixels(mapBean.getSize().getHeightInPixels());
+      entry.setPlayers(mapBean.getPlayers());
+      entry.setVersion(Optional.ofNullable(mapBean.getVersion()).map(ComparableVersion::toString).orElse(null));
+      return entry;
+    }
+
+    MapBean toMapBean(Path mapFolder) {
+      MapBean mapBean = new MapBean();
+      mapBean.setFolderName(mapFolder.getFileName().toString());
+      mapBean.setDisplayName(displayName);
+      mapBean.setDescription(description);
+      mapBean.setType(Type.valueOf(type));
+      mapBean.setSize(MapSize.valueOf(widthInPixels, heightInPixels));
+      mapBean.setPlayers(players);
+      if (version != null) {
+        mapBean.setVersion(new ComparableVersion(version));
+      }
+      return mapBean;
+    }
+  }
+}
@@ -6,6 +6,9 @@ import com.faforever.client.config.ClientProperties.Vault;
 import com.faforever.client.fa.FaStrings;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.ArchiveInstaller;
+import com.faforever.client.io.DirectoryWatcherService;
+import com.faforever.client.io.DirectoryWatcherService.Registration;
 import com.faforever.client.map.MapBean.Type;
 import com.faforever.client.map.generator.MapGeneratedEvent;
 import com.faforever.client.map.generator.MapGeneratorService;
@@ -13,11 +16,13 @@ import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.CompletableTask.Priority;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.ProgrammingError;
+import com.faforever.client.vault.catalog.VaultCatalogService;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
@@ -42,6 +47,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -52,16 +58,17 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static com.faforever.client.util.LuaUtil.loadFile;
@@ -69,8 +76,8 @@ import static com.github.nocatch.NoCatch.noCatch;
 import static com.google.common.net.UrlEscapers.urlFragmentEscaper;
 import static java.lang.String.format;
 import static java.nio.file.Files.list;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toMap;
 
 
 @Lazy
@@ -79,6 +86,7 @@ public class MapService implements InitializingBean, DisposableBean {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   public static final String DEBUG = "debug";
+  private static final String INSTALLED_MAP_INDEX_FILE_NAME = "installed-maps.json";
 
   private final PreferencesService preferencesService;
   private final TaskService taskService;
@@ -90,14 +98,19 @@ public class MapService implements InitializingBean, DisposableBean {
   private final MapGeneratorService mapGeneratorService;
   private final ClientProperties clientProperties;
   private final EventBus eventBus;
+  private final DirectoryWatcherService directoryWatcherService;
+  private final VaultCatalogService vaultCatalogService;
   private final ForgedAlliancePrefs forgedAlliancePreferences;
 
   private final String mapDownloadUrlFormat;
   private final String mapPreviewUrlFormat;
+  /* The installed maps are bound to the UI, so they and their lookup maps are only modified on the FX thread. Maps are
+  read on background threads and then handed over using JavaFxUtil.runLater(). */
   private final Map<Path, MapBean> pathToMap = new HashMap<>();
   private final ObservableList<MapBean> installedMaps = FXCollections.observableArrayList();
   private final Map<String, MapBean> mapsByFolderName = new HashMap<>();
-  private Thread directoryWatcherThread;
+  private final InstalledMapIndex installedMapIndex;
+  private Registration directoryWatcherRegistration;
 
   @Inject
   public MapService(PreferencesService preferencesService,
@@ -109,7 +122,9 @@ public class MapService implements InitializingBean, DisposableBean {
                     UiService uiService,
                     MapGeneratorService mapGeneratorService,
                     ClientProperties clientProperties,
-                    EventBus eventBus) {
+                    EventBus eventBus,
+                    DirectoryWatcherService directoryWatcherService,
+                    VaultCatalogService vaultCatalogService) {
     this.preferencesService = preferencesService;
     this.taskService = taskService;
     this.applicationContext = applicationContext;
@@ -120,10 +135,15 @@ public class MapService implements InitializingBean, DisposableBean {
     this.mapGeneratorService = mapGeneratorService;
     this.clientProperties = clientProperties;
     this.eventBus = eventBus;
+    this.directoryWatcherService = directoryWatcherService;
+    this.vaultCatalogService = vaultCatalogService;
     forgedAlliancePreferences = preferencesService.getPreferences().getForgedAlliance();
     Vault vault = clientProperties.getVault();
     this.mapDownloadUrlFormat = vault.getMapDownloadUrlFormat();
     this.mapPreviewUrlFormat = vault.getMapPreviewUrlFormat();
+    this.installedMapIndex = new InstalledMapIndex(Optional.ofNullable(preferencesService.getCacheDirectory())
+        .map(cacheDirectory -> cacheDirectory.resolve(INSTALLED_MAP_INDEX_FILE_NAME))
+        .orElse(null));
 
     installedMaps.addListener((ListChangeListener<MapBean>) change -> {
       while (change.next()) {
@@ -159,6 +179,15 @@ public class MapService implements InitializingBean, DisposableBean {
     eventBus.register(this);
     JavaFxUtil.addListener(forgedAlliancePreferences.installationPathProperty(), observable -> tryLoadMaps());
     JavaFxUtil.addListener(forgedAlliancePreferences.customMapsDirectoryProperty(), observable -> tryLoadMaps());
+  }
+
+  /**
+   * Loading the installed maps isn't required to show the login window, so it's deferred until the main window is
+   * shown.
+   */
+  @Async
+  @EventListener
+  public void onMainWindowShown(MainWindowShownEvent event) {
     tryLoadMaps();
   }
 
@@ -176,37 +205,20 @@ public class MapService implements InitializingBean, DisposableBean {
 
     try {
       Files.createDirectories(mapsDirectory);
-      Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
-      directoryWatcherThread = startDirectoryWatcher(mapsDirectory);
+      Optional.ofNullable(directoryWatcherRegistration).ifPresent(Registration::close);
+      directoryWatcherRegistration = directoryWatcherService.watch(mapsDirectory, this::onMapFoldersChanged, this::tryLoadMaps);
     } catch (IOException e) {
       logger.warn("Could not start map directory watcher", e);
       // TODO notify user
     }
 
-    installedMaps.clear();
+    JavaFxUtil.runLater(() -> {
+      installedMaps.clear();
+      pathToMap.clear();
+    });
     loadInstalledMaps();
   }
 
-  private Thread startDirectoryWatcher(Path mapsDirectory) {
-    Thread thread = new Thread(() -> noCatch(() -> {
-      try (WatchService watcher = mapsDirectory.getFileSystem().newWatchService()) {
-        forgedAlliancePreferences.getCustomMapsDirectory().register(watcher, ENTRY_DELETE);
-        while (!Thread.interrupted()) {
-          WatchKey key = watcher.take();
-          key.pollEvents().stream()
-              .filter(event -> event.kind() == ENTRY_DELETE)
-              .forEach(event -> removeMap(mapsDirectory.resolve((Path) event.context())));
-          key.reset();
-        }
-      } catch (InterruptedException e) {
-        logger.debug("Watcher terminated ({})", e.getMessage());
-      }
-    }));
-    thread.setDaemon(true);
-    thread.start();
-    return thread;
-  }
-
   private void loadInstalledMaps() {
     taskService.submitTask(new CompletableTask<Void>(Priority.LOW) {
 
@@ -215,20 +227,30 @@ public class MapService implements InitializingBean, DisposableBean {
         Path officialMapsPath = forgedAlliancePreferences.getInstallationPath().resolve("maps");
         try (Stream<Path> customMapsDirectoryStream = list(forgedAlliancePreferences.getCustomMapsDirectory())) {
           List<Path> mapPaths = new ArrayList<>();
-          customMapsDirectoryStream.collect(toCollection(() -> mapPaths));
+          customMapsDirectoryStream
+              .filter(mapPath -> !mapPath.getFileName().toString().equals(DEBUG) && !ArchiveInstaller.isStagingFolder(mapPath))
+              .collect(toCollection(() -> mapPaths));
           officialMaps.stream()
               .map(officialMapsPath::resolve)
               .collect(toCollection(() -> mapPaths));
 
+          installedMapIndex.load(mapPaths);
+
           long totalMaps = mapPaths.size();
-          long mapsRead = 0;
-          for (Path mapPath : mapPaths) {
-            if (mapPath.getFileName().toString().equals(DEBUG)) {
-              continue;
-            }
-            updateProgress(++mapsRead, totalMaps);
-            addInstalledMap(mapPath);
-          }
+          AtomicLong mapsRead = new AtomicLong();
+          // Maps that have not been indexed yet require their scenario to be evaluated, which is done in parallel
+          Map<Path, MapBean> mapsByPath = mapPaths.parallelStream()
+              .map(mapPath -> {
+                Optional<MapBean> mapBean = tryReadIndexedMap(mapPath);
+                updateProgress(mapsRead.incrementAndGet(), totalMaps);
+                return mapBean.map(bean -> Map.entry(mapPath, bean));
+              })
+              .flatMap(Optional::stream)
+              .collect(toMap(Entry::getKey, Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+
+          JavaFxUtil.runLater(() -> mapsByPath.forEach(MapService.this::addInstalledMap));
+
+          installedMapIndex.store();
         } catch (IOException e) {
           logger.warn("Maps could not be read from: " + forgedAlliancePreferences.getCustomMapsDirectory(), e);
         }
@@ -237,19 +259,71 @@ public class MapService implements InitializingBean, DisposableBean {
     });
   }
 
-  private void removeMap(Path path) {
-    installedMaps.remove(pathToMap.remove(path));
+  /**
+   * Reads the changed map folders on the calling background thread, but updates the installed maps on the FX thread,
+   * since they're bound to the UI.
+   */
+  private void onMapFoldersChanged(Set<Path> mapFolders) {
+    Map<Path, Optional<MapBean>> changedMaps = new HashMap<>();
+    for (Path mapFolder : mapFolders) {
+      if (Files.isDirectory(mapFolder) && !mapFolder.getFileName().toString().equals(DEBUG)) {
+        changedMaps.put(mapFolder, tryReadIndexedMap(mapFolder));
+      } else {
+        installedMapIndex.remove(mapFolder);
+        changedMaps.put(mapFolder, Optional.empty());
+      }
+    }
+    installedMapIndex.store();
+
+    JavaFxUtil.runLater(() -> changedMaps.forEach((mapFolder, mapBean) -> {
+      installedMaps.remove(pathToMap.remove(mapFolder));
+      mapBean.ifPresent(bean -> addInstalledMap(mapFolder, bean));
+    }));
+  }
+
+  /**
+   * Reads the specified map on the calling thread and adds it to the installed maps on the FX thread.
+   *
+   * @return a future that completes once the map has been added
+   */
+  private CompletableFuture<Void> addInstalledMap(Path path) {
+    Optional<MapBean> mapBean = tryReadIndexedMap(path);
+    mapBean.ifPresent(bean -> installedMapIndex.store());
+
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    JavaFxUtil.runLater(() -> {
+      mapBean.ifPresent(bean -> addInstalledMap(path, bean));
+      future.complete(null);
+    });
+    return future;
+  }
+
+  private void addInstalledMap(Path path, MapBean mapBean) {
+    pathToMap.put(path, mapBean);
+    if (!mapsByFolderName.containsKey(mapBean.getFolderName())) {
+      installedMaps.add(mapBean);
+    }
   }
 
-  private void addInstalledMap(Path path) throws MapLoadException {
+  /**
+   * Reads the map from the index if its scenario file is unchanged, otherwise evaluates its scenario file and updates
+   * the index.
+   */
+  private Optional<MapBean> tryReadIndexedMap(Path mapFolder) {
+    Optional<MapBean> indexedMap = installedMapIndex.get(mapFolder);
+    if (indexedMap.isPresent()) {
+      return indexedMap;
+    }
+
     try {
-      MapBean mapBean = readMap(path);
-      pathToMap.put(path, mapBean);
-      if (!mapsByFolderName.containsKey(mapBean.getFolderName())) {
-        installedMaps.add(mapBean);
-      }
+      Path scenarioLuaPath = findScenarioFile(mapFolder);
+      MapBean mapBean = readMap(mapFolder, scenarioLuaPath);
+      installedMapIndex.put(mapFolder, scenarioLuaPath, mapBean);
+      return Optional.of(mapBean);
     } catch (MapLoadException e) {
-      logger.warn("Map could not be read: " + path.getFileName(), e);
+      logger.warn("Map could not be read: " + mapFolder.getFileName(), e);
+      installedMapIndex.remove(mapFolder);
+      return Optional.empty();
     }
   }
 
@@ -261,16 +335,26 @@ public class MapService implements InitializingBean, DisposableBean {
 
   @NotNull
   public MapBean readMap(Path mapFolder) throws MapLoadException {
+    return readMap(mapFolder, findScenarioFile(mapFolder));
+  }
+
+  private Path findScenarioFile(Path mapFolder) throws MapLoadException {
     if (!Files.isDirectory(mapFolder)) {
       throw new MapLoadException("Not a folder: " + mapFolder.toAbsolutePath());
     }
 
     try (Stream<Path> mapFolderFilesStream = list(mapFolder)) {
-      Path scenarioLuaPath = mapFolderFilesStream
+      return mapFolderFilesStream
           .filter(file -> file.getFileName().toString().endsWith("_scenario.lua"))
           .findFirst()
           .orElseThrow(() -> new MapLoadException("Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath()));
+    } catch (IOException e) {
+      throw new MapLoadException(e);
+    }
+  }
 
+  private MapBean readMap(Path mapFolder, Path scenarioLuaPath) throws MapLoadException {
+    try {
       LuaValue luaRoot = noCatch(() -> loadFile(scenarioLuaPath), MapLoadException.class);
       LuaValue scenarioInfo = luaRoot.get("ScenarioInfo");
       LuaValue size = scenarioInfo.get("size");
@@ -289,7 +373,7 @@ public class MapService implements InitializingBean, DisposableBean {
       }
 
       return mapBean;
-    } catch (IOException | LuaError e) {
+    } catch (LuaError e) {
       throw new MapLoadException(e);
     }
   }
@@ -468,7 +552,9 @@ public class MapService implements InitializingBean, DisposableBean {
 
 
   public CompletableFuture<List<MapBean>> findByQuery(SearchConfig searchConfig, int page, int count) {
-    return fafService.findMapsByQuery(searchConfig, page, count);
+    return vaultCatalogService.findMapIds(searchConfig, page, count)
+        .map(fafService::findMapsByIds)
+        .orElseGet(() -> fafService.findMapsByQuery(searchConfig, page, count));
   }
 
 
@@ -499,7 +585,7 @@ public class MapService implements InitializingBean, DisposableBean {
     }
 
     return taskService.submitTask(task).getFuture()
-        .thenAccept(aVoid -> noCatch(() -> addInstalledMap(getPathForMapInsensitive(folderName))));
+        .thenCompose(this::addInstalledMap);
   }
 
   public CompletableFuture<List<MapBean>> getOwnedMaps(int playerId, int loadMoreCount, int page) {
@@ -518,7 +604,7 @@ public class MapService implements InitializingBean, DisposableBean {
 
   @Override
   public void destroy() {
-    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    Optional.ofNullable(directoryWatcherRegistration).ifPresent(Registration::close);
   }
 
   public enum PreviewSize {
@@ -3,15 +3,15 @@ package com.faforever.client.map;
 import lombok.Data;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Data
 public class MapSize implements Comparable<MapSize> {
 
   private static final float MAP_SIZE_FACTOR = 51.2f;
 
-  private static Map<String, MapSize> cache = new HashMap<>();
+  private static final Map<String, MapSize> cache = new ConcurrentHashMap<>();
   /**
    * The map width in pixels. One kilometer equals 51.2 pixels.
    */
@@ -32,13 +32,7 @@ public class MapSize implements Comparable<MapSize> {
 
   public static MapSize valueOf(int widthInPixels, int heightInPixels) {
     String cacheKey = String.valueOf(widthInPixels) + String.valueOf(heightInPixels);
-    if (cache.containsKey(cacheKey)) {
-      return cache.get(cacheKey);
-    }
-
-    MapSize mapSize = new MapSize(widthInPixels, heightInPixels);
-    cache.put(cacheKey, mapSize);
-    return mapSize;
+    return cache.computeIfAbsent(cacheKey, key -> new MapSize(widthInPixels, heightInPixels));
   }
 
   @Override
@@ -2,12 +2,10 @@ package com.faforever.client.map;
 
 import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.io.ZippingResource;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.Validator;
 import com.faforever.commons.io.ByteCountListener;
-import com.faforever.commons.io.Zipper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -16,15 +14,12 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
 
 import static com.faforever.commons.io.Bytes.formatSize;
-import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newOutputStream;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -32,18 +27,18 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final PreferencesService preferencesService;
   private final FafApiAccessor fafApiAccessor;
+  private final ExecutorService executorService;
   private final I18n i18n;
 
   private Path mapPath;
   private Boolean isRanked;
 
   @Inject
-  public MapUploadTask(PreferencesService preferencesService, FafApiAccessor fafApiAccessor, I18n i18n) {
+  public MapUploadTask(FafApiAccessor fafApiAccessor, ExecutorService executorService, I18n i18n) {
     super(Priority.HIGH);
-    this.preferencesService = preferencesService;
     this.fafApiAccessor = fafApiAccessor;
+    this.executorService = executorService;
     this.i18n = i18n;
   }
 
@@ -57,37 +52,17 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
     Validator.notNull(mapPath, "mapPath must not be null");
     Validator.notNull(isRanked, "isRanked must not be null");
 
-    ResourceLocks.acquireUploadLock();
-    Path cacheDirectory = preferencesService.getCacheDirectory();
-    Files.createDirectories(cacheDirectory);
-    Path tmpFile = createTempFile(cacheDirectory, "map", ".zip");
+    Locale locale = i18n.getUserSpecificLocale();
+    ByteCountListener byteListener = (written, total) -> {
+      updateMessage(i18n.get("bytesProgress", formatSize(written, locale), formatSize(total, locale)));
+      updateProgress(written, total);
+    };
 
-    try {
-      logger.debug("Zipping map {} to {}", mapPath, tmpFile);
-      updateTitle(i18n.get("mapVault.upload.compressing"));
-
-      Locale locale = i18n.getUserSpecificLocale();
-      ByteCountListener byteListener = (written, total) -> {
-        updateMessage(i18n.get("bytesProgress", formatSize(written, locale), formatSize(total, locale)));
-        updateProgress(written, total);
-      };
-
-      try (OutputStream outputStream = newOutputStream(tmpFile)) {
-        Zipper.of(mapPath)
-            .to(outputStream)
-            .listener(byteListener)
-            .zip();
-      }
-
-      logger.debug("Uploading map {} as {}", mapPath, tmpFile);
-      updateTitle(i18n.get("mapVault.upload.uploading"));
+    logger.debug("Uploading map {}", mapPath);
+    updateTitle(i18n.get("mapVault.upload.uploading"));
 
-      fafApiAccessor.uploadMap(tmpFile, isRanked, byteListener);
-      return null;
-    } finally {
-      Files.delete(tmpFile);
-      ResourceLocks.freeUploadLock();
-    }
+    fafApiAccessor.uploadMap(new ZippingResource(mapPath, executorService, byteListener), isRanked);
+    return null;
   }
 
   public void setMapPath(Path mapPath) {
@@ -4,6 +4,7 @@ import com.faforever.client.config.CacheNames;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.io.FileUtils;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.TaskService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.io.BaseEncoding;
@@ -12,15 +13,16 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.artifact.versioning.ComparableVersion;
-import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.client.RestTemplate;
@@ -42,7 +44,7 @@ import static com.github.nocatch.NoCatch.noCatch;
 @Lazy
 @Service
 @Slf4j
-public class MapGeneratorService implements InitializingBean {
+public class MapGeneratorService {
 
   /**
    * Naming template for generated maps. It is all lower case because server expects lower case names for maps.
@@ -98,8 +100,9 @@ public class MapGeneratorService implements InitializingBean {
     }
   }
 
-  @Override
-  public void afterPropertiesSet() throws Exception {
+  @Async
+  @EventListener
+  public void onMainWindowShown(MainWindowShownEvent event) {
     deleteGeneratedMaps();
   }
 
@@ -4,6 +4,9 @@ import com.faforever.client.config.CacheNames;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.ArchiveInstaller;
+import com.faforever.client.io.DirectoryWatcherService;
+import com.faforever.client.io.DirectoryWatcherService.Registration;
 import com.faforever.client.mod.ModVersion.ModType;
 import com.faforever.client.notification.Action;
 import com.faforever.client.notification.NotificationService;
@@ -12,9 +15,11 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.query.SearchablePropertyMappings;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.util.IdenticonUtil;
+import com.faforever.client.vault.catalog.VaultCatalogService;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.client.vault.search.SearchController.SortOrder;
@@ -38,6 +43,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -51,10 +57,9 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -66,10 +71,8 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.faforever.client.notification.Severity.WARN;
-import static com.github.nocatch.NoCatch.noCatch;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.file.Files.createDirectories;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
@@ -92,32 +95,51 @@ public class ModService implements InitializingBean, DisposableBean {
   private final I18n i18n;
   private final PlatformService platformService;
   private final AssetService assetService;
+  private final DirectoryWatcherService directoryWatcherService;
+  private final VaultCatalogService vaultCatalogService;
   private final ModReader modReader = new ModReader();
 
   private Path modsDirectory;
+  /* The installed mods are bound to the UI, so they and their lookup map are only modified on the FX thread. Mods are
+  read on background threads and then handed over using JavaFxUtil.runLater(). */
   private Map<Path, ModVersion> pathToMod = new HashMap<>();
   private ObservableList<ModVersion> installedModVersions = FXCollections.observableArrayList();
   private ObservableList<ModVersion> readOnlyInstalledModVersions = FXCollections.unmodifiableObservableList(installedModVersions);
-  private Thread directoryWatcherThread;
+  private Registration directoryWatcherRegistration;
 
   @Override
   public void afterPropertiesSet() {
     InvalidationListener modDirectoryChangedListener = observable -> {
       modsDirectory = preferencesService.getPreferences().getForgedAlliance().getModsDirectory();
       if (modsDirectory != null) {
-        installedModVersions.clear();
+        JavaFxUtil.runLater(() -> {
+          installedModVersions.clear();
+          pathToMod.clear();
+        });
         onModDirectoryReady();
       }
     };
-    modDirectoryChangedListener.invalidated(preferencesService.getPreferences().getForgedAlliance().modsDirectoryProperty());
+    modsDirectory = preferencesService.getPreferences().getForgedAlliance().getModsDirectory();
     JavaFxUtil.addListener(preferencesService.getPreferences().getForgedAlliance().modsDirectoryProperty(), modDirectoryChangedListener);
   }
 
+  /**
+   * Loading the installed mods isn't required to show the login window, so it's deferred until the main window is
+   * shown.
+   */
+  @Async
+  @EventListener
+  public void onMainWindowShown(MainWindowShownEvent event) {
+    if (modsDirectory != null) {
+      onModDirectoryReady();
+    }
+  }
+
   private void onModDirectoryReady() {
     try {
       createDirectories(modsDirectory);
-      Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
-      directoryWatcherThread = startDirectoryWatcher(modsDirectory);
+      Optional.ofNullable(directoryWatcherRegistration).ifPresent(Registration::close);
+      directoryWatcherRegistration = directoryWatcherService.watch(modsDirectory, this::onModFoldersChanged, this::loadInstalledMods);
     } catch (IOException e) {
       logger.warn("Could not start mod directory watcher", e);
       // TODO notify user
@@ -125,35 +147,51 @@ public class ModService implements InitializingBean, DisposableBean {
     loadInstalledMods();
   }
 
-  private Thread startDirectoryWatcher(Path modsDirectory) {
-    Thread thread = new Thread(() -> noCatch(() -> {
-      WatchService watcher = modsDirectory.getFileSystem().newWatchService();
-      modsDirectory.register(watcher, ENTRY_DELETE);
-
-      try {
-        while (!Thread.interrupted()) {
-          WatchKey key = watcher.take();
-          key.pollEvents().stream()
-              .filter(event -> event.kind() == ENTRY_DELETE)
-              .forEach(event -> removeMod(modsDirectory.resolve((Path) event.context())));
-          key.reset();
-        }
-      } catch (InterruptedException e) {
-        logger.debug("Watcher terminated ({})", e.getMessage());
-      }
-    }));
-    thread.start();
-    return thread;
+  /**
+   * Reads the changed mod folders on the calling thread, but updates the installed mods on the FX thread, since they're
+   * bound to the UI.
+   *
+   * @return a future that completes once the installed mods have been updated
+   */
+  private CompletableFuture<Void> onModFoldersChanged(Set<Path> modFolders) {
+    Map<Path, Optional<ModVersion>> modsByFolder = new HashMap<>();
+    for (Path modFolder : modFolders) {
+      // Folders without a mod_info.lua are not considered to be mods (yet), e.g. while they are being unpacked
+      modsByFolder.put(modFolder, Files.exists(modFolder.resolve("mod_info.lua")) ? readMod(modFolder) : Optional.empty());
+    }
+    return updateInstalledMods(modsByFolder);
   }
 
+  /**
+   * Reads all mods in the mods directory. If called on the FX thread, the installed mods have been updated once this
+   * method returns, otherwise they are updated on the FX thread later.
+   */
   public void loadInstalledMods() {
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(modsDirectory, entry -> Files.isDirectory(entry))) {
+    Map<Path, Optional<ModVersion>> modsByFolder = new LinkedHashMap<>();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(modsDirectory,
+        entry -> Files.isDirectory(entry) && !ArchiveInstaller.isStagingFolder(entry))) {
       for (Path path : directoryStream) {
-        addMod(path);
+        modsByFolder.put(path, readMod(path));
       }
     } catch (IOException e) {
       logger.warn("Mods could not be read from: " + modsDirectory, e);
     }
+    updateInstalledMods(modsByFolder);
+  }
+
+  /**
+   * Replaces the mods of the specified folders on the FX thread. Folders without a mod are removed.
+   */
+  private CompletableFuture<Void> updateInstalledMods(Map<Path, Optional<ModVersion>> modsByFolder) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    JavaFxUtil.runLater(() -> {
+      modsByFolder.forEach((path, modVersion) -> {
+        removeMod(path);
+        modVersion.ifPresent(mod -> addMod(path, mod));
+      });
+      future.complete(null);
+    });
+    return future;
   }
 
   public ObservableList<ModVersion> getInstalledModVersions() {
@@ -185,7 +223,7 @@ public class ModService implements InitializingBean, DisposableBean {
     }
 
     return taskService.submitTask(task).getFuture()
-        .thenRun(this::loadInstalledMods);
+        .thenCompose(modFolder -> onModFoldersChanged(Set.of(modFolder)));
   }
 
   public CompletableFuture<Void> downloadAndInstallMod(ModVersion modVersion, @Nullable DoubleProperty progressProperty, StringProperty titleProperty) {
@@ -317,7 +355,9 @@ public class ModService implements InitializingBean, DisposableBean {
   }
 
   public CompletableFuture<List<ModVersion>> findByQuery(SearchConfig searchConfig, int page, int count) {
-    return fafService.findModsByQuery(searchConfig, page, count);
+    return vaultCatalogService.findModIds(searchConfig, page, count)
+        .map(fafService::findModsByIds)
+        .orElseGet(() -> fafService.findModsByQuery(searchConfig, page, count));
   }
 
   @CacheEvict(value = CacheNames.MODS, allEntries = true)
@@ -403,29 +443,36 @@ public class ModService implements InitializingBean, DisposableBean {
   }
 
   private void removeMod(Path path) {
-    logger.debug("Removing mod: {}", path);
-    installedModVersions.remove(pathToMod.remove(path));
+    ModVersion modVersion = pathToMod.remove(path);
+    if (modVersion != null) {
+      logger.debug("Removing mod: {}", path);
+      installedModVersions.remove(modVersion);
+    }
   }
 
-  private void addMod(Path path) {
+  private void addMod(Path path, ModVersion modVersion) {
     logger.debug("Adding mod: {}", path);
+    pathToMod.put(path, modVersion);
+    if (!installedModVersions.contains(modVersion)) {
+      installedModVersions.add(modVersion);
+    }
+  }
+
+  private Optional<ModVersion> readMod(Path path) {
     try {
-      ModVersion modVersion = extractModInfo(path);
-      pathToMod.put(path, modVersion);
-      if (!installedModVersions.contains(modVersion)) {
-        installedModVersions.add(modVersion);
-      }
+      return Optional.of(extractModInfo(path));
     } catch (ModLoadException e) {
       logger.debug("Corrupt mod: " + path, e);
 
       notificationService.addNotification(new PersistentNotification(i18n.get("corruptedMods.notification", path.getFileName()), WARN, singletonList(
           new Action(i18n.get("corruptedMods.show"), event -> platformService.reveal(path))
       )));
+      return Optional.empty();
     }
   }
 
   @Override
   public void destroy() {
-    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    Optional.ofNullable(directoryWatcherRegistration).ifPresent(Registration::close);
   }
 }
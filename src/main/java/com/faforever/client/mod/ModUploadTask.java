@@ -1,13 +1,11 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.io.ZippingResource;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.Validator;
 import com.faforever.commons.io.ByteCountListener;
-import com.faforever.commons.io.Zipper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -15,15 +13,12 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
 
 import static com.faforever.commons.io.Bytes.formatSize;
-import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newOutputStream;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -31,18 +26,18 @@ public class ModUploadTask extends CompletableTask<Void> {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final PreferencesService preferencesService;
   private final FafService fafService;
+  private final ExecutorService executorService;
   private final I18n i18n;
 
   private Path modPath;
 
   @Inject
-  public ModUploadTask(PreferencesService preferencesService, FafService fafService, I18n i18n) {
+  public ModUploadTask(FafService fafService, ExecutorService executorService, I18n i18n) {
     super(Priority.HIGH);
 
-    this.preferencesService = preferencesService;
     this.fafService = fafService;
+    this.executorService = executorService;
     this.i18n = i18n;
   }
 
@@ -50,37 +45,17 @@ public class ModUploadTask extends CompletableTask<Void> {
   protected Void call() throws Exception {
     Validator.notNull(modPath, "modPath must not be null");
 
-    ResourceLocks.acquireUploadLock();
-    Path cacheDirectory = preferencesService.getCacheDirectory();
-    Files.createDirectories(cacheDirectory);
-    Path tmpFile = createTempFile(cacheDirectory, "mod", ".zip");
+    Locale locale = i18n.getUserSpecificLocale();
+    ByteCountListener byteListener = (written, total) -> {
+      updateMessage(i18n.get("bytesProgress", formatSize(written, locale), formatSize(total, locale)));
+      updateProgress(written, total);
+    };
 
-    try {
-      logger.debug("Zipping mod {} to {}", modPath, tmpFile);
-      updateTitle(i18n.get("modVault.upload.compressing"));
+    logger.debug("Uploading mod {}", modPath);
+    updateTitle(i18n.get("modVault.upload.uploading"));
 
-      Locale locale = i18n.getUserSpecificLocale();
-      ByteCountListener byteListener = (written, total) -> {
-        updateMessage(i18n.get("bytesProgress", formatSize(written, locale), formatSize(total, locale)));
-        updateProgress(written, total);
-      };
-
-      try (OutputStream outputStream = newOutputStream(tmpFile)) {
-        Zipper.of(modPath)
-            .to(outputStream)
-            .listener(byteListener)
-            .zip();
-      }
-
-      logger.debug("Uploading mod {} as {}", modPath, tmpFile);
-      updateTitle(i18n.get("modVault.upload.uploading"));
-
-      fafService.uploadMod(tmpFile, byteListener);
-      return null;
-    } finally {
-      Files.delete(tmpFile);
-      ResourceLocks.freeUploadLock();
-    }
+    fafService.uploadMod(new ZippingResource(modPath, executorService, byteListener));
+    return null;
   }
 
   public void setModPath(Path modPath) {
@@ -0,0 +1,226 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.preferences.PreferencesService;
+import com.google.common.io.BaseEncoding;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Checks whether game files match their expected MD5 hashes. Files are hashed in parallel, and every
+ * hash is kept in a manifest in the cache directory together with the file's size and last modified time. As long as
+ * those don't change, the file isn't hashed again, so that checking an up-to-date installation only needs to read the
+ * file attributes.
+ */
+@Lazy
+@Service
+@Slf4j
+public class FileIntegrityService implements DisposableBean {
+
+  private static final String MANIFEST_FILE_NAME = "file-hashes.idx";
+  private static final int MANIFEST_VERSION = 1;
+  private static final int READ_BUFFER_SIZE = 256 * 1024;
+  /**
+   * Files are read rather than memory-mapped, since Windows keeps a mapped file locked until the mapping is garbage
+   * collected, which would prevent the file from being updated right after it has been checked.
+   */
+  private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(READ_BUFFER_SIZE));
+
+  private final PreferencesService preferencesService;
+  private final ExecutorService hashingExecutor;
+  private final Map<String, ManifestEntry> manifest;
+  private boolean manifestLoaded;
+  private final AtomicBoolean manifestChanged;
+
+  public FileIntegrityService(PreferencesService preferencesService) {
+    this.preferencesService = preferencesService;
+    AtomicInteger threadNumber = new AtomicInteger();
+    hashingExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+      Thread thread = new Thread(runnable, "file-hasher-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    manifest = new ConcurrentHashMap<>();
+    manifestChanged = new AtomicBoolean();
+  }
+
+  /**
+   * Returns the files that are missing in the specified directory or whose content doesn't match their MD5 hash.
+   * Blocks until all files have been checked.
+   */
+  public List<FeaturedModFile> findOutdatedFiles(Path baseDirectory, List<FeaturedModFile> featuredModFiles) throws IOException {
+    loadManifest();
+
+    List<CompletableFuture<Boolean>> upToDateFutures = featuredModFiles.stream()
+        .map(featuredModFile -> {
+          Path file = baseDirectory.resolve(featuredModFile.getGroup()).resolve(featuredModFile.getName());
+          return CompletableFuture.supplyAsync(() -> featuredModFile.getMd5().equalsIgnoreCase(getMd5(file)), hashingExecutor);
+        })
+        .collect(Collectors.toList());
+
+    try {
+      CompletableFuture.allOf(upToDateFutures.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    } finally {
+      saveManifest();
+    }
+
+    List<FeaturedModFile> outdatedFiles = new ArrayList<>();
+    for (int i = 0; i < featuredModFiles.size(); i++) {
+      if (!upToDateFutures.get(i).join()) {
+        outdatedFiles.add(featuredModFiles.get(i));
+      }
+    }
+    return outdatedFiles;
+  }
+
+  /**
+   * Returns the MD5 hash of the specified file as lower case hex string, or {@code null} if it doesn't exist.
+   */
+  private String getMd5(Path file) {
+    try {
+      BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      } catch (NoSuchFileException e) {
+        return null;
+      }
+
+      String key = file.toAbsolutePath().toString();
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      ManifestEntry entry = manifest.get(key);
+      if (entry != null && entry.getSize() == attributes.size() && entry.getLastModified() == lastModified) {
+        return entry.getMd5();
+      }
+
+      String md5 = hash(file);
+      manifest.put(key, new ManifestEntry(attributes.size(), lastModified, md5));
+      manifestChanged.set(true);
+      return md5;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String hash(Path file) throws IOException {
+    MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 is required to be supported by every JVM", e);
+    }
+
+    ByteBuffer buffer = READ_BUFFER.get();
+    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer.clear();
+      while (fileChannel.read(buffer) != -1) {
+        buffer.flip();
+        messageDigest.update(buffer);
+        buffer.clear();
+      }
+    }
+    return BaseEncoding.base16().lowerCase().encode(messageDigest.digest());
+  }
+
+  private Path getManifestFile() {
+    return preferencesService.getCacheDirectory().resolve(MANIFEST_FILE_NAME);
+  }
+
+  private synchronized void loadManifest() {
+    if (manifestLoaded) {
+      return;
+    }
+    manifestLoaded = true;
+    Path manifestFile = getManifestFile();
+    if (Files.notExists(manifestFile)) {
+      return;
+    }
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifestFile)))) {
+      if (in.readInt() != MANIFEST_VERSION) {
+        log.info("Ignoring file hash manifest of unknown version: {}", manifestFile);
+        return;
+      }
+      for (int count = in.readInt(); count > 0; count--) {
+        manifest.put(in.readUTF(), new ManifestEntry(in.readLong(), in.readLong(), in.readUTF()));
+      }
+    } catch (IOException e) {
+      log.warn("File hash manifest could not be read, all files will be hashed again", e);
+      manifest.clear();
+    }
+  }
+
+  private synchronized void saveManifest() {
+    if (!manifestChanged.compareAndSet(true, false)) {
+      return;
+    }
+
+    Path manifestFile = getManifestFile();
+    Path tempFile = manifestFile.resolveSibling(MANIFEST_FILE_NAME + ".tmp");
+    try {
+      Files.createDirectories(manifestFile.getParent());
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        Map<String, ManifestEntry> entries = Map.copyOf(manifest);
+        out.writeInt(MANIFEST_VERSION);
+        out.writeInt(entries.size());
+        for (Entry<String, ManifestEntry> entry : entries.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeLong(entry.getValue().getSize());
+          out.writeLong(entry.getValue().getLastModified());
+          out.writeUTF(entry.getValue().getMd5());
+        }
+      }
+      Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("File hash manifest could not be written", e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    hashingExecutor.shutdownNow();
+  }
+
+  @Value
+  private static class ManifestEntry {
+    long size;
+    long lastModified;
+    String md5;
+  }
+}
@@ -5,7 +5,6 @@ import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.Assert;
 import com.faforever.client.util.Validator;
 import com.faforever.commons.fa.ForgedAllianceExePatcher;
@@ -98,22 +97,17 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
       platformService.setUnixExecutableAndWritableBits(exePath);
       return;
     }
-    ResourceLocks.acquireDownloadLock();
-    try {
-      logger.debug("Downloading {} to {}", fafExeUrl, exePath);
-      URLConnection urlConnection = new URL(fafExeUrl).openConnection();
-      try (InputStream inputStream = urlConnection.getInputStream();
-           OutputStream outputStream = Files.newOutputStream(exePath)) {
-        ByteCopier.from(inputStream)
-            .to(outputStream)
-            .totalBytes(urlConnection.getContentLength())
-            .listener(this::updateProgress)
-            .copy();
-      }
-      platformService.setUnixExecutableAndWritableBits(exePath);
-    } finally {
-      ResourceLocks.freeDownloadLock();
+    logger.debug("Downloading {} to {}", fafExeUrl, exePath);
+    URLConnection urlConnection = new URL(fafExeUrl).openConnection();
+    try (InputStream inputStream = urlConnection.getInputStream();
+         OutputStream outputStream = Files.newOutputStream(exePath)) {
+      ByteCopier.from(inputStream)
+          .to(outputStream)
+          .totalBytes(urlConnection.getContentLength())
+          .listener(this::updateProgress)
+          .copy();
     }
+    platformService.setUnixExecutableAndWritableBits(exePath);
   }
 
   @VisibleForTesting
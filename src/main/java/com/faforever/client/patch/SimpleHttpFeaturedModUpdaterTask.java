@@ -8,7 +8,6 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.util.UpdaterUtil;
-import com.google.common.hash.Hashing;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +20,9 @@ import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -33,17 +34,19 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
   private final PreferencesService preferencesService;
   private final DownloadService downloadService;
   private final I18n i18n;
+  private final FileIntegrityService fileIntegrityService;
 
   private FeaturedMod featuredMod;
   private Integer version;
 
-  public SimpleHttpFeaturedModUpdaterTask(FafService fafService, PreferencesService preferencesService, DownloadService downloadService, I18n i18n) {
+  public SimpleHttpFeaturedModUpdaterTask(FafService fafService, PreferencesService preferencesService, DownloadService downloadService, I18n i18n, FileIntegrityService fileIntegrityService) {
     super(Priority.HIGH);
 
     this.fafService = fafService;
     this.preferencesService = preferencesService;
     this.downloadService = downloadService;
     this.i18n = i18n;
+    this.fileIntegrityService = fileIntegrityService;
   }
 
   @Override
@@ -55,15 +58,16 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
 
     List<FeaturedModFile> featuredModFiles = fafService.getFeaturedModFiles(featuredMod, version).get();
 
+    Path fafDataDirectory = preferencesService.getFafDataDirectory();
+    Set<FeaturedModFile> outdatedFiles = new HashSet<>(fileIntegrityService.findOutdatedFiles(fafDataDirectory, featuredModFiles));
+
     Path initFile = null;
     for (FeaturedModFile featuredModFile : featuredModFiles) {
-      Path fafDataDirectory = preferencesService.getFafDataDirectory();
       Path targetPath = fafDataDirectory
           .resolve(featuredModFile.getGroup())
           .resolve(featuredModFile.getName());
 
-      if (Files.exists(targetPath)
-          && featuredModFile.getMd5().equals(com.google.common.io.Files.hash(targetPath.toFile(), Hashing.md5()).toString())) {
+      if (!outdatedFiles.contains(featuredModFile)) {
         logger.debug("Already up to date: {}", targetPath);
       } else {
         Files.createDirectories(targetPath.getParent());
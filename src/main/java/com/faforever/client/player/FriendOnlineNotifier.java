@@ -36,13 +36,14 @@ public class FriendOnlineNotifier implements InitializingBean {
   }
 
   @Subscribe
-  public void onUserOnline(PlayerOnlineEvent event) {
-    NotificationsPrefs notification = preferencesService.getPreferences().getNotification();
-    Player player = event.getPlayer();
+  public void onPlayersChanged(PlayersChangedEvent event) {
+    event.getPlayersCameOnline().stream()
+        .filter(player -> player.getSocialStatus() == SocialStatus.FRIEND)
+        .forEach(this::notifyFriendOnline);
+  }
 
-    if (player.getSocialStatus() != SocialStatus.FRIEND) {
-      return;
-    }
+  private void notifyFriendOnline(Player player) {
+    NotificationsPrefs notification = preferencesService.getPreferences().getNotification();
 
     if (notification.isFriendOnlineSoundEnabled()) {
       audioService.playFriendOnlineSound();
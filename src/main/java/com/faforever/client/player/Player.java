@@ -6,6 +6,7 @@ import com.faforever.client.chat.ChatChannelUser;
 import com.faforever.client.game.Game;
 import com.faforever.client.game.PlayerStatus;
 import com.faforever.client.remote.domain.GameStatus;
+import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.FloatProperty;
 import javafx.beans.property.IntegerProperty;
@@ -29,63 +30,67 @@ import static com.faforever.client.player.SocialStatus.OTHER;
 
 /**
  * Represents a player with username, clan, country, friend/foe flag and so on.
+ * <p>
+ * Since thousands of players are kept in memory, values are stored in plain fields and a JavaFX property is only
+ * created once its {@code xxxProperty()} method is called, e.g. by a UI binding. From then on, the property holds the
+ * value. Players are read and written by background threads as well, so properties are published safely and a value
+ * is only written to its plain field while holding the player's lock, which keeps it from being lost if the property is
+ * created concurrently. Property listeners are notified on the thread that set the value, so players that are bound
+ * to the UI should still only be modified on the JavaFX application thread.
  */
 public class Player {
 
-  private final IntegerProperty id;
-  private final StringProperty username;
-  private final StringProperty clan;
-  private final StringProperty country;
-  private final StringProperty avatarUrl;
-  private final StringProperty avatarTooltip;
-  private final ObjectProperty<SocialStatus> socialStatus;
-  private final FloatProperty globalRatingDeviation;
-  private final FloatProperty globalRatingMean;
-  private final FloatProperty leaderboardRatingDeviation;
-  private final FloatProperty leaderboardRatingMean;
-  private final ObjectProperty<Game> game;
-  private final ObjectProperty<PlayerStatus> status;
-  private final ObservableSet<ChatChannelUser> chatChannelUsers;
-  private final IntegerProperty numberOfGames;
-  private final ObjectProperty<Instant> idleSince;
-  private final ObservableList<NameRecord> names;
+  private volatile int id;
+  private volatile IntegerProperty idProperty;
+  private volatile String username;
+  private volatile StringProperty usernameProperty;
+  private volatile String clan;
+  private volatile StringProperty clanProperty;
+  private volatile String country;
+  private volatile StringProperty countryProperty;
+  private volatile String avatarUrl;
+  private volatile StringProperty avatarUrlProperty;
+  private volatile String avatarTooltip;
+  private volatile StringProperty avatarTooltipProperty;
+  private volatile SocialStatus socialStatus;
+  private volatile ObjectProperty<SocialStatus> socialStatusProperty;
+  private volatile float globalRatingDeviation;
+  private volatile FloatProperty globalRatingDeviationProperty;
+  private volatile float globalRatingMean;
+  private volatile FloatProperty globalRatingMeanProperty;
+  private volatile float leaderboardRatingDeviation;
+  private volatile FloatProperty leaderboardRatingDeviationProperty;
+  private volatile float leaderboardRatingMean;
+  private volatile FloatProperty leaderboardRatingMeanProperty;
+  private volatile Game game;
+  private volatile ObjectProperty<Game> gameProperty;
+  /** Invalidated whenever one of the ratings is set, only created if requested. */
+  private volatile IntegerProperty ratingsVersionProperty;
+  /** Bound to the status of {@link #game}, only created if requested. */
+  private volatile ObjectProperty<PlayerStatus> statusProperty;
+  private volatile int numberOfGames;
+  private volatile IntegerProperty numberOfGamesProperty;
+  private volatile Instant idleSince;
+  private volatile ObjectProperty<Instant> idleSinceProperty;
+  private ObservableSet<ChatChannelUser> chatChannelUsers;
+  private ObservableList<NameRecord> names;
 
   public Player(com.faforever.client.remote.domain.Player player) {
-    this();
+    this(player.getLogin());
 
-    username.set(player.getLogin());
-    clan.set(player.getClan());
-    country.set(player.getCountry());
+    clan = player.getClan();
+    country = player.getCountry();
 
     if (player.getAvatar() != null) {
-      avatarTooltip.set(player.getAvatar().getTooltip());
-      avatarUrl.set(player.getAvatar().getUrl());
-    }
-  }
-
-  private Player() {
-    id = new SimpleIntegerProperty();
-    username = new SimpleStringProperty();
-    clan = new SimpleStringProperty();
-    country = new SimpleStringProperty();
-    avatarUrl = new SimpleStringProperty();
-    avatarTooltip = new SimpleStringProperty();
-    globalRatingDeviation = new SimpleFloatProperty();
-    globalRatingMean = new SimpleFloatProperty();
-    leaderboardRatingDeviation = new SimpleFloatProperty();
-    leaderboardRatingMean = new SimpleFloatProperty();
-    status = new SimpleObjectProperty<>(PlayerStatus.IDLE);
-    chatChannelUsers = FXCollections.observableSet();
-    game = new SimpleObjectProperty<>();
-    numberOfGames = new SimpleIntegerProperty();
-    socialStatus = new SimpleObjectProperty<>(OTHER);
-    idleSince = new SimpleObjectProperty<>(Instant.now());
-    names = FXCollections.observableArrayList();
+      avatarTooltip = player.getAvatar().getTooltip();
+      avatarUrl = player.getAvatar().getUrl();
+    }
   }
 
   public Player(String username) {
-    this();
-    this.username.set(username);
+    this.username = username;
+    socialStatus = OTHER;
+    idleSince = Instant.now();
   }
 
   public static Player fromDto(com.faforever.client.api.dto.Player dto) {
@@ -102,49 +107,109 @@ public class Player {
     return player;
   }
 
-  public ObservableList<NameRecord> getNames() {
+  public synchronized ObservableList<NameRecord> getNames() {
+    if (names == null) {
+      names = FXCollections.observableArrayList();
+    }
     return names;
   }
 
   public SocialStatus getSocialStatus() {
-    return socialStatus.get();
+    ObjectProperty<SocialStatus> property = socialStatusProperty;
+    return property == null ? socialStatus : property.get();
   }
 
   public void setSocialStatus(SocialStatus socialStatus) {
-    this.socialStatus.set(socialStatus);
+    ObjectProperty<SocialStatus> property;
+    synchronized (this) {
+      property = socialStatusProperty;
+      if (property == null) {
+        this.socialStatus = socialStatus;
+      }
+    }
+    if (property != null) {
+      property.set(socialStatus);
+    }
   }
 
   public ObjectProperty<SocialStatus> socialStatusProperty() {
-    return socialStatus;
+    ObjectProperty<SocialStatus> property = socialStatusProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (socialStatusProperty == null) {
+          socialStatusProperty = new SimpleObjectProperty<>(this, "socialStatus", socialStatus);
+        }
+        property = socialStatusProperty;
+      }
+    }
+    return property;
   }
 
   public int getId() {
-    return id.get();
+    IntegerProperty property = idProperty;
+    return property == null ? id : property.get();
   }
 
   public void setId(int id) {
-    this.id.set(id);
+    IntegerProperty property;
+    synchronized (this) {
+      property = idProperty;
+      if (property == null) {
+        this.id = id;
+      }
+    }
+    if (property != null) {
+      property.set(id);
+    }
   }
 
   public IntegerProperty idProperty() {
-    return id;
+    IntegerProperty property = idProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (idProperty == null) {
+          idProperty = new SimpleIntegerProperty(this, "id", id);
+        }
+        property = idProperty;
+      }
+    }
+    return property;
   }
 
   public int getNumberOfGames() {
-    return numberOfGames.get();
+    IntegerProperty property = numberOfGamesProperty;
+    return property == null ? numberOfGames : property.get();
   }
 
   public void setNumberOfGames(int numberOfGames) {
-    this.numberOfGames.set(numberOfGames);
+    IntegerProperty property;
+    synchronized (this) {
+      property = numberOfGamesProperty;
+      if (property == null) {
+        this.numberOfGames = numberOfGames;
+      }
+    }
+    if (property != null) {
+      property.set(numberOfGames);
+    }
   }
 
   public IntegerProperty numberOfGamesProperty() {
-    return numberOfGames;
+    IntegerProperty property = numberOfGamesProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (numberOfGamesProperty == null) {
+          numberOfGamesProperty = new SimpleIntegerProperty(this, "numberOfGames", numberOfGames);
+        }
+        property = numberOfGamesProperty;
+      }
+    }
+    return property;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id.get(), username.get());
+    return Objects.hash(getId(), getUsername());
   }
 
   @Override
@@ -156,185 +221,430 @@ public class Player {
   }
 
   public String getUsername() {
-    return username.get();
+    StringProperty property = usernameProperty;
+    return property == null ? username : property.get();
   }
 
   public void setUsername(String username) {
-    this.username.set(username);
+    StringProperty property;
+    synchronized (this) {
+      property = usernameProperty;
+      if (property == null) {
+        this.username = username;
+      }
+    }
+    if (property != null) {
+      property.set(username);
+    }
   }
 
   public StringProperty usernameProperty() {
-    return username;
+    StringProperty property = usernameProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (usernameProperty == null) {
+          usernameProperty = new SimpleStringProperty(this, "username", username);
+        }
+        property = usernameProperty;
+      }
+    }
+    return property;
   }
 
   public String getClan() {
-    return clan.get();
+    StringProperty property = clanProperty;
+    return property == null ? clan : property.get();
   }
 
   public void setClan(String clan) {
-    this.clan.set(clan);
+    StringProperty property;
+    synchronized (this) {
+      property = clanProperty;
+      if (property == null) {
+        this.clan = clan;
+      }
+    }
+    if (property != null) {
+      property.set(clan);
+    }
   }
 
   public StringProperty clanProperty() {
-    return clan;
+    StringProperty property = clanProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (clanProperty == null) {
+          clanProperty = new SimpleStringProperty(this, "clan", clan);
+        }
+        property = clanProperty;
+      }
+    }
+    return property;
   }
 
   public String getCountry() {
-    return country.get();
+    StringProperty property = countryProperty;
+    return property == null ? country : property.get();
   }
 
   public void setCountry(String country) {
-    this.country.set(country);
+    StringProperty property;
+    synchronized (this) {
+      property = countryProperty;
+      if (property == null) {
+        this.country = country;
+      }
+    }
+    if (property != null) {
+      property.set(country);
+    }
   }
 
   public StringProperty countryProperty() {
-    return country;
+    StringProperty property = countryProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (countryProperty == null) {
+          countryProperty = new SimpleStringProperty(this, "country", country);
+        }
+        property = countryProperty;
+      }
+    }
+    return property;
   }
 
   public String getAvatarUrl() {
-    return avatarUrl.get();
+    StringProperty property = avatarUrlProperty;
+    return property == null ? avatarUrl : property.get();
   }
 
   public void setAvatarUrl(String avatarUrl) {
-    this.avatarUrl.set(avatarUrl);
+    StringProperty property;
+    synchronized (this) {
+      property = avatarUrlProperty;
+      if (property == null) {
+        this.avatarUrl = avatarUrl;
+      }
+    }
+    if (property != null) {
+      property.set(avatarUrl);
+    }
   }
 
   public StringProperty avatarUrlProperty() {
-    return avatarUrl;
+    StringProperty property = avatarUrlProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (avatarUrlProperty == null) {
+          avatarUrlProperty = new SimpleStringProperty(this, "avatarUrl", avatarUrl);
+        }
+        property = avatarUrlProperty;
+      }
+    }
+    return property;
   }
 
   public String getAvatarTooltip() {
-    return avatarTooltip.get();
+    StringProperty property = avatarTooltipProperty;
+    return property == null ? avatarTooltip : property.get();
   }
 
   public void setAvatarTooltip(String avatarTooltip) {
-    this.avatarTooltip.set(avatarTooltip);
+    StringProperty property;
+    synchronized (this) {
+      property = avatarTooltipProperty;
+      if (property == null) {
+        this.avatarTooltip = avatarTooltip;
+      }
+    }
+    if (property != null) {
+      property.set(avatarTooltip);
+    }
   }
 
   public StringProperty avatarTooltipProperty() {
-    return avatarTooltip;
+    StringProperty property = avatarTooltipProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (avatarTooltipProperty == null) {
+          avatarTooltipProperty = new SimpleStringProperty(this, "avatarTooltip", avatarTooltip);
+        }
+        property = avatarTooltipProperty;
+      }
+    }
+    return property;
   }
 
   public float getGlobalRatingDeviation() {
-    return globalRatingDeviation.get();
+    FloatProperty property = globalRatingDeviationProperty;
+    return property == null ? globalRatingDeviation : property.get();
   }
 
   public void setGlobalRatingDeviation(float globalRatingDeviation) {
-    this.globalRatingDeviation.set(globalRatingDeviation);
+    FloatProperty property;
+    synchronized (this) {
+      property = globalRatingDeviationProperty;
+      if (property == null) {
+        this.globalRatingDeviation = globalRatingDeviation;
+      }
+    }
+    if (property != null) {
+      property.set(globalRatingDeviation);
+    }
+    ratingsChanged();
   }
 
   public FloatProperty globalRatingDeviationProperty() {
-    return globalRatingDeviation;
+    FloatProperty property = globalRatingDeviationProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (globalRatingDeviationProperty == null) {
+          globalRatingDeviationProperty = new SimpleFloatProperty(this, "globalRatingDeviation", globalRatingDeviation);
+        }
+        property = globalRatingDeviationProperty;
+      }
+    }
+    return property;
   }
 
   public float getGlobalRatingMean() {
-    return globalRatingMean.get();
+    FloatProperty property = globalRatingMeanProperty;
+    return property == null ? globalRatingMean : property.get();
   }
 
   public void setGlobalRatingMean(float globalRatingMean) {
-    this.globalRatingMean.set(globalRatingMean);
+    FloatProperty property;
+    synchronized (this) {
+      property = globalRatingMeanProperty;
+      if (property == null) {
+        this.globalRatingMean = globalRatingMean;
+      }
+    }
+    if (property != null) {
+      property.set(globalRatingMean);
+    }
+    ratingsChanged();
   }
 
   public FloatProperty globalRatingMeanProperty() {
-    return globalRatingMean;
+    FloatProperty property = globalRatingMeanProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (globalRatingMeanProperty == null) {
+          globalRatingMeanProperty = new SimpleFloatProperty(this, "globalRatingMean", globalRatingMean);
+        }
+        property = globalRatingMeanProperty;
+      }
+    }
+    return property;
+  }
+
+  /**
+   * Returns an observable that is invalidated whenever one of the player's ratings is set. Observing it is cheaper than
+   * observing each of the rating properties, which would all be created.
+   */
+  public Observable ratingsObservable() {
+    IntegerProperty property = ratingsVersionProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (ratingsVersionProperty == null) {
+          ratingsVersionProperty = new SimpleIntegerProperty(this, "ratingsVersion");
+        }
+        property = ratingsVersionProperty;
+      }
+    }
+    return property;
+  }
+
+  private void ratingsChanged() {
+    IntegerProperty property = ratingsVersionProperty;
+    if (property != null) {
+      property.set(property.get() + 1);
+    }
   }
 
   public PlayerStatus getStatus() {
-    return status.get();
+    ObjectProperty<PlayerStatus> property = statusProperty;
+    return property == null ? calculateStatus(getGame()) : property.get();
   }
 
   public ReadOnlyObjectProperty<PlayerStatus> statusProperty() {
-    return status;
+    ObjectProperty<PlayerStatus> property = statusProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (statusProperty == null) {
+          ObjectProperty<PlayerStatus> newProperty = new SimpleObjectProperty<>(this, "status");
+          bindStatus(newProperty);
+          statusProperty = newProperty;
+        }
+        property = statusProperty;
+      }
+    }
+    return property;
   }
 
   public Game getGame() {
-    return game.get();
+    ObjectProperty<Game> property = gameProperty;
+    return property == null ? game : property.get();
   }
 
   public void setGame(Game game) {
-    this.game.set(game);
-    if (game == null) {
-      status.unbind();
-      status.set(PlayerStatus.IDLE);
-    } else {
-      status.bind(Bindings.createObjectBinding(() -> {
-        if (getGame() == null) {
-          return PlayerStatus.IDLE;
-        }
-        if (getGame().getStatus() == GameStatus.OPEN) {
-          if (getGame().getHost().equalsIgnoreCase(username.get())) {
-            return PlayerStatus.HOSTING;
-          }
-          return PlayerStatus.LOBBYING;
-        } else if (getGame().getStatus() == GameStatus.CLOSED) {
-          return PlayerStatus.IDLE;
-        }
-        return PlayerStatus.PLAYING;
-      }, game.statusProperty()));
+    ObjectProperty<Game> property;
+    synchronized (this) {
+      property = gameProperty;
+      if (property == null) {
+        this.game = game;
+      }
+    }
+    if (property != null) {
+      property.set(game);
+    }
+    // Rebinding under the lock keeps a concurrently created status property from being bound to the previous game
+    synchronized (this) {
+      if (statusProperty != null) {
+        bindStatus(statusProperty);
+      }
     }
   }
 
   public ObjectProperty<Game> gameProperty() {
-    return game;
+    ObjectProperty<Game> property = gameProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (gameProperty == null) {
+          gameProperty = new SimpleObjectProperty<>(this, "game", game);
+        }
+        property = gameProperty;
+      }
+    }
+    return property;
+  }
+
+  private void bindStatus(ObjectProperty<PlayerStatus> property) {
+    Game currentGame = getGame();
+    if (currentGame == null) {
+      property.unbind();
+      property.set(PlayerStatus.IDLE);
+    } else {
+      property.bind(Bindings.createObjectBinding(() -> calculateStatus(getGame()), currentGame.statusProperty()));
+    }
+  }
+
+  private PlayerStatus calculateStatus(Game game) {
+    if (game == null) {
+      return PlayerStatus.IDLE;
+    }
+    if (game.getStatus() == GameStatus.OPEN) {
+      if (game.getHost().equalsIgnoreCase(getUsername())) {
+        return PlayerStatus.HOSTING;
+      }
+      return PlayerStatus.LOBBYING;
+    } else if (game.getStatus() == GameStatus.CLOSED) {
+      return PlayerStatus.IDLE;
+    }
+    return PlayerStatus.PLAYING;
   }
 
   public float getLeaderboardRatingMean() {
-    return leaderboardRatingMean.get();
+    FloatProperty property = leaderboardRatingMeanProperty;
+    return property == null ? leaderboardRatingMean : property.get();
   }
 
   public void setLeaderboardRatingMean(float leaderboardRatingMean) {
-    this.leaderboardRatingMean.set(leaderboardRatingMean);
+    FloatProperty property;
+    synchronized (this) {
+      property = leaderboardRatingMeanProperty;
+      if (property == null) {
+        this.leaderboardRatingMean = leaderboardRatingMean;
+      }
+    }
+    if (property != null) {
+      property.set(leaderboardRatingMean);
+    }
+    ratingsChanged();
   }
 
   public FloatProperty leaderboardRatingMeanProperty() {
-    return leaderboardRatingMean;
+    FloatProperty property = leaderboardRatingMeanProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (leaderboardRatingMeanProperty == null) {
+          leaderboardRatingMeanProperty = new SimpleFloatProperty(this, "leaderboardRatingMean", leaderboardRatingMean);
+        }
+        property = leaderboardRatingMeanProperty;
+      }
+    }
+    return property;
   }
 
   public float getLeaderboardRatingDeviation() {
-    return leaderboardRatingDeviation.get();
+    FloatProperty property = leaderboardRatingDeviationProperty;
+    return property == null ? leaderboardRatingDeviation : property.get();
   }
 
   public void setLeaderboardRatingDeviation(float leaderboardRatingDeviation) {
-    this.leaderboardRatingDeviation.set(leaderboardRatingDeviation);
+    FloatProperty property;
+    synchronized (this) {
+      property = leaderboardRatingDeviationProperty;
+      if (property == null) {
+        this.leaderboardRatingDeviation = leaderboardRatingDeviation;
+      }
+    }
+    if (property != null) {
+      property.set(leaderboardRatingDeviation);
+    }
+    ratingsChanged();
   }
 
   public Instant getIdleSince() {
-    return idleSince.get();
+    ObjectProperty<Instant> property = idleSinceProperty;
+    return property == null ? idleSince : property.get();
   }
 
   public void setIdleSince(Instant idleSince) {
-    this.idleSince.set(idleSince);
+    ObjectProperty<Instant> property;
+    synchronized (this) {
+      property = idleSinceProperty;
+      if (property == null) {
+        this.idleSince = idleSince;
+      }
+    }
+    if (property != null) {
+      property.set(idleSince);
+    }
   }
 
   public ObjectProperty<Instant> idleSinceProperty() {
-    return idleSince;
+    ObjectProperty<Instant> property = idleSinceProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (idleSinceProperty == null) {
+          idleSinceProperty = new SimpleObjectProperty<>(this, "idleSince", idleSince);
+        }
+        property = idleSinceProperty;
+      }
+    }
+    return property;
   }
 
   public FloatProperty leaderboardRatingDeviationProperty() {
-    return leaderboardRatingDeviation;
+    FloatProperty property = leaderboardRatingDeviationProperty;
+    if (property == null) {
+      synchronized (this) {
+        if (leaderboardRatingDeviationProperty == null) {
+          leaderboardRatingDeviationProperty = new SimpleFloatProperty(this, "leaderboardRatingDeviation", leaderboardRatingDeviation);
+        }
+        property = leaderboardRatingDeviationProperty;
+      }
+    }
+    return property;
   }
 
-  public ObservableSet<ChatChannelUser> getChatChannelUsers() {
+  public synchronized ObservableSet<ChatChannelUser> getChatChannelUsers() {
+    if (chatChannelUsers == null) {
+      chatChannelUsers = FXCollections.observableSet();
+    }
     return chatChannelUsers;
   }
 
-  public void updateFromDto(com.faforever.client.remote.domain.Player player) {
-    setId(player.getId());
-    setClan(player.getClan());
-    setCountry(player.getCountry());
-
-    if (player.getGlobalRating() != null) {
-      setGlobalRatingMean(player.getGlobalRating()[0]);
-      setGlobalRatingDeviation(player.getGlobalRating()[1]);
-    }
-    if (player.getLadderRating() != null) {
-      setLeaderboardRatingMean(player.getLadderRating()[0]);
-      setLeaderboardRatingDeviation(player.getLadderRating()[1]);
-    }
-    setNumberOfGames(player.getNumberOfGames());
-    if (player.getAvatar() != null) {
-      setAvatarUrl(player.getAvatar().getUrl());
-      setAvatarTooltip(player.getAvatar().getTooltip());
-    }
-  }
 }
@@ -20,6 +20,8 @@ import com.faforever.client.remote.domain.SocialMessage;
 import com.faforever.client.user.UserService;
 import com.faforever.client.user.event.LoginSuccessEvent;
 import com.faforever.client.util.Assert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import javafx.application.Platform;
@@ -56,16 +58,26 @@ import static com.faforever.client.player.SocialStatus.SELF;
 @Slf4j
 public class PlayerService implements InitializingBean {
 
+  /** The state the server sends in a player info when the player has left the lobby. */
+  private static final String STATE_OFFLINE = "offline";
+
   private final ObservableMap<String, Player> playersByName;
   private final ObservableMap<Integer, Player> playersById;
-  private final List<Integer> foeList;
-  private final List<Integer> friendList;
+  private final Set<Integer> foeList;
+  private final Set<Integer> friendList;
   private final ObjectProperty<Player> currentPlayer;
 
   private final FafService fafService;
   private final UserService userService;
   private final EventBus eventBus;
   private final HashMap<Integer, List<Player>> playersByGame;
+  /**
+   * Players that have gone offline. They are only kept as long as something else still references them, e.g. an open
+   * private chat, so that the same instance is used again if they come back online.
+   */
+  private final Cache<String, Player> offlinePlayers;
+  /** Names of the players that the server has sent an info about since they last went offline. */
+  private final Set<String> onlinePlayerNames;
 
   public PlayerService(FafService fafService, UserService userService, EventBus eventBus) {
     this.fafService = fafService;
@@ -74,10 +86,12 @@ public class PlayerService implements InitializingBean {
 
     playersByName = FXCollections.observableMap(new ConcurrentHashMap<>());
     playersById = FXCollections.observableHashMap();
-    friendList = new ArrayList<>();
-    foeList = new ArrayList<>();
+    friendList = ConcurrentHashMap.newKeySet();
+    foeList = ConcurrentHashMap.newKeySet();
     currentPlayer = new SimpleObjectProperty<>();
     playersByGame = new HashMap<>();
+    offlinePlayers = Caffeine.newBuilder().weakValues().build();
+    onlinePlayerNames = ConcurrentHashMap.newKeySet();
   }
 
   @Override
@@ -107,6 +121,7 @@ public class PlayerService implements InitializingBean {
           .collect(Collectors.toList());
       updateGamePlayers(playersInGame, null);
     }
+    playersByGame.remove(game.getId());
   }
 
   private void updateGameForPlayersInGame(Game game) {
@@ -123,6 +138,7 @@ public class PlayerService implements InitializingBean {
   public void onLoginSuccess(LoginSuccessEvent event) {
     Player player = createAndGetPlayerForUsername(event.getUsername());
     player.setId(event.getUserId());
+    indexById(player);
     currentPlayer.set(player);
     player.setIdleSince(Instant.now());
   }
@@ -220,19 +236,94 @@ public class PlayerService implements InitializingBean {
     Assert.checkNullArgument(username, "username must not be null");
 
     synchronized (playersByName) {
-      if (!playersByName.containsKey(username)) {
-        Player player = new Player(username);
-        JavaFxUtil.addListener(player.idProperty(), (observable, oldValue, newValue) -> {
-          synchronized (playersById) {
-            playersById.remove(oldValue.intValue());
-            playersById.put(newValue.intValue(), player);
-          }
-        });
+      Player player = playersByName.get(username);
+      if (player == null) {
+        player = offlinePlayers.getIfPresent(username);
+        if (player == null) {
+          player = new Player(username);
+        } else {
+          offlinePlayers.invalidate(username);
+        }
+        playersByName.put(username, player);
+      }
+      return player;
+    }
+  }
+
+  /**
+   * Registers the player under its name again if it has been evicted since it was looked up, so that a player that
+   * came online is never indexed by id only. Must be called on the JavaFX application thread.
+   */
+  private void registerByName(Player player) {
+    String username = player.getUsername();
+    synchronized (playersByName) {
+      if (playersByName.get(username) != player) {
+        offlinePlayers.invalidate(username);
         playersByName.put(username, player);
       }
     }
+  }
+
+  private void indexById(Player player) {
+    synchronized (playersById) {
+      playersById.put(player.getId(), player);
+    }
+  }
+
+  /**
+   * Forgets players that left the chat unless they are befriended, foes or in a game. If they are still referenced
+   * elsewhere, e.g. by a private chat, the same instance is used once they come back online. Players that are kept
+   * are still considered online, since leaving the chat does not mean that they left the lobby. Eviction happens on
+   * the JavaFX application thread, in order with the player infos sent by the server.
+   */
+  @Subscribe
+  public void onUserOffline(UserOfflineEvent event) {
+    String username = event.getUsername();
+    JavaFxUtil.assureRunOnMainThread(() -> {
+      if (evict(username)) {
+        onlinePlayerNames.remove(username);
+      }
+    });
+  }
+
+  private void onPlayerWentOffline(String username) {
+    onlinePlayerNames.remove(username);
+    evict(username);
+  }
+
+  /**
+   * Must be called on the JavaFX application thread.
+   */
+  private boolean evict(String username) {
+    Player player;
+    synchronized (playersByName) {
+      player = playersByName.get(username);
+      if (player == null || !isEvictable(player)) {
+        return false;
+      }
+      playersByName.remove(username);
+      offlinePlayers.put(username, player);
+    }
+    synchronized (playersById) {
+      playersById.remove(player.getId(), player);
+    }
+    log.trace("Evicted offline player: {}", username);
+    return true;
+  }
 
-    return playersByName.get(username);
+  private boolean isEvictable(Player player) {
+    return player != currentPlayer.get()
+        && player.getSocialStatus() == OTHER
+        && player.getGame() == null
+        && !friendList.contains(player.getId())
+        && !foeList.contains(player.getId());
+  }
+
+  /**
+   * Returns the number of players that are currently online and known to this service.
+   */
+  int getOnlinePlayerCount() {
+    return playersByName.size();
   }
 
   public Set<String> getPlayerNames() {
@@ -242,14 +333,14 @@ public class PlayerService implements InitializingBean {
   public void addFriend(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(FRIEND);
     friendList.add(player.getId());
-    foeList.remove((Integer) player.getId());
+    foeList.remove(player.getId());
 
     fafService.addFriend(player);
   }
 
   public void removeFriend(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(OTHER);
-    friendList.remove((Integer) player.getId());
+    friendList.remove(player.getId());
 
     fafService.removeFriend(player);
   }
@@ -257,14 +348,14 @@ public class PlayerService implements InitializingBean {
   public void addFoe(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(FOE);
     foeList.add(player.getId());
-    friendList.remove((Integer) player.getId());
+    friendList.remove(player.getId());
 
     fafService.addFoe(player);
   }
 
   public void removeFoe(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(OTHER);
-    foeList.remove((Integer) player.getId());
+    foeList.remove(player.getId());
 
     fafService.removeFoe(player);
   }
@@ -291,8 +382,74 @@ public class PlayerService implements InitializingBean {
         }));
   }
 
+  /**
+   * Applies all players in the message at once on the JavaFX application thread and fires a single {@link
+   * PlayersChangedEvent}. The players are only compared with the message there, after all earlier messages have been
+   * applied. Players that the server reports as offline are evicted like players that left the chat. Since eviction
+   * only happens on the JavaFX application thread as well, a player that has been evicted after it was looked up here
+   * is registered again before its update is applied.
+   */
   private void onPlayersInfo(PlayersMessage playersMessage) {
-    playersMessage.getPlayers().forEach(dto -> JavaFxUtil.assureRunOnMainThread(() -> onPlayerInfo(dto)));
+    List<PlayerUpdate> updates = new ArrayList<>();
+    List<String> playersWentOffline = new ArrayList<>();
+    PlayerUpdate currentPlayerUpdate = null;
+    for (com.faforever.client.remote.domain.Player dto : playersMessage.getPlayers()) {
+      if (dto.getLogin().equalsIgnoreCase(userService.getUsername())) {
+        Player player = getCurrentPlayer().orElseThrow(() -> new IllegalStateException("Player has not been set"));
+        currentPlayerUpdate = PlayerUpdate.of(player, dto, SELF);
+        continue;
+      }
+
+      if (STATE_OFFLINE.equals(dto.getState())) {
+        playersWentOffline.add(dto.getLogin());
+        continue;
+      }
+
+      Player player = createAndGetPlayerForUsername(dto.getLogin());
+      updates.add(PlayerUpdate.of(player, dto, getSocialStatus(dto.getId())));
+    }
+
+    PlayerUpdate finalCurrentPlayerUpdate = currentPlayerUpdate;
+    if (updates.isEmpty() && playersWentOffline.isEmpty() && finalCurrentPlayerUpdate == null) {
+      return;
+    }
+    JavaFxUtil.assureRunOnMainThread(() -> applyUpdates(updates, playersWentOffline, finalCurrentPlayerUpdate));
+  }
+
+  private void applyUpdates(List<PlayerUpdate> updates, List<String> playersWentOffline, @Nullable PlayerUpdate currentPlayerUpdate) {
+    List<Player> changedPlayers = new ArrayList<>();
+    List<Player> playersCameOnline = new ArrayList<>();
+    for (PlayerUpdate update : updates) {
+      Player player = update.getPlayer();
+      boolean changed = update.apply();
+      registerByName(player);
+      indexById(player);
+      if (onlinePlayerNames.add(player.getUsername())) {
+        playersCameOnline.add(player);
+        changedPlayers.add(player);
+      } else if (changed) {
+        changedPlayers.add(player);
+      }
+    }
+    playersWentOffline.forEach(this::onPlayerWentOffline);
+    if (currentPlayerUpdate != null) {
+      currentPlayerUpdate.apply();
+      indexById(currentPlayerUpdate.getPlayer());
+      eventBus.post(new CurrentPlayerInfo(currentPlayerUpdate.getPlayer()));
+    }
+    if (!changedPlayers.isEmpty()) {
+      eventBus.post(new PlayersChangedEvent(changedPlayers, playersCameOnline));
+    }
+  }
+
+  private SocialStatus getSocialStatus(int playerId) {
+    if (friendList.contains(playerId)) {
+      return FRIEND;
+    }
+    if (foeList.contains(playerId)) {
+      return FOE;
+    }
+    return OTHER;
   }
 
   private void onFoeList(SocialMessage socialMessage) {
@@ -308,7 +465,7 @@ public class PlayerService implements InitializingBean {
     updateSocialList(friendList, friends, FRIEND);
   }
 
-  private void updateSocialList(List<Integer> socialList, List<Integer> newValues, SocialStatus socialStatus) {
+  private void updateSocialList(Set<Integer> socialList, List<Integer> newValues, SocialStatus socialStatus) {
     socialList.clear();
     socialList.addAll(newValues);
 
@@ -321,27 +478,4 @@ public class PlayerService implements InitializingBean {
       }
     }
   }
-
-  private void onPlayerInfo(com.faforever.client.remote.domain.Player dto) {
-    if (dto.getLogin().equalsIgnoreCase(userService.getUsername())) {
-      Player player = getCurrentPlayer().orElseThrow(() -> new IllegalStateException("Player has not been set"));
-      player.updateFromDto(dto);
-      player.setSocialStatus(SELF);
-      eventBus.post(new CurrentPlayerInfo(player));
-    } else {
-      Player player = createAndGetPlayerForUsername(dto.getLogin());
-
-      if (friendList.contains(dto.getId())) {
-        player.setSocialStatus(FRIEND);
-      } else if (foeList.contains(dto.getId())) {
-        player.setSocialStatus(FOE);
-      } else {
-        player.setSocialStatus(OTHER);
-      }
-
-      player.updateFromDto(dto);
-
-      eventBus.post(new PlayerOnlineEvent(player));
-    }
-  }
 }
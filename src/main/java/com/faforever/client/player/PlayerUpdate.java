@@ -0,0 +1,73 @@
+package com.faforever.client.player;
+
+import com.faforever.client.remote.domain.Avatar;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A player info received from the server that is to be applied to a {@link Player}. The update is only compared with
+ * the player when it's applied on the JavaFX application thread, where all earlier updates have already been applied,
+ * and only the properties whose values actually differ are set, so that unchanged player infos don't fire any property
+ * listeners.
+ */
+class PlayerUpdate {
+
+  private final Player player;
+  private final com.faforever.client.remote.domain.Player dto;
+  private final SocialStatus socialStatus;
+
+  private PlayerUpdate(Player player, com.faforever.client.remote.domain.Player dto, SocialStatus socialStatus) {
+    this.player = player;
+    this.dto = dto;
+    this.socialStatus = socialStatus;
+  }
+
+  static PlayerUpdate of(Player player, com.faforever.client.remote.domain.Player dto, SocialStatus socialStatus) {
+    return new PlayerUpdate(player, dto, socialStatus);
+  }
+
+  Player getPlayer() {
+    return player;
+  }
+
+  /**
+   * Sets all properties that differ from the player info. Must be called on the JavaFX application thread.
+   *
+   * @return whether any property has been changed
+   */
+  boolean apply() {
+    boolean changed = set(player.getSocialStatus(), socialStatus, player::setSocialStatus);
+    changed |= set(player.getId(), dto.getId(), player::setId);
+    changed |= set(player.getClan(), dto.getClan(), player::setClan);
+    changed |= set(player.getCountry(), dto.getCountry(), player::setCountry);
+
+    float[] globalRating = dto.getGlobalRating();
+    if (globalRating != null) {
+      changed |= set(player.getGlobalRatingMean(), globalRating[0], player::setGlobalRatingMean);
+      changed |= set(player.getGlobalRatingDeviation(), globalRating[1], player::setGlobalRatingDeviation);
+    }
+    float[] ladderRating = dto.getLadderRating();
+    if (ladderRating != null) {
+      changed |= set(player.getLeaderboardRatingMean(), ladderRating[0], player::setLeaderboardRatingMean);
+      changed |= set(player.getLeaderboardRatingDeviation(), ladderRating[1], player::setLeaderboardRatingDeviation);
+    }
+    if (dto.getNumberOfGames() != null) {
+      changed |= set(player.getNumberOfGames(), dto.getNumberOfGames(), player::setNumberOfGames);
+    }
+    Avatar avatar = dto.getAvatar();
+    if (avatar != null) {
+      changed |= set(player.getAvatarUrl(), avatar.getUrl(), player::setAvatarUrl);
+      changed |= set(player.getAvatarTooltip(), avatar.getTooltip(), player::setAvatarTooltip);
+    }
+    return changed;
+  }
+
+  private static <T> boolean set(T currentValue, T newValue, Consumer<T> setter) {
+    if (Objects.equals(currentValue, newValue)) {
+      return false;
+    }
+    setter.accept(newValue);
+    return true;
+  }
+}
@@ -0,0 +1,17 @@
+package com.faforever.client.player;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Fired once per player info message from the server, after all players that came online or whose information changed
+ * have been updated. The current player is not included, see {@link com.faforever.client.player.event.CurrentPlayerInfo}.
+ */
+@Value
+public class PlayersChangedEvent {
+  /** All players that came online or whose information changed. */
+  List<Player> players;
+  /** The players that were offline or unknown before, a subset of {@link #players}. */
+  List<Player> playersCameOnline;
+}
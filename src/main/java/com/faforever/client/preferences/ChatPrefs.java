@@ -42,6 +42,12 @@ public class ChatPrefs {
   private final BooleanProperty learnedAutoComplete;
   private final BooleanProperty previewImageUrls;
   private final IntegerProperty maxMessages;
+  /** Whether messages are written to the chat log, which allows to scroll back further than {@link #maxMessages}. */
+  private final BooleanProperty logMessages;
+  /** Whether private chats are logged as well, if {@link #logMessages} is enabled. */
+  private final BooleanProperty logPrivateMessages;
+  /** Number of days chat log segments are kept for, or 0 to keep them forever. */
+  private final IntegerProperty logRetentionDays;
   private final ObjectProperty<ChatColorMode> chatColorMode;
   private final IntegerProperty channelTabScrollPaneWidth;
   private final MapProperty<String, Color> userToColor;
@@ -57,6 +63,9 @@ public class ChatPrefs {
   public ChatPrefs() {
     timeFormat = new SimpleObjectProperty<>(TimeInfo.AUTO);
     maxMessages = new SimpleIntegerProperty(500);
+    logMessages = new SimpleBooleanProperty(true);
+    logPrivateMessages = new SimpleBooleanProperty(false);
+    logRetentionDays = new SimpleIntegerProperty(30);
     zoom = new SimpleDoubleProperty(1);
     learnedAutoComplete = new SimpleBooleanProperty(false);
     previewImageUrls = new SimpleBooleanProperty(true);
@@ -178,6 +187,42 @@ public class ChatPrefs {
   }
 
 
+  public boolean isLogMessages() {
+    return logMessages.get();
+  }
+
+  public void setLogMessages(boolean logMessages) {
+    this.logMessages.set(logMessages);
+  }
+
+  public BooleanProperty logMessagesProperty() {
+    return logMessages;
+  }
+
+  public boolean isLogPrivateMessages() {
+    return logPrivateMessages.get();
+  }
+
+  public void setLogPrivateMessages(boolean logPrivateMessages) {
+    this.logPrivateMessages.set(logPrivateMessages);
+  }
+
+  public BooleanProperty logPrivateMessagesProperty() {
+    return logPrivateMessages;
+  }
+
+  public int getLogRetentionDays() {
+    return logRetentionDays.get();
+  }
+
+  public void setLogRetentionDays(int logRetentionDays) {
+    this.logRetentionDays.set(logRetentionDays);
+  }
+
+  public IntegerProperty logRetentionDaysProperty() {
+    return logRetentionDays;
+  }
+
   public boolean getHideFoeMessages() {
     return hideFoeMessages.get();
   }
@@ -24,6 +24,7 @@ import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -33,7 +34,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.Writer;
 import java.lang.invoke.MethodHandles;
 import java.lang.ref.WeakReference;
 import java.net.HttpURLConnection;
@@ -49,17 +49,16 @@ import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.github.nocatch.NoCatch.noCatch;
 
 @Lazy
 @Service
-public class PreferencesService implements InitializingBean {
+public class PreferencesService implements InitializingBean, DisposableBean {
 
   public static final String SUPREME_COMMANDER_EXE = "SupremeCommander.exe";
   public static final String FORGED_ALLIANCE_EXE = "ForgedAlliance.exe";
@@ -113,19 +112,17 @@ public class PreferencesService implements InitializingBean {
   /**
    * @see #storeInBackground()
    */
-  private final Timer timer;
+  private final PreferencesWriter preferencesWriter;
   private final Collection<WeakReference<PreferenceUpdateListener>> updateListeners;
   private final ClientProperties clientProperties;
   private ClientConfiguration clientConfiguration;
 
   private Preferences preferences;
-  private TimerTask storeInBackgroundTask;
 
   public PreferencesService(ClientProperties clientProperties) {
     this.clientProperties = clientProperties;
-    updateListeners = new ArrayList<>();
+    updateListeners = new CopyOnWriteArrayList<>();
     this.preferencesFilePath = getPreferencesDirectory().resolve(PREFS_FILE_NAME);
-    timer = new Timer("PrefTimer", true);
     gson = new GsonBuilder()
         .setPrettyPrinting()
         .addDeserializationExclusionStrategy(new ExcludeFieldsWithExcludeAnnotationStrategy())
@@ -136,6 +133,7 @@ public class PreferencesService implements InitializingBean {
         .registerTypeAdapter(Faction.class, FactionTypeAdapter.INSTANCE)
         .registerTypeAdapter(ObservableMap.class, FactionTypeAdapter.INSTANCE)
         .create();
+    preferencesWriter = new PreferencesWriter(preferencesFilePath, CHARSET, () -> gson.toJson(preferences), this::notifyUpdateListeners, STORE_DELAY);
   }
 
   public Path getPreferencesDirectory() {
@@ -267,56 +265,42 @@ public class PreferencesService implements InitializingBean {
     return preferences;
   }
 
+  /**
+   * Stores the preferences immediately and waits until they have been written. The file is still written by the
+   * writer thread, so this must not be called on the application thread; use {@link #storeInBackground()} there.
+   */
   public void store() {
-    Path parent = preferencesFilePath.getParent();
-    try {
-      if (!Files.exists(parent)) {
-        Files.createDirectories(parent);
-      }
-    } catch (IOException e) {
-      logger.warn("Could not create directory " + parent.toAbsolutePath(), e);
-      return;
-    }
-
-    try (Writer writer = Files.newBufferedWriter(preferencesFilePath, CHARSET)) {
-      logger.debug("Writing preferences file {}", preferencesFilePath.toAbsolutePath());
-      gson.toJson(preferences, writer);
-    } catch (IOException e) {
-      logger.warn("Preferences file " + preferencesFilePath.toAbsolutePath() + " could not be written", e);
-    }
+    preferencesWriter.flush();
   }
 
   /**
-   * Stores the preferences in background, with a delay of {@link #STORE_DELAY}. Each subsequent call to this method
-   * during that delay causes the delay to be reset. This ensures that the prefs file is written only once if multiple
-   * calls occur within a short time.
+   * Stores the preferences in background, at most {@link #STORE_DELAY} after the first call. Subsequent calls during
+   * that delay are coalesced into the same write, so that the prefs file is written only once if many calls occur
+   * within a short time, e.g. while the window is being dragged. The file is not written if its content didn't change.
    */
   public void storeInBackground() {
-    if (storeInBackgroundTask != null) {
-      storeInBackgroundTask.cancel();
-    }
-
-    storeInBackgroundTask = new TimerTask() {
-      @Override
-      public void run() {
-        store();
-        ArrayList<WeakReference<PreferenceUpdateListener>> toBeRemoved = new ArrayList<>();
-        for (WeakReference<PreferenceUpdateListener> updateListener : updateListeners) {
-          PreferenceUpdateListener preferenceUpdateListener = updateListener.get();
-          if (preferenceUpdateListener == null) {
-            toBeRemoved.add(updateListener);
-            continue;
-          }
-          preferenceUpdateListener.onPreferencesUpdated(preferences);
-        }
+    preferencesWriter.markDirty();
+  }
 
-        for (WeakReference<PreferenceUpdateListener> preferenceUpdateListenerWeakReference : toBeRemoved) {
-          updateListeners.remove(preferenceUpdateListenerWeakReference);
-        }
+  private void notifyUpdateListeners() {
+    ArrayList<WeakReference<PreferenceUpdateListener>> toBeRemoved = new ArrayList<>();
+    for (WeakReference<PreferenceUpdateListener> updateListener : updateListeners) {
+      PreferenceUpdateListener preferenceUpdateListener = updateListener.get();
+      if (preferenceUpdateListener == null) {
+        toBeRemoved.add(updateListener);
+        continue;
       }
-    };
+      preferenceUpdateListener.onPreferencesUpdated(preferences);
+    }
 
-    timer.schedule(storeInBackgroundTask, STORE_DELAY);
+    for (WeakReference<PreferenceUpdateListener> preferenceUpdateListenerWeakReference : toBeRemoved) {
+      updateListeners.remove(preferenceUpdateListenerWeakReference);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    preferencesWriter.close();
   }
 
   /**
@@ -342,6 +326,10 @@ public class PreferencesService implements InitializingBean {
     return getFafDataDirectory().resolve("logs");
   }
 
+  public Path getChatLogDirectory() {
+    return getFafDataDirectory().resolve("chat");
+  }
+
   public Path getThemesDirectory() {
     return getFafDataDirectory().resolve("themes");
   }
@@ -0,0 +1,171 @@
+package com.faforever.client.preferences;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Writes the preferences file behind the back of the callers. Changes are only marked, and all changes that are marked
+ * within {@link #storeDelayMillis} are written at once on the writer thread. The file is only written if its content
+ * actually changed, and it's written to a temporary file first and then moved into place, so that a crash while
+ * writing never leaves a truncated preferences file. If the preferences can't be serialized or written, the write is
+ * retried with an increasing delay, so that the changes aren't lost until the next change is made.
+ */
+@Slf4j
+class PreferencesWriter {
+
+  private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+  private final Path file;
+  private final Charset charset;
+  private final Supplier<String> serializer;
+  private final Runnable writtenCallback;
+  private final long storeDelayMillis;
+  private final ScheduledExecutorService writerExecutor;
+  /** Whether a write has been scheduled but not yet started. */
+  private final AtomicBoolean writeScheduled;
+  /** Only accessed by the writer thread. */
+  private String lastWrittenContent;
+  /** The delay before retrying a failed write, or 0 if the last write succeeded. Only accessed by the writer thread. */
+  private long retryDelayMillis;
+  /** The time it took to serialize and write the preferences, in milliseconds. Guarded by itself. */
+  private final LongSummaryStatistics storeLatency;
+
+  PreferencesWriter(Path file, Charset charset, Supplier<String> serializer, Runnable writtenCallback, long storeDelayMillis) {
+    this.file = file;
+    this.charset = charset;
+    this.serializer = serializer;
+    this.writtenCallback = writtenCallback;
+    this.storeDelayMillis = storeDelayMillis;
+    writerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "preferences-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writeScheduled = new AtomicBoolean();
+    storeLatency = new LongSummaryStatistics();
+  }
+
+  /**
+   * Marks the preferences as changed. Unless a write is already pending, one is scheduled after {@link
+   * #storeDelayMillis}; it then includes all changes that have been made until it starts.
+   */
+  void markDirty() {
+    if (writeScheduled.compareAndSet(false, true)) {
+      writerExecutor.schedule(this::write, storeDelayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Writes any changes on the writer thread and waits until they have been written.
+   */
+  void flush() {
+    try {
+      writerExecutor.submit(this::write).get(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      log.warn("Preferences could not be flushed", e);
+    }
+  }
+
+  /**
+   * Writes any pending changes and stops the writer thread.
+   */
+  void close() {
+    if (writeScheduled.get()) {
+      flush();
+    }
+    writerExecutor.shutdown();
+    synchronized (storeLatency) {
+      if (storeLatency.getCount() > 0) {
+        log.debug("Preferences have been stored {} times, taking {} ms on average and {} ms at most",
+            storeLatency.getCount(), (long) storeLatency.getAverage(), storeLatency.getMax());
+      }
+    }
+  }
+
+  @VisibleForTesting
+  LongSummaryStatistics getStoreLatency() {
+    synchronized (storeLatency) {
+      LongSummaryStatistics copy = new LongSummaryStatistics();
+      copy.combine(storeLatency);
+      return copy;
+    }
+  }
+
+  private void write() {
+    writeScheduled.set(false);
+    long startTime = System.nanoTime();
+
+    String content;
+    try {
+      content = serializer.get();
+    } catch (RuntimeException e) {
+      log.warn("Preferences could not be serialized", e);
+      retryLater();
+      return;
+    }
+    if (content.equals(lastWrittenContent)) {
+      retryDelayMillis = 0;
+      return;
+    }
+
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(file.getParent());
+      log.debug("Writing preferences file {}", file.toAbsolutePath());
+      Files.write(tempFile, content.getBytes(charset));
+      try {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      lastWrittenContent = content;
+      retryDelayMillis = 0;
+    } catch (IOException e) {
+      log.warn("Preferences file " + file.toAbsolutePath() + " could not be written", e);
+      retryLater();
+      return;
+    }
+
+    long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    synchronized (storeLatency) {
+      storeLatency.accept(latencyMillis);
+    }
+    log.trace("Stored preferences in {} ms", latencyMillis);
+
+    writtenCallback.run();
+  }
+
+  private void retryLater() {
+    retryDelayMillis = retryDelayMillis == 0
+        ? Math.max(storeDelayMillis, 1)
+        : Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+    if (!writeScheduled.compareAndSet(false, true)) {
+      // A write for newer changes is already pending and includes these
+      return;
+    }
+    try {
+      writerExecutor.schedule(this::write, retryDelayMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      writeScheduled.set(false);
+      log.warn("Preferences could not be stored before shutdown", e);
+    }
+  }
+}
@@ -2,19 +2,24 @@ package com.faforever.client.preferences;
 
 import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.client.vault.search.SearchController.SortOrder;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 public class VaultPrefs {
   private final ObjectProperty<SortConfig> onlineReplaySortConfig;
   private final ObjectProperty<SortConfig> mapSortConfig;
   private final ObjectProperty<SortConfig> modVaultConfig;
+  /** Whether map and mod searches are evaluated against a locally synced catalog instead of by the API. */
+  private final BooleanProperty localCatalogEnabled;
 
 
   public VaultPrefs() {
     onlineReplaySortConfig = new SimpleObjectProperty<>(new SortConfig("startTime", SortOrder.DESC));
     mapSortConfig = new SimpleObjectProperty<>(new SortConfig("statistics.plays", SortOrder.DESC));
     modVaultConfig = new SimpleObjectProperty<>(new SortConfig("latestVersion.createTime", SortOrder.DESC));
+    localCatalogEnabled = new SimpleBooleanProperty(false);
   }
 
   public SortConfig getOnlineReplaySortConfig() {
@@ -52,4 +57,16 @@ public class VaultPrefs {
   public ObjectProperty<SortConfig> modVaultConfigProperty() {
     return modVaultConfig;
   }
+
+  public boolean isLocalCatalogEnabled() {
+    return localCatalogEnabled.get();
+  }
+
+  public void setLocalCatalogEnabled(boolean localCatalogEnabled) {
+    this.localCatalogEnabled.set(localCatalogEnabled);
+  }
+
+  public BooleanProperty localCatalogEnabledProperty() {
+    return localCatalogEnabled;
+  }
 }
@@ -137,6 +137,7 @@ public class SettingsController implements Controller<Node> {
   public Button autoJoinChannelsButton;
   public ToggleButton advancedIceLogToggleButton;
   public ToggleButton prereleaseToggleButton;
+  public ToggleButton localVaultCatalogToggleButton;
   private final InvalidationListener availableLanguagesListener;
   private Popup autojoinChannelsPopUp;
   private ChangeListener<Theme> selectedThemeChangeListener;
@@ -298,6 +299,7 @@ public class SettingsController implements Controller<Node> {
     });
 
     advancedIceLogToggleButton.selectedProperty().bindBidirectional(preferences.advancedIceLogEnabledProperty());
+    localVaultCatalogToggleButton.selectedProperty().bindBidirectional(preferences.getVaultPrefs().localCatalogEnabledProperty());
 
     prereleaseToggleButton.selectedProperty().bindBidirectional(preferences.prereleaseCheckEnabledProperty());
     prereleaseToggleButton.selectedProperty().addListener((observable, oldValue, newValue) -> {
@@ -0,0 +1,308 @@
+package com.faforever.client.query;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates RSQL queries, as they are built by the {@link SpecificationController} for the API, against local data.
+ * Supported are the logical operators {@code ;} (and) and {@code ,} (or), parentheses and the comparison operators
+ * {@code ==}, {@code !=}, {@code =gt=}, {@code =ge=}, {@code =lt=}, {@code =le=}, {@code =in=}, {@code =out=},
+ * {@code =ex=} and {@code =re=}. Like the API does, strings are compared case insensitively and {@code *} matches any
+ * number of characters in {@code ==} and {@code !=}.
+ * <p>
+ * Values are looked up by selector, e.g. {@code latestVersion.maxPlayers}, and can be of type {@link String}, {@link
+ * Number}, {@link Boolean} or {@link Instant}. Arguments are converted to the type of the value they are compared to.
+ */
+public final class RsqlFilter {
+
+  private static final Set<String> OPERATORS = Set.of("==", "!=", "=gt=", "=ge=", "=lt=", "=le=", "=in=", "=out=", "=ex=", "=re=");
+  private static final String RESERVED_CHARACTERS = "\"'();,=!~<> ";
+
+  private final Node root;
+  private final Set<String> selectors;
+
+  private RsqlFilter(Node root, Set<String> selectors) {
+    this.root = root;
+    this.selectors = Collections.unmodifiableSet(selectors);
+  }
+
+  /**
+   * @param query the RSQL query, an empty or {@code null} query matches everything
+   * @throws IllegalArgumentException if the query is invalid or uses an unsupported operator
+   */
+  public static RsqlFilter parse(String query) {
+    if (query == null || query.isBlank()) {
+      return new RsqlFilter(row -> true, new HashSet<>());
+    }
+    Parser parser = new Parser(query);
+    Node root = parser.parseOr();
+    parser.skipWhitespace();
+    if (parser.position < query.length()) {
+      throw parser.error("Unexpected character");
+    }
+    return new RsqlFilter(root, parser.selectors);
+  }
+
+  /**
+   * Returns the selectors this filter accesses, so that callers can check whether they are able to provide all values.
+   */
+  public Set<String> getSelectors() {
+    return selectors;
+  }
+
+  /**
+   * @param row returns the value of the specified selector, or {@code null} if there is no value
+   * @throws IllegalArgumentException if an argument can't be converted to the type of the value it's compared to
+   */
+  public boolean test(Function<String, Object> row) {
+    return root.test(row);
+  }
+
+  private interface Node {
+    boolean test(Function<String, Object> row);
+  }
+
+  private static class Comparison implements Node {
+    private final String selector;
+    private final String operator;
+    private final List<String> arguments;
+    private Pattern wildcardPattern;
+
+    private Comparison(String selector, String operator, List<String> arguments) {
+      this.selector = selector;
+      this.operator = operator;
+      this.arguments = arguments;
+    }
+
+    @Override
+    public boolean test(Function<String, Object> row) {
+      Object value = row.apply(selector);
+      switch (operator) {
+        case "==":
+          return value != null && equalTo(value, arguments.get(0), true);
+        case "!=":
+          return value == null || !equalTo(value, arguments.get(0), true);
+        case "=in=":
+          return value != null && arguments.stream().anyMatch(argument -> equalTo(value, argument, false));
+        case "=out=":
+          return value == null || arguments.stream().noneMatch(argument -> equalTo(value, argument, false));
+        case "=gt=":
+          return value != null && compare(value, arguments.get(0)) > 0;
+        case "=ge=":
+          return value != null && compare(value, arguments.get(0)) >= 0;
+        case "=lt=":
+          return value != null && compare(value, arguments.get(0)) < 0;
+        case "=le=":
+          return value != null && compare(value, arguments.get(0)) <= 0;
+        case "=ex=":
+          return (value != null) == Boolean.parseBoolean(arguments.get(0));
+        case "=re=":
+          return value != null && Pattern.compile(arguments.get(0)).matcher(value.toString()).find();
+        default:
+          throw new IllegalStateException("Unsupported operator: " + operator);
+      }
+    }
+
+    private boolean equalTo(Object value, String argument, boolean wildcards) {
+      if (!(value instanceof String)) {
+        return compare(value, argument) == 0;
+      }
+      if (wildcards && argument.indexOf('*') >= 0) {
+        if (wildcardPattern == null) {
+          wildcardPattern = toPattern(argument);
+        }
+        return wildcardPattern.matcher((String) value).matches();
+      }
+      return ((String) value).equalsIgnoreCase(argument);
+    }
+
+    private static Pattern toPattern(String wildcardArgument) {
+      String[] parts = wildcardArgument.split("\\*", -1);
+      StringBuilder regex = new StringBuilder();
+      for (int i = 0; i < parts.length; i++) {
+        if (i > 0) {
+          regex.append(".*");
+        }
+        if (!parts[i].isEmpty()) {
+          regex.append(Pattern.quote(parts[i]));
+        }
+      }
+      return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+    }
+
+    private static int compare(Object value, String argument) {
+      try {
+        if (value instanceof Number) {
+          return Double.compare(((Number) value).doubleValue(), Double.parseDouble(argument));
+        }
+        if (value instanceof Boolean) {
+          return Boolean.compare((Boolean) value, Boolean.parseBoolean(argument));
+        }
+        if (value instanceof Instant) {
+          return ((Instant) value).compareTo(parseInstant(argument));
+        }
+        return value.toString().toLowerCase(Locale.ROOT).compareTo(argument.toLowerCase(Locale.ROOT));
+      } catch (NumberFormatException | DateTimeParseException e) {
+        throw new IllegalArgumentException("Argument '" + argument + "' can't be compared to: " + value, e);
+      }
+    }
+
+    private static Instant parseInstant(String argument) {
+      try {
+        return Instant.parse(argument);
+      } catch (DateTimeParseException e) {
+        return OffsetDateTime.parse(argument).toInstant();
+      }
+    }
+  }
+
+  private static class Parser {
+    private final String query;
+    private final Set<String> selectors;
+    private int position;
+
+    private Parser(String query) {
+      this.query = query;
+      selectors = new HashSet<>();
+    }
+
+    private Node parseOr() {
+      List<Node> nodes = new ArrayList<>();
+      nodes.add(parseAnd());
+      while (consume(',')) {
+        nodes.add(parseAnd());
+      }
+      if (nodes.size() == 1) {
+        return nodes.get(0);
+      }
+      return row -> nodes.stream().anyMatch(node -> node.test(row));
+    }
+
+    private Node parseAnd() {
+      List<Node> nodes = new ArrayList<>();
+      nodes.add(parseConstraint());
+      while (consume(';')) {
+        nodes.add(parseConstraint());
+      }
+      if (nodes.size() == 1) {
+        return nodes.get(0);
+      }
+      return row -> nodes.stream().allMatch(node -> node.test(row));
+    }
+
+    private Node parseConstraint() {
+      if (consume('(')) {
+        Node node = parseOr();
+        expect(')');
+        return node;
+      }
+
+      skipWhitespace();
+      String selector = parseUnreserved();
+      if (selector.isEmpty()) {
+        throw error("Selector expected");
+      }
+      String operator = parseOperator();
+
+      List<String> arguments = new ArrayList<>();
+      if (consume('(')) {
+        do {
+          arguments.add(parseValue());
+        } while (consume(','));
+        expect(')');
+      } else {
+        arguments.add(parseValue());
+      }
+
+      selectors.add(selector);
+      return new Comparison(selector, operator, arguments);
+    }
+
+    private String parseOperator() {
+      skipWhitespace();
+      int start = position;
+      if (query.startsWith("==", position) || query.startsWith("!=", position)) {
+        position += 2;
+      } else if (query.startsWith("=", position)) {
+        int end = query.indexOf('=', position + 1);
+        if (end < 0) {
+          throw error("Operator expected");
+        }
+        position = end + 1;
+      } else {
+        throw error("Operator expected");
+      }
+
+      String operator = query.substring(start, position);
+      if (!OPERATORS.contains(operator)) {
+        throw new IllegalArgumentException("Unsupported operator '" + operator + "' in query: " + query);
+      }
+      return operator;
+    }
+
+    private String parseValue() {
+      skipWhitespace();
+      if (position < query.length() && (query.charAt(position) == '"' || query.charAt(position) == '\'')) {
+        char quote = query.charAt(position++);
+        StringBuilder value = new StringBuilder();
+        while (position < query.length() && query.charAt(position) != quote) {
+          char character = query.charAt(position++);
+          if (character == '\\' && position < query.length()) {
+            character = query.charAt(position++);
+          }
+          value.append(character);
+        }
+        expect(quote);
+        return value.toString();
+      }
+
+      String value = parseUnreserved();
+      if (value.isEmpty()) {
+        throw error("Value expected");
+      }
+      return value;
+    }
+
+    private String parseUnreserved() {
+      int start = position;
+      while (position < query.length() && RESERVED_CHARACTERS.indexOf(query.charAt(position)) < 0) {
+        position++;
+      }
+      return query.substring(start, position);
+    }
+
+    private boolean consume(char character) {
+      skipWhitespace();
+      if (position < query.length() && query.charAt(position) == character) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(char character) {
+      if (!consume(character)) {
+        throw error("'" + character + "' expected");
+      }
+    }
+
+    private void skipWhitespace() {
+      while (position < query.length() && Character.isWhitespace(query.charAt(position))) {
+        position++;
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(message + " at position " + position + " of query: " + query);
+    }
+  }
+}
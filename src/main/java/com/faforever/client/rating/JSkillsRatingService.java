@@ -2,42 +2,171 @@ package com.faforever.client.rating;
 
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.TrueSkill;
+import com.faforever.client.game.Game;
+import com.faforever.client.game.KnownFeaturedMod;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
 import com.faforever.client.replay.Replay;
 import com.faforever.client.replay.Replay.PlayerStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jskills.GameInfo;
+import jskills.ITeam;
 import jskills.Rating;
 import jskills.Team;
 import jskills.TrueSkillCalculator;
+import lombok.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 @Service
 public class JSkillsRatingService implements RatingService {
-  private GameInfo gameInfo;
 
-  public JSkillsRatingService(ClientProperties clientProperties) {
+  private static final String NO_TEAM = "1";
+  private static final String NO_TEAM_ALTERNATIVE = "-1";
+  private static final String OBSERVERS_TEAM = "null";
+
+  private final GameInfo gameInfo;
+  private final PlayerService playerService;
+  private final ExecutorService executorService;
+  private final Cache<Integer, Double> replayQualities;
+  private final Cache<Integer, GameQuality> gameQualities;
+
+  public JSkillsRatingService(ClientProperties clientProperties, PlayerService playerService, ExecutorService executorService) {
+    this.playerService = playerService;
+    this.executorService = executorService;
     TrueSkill trueSkill = clientProperties.getTrueSkill();
     gameInfo = new GameInfo(trueSkill.getInitialMean(), trueSkill.getInitialStandardDeviation(), trueSkill.getBeta(),
         trueSkill.getDynamicFactor(), trueSkill.getDrawProbability());
+    replayQualities = Caffeine.newBuilder().maximumSize(2000).build();
+    gameQualities = Caffeine.newBuilder().maximumSize(500).expireAfterAccess(30, MINUTES).build();
   }
 
   @Override
   public double calculateQuality(Replay replay) {
+    if (replay.getId() == 0) {
+      return calculateReplayQuality(replay);
+    }
+    return replayQualities.get(replay.getId(), id -> calculateReplayQuality(replay));
+  }
+
+  @Override
+  public CompletableFuture<Void> calculateQualities(Collection<Replay> replays) {
+    List<Replay> replaysToCalculate = new ArrayList<>(replays);
+    return CompletableFuture.runAsync(() -> replaysToCalculate.forEach(this::calculateQuality), executorService);
+  }
+
+  @Override
+  public double calculateQuality(Game game) {
+    float[] teamRatings = collectTeamRatings(game);
+
+    GameQuality cachedQuality = gameQualities.getIfPresent(game.getId());
+    if (cachedQuality != null && Arrays.equals(cachedQuality.getTeamRatings(), teamRatings)) {
+      return cachedQuality.getQuality();
+    }
+
+    double quality = calculateQuality(teamRatings);
+    gameQualities.put(game.getId(), new GameQuality(teamRatings, quality));
+    return quality;
+  }
+
+  private double calculateReplayQuality(Replay replay) {
     Collection<List<PlayerStats>> teams = replay.getTeamPlayerStats().values();
     if (teams.size() < 2) {
       return Double.NaN;
     }
-    return TrueSkillCalculator.calculateMatchQuality(gameInfo, teams.stream()
-        .map(players -> {
-          Team team = new Team();
-          players.forEach(stats -> team.addPlayer(
-              new jskills.Player<>(stats.getPlayerId()), new Rating(stats.getBeforeMean(), stats.getBeforeDeviation())
-          ));
-          return team;
-        })
-        .collect(Collectors.toList()));
+    List<ITeam> jskillsTeams = new ArrayList<>(teams.size());
+    for (List<PlayerStats> players : teams) {
+      Team team = new Team();
+      players.forEach(stats -> team.addPlayer(
+          new jskills.Player<>(stats.getPlayerId()), new Rating(stats.getBeforeMean(), stats.getBeforeDeviation())
+      ));
+      jskillsTeams.add(team);
+    }
+    return TrueSkillCalculator.calculateMatchQuality(gameInfo, jskillsTeams);
+  }
+
+  /**
+   * Collects the ratings of all players in the specified game into a flat array of the form {@code [teamSize, mean,
+   * deviation, mean, deviation, ..., teamSize, mean, deviation, ...]}. The array serves both as the input of the
+   * quality calculation and as a cheap fingerprint to detect whether a previously calculated quality is still valid.
+   * Players without a team are treated as a team of their own, observers and unknown players are ignored.
+   */
+  private float[] collectTeamRatings(Game game) {
+    Map<String, List<String>> teams;
+    synchronized (game.getTeams()) {
+      teams = new HashMap<>(game.getTeams());
+    }
+    boolean ladderGame = KnownFeaturedMod.LADDER_1V1.getTechnicalName().equals(game.getFeaturedMod());
+
+    List<List<Player>> ratedTeams = new ArrayList<>();
+    teams.forEach((team, playerNames) -> {
+      if (OBSERVERS_TEAM.equals(team)) {
+        return;
+      }
+      boolean noTeam = NO_TEAM.equals(team) || NO_TEAM_ALTERNATIVE.equals(team);
+      List<Player> players = new ArrayList<>();
+      for (String playerName : playerNames) {
+        Optional<Player> player = playerService.getPlayerForUsername(playerName);
+        if (player.isEmpty()) {
+          continue;
+        }
+        if (noTeam) {
+          ratedTeams.add(List.of(player.get()));
+        } else {
+          players.add(player.get());
+        }
+      }
+      if (!players.isEmpty()) {
+        ratedTeams.add(players);
+      }
+    });
+
+    int size = ratedTeams.stream().mapToInt(players -> 1 + players.size() * 2).sum();
+    float[] teamRatings = new float[size];
+    int index = 0;
+    for (List<Player> players : ratedTeams) {
+      teamRatings[index++] = players.size();
+      for (Player player : players) {
+        teamRatings[index++] = ladderGame ? player.getLeaderboardRatingMean() : player.getGlobalRatingMean();
+        teamRatings[index++] = ladderGame ? player.getLeaderboardRatingDeviation() : player.getGlobalRatingDeviation();
+      }
+    }
+    return teamRatings;
+  }
+
+  private double calculateQuality(float[] teamRatings) {
+    List<ITeam> teams = new ArrayList<>();
+    int playerId = 0;
+    int index = 0;
+    while (index < teamRatings.length) {
+      int teamSize = (int) teamRatings[index++];
+      Team team = new Team();
+      for (int i = 0; i < teamSize; i++) {
+        team.addPlayer(new jskills.Player<>(playerId++), new Rating(teamRatings[index++], teamRatings[index++]));
+      }
+      teams.add(team);
+    }
+    if (teams.size() < 2) {
+      return Double.NaN;
+    }
+    return TrueSkillCalculator.calculateMatchQuality(gameInfo, teams);
+  }
+
+  @Value
+  private static class GameQuality {
+    float[] teamRatings;
+    double quality;
   }
 }
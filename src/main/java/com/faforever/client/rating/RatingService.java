@@ -1,10 +1,27 @@
 package com.faforever.client.rating;
 
+import com.faforever.client.game.Game;
 import com.faforever.client.replay.Replay;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 public interface RatingService {
   /**
-   * Calculates the game quality of the specified replay based in the "before" ratings its player stats.
+   * Calculates the game quality of the specified replay based in the "before" ratings its player stats. Results are
+   * memoized by replay ID.
    */
   double calculateQuality(Replay replay);
+
+  /**
+   * Calculates the game qualities of all specified replays in the background so that subsequent calls to {@link
+   * #calculateQuality(Replay)} are served from cache.
+   */
+  CompletableFuture<Void> calculateQualities(Collection<Replay> replays);
+
+  /**
+   * Calculates the predicted game quality of a live game based on the current ratings of the players in its teams.
+   * Returns {@link Double#NaN} if the quality can't be determined, e.g. because there are less than two teams.
+   */
+  double calculateQuality(Game game);
 }
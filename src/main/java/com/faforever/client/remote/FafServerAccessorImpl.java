@@ -107,10 +107,7 @@ import java.io.OutputStream;
 import java.net.Socket;
 import java.net.URL;
 import java.time.Duration;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -142,7 +139,7 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
       .registerTypeAdapter(Faction.class, FactionTypeAdapter.INSTANCE)
       .registerTypeAdapter(LobbyMode.class, LobbyModeTypeAdapter.INSTANCE)
       .create();
-  private final HashMap<Class<? extends ServerMessage>, Collection<Consumer<ServerMessage>>> messageListeners = new HashMap<>();
+  private final ServerMessageDispatcher messageDispatcher = new ServerMessageDispatcher();
 
   private final PreferencesService preferencesService;
   private final UidService uidService;
@@ -198,17 +195,13 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public <T extends ServerMessage> void addOnMessageListener(Class<T> type, Consumer<T> listener) {
-    if (!messageListeners.containsKey(type)) {
-      messageListeners.put(type, new LinkedList<>());
-    }
-    messageListeners.get(type).add((Consumer<ServerMessage>) listener);
+    messageDispatcher.addListener(type, listener);
   }
 
   @Override
   public <T extends ServerMessage> void removeOnMessageListener(Class<T> type, Consumer<T> listener) {
-    messageListeners.get(type).remove(listener);
+    messageDispatcher.removeListener(type, listener);
   }
 
   @Override
@@ -256,6 +249,7 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
             blockingReadServer(fafServerSocket);
           } catch (IOException e) {
             Platform.runLater(() -> connectionState.set(ConnectionState.DISCONNECTED));
+            messageDispatcher.logStatistics();
             if (isCancelled()) {
               log.debug("Connection to FAF server has been closed");
             } else {
@@ -481,13 +475,7 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
         return;
       }
 
-      Class<?> messageClass = serverMessage.getClass();
-      while (messageClass != Object.class) {
-        messageListeners.getOrDefault(messageClass, Collections.emptyList())
-            .forEach(consumer -> consumer.accept(serverMessage));
-        messageClass = messageClass.getSuperclass();
-      }
-
+      messageDispatcher.dispatch(serverMessage);
     } catch (JsonSyntaxException e) {
       log.warn("Could not deserialize message: " + jsonString, e);
     }
@@ -40,17 +40,16 @@ import com.faforever.client.tutorial.TutorialCategory;
 import com.faforever.client.vault.review.Review;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
-import com.faforever.commons.io.ByteCountListener;
 import com.google.common.eventbus.EventBus;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -276,8 +275,8 @@ public class FafService {
         .collect(toList()));
   }
 
-  public void uploadMod(Path modFile, ByteCountListener byteListener) {
-    fafApiAccessor.uploadMod(modFile, byteListener);
+  public void uploadMod(Resource modFile) {
+    fafApiAccessor.uploadMod(modFile);
   }
 
   @Async
@@ -311,6 +310,20 @@ public class FafService {
         .collect(toList()));
   }
 
+  /**
+   * Loads the maps with the specified IDs, in the order of the IDs.
+   */
+  @Async
+  public CompletableFuture<List<MapBean>> findMapsByIds(List<String> ids) {
+    if (ids.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    return CompletableFuture.completedFuture(fafApiAccessor.findMapsByIds(ids).stream()
+        .sorted(Comparator.comparingInt(map -> ids.indexOf(map.getId())))
+        .map(MapBean::fromMapDto)
+        .collect(toList()));
+  }
+
   public CompletableFuture<Optional<MapBean>> findMapByFolderName(String folderName) {
     return CompletableFuture.completedFuture(fafApiAccessor.findMapByFolderName(folderName)
         .map(MapBean::fromMapVersionDto));
@@ -431,6 +444,20 @@ public class FafService {
         .collect(toList()));
   }
 
+  /**
+   * Loads the mods with the specified IDs, in the order of the IDs.
+   */
+  @Async
+  public CompletableFuture<List<ModVersion>> findModsByIds(List<String> ids) {
+    if (ids.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    return CompletableFuture.completedFuture(fafApiAccessor.findModsByIds(ids).stream()
+        .sorted(Comparator.comparingInt(mod -> ids.indexOf(mod.getId())))
+        .map(ModVersion::fromModDto)
+        .collect(toList()));
+  }
+
   @Async
   public CompletableFuture<List<MapBean>> getLadder1v1Maps(int count, int page) {
     List<MapBean> maps = fafApiAccessor.getLadder1v1Maps(count, page).stream()
@@ -1,51 +1,44 @@
 package com.faforever.client.remote;
 
 import com.faforever.client.remote.domain.SerializableMessage;
-import com.faforever.client.remote.io.QDataWriter;
+import com.faforever.client.remote.io.QDataBuffer;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.serializer.Serializer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
-public class JsonMessageSerializer<T extends SerializableMessage> implements Serializer<T> {
+public class JsonMessageSerializer<T extends SerializableMessage> implements QDataSerializer<T> {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   private static final String CONFIDENTIAL_INFORMATION_MASK = "********";
+  private static final Field SEPARATOR_FIELD = separatorField();
 
   private Gson gson;
 
   // TODO Clean this up, such that the message is logged within ServerWriter and everything makes much more sense
+  /**
+   * Serializes the message into a JSON string which is appended to the specified buffer as UTF-16BE, with its size
+   * prepended. The JSON is encoded directly into the buffer, and its size is filled in afterwards.
+   */
   @Override
-  public void serialize(SerializableMessage message, OutputStream outputStream) throws IOException {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-    Writer jsonStringWriter = new StringWriter();
+  public void serialize(T message, QDataBuffer buffer) throws IOException {
+    int sizePosition = buffer.reserveInt32();
+    int start = buffer.size();
 
-    // Serialize the object into a StringWriter which is later send as one string block with its size prepended.
-    getGson().toJson(message, message.getClass(), fixedJsonWriter(jsonStringWriter));
+    getGson().toJson(message, message.getClass(), fixedJsonWriter(buffer.asWriter()));
 
-    QDataWriter qDataWriter = new QDataWriter(byteArrayOutputStream);
-    qDataWriter.append(jsonStringWriter.toString());
-
-    byte[] byteArray = byteArrayOutputStream.toByteArray();
+    buffer.putInt32(sizePosition, buffer.size() - start);
 
     if (logger.isDebugEnabled()) {
-      // Remove the first 4 bytes which contain the length of the following data
-      String data = new String(Arrays.copyOfRange(byteArray, 4, byteArray.length), StandardCharsets.UTF_16BE);
+      String data = buffer.toString(start);
 
       for (String stringToMask : message.getStringsToMask()) {
         data = data.replace("\"" + stringToMask + "\"", "\"" + CONFIDENTIAL_INFORMATION_MASK + "\"");
@@ -53,8 +46,6 @@ public class JsonMessageSerializer<T extends SerializableMessage> implements Ser
 
       logger.debug("Writing to server: {}", data);
     }
-
-    outputStream.write(byteArray);
   }
 
   private Gson getGson() {
@@ -75,13 +66,19 @@ public class JsonMessageSerializer<T extends SerializableMessage> implements Ser
     try {
       JsonWriter jsonWriter = new JsonWriter(writer);
       jsonWriter.setSerializeNulls(false);
+      SEPARATOR_FIELD.set(jsonWriter, ": ");
+      return jsonWriter;
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
 
+  private static Field separatorField() {
+    try {
       Field separatorField = JsonWriter.class.getDeclaredField("separator");
       separatorField.setAccessible(true);
-      separatorField.set(jsonWriter, ": ");
-
-      return jsonWriter;
-    } catch (NoSuchFieldException | IllegalAccessException e) {
+      return separatorField;
+    } catch (NoSuchFieldException e) {
       throw new RuntimeException(e);
     }
   }
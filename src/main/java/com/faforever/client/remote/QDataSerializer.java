@@ -0,0 +1,14 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.remote.io.QDataBuffer;
+
+import java.io.IOException;
+
+/**
+ * Serializes objects that are sent to the server. Objects are appended to the buffer in which the {@link ServerWriter}
+ * assembles each message, so that they don't need to be copied before they're written to the server.
+ */
+public interface QDataSerializer<T> {
+
+  void serialize(T object, QDataBuffer buffer) throws IOException;
+}
@@ -0,0 +1,194 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.fa.relay.GpgServerMessageType;
+import com.faforever.client.remote.domain.FafServerMessageType;
+import com.faforever.client.remote.domain.ServerMessage;
+import com.faforever.client.remote.domain.ServerMessageType;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches server messages to the listeners registered for their type. There is one slot per known {@link
+ * ServerMessageType}, indexed by its ordinal, and each slot holds an immutable list of all listeners that accept the
+ * slot's message class, including those registered for one of its superclasses. Dispatching a message therefore needs
+ * neither a map lookup nor a walk of the class hierarchy, and it never blocks. Registering a listener replaces the
+ * lists of the affected slots, so listeners may be added and removed from any thread while messages are dispatched.
+ * <p>
+ * For every message type, the number of dispatched messages and the time it took all its listeners to handle them
+ * are recorded, see {@link #logStatistics()}.
+ */
+@Slf4j
+class ServerMessageDispatcher {
+
+  private static final int GPG_SLOT_OFFSET = FafServerMessageType.values().length;
+  /** Handling a message is considered slow if it takes longer than this. */
+  private static final long SLOW_HANDLER_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final Slot[] slots;
+
+  ServerMessageDispatcher() {
+    List<Slot> slots = new ArrayList<>();
+    for (FafServerMessageType messageType : FafServerMessageType.values()) {
+      slots.add(new Slot(messageType));
+    }
+    for (GpgServerMessageType messageType : GpgServerMessageType.values()) {
+      slots.add(new Slot(messageType));
+    }
+    this.slots = slots.toArray(new Slot[0]);
+  }
+
+  private static int slotIndex(ServerMessageType messageType) {
+    if (messageType instanceof FafServerMessageType) {
+      return ((FafServerMessageType) messageType).ordinal();
+    }
+    if (messageType instanceof GpgServerMessageType) {
+      return GPG_SLOT_OFFSET + ((GpgServerMessageType) messageType).ordinal();
+    }
+    return -1;
+  }
+
+  /**
+   * Registers a listener for all messages that are instances of the specified type.
+   */
+  @SuppressWarnings("unchecked")
+  synchronized <T extends ServerMessage> void addListener(Class<T> type, Consumer<T> listener) {
+    boolean registered = false;
+    for (Slot slot : slots) {
+      if (type.isAssignableFrom(slot.messageClass)) {
+        List<Consumer<ServerMessage>> listeners = new ArrayList<>(slot.listeners);
+        listeners.add((Consumer<ServerMessage>) listener);
+        slot.listeners = List.copyOf(listeners);
+        registered = true;
+      }
+    }
+    if (!registered) {
+      log.warn("Listener registered for {}, which is not a known server message type", type.getName());
+    }
+  }
+
+  synchronized <T extends ServerMessage> void removeListener(Class<T> type, Consumer<T> listener) {
+    for (Slot slot : slots) {
+      if (type.isAssignableFrom(slot.messageClass) && slot.listeners.contains(listener)) {
+        List<Consumer<ServerMessage>> listeners = new ArrayList<>(slot.listeners);
+        listeners.remove(listener);
+        slot.listeners = List.copyOf(listeners);
+      }
+    }
+  }
+
+  /**
+   * Passes the specified message to all listeners registered for its type, on the calling thread.
+   */
+  void dispatch(ServerMessage message) {
+    int slotIndex = slotIndex(message.getMessageType());
+    if (slotIndex < 0) {
+      log.debug("Discarding message of unknown type: {}", message.getMessageType());
+      return;
+    }
+    Slot slot = slots[slotIndex];
+
+    long startTime = System.nanoTime();
+    try {
+      for (Consumer<ServerMessage> listener : slot.listeners) {
+        listener.accept(message);
+      }
+    } finally {
+      long latencyNanos = System.nanoTime() - startTime;
+      slot.messageCount.increment();
+      slot.latencyHistogram.record(latencyNanos);
+      if (latencyNanos > SLOW_HANDLER_NANOS) {
+        log.debug("Handling {} message took {} ms", slot.messageType.getString(), TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long getMessageCount(ServerMessageType messageType) {
+    return slots[slotIndex(messageType)].messageCount.sum();
+  }
+
+  @VisibleForTesting
+  LatencyHistogram getLatencyHistogram(ServerMessageType messageType) {
+    return slots[slotIndex(messageType)].latencyHistogram;
+  }
+
+  /**
+   * Logs how many messages of each type have been dispatched and how long their listeners took.
+   */
+  void logStatistics() {
+    if (!log.isDebugEnabled()) {
+      return;
+    }
+    for (Slot slot : slots) {
+      long messageCount = slot.messageCount.sum();
+      if (messageCount > 0) {
+        log.debug("Dispatched {} {} messages, handling took {}", messageCount, slot.messageType.getString(), slot.latencyHistogram);
+      }
+    }
+  }
+
+  private static class Slot {
+    private final ServerMessageType messageType;
+    private final Class<?> messageClass;
+    private final LongAdder messageCount;
+    private final LatencyHistogram latencyHistogram;
+    /** Immutable, replaced as a whole whenever a listener is added or removed. */
+    private volatile List<Consumer<ServerMessage>> listeners;
+
+    private Slot(ServerMessageType messageType) {
+      this.messageType = messageType;
+      messageClass = messageType.getType();
+      messageCount = new LongAdder();
+      latencyHistogram = new LatencyHistogram();
+      listeners = List.of();
+    }
+  }
+
+  /**
+   * Counts latencies in buckets of powers of two microseconds, i.e. bucket {@code n} holds latencies of less than
+   * {@code 2^n} microseconds (and at least {@code 2^(n-1)}). The last bucket holds everything above.
+   */
+  static class LatencyHistogram {
+    static final int BUCKETS = 24;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long latencyNanos) {
+      long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+      int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+      counts.incrementAndGet(bucket);
+    }
+
+    long getCount(int bucket) {
+      return counts.get(bucket);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder stringBuilder = new StringBuilder();
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        long count = counts.get(bucket);
+        if (count == 0) {
+          continue;
+        }
+        if (stringBuilder.length() > 0) {
+          stringBuilder.append(", ");
+        }
+        if (bucket == BUCKETS - 1) {
+          stringBuilder.append(">=").append(1L << (bucket - 1));
+        } else {
+          stringBuilder.append('<').append(1L << bucket);
+        }
+        stringBuilder.append("us: ").append(count);
+      }
+      return stringBuilder.toString();
+    }
+  }
+}
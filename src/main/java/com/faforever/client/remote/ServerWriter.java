@@ -1,15 +1,12 @@
 package com.faforever.client.remote;
 
 import com.faforever.client.remote.domain.SerializableMessage;
-import com.faforever.client.remote.io.QDataWriter;
+import com.faforever.client.remote.io.QDataBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.serializer.Serializer;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
-import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -26,15 +23,21 @@ public class ServerWriter implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final QDataWriter qDataWriter;
-  private final Map<Class<?>, Serializer<?>> objectWriters;
+  private final OutputStream outputStream;
+  /**
+   * Every message is assembled in this buffer before it's written to the stream. It's reused for all messages and
+   * guarded by itself, which also keeps messages from being interleaved.
+   */
+  private final QDataBuffer buffer;
+  private final Map<Class<?>, QDataSerializer<?>> objectWriters;
 
   public ServerWriter(OutputStream outputStream) {
-    qDataWriter = new QDataWriter(new DataOutputStream(new BufferedOutputStream(outputStream)));
+    this.outputStream = new BufferedOutputStream(outputStream);
+    buffer = new QDataBuffer();
     objectWriters = new HashMap<>();
   }
 
-  public void registerMessageSerializer(Serializer<?> objectSerializer, Class<?> writableClass) {
+  public void registerMessageSerializer(QDataSerializer<?> objectSerializer, Class<?> writableClass) {
     objectWriters.put(writableClass, objectSerializer);
   }
 
@@ -42,20 +45,22 @@ public class ServerWriter implements Closeable {
   public void write(SerializableMessage object) {
     Class<?> clazz = object.getClass();
 
-    Serializer<SerializableMessage> serializer = (Serializer<SerializableMessage>) findSerializerForClass(clazz);
+    QDataSerializer<SerializableMessage> serializer = (QDataSerializer<SerializableMessage>) findSerializerForClass(clazz);
 
     if (serializer == null) {
       throw new IllegalStateException("No object writer registered for type: " + clazz);
     }
 
     try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      synchronized (buffer) {
+        buffer.reset();
+        int sizePosition = buffer.reserveInt32();
 
-      serializer.serialize(object, outputStream);
+        serializer.serialize(object, buffer);
 
-      synchronized (qDataWriter) {
-        qDataWriter.appendWithSize(outputStream.toByteArray());
-        qDataWriter.flush();
+        buffer.putInt32(sizePosition, buffer.size() - 4);
+        buffer.writeTo(outputStream);
+        outputStream.flush();
       }
     } catch (EOFException | SocketException e) {
       logger.debug("Server writer has been closed");
@@ -69,7 +74,7 @@ public class ServerWriter implements Closeable {
    *
    * @return the appropriate serializer, or {@code null} if none was found
    */
-  private Serializer<?> findSerializerForClass(Class<?> clazz) {
+  private QDataSerializer<?> findSerializerForClass(Class<?> clazz) {
     Class<?> classToCheck = clazz;
 
     while (!objectWriters.containsKey(classToCheck) && classToCheck != Object.class) {
@@ -81,6 +86,6 @@ public class ServerWriter implements Closeable {
 
   @Override
   public void close() throws IOException {
-    qDataWriter.close();
+    outputStream.close();
   }
 }
@@ -1,15 +1,14 @@
 package com.faforever.client.remote;
 
-import org.springframework.core.serializer.Serializer;
+import com.faforever.client.remote.io.QDataBuffer;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
-public class StringSerializer implements Serializer<String> {
+public class StringSerializer implements QDataSerializer<String> {
 
   @Override
-  public void serialize(String string, OutputStream outputStream) throws IOException {
-    outputStream.write(string.getBytes(StandardCharsets.UTF_16));
+  public void serialize(String string, QDataBuffer buffer) throws IOException {
+    buffer.write(string.getBytes(StandardCharsets.UTF_16));
   }
 }
@@ -17,6 +17,8 @@ public class Player {
   private float[] globalRating;
   private float[] ladderRating;
   private Map<String, String> league;
+  /** {@code "offline"} if the player has left the lobby, otherwise {@code null} or {@code "online"}. */
+  private String state;
 
   public float[] getLadderRating() {
     return ladderRating;
@@ -89,4 +91,12 @@ public class Player {
   public void setId(int id) {
     this.id = id;
   }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
 }
@@ -0,0 +1,150 @@
+package com.faforever.client.remote.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * A reusable in-memory buffer for QDataStream data. Characters written to {@link #asWriter()} are encoded as UTF-16BE
+ * directly into the buffer, and sizes can be reserved up front and filled in once the data they describe has been
+ * written, so that a whole message can be assembled without any intermediate copies.
+ */
+public class QDataBuffer extends OutputStream {
+
+  private static final int INITIAL_CAPACITY = 1024;
+  /** If a message needed a bigger buffer than this, the buffer is released again on {@link #reset()}. */
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+  private final Writer writer;
+  private byte[] bytes;
+  private int size;
+
+  public QDataBuffer() {
+    bytes = new byte[INITIAL_CAPACITY];
+    writer = new Utf16Writer();
+  }
+
+  /**
+   * Discards the content of this buffer so that it can be reused.
+   */
+  public void reset() {
+    if (bytes.length > MAX_RETAINED_CAPACITY) {
+      bytes = new byte[INITIAL_CAPACITY];
+    }
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Reserves space for a 32 bit integer to be set later using {@link #putInt32(int, int)}.
+   *
+   * @return the position of the reserved integer
+   */
+  public int reserveInt32() {
+    ensureCapacity(4);
+    int position = size;
+    size += 4;
+    return position;
+  }
+
+  /**
+   * Sets the 32 bit integer at the specified position, which must have been reserved using {@link #reserveInt32()}.
+   */
+  public void putInt32(int position, int value) {
+    bytes[position] = (byte) (value >>> 24);
+    bytes[position + 1] = (byte) (value >>> 16);
+    bytes[position + 2] = (byte) (value >>> 8);
+    bytes[position + 3] = (byte) value;
+  }
+
+  /**
+   * Returns a writer that appends characters to this buffer, encoded as {@link QDataWriter#CHARSET}.
+   */
+  public Writer asWriter() {
+    return writer;
+  }
+
+  @Override
+  public void write(int b) {
+    ensureCapacity(1);
+    bytes[size++] = (byte) b;
+  }
+
+  @Override
+  public void write(@NotNull byte[] b, int off, int len) {
+    ensureCapacity(len);
+    System.arraycopy(b, off, bytes, size, len);
+    size += len;
+  }
+
+  /**
+   * Writes the content of this buffer to the specified stream.
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(bytes, 0, size);
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, size);
+  }
+
+  /**
+   * Decodes the characters that have been written starting at the specified position.
+   */
+  public String toString(int position) {
+    return new String(bytes, position, size - position, QDataWriter.CHARSET);
+  }
+
+  private void ensureCapacity(int additionalBytes) {
+    int requiredCapacity = size + additionalBytes;
+    if (requiredCapacity > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(requiredCapacity, bytes.length * 2));
+    }
+  }
+
+  private void putChar(char c) {
+    bytes[size++] = (byte) (c >>> 8);
+    bytes[size++] = (byte) c;
+  }
+
+  private class Utf16Writer extends Writer {
+
+    @Override
+    public void write(int c) {
+      ensureCapacity(2);
+      putChar((char) c);
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) {
+      ensureCapacity(len * 2);
+      for (int i = off; i < off + len; i++) {
+        putChar(cbuf[i]);
+      }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) {
+      ensureCapacity(len * 2);
+      for (int i = off; i < off + len; i++) {
+        putChar(str.charAt(i));
+      }
+    }
+
+    @Override
+    public void flush() {
+      // Nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // Closing the writer doesn't release the buffer
+    }
+  }
+}
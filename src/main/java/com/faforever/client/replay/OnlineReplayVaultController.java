@@ -13,6 +13,7 @@ import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.Severity;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.query.SearchablePropertyMappings;
+import com.faforever.client.rating.RatingService;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.vault.search.SearchController;
@@ -60,6 +61,7 @@ public class OnlineReplayVaultController extends AbstractViewController<Node> {
   private final I18n i18n;
   private final PreferencesService preferencesService;
   private final ReportingService reportingService;
+  private final RatingService ratingService;
 
   public Pane replayVaultRoot;
   public Pane newestPane;
@@ -82,13 +84,14 @@ public class OnlineReplayVaultController extends AbstractViewController<Node> {
   private final ObjectProperty<State> state;
   private final Boolean newestReplaysLoaded = false;
 
-  public OnlineReplayVaultController(ReplayService replayService, UiService uiService, NotificationService notificationService, I18n i18n, PreferencesService preferencesService, ReportingService reportingService) {
+  public OnlineReplayVaultController(ReplayService replayService, UiService uiService, NotificationService notificationService, I18n i18n, PreferencesService preferencesService, ReportingService reportingService, RatingService ratingService) {
     this.replayService = replayService;
     this.uiService = uiService;
     this.notificationService = notificationService;
     this.i18n = i18n;
     this.preferencesService = preferencesService;
     this.reportingService = reportingService;
+    this.ratingService = ratingService;
 
     state = new SimpleObjectProperty<>(State.UNINITIALIZED);
   }
@@ -125,7 +128,12 @@ public class OnlineReplayVaultController extends AbstractViewController<Node> {
 
   private void populateReplays(List<Replay> replays, Pane pane, boolean append) {
     ObservableList<Node> children = pane.getChildren();
-    Platform.runLater(() -> {
+    // Calculate the game qualities of the whole page in the background so that the cards don't do it on the FX thread.
+    // If that fails, the cards are shown anyway and calculate what they need themselves.
+    ratingService.calculateQualities(replays).whenComplete((aVoid, throwable) -> Platform.runLater(() -> {
+      if (throwable != null) {
+        logger.warn("Game qualities of replays could not be calculated", throwable);
+      }
       if (!append) {
         children.clear();
       }
@@ -139,7 +147,7 @@ public class OnlineReplayVaultController extends AbstractViewController<Node> {
           onShowReplayDetail(replay);
         }
       });
-    });
+    }));
   }
 
   public void populateReplays(List<Replay> replays, Pane pane) {
@@ -0,0 +1,178 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.task.TaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps downloaded online replays in the cache directory, keyed by replay ID, so that showing a replay's details and
+ * watching it only downloads it once. Concurrent requests for the same replay share a single download. Replays are
+ * evicted least recently used first once the cache exceeds {@link ClientProperties.Replay#getCacheSize()}.
+ */
+@Lazy
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReplayCache {
+
+  private static final String CACHE_FOLDER_NAME = "replays";
+  private static final String CACHE_FILE_FORMAT = "%d.fafreplay";
+
+  private final ApplicationContext applicationContext;
+  private final TaskService taskService;
+  private final PreferencesService preferencesService;
+  private final ClientProperties clientProperties;
+  private final Map<Integer, CompletableFuture<Path>> downloadsInProgress = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached replay file or downloads it, if necessary.
+   */
+  public CompletableFuture<Path> get(int replayId) {
+    Path cacheFile = getCacheFile(replayId);
+    if (Files.exists(cacheFile)) {
+      markUsed(cacheFile);
+      return CompletableFuture.completedFuture(cacheFile);
+    }
+
+    CompletableFuture<Path> future = new CompletableFuture<>();
+    CompletableFuture<Path> downloadInProgress = downloadsInProgress.putIfAbsent(replayId, future);
+    if (downloadInProgress != null) {
+      return downloadInProgress;
+    }
+    if (Files.exists(cacheFile)) {
+      // Another download has finished in the meantime
+      downloadsInProgress.remove(replayId, future);
+      future.complete(cacheFile);
+      return future;
+    }
+
+    ReplayDownloadTask task = applicationContext.getBean(ReplayDownloadTask.class);
+    task.setReplayId(replayId);
+    task.setTargetFile(cacheFile);
+    taskService.submitTask(task).getFuture().whenComplete((replayFile, throwable) -> {
+      downloadsInProgress.remove(replayId, future);
+      if (throwable != null) {
+        future.completeExceptionally(throwable);
+        return;
+      }
+      evictIfNecessary(replayFile);
+      future.complete(replayFile);
+    });
+    return future;
+  }
+
+  /**
+   * Returns the size of the replay file in bytes, or {@code -1} if it's not available on the server. Unless the replay
+   * is cached, only the headers are requested from the server.
+   */
+  public CompletableFuture<Integer> getSize(int replayId) {
+    Path cacheFile = getCacheFile(replayId);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        if (Files.exists(cacheFile)) {
+          return (int) Files.size(cacheFile);
+        }
+        String replayUrl = Replay.getReplayUrl(replayId, clientProperties.getVault().getReplayDownloadUrlFormat());
+        HttpURLConnection urlConnection = (HttpURLConnection) new URL(replayUrl).openConnection();
+        urlConnection.setInstanceFollowRedirects(true);
+        urlConnection.setRequestMethod("HEAD");
+        try {
+          if (urlConnection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            return -1;
+          }
+          return urlConnection.getContentLength();
+        } finally {
+          urlConnection.disconnect();
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private Path getCacheFile(int replayId) {
+    return preferencesService.getCacheDirectory().resolve(CACHE_FOLDER_NAME).resolve(String.format(CACHE_FILE_FORMAT, replayId));
+  }
+
+  private void markUsed(Path cacheFile) {
+    try {
+      Files.setLastModifiedTime(cacheFile, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      log.debug("Could not update last modified time of cached replay: {}", cacheFile, e);
+    }
+  }
+
+  /**
+   * Deletes the least recently used replays until the cache fits its size again. The specified file is kept in any
+   * case, since it's about to be used.
+   */
+  private synchronized void evictIfNecessary(Path fileToKeep) {
+    Path cacheDirectory = fileToKeep.getParent();
+    List<Path> cacheFiles;
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      cacheFiles = files
+          .filter(file -> file.getFileName().toString().endsWith(".fafreplay"))
+          .sorted(Comparator.comparing(ReplayCache::getLastModifiedTime))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      log.warn("Replay cache could not be listed: {}", cacheDirectory, e);
+      return;
+    }
+
+    long cacheSize = cacheFiles.stream().mapToLong(ReplayCache::getSize).sum();
+    long maxCacheSize = clientProperties.getReplay().getCacheSize();
+    for (Path file : cacheFiles) {
+      if (cacheSize <= maxCacheSize) {
+        return;
+      }
+      if (file.equals(fileToKeep)) {
+        continue;
+      }
+      long fileSize = getSize(file);
+      try {
+        Files.delete(file);
+        cacheSize -= fileSize;
+        log.debug("Evicted replay from cache: {}", file);
+      } catch (IOException e) {
+        log.warn("Cached replay could not be deleted: {}", file, e);
+      }
+    }
+  }
+
+  private static FileTime getLastModifiedTime(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static long getSize(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+}
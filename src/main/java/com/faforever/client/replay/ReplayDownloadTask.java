@@ -2,7 +2,6 @@ package com.faforever.client.replay;
 
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.commons.io.ByteCopier;
 import org.slf4j.Logger;
@@ -14,6 +13,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
@@ -21,27 +21,28 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class ReplayDownloadTask extends CompletableTask<Path> {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-  private static final String TEMP_FAF_REPLAY_FILE_NAME = "temp.fafreplay";
 
   private final I18n i18n;
   private final ClientProperties clientProperties;
-  private final PreferencesService preferencesService;
+  private final ReplayFileReader replayFileReader;
 
   private int replayId;
+  private Path targetFile;
 
   @Inject
-  public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties, PreferencesService preferencesService) {
+  public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties, ReplayFileReader replayFileReader) {
     super(Priority.HIGH);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
-    this.preferencesService = preferencesService;
+    this.replayFileReader = replayFileReader;
   }
 
   @Override
@@ -56,25 +57,54 @@ public class ReplayDownloadTask extends CompletableTask<Path> {
     urlConnection.setInstanceFollowRedirects(true);
     int bytesToRead = urlConnection.getContentLength();
 
-    Path tempSupComReplayFile = preferencesService.getCacheDirectory().resolve(TEMP_FAF_REPLAY_FILE_NAME);
-
-    Files.createDirectories(tempSupComReplayFile.getParent());
-
-    try (InputStream inputStream = new BufferedInputStream(urlConnection.getInputStream());
-         OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempSupComReplayFile))) {
-
-      ByteCopier.from(inputStream)
-          .to(outputStream)
-          .totalBytes(bytesToRead)
-          .listener(this::updateProgress)
-          .copy();
-
-      return tempSupComReplayFile;
+    // Download next to the target so that an incomplete download never ends up in its place
+    Path tempFile = targetFile.resolveSibling(targetFile.getFileName() + ".tmp");
+    Files.createDirectories(targetFile.getParent());
+
+    try {
+      try (InputStream inputStream = new BufferedInputStream(urlConnection.getInputStream());
+           OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+
+        ByteCopier.from(inputStream)
+            .to(outputStream)
+            .totalBytes(bytesToRead)
+            .listener(this::updateProgress)
+            .copy();
+      }
+
+      long bytesRead = Files.size(tempFile);
+      if (bytesToRead >= 0 && bytesRead != bytesToRead) {
+        throw new IOException("Replay " + replayId + " has been downloaded incompletely, expected "
+            + bytesToRead + " bytes but got " + bytesRead);
+      }
+      verifyReplay(tempFile);
+      Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return targetFile;
+    } finally {
+      Files.deleteIfExists(tempFile);
     }
   }
 
+  /**
+   * Reads the header and the replay data, so that a download that has been cut off without the server announcing its
+   * length is deleted instead of being cached.
+   */
+  private void verifyReplay(Path replayFile) throws IOException {
+    try {
+      if (replayFileReader.parseMetaData(replayFile) == null) {
+        throw new IOException("Replay has no header");
+      }
+      replayFileReader.readRawReplayData(replayFile);
+    } catch (Exception e) {
+      throw new IOException("Replay " + replayId + " has been downloaded but can't be read", e);
+    }
+  }
 
   public void setReplayId(int replayId) {
     this.replayId = replayId;
   }
+
+  public void setTargetFile(Path targetFile) {
+    this.targetFile = targetFile;
+  }
 }
@@ -7,6 +7,8 @@ import com.faforever.client.game.Game;
 import com.faforever.client.game.GameService;
 import com.faforever.client.game.KnownFeaturedMod;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DirectoryWatcherService;
+import com.faforever.client.io.DirectoryWatcherService.Registration;
 import com.faforever.client.main.event.LocalReplaysChangedEvent;
 import com.faforever.client.map.MapBean;
 import com.faforever.client.map.MapService;
@@ -57,14 +59,10 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -88,9 +86,6 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.move;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -137,8 +132,9 @@ public class ReplayService {
   private final ApplicationEventPublisher publisher;
   private final MapGeneratorService mapGeneratorService;
   private final ExecutorService executorService;
-  private Thread directoryWatcherThread;
-  private WatchService watchService;
+  private final DirectoryWatcherService directoryWatcherService;
+  private final ReplayCache replayCache;
+  private Registration directoryWatcherRegistration;
   protected List<Replay> localReplays = new ArrayList<Replay>();
 
   public void startLoadingAndWatchingLocalReplays() {
@@ -155,8 +151,8 @@ public class ReplayService {
     });
 
     try {
-      Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
-      directoryWatcherThread = startDirectoryWatcher(replaysDirectory);
+      Optional.ofNullable(directoryWatcherRegistration).ifPresent(Registration::close);
+      directoryWatcherRegistration = directoryWatcherService.watch(replaysDirectory, this::onLocalReplaysChanged, this::startLoadingAndWatchingLocalReplays);
     } catch (IOException e) {
       logger.warn("Failed to start watching the local replays directory");
     }
@@ -166,45 +162,24 @@ public class ReplayService {
     return localReplays;
   }
 
-  protected Thread startDirectoryWatcher(Path replaysDirectory) throws IOException {
-    Thread thread = new Thread(() -> noCatch(() -> {
-      try (WatchService watcher = replaysDirectory.getFileSystem().newWatchService()) {
-        replaysDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
-        while (!Thread.interrupted()) {
-          WatchKey key = watcher.take();
-          onLocalReplaysWatchEvent(key);
-          key.reset();
-        }
-      } catch (InterruptedException e) {
-        logger.debug("Local replay directory watcher terminated ({})", e.getMessage());
-      }
-    }));
-    thread.setDaemon(true);
-    thread.start();
-    return thread;
-  }
-
   @VisibleForTesting
-  protected void onLocalReplaysWatchEvent(WatchKey key) {
+  protected void onLocalReplaysChanged(Set<Path> replayFiles) {
     List<CompletableFuture<Replay>> newReplaysFutures = new ArrayList<CompletableFuture<Replay>>();
     Collection<Replay> deletedReplays = new ArrayList<Replay>();
-    for (WatchEvent<?> watchEvent : key.pollEvents()) {
-      Path path = (Path) watchEvent.context();
-      Path fullPathToReplay = preferencesService.getReplaysDirectory().resolve(path);
-
-      if (watchEvent.kind() == ENTRY_CREATE) {
-        newReplaysFutures.add(tryLoadingLocalReplay(fullPathToReplay));
-      } else if (watchEvent.kind() == ENTRY_DELETE) {
-        Optional<Replay> existingReplay = localReplays
-            .stream()
-            .filter(replay -> replay.getReplayFile().compareTo(fullPathToReplay) == 0)
-            .findFirst();
-
-        if (existingReplay.isPresent()) {
-          Replay deletedReplay = existingReplay.get();
-          deletedReplays.add(deletedReplay);
-          localReplays.remove(deletedReplay);
-        }
+    for (Path replayFile : replayFiles) {
+      Optional<Replay> existingReplay = localReplays
+          .stream()
+          .filter(replay -> replay.getReplayFile().compareTo(replayFile) == 0)
+          .findFirst();
+
+      if (existingReplay.isPresent()) {
+        Replay deletedReplay = existingReplay.get();
+        deletedReplays.add(deletedReplay);
+        localReplays.remove(deletedReplay);
+      }
+
+      if (Files.isRegularFile(replayFile)) {
+        newReplaysFutures.add(tryLoadingLocalReplay(replayFile));
       }
     }
 
@@ -437,10 +412,11 @@ public class ReplayService {
     return fafService.findReplayById(id);
   }
 
+  /**
+   * Returns the file of the specified online replay, which is only downloaded if it isn't cached yet.
+   */
   public CompletableFuture<Path> downloadReplay(int id) {
-    ReplayDownloadTask task = applicationContext.getBean(ReplayDownloadTask.class);
-    task.setReplayId(id);
-    return taskService.submitTask(task).getFuture();
+    return replayCache.get(id);
   }
 
   /**
@@ -459,11 +435,8 @@ public class ReplayService {
   }
 
 
-  @SneakyThrows
   public CompletableFuture<Integer> getSize(int id) {
-    return CompletableFuture.supplyAsync(() -> noCatch(() -> new URL(String.format(clientProperties.getVault().getReplayDownloadUrlFormat(), id))
-        .openConnection()
-        .getContentLength()));
+    return replayCache.getSize(id);
   }
 
 
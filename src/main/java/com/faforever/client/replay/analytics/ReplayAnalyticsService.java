@@ -0,0 +1,174 @@
+package com.faforever.client.replay.analytics;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.replay.ReplayFileReader;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Derives statistics like command counts, APM and chat volume from the local replays and keeps them in a {@link
+ * ReplayStatisticsIndex} in the cache directory. Each run only parses replays that have been added or changed since the
+ * previous run, which includes replays that couldn't be parsed.
+ */
+@Lazy
+@Service
+@Slf4j
+public class ReplayAnalyticsService implements DisposableBean {
+
+  private static final String INDEX_FILE_NAME = "replay-statistics.idx";
+
+  private final PreferencesService preferencesService;
+  private final ReplayFileReader replayFileReader;
+  private final ClientProperties clientProperties;
+  /**
+   * Replays are parsed by a parallel stream started from within this pool, so that parsing doesn't occupy the common
+   * pool, which is used by many other background operations.
+   */
+  private final ForkJoinPool analyticsPool;
+  private volatile ReplayStatisticsIndex index;
+  private CompletableFuture<ReplayStatisticsIndex> analysisFuture;
+
+  public ReplayAnalyticsService(PreferencesService preferencesService, ReplayFileReader replayFileReader, ClientProperties clientProperties) {
+    this.preferencesService = preferencesService;
+    this.replayFileReader = replayFileReader;
+    this.clientProperties = clientProperties;
+    analyticsPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    index = new ReplayStatisticsIndex();
+  }
+
+  /**
+   * Returns the statistics as of the last analysis. The index is empty until the first analysis has completed.
+   */
+  public ReplayStatisticsIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Analyzes all local replays that haven't been analyzed yet. If an analysis is already running, its result is
+   * returned instead of starting another one.
+   */
+  public synchronized CompletableFuture<ReplayStatisticsIndex> analyzeLocalReplays() {
+    if (analysisFuture == null || analysisFuture.isDone()) {
+      analysisFuture = CompletableFuture.supplyAsync(this::analyze, analyticsPool);
+    }
+    return analysisFuture;
+  }
+
+  private ReplayStatisticsIndex analyze() {
+    Path indexFile = preferencesService.getCacheDirectory().resolve(INDEX_FILE_NAME);
+    ReplayStatisticsIndex currentIndex = index;
+    if (currentIndex.size() == 0 && Files.exists(indexFile)) {
+      try {
+        currentIndex = ReplayStatisticsIndex.readFrom(indexFile);
+      } catch (IOException e) {
+        log.warn("Replay statistics index could not be read, analyzing all replays again", e);
+      }
+    }
+
+    List<ReplayFile> replayFiles;
+    try {
+      replayFiles = listReplayFiles();
+    } catch (IOException e) {
+      log.warn("Local replays could not be listed", e);
+      return currentIndex;
+    }
+
+    Set<String> fileNames = replayFiles.stream().map(ReplayFile::getFileName).collect(Collectors.toCollection(HashSet::new));
+    currentIndex.retainAll(fileNames);
+
+    ReplayStatisticsIndex previousIndex = currentIndex;
+    List<ReplayFile> newReplayFiles = replayFiles.stream()
+        .filter(replayFile -> !previousIndex.isUpToDate(replayFile.getFileName(), replayFile.getLastModifiedTime(), replayFile.getSize()))
+        .collect(Collectors.toList());
+
+    log.debug("Analyzing {} of {} local replays", newReplayFiles.size(), replayFiles.size());
+    List<AnalyzedReplay> analyzedReplays = newReplayFiles.parallelStream()
+        .map(this::analyze)
+        .collect(Collectors.toList());
+
+    for (AnalyzedReplay analyzedReplay : analyzedReplays) {
+      ReplayFile replayFile = analyzedReplay.getReplayFile();
+      if (analyzedReplay.getStatistics() == null) {
+        currentIndex.putFailed(replayFile.getFileName(), replayFile.getLastModifiedTime(), replayFile.getSize());
+      } else {
+        currentIndex.put(replayFile.getFileName(), replayFile.getLastModifiedTime(), replayFile.getSize(), analyzedReplay.getStatistics());
+      }
+    }
+
+    try {
+      currentIndex.writeTo(indexFile);
+    } catch (IOException e) {
+      log.warn("Replay statistics index could not be written", e);
+    }
+    index = currentIndex;
+    return currentIndex;
+  }
+
+  private AnalyzedReplay analyze(ReplayFile replayFile) {
+    try {
+      byte[] replayData = replayFileReader.readRawReplayData(replayFile.getPath());
+      return new AnalyzedReplay(replayFile, ReplayBodyReader.read(replayData));
+    } catch (Exception e) {
+      log.debug("Replay could not be analyzed: {}", replayFile.getPath(), e);
+      return new AnalyzedReplay(replayFile, null);
+    }
+  }
+
+  private List<ReplayFile> listReplayFiles() throws IOException {
+    Path replaysDirectory = preferencesService.getReplaysDirectory();
+    List<ReplayFile> replayFiles = new ArrayList<>();
+    if (Files.notExists(replaysDirectory)) {
+      return replayFiles;
+    }
+
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, clientProperties.getReplay().getReplayFileGlob())) {
+      for (Path path : directoryStream) {
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          replayFiles.add(new ReplayFile(path, path.getFileName().toString(), attributes.lastModifiedTime().toMillis(), attributes.size()));
+        } catch (NoSuchFileException e) {
+          // Deleted while listing
+        }
+      }
+    }
+    return replayFiles;
+  }
+
+  @Override
+  public void destroy() {
+    analyticsPool.shutdownNow();
+  }
+
+  @Value
+  private static class ReplayFile {
+    Path path;
+    String fileName;
+    long lastModifiedTime;
+    long size;
+  }
+
+  @Value
+  private static class AnalyzedReplay {
+    ReplayFile replayFile;
+    /** {@code null} if the replay couldn't be analyzed. */
+    ReplayStatistics statistics;
+  }
+}
@@ -0,0 +1,191 @@
+package com.faforever.client.replay.analytics;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the statistics of a replay from its raw (uncompressed) replay data in a single pass. Unlike the full replay
+ * parser, lua tables are only decoded for sim callbacks, where they are needed to tell chat messages from commands, and
+ * everything else that isn't needed for the statistics is skipped.
+ */
+final class ReplayBodyReader {
+
+  private static final int LUA_NUMBER = 0;
+  private static final int LUA_STRING = 1;
+  private static final int LUA_NIL = 2;
+  private static final int LUA_BOOL = 3;
+  private static final int LUA_TABLE_START = 4;
+  private static final int LUA_TABLE_END = 5;
+
+  private static final int CMDST_ADVANCE = 0;
+  private static final int CMDST_SET_COMMAND_SOURCE = 1;
+  private static final int CMDST_ISSUE_COMMAND = 12;
+  private static final int CMDST_REMOVE_COMMAND_FROM_QUEUE = 19;
+  private static final int CMDST_LUA_SIM_CALLBACK = 22;
+
+  /** Size of an operation's type and length, which are included in its length. */
+  private static final int OPERATION_HEADER_SIZE = 3;
+  private static final int NO_SOURCE = 255;
+
+  private ReplayBodyReader() {
+    // Static class
+  }
+
+  static ReplayStatistics read(byte[] replayData) throws IOException {
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(replayData).order(ByteOrder.LITTLE_ENDIAN);
+      List<String> commandSources = readHeader(buffer);
+      return readBody(buffer, commandSources);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new IOException("Replay data is malformed", e);
+    }
+  }
+
+  /**
+   * Skips the header and returns the names of the command sources, indexed by source ID.
+   */
+  private static List<String> readHeader(ByteBuffer buffer) {
+    // Game version and replay version + map, each followed by a line break
+    readString(buffer);
+    skip(buffer, 3);
+    readString(buffer);
+    skip(buffer, 4);
+
+    int modsSize = buffer.getInt();
+    skip(buffer, modsSize);
+    int scenarioSize = buffer.getInt();
+    skip(buffer, scenarioSize);
+
+    int numberOfSources = Byte.toUnsignedInt(buffer.get());
+    List<String> commandSources = new ArrayList<>(numberOfSources);
+    for (int i = 0; i < numberOfSources; i++) {
+      commandSources.add(readString(buffer));
+      // Player ID
+      buffer.getInt();
+    }
+
+    // Cheats enabled
+    buffer.get();
+    int numberOfArmies = Byte.toUnsignedInt(buffer.get());
+    for (int i = 0; i < numberOfArmies; i++) {
+      int playerDataSize = buffer.getInt();
+      skip(buffer, playerDataSize);
+      int playerSource = Byte.toUnsignedInt(buffer.get());
+      if (playerSource != NO_SOURCE) {
+        skip(buffer, 1);
+      }
+    }
+
+    // Random seed
+    buffer.getInt();
+    return commandSources;
+  }
+
+  private static ReplayStatistics readBody(ByteBuffer buffer, List<String> commandSources) {
+    int ticks = 0;
+    int chatMessageCount = 0;
+    int currentSource = NO_SOURCE;
+    Map<String, int[]> commandsPerMinuteByPlayer = new HashMap<>();
+
+    while (buffer.hasRemaining()) {
+      int operationStart = buffer.position();
+      int type = Byte.toUnsignedInt(buffer.get());
+      int length = Short.toUnsignedInt(buffer.getShort());
+      if (length < OPERATION_HEADER_SIZE) {
+        throw new IllegalArgumentException("Invalid operation length " + length + " at " + operationStart);
+      }
+
+      boolean isCommand = false;
+      if (type == CMDST_ADVANCE) {
+        ticks += buffer.getInt();
+      } else if (type == CMDST_SET_COMMAND_SOURCE) {
+        currentSource = Byte.toUnsignedInt(buffer.get());
+      } else if (type >= CMDST_ISSUE_COMMAND && type <= CMDST_REMOVE_COMMAND_FROM_QUEUE) {
+        isCommand = true;
+      } else if (type == CMDST_LUA_SIM_CALLBACK) {
+        String functionName = readString(buffer);
+        Object argument = readLua(buffer);
+        if (isChatMessage(functionName, argument)) {
+          chatMessageCount++;
+        } else {
+          isCommand = true;
+        }
+      }
+
+      if (isCommand && currentSource < commandSources.size()) {
+        int minute = ticks / ReplayStatistics.TICKS_PER_MINUTE;
+        int[] commandsPerMinute = commandsPerMinuteByPlayer.get(commandSources.get(currentSource));
+        if (commandsPerMinute == null || commandsPerMinute.length <= minute) {
+          commandsPerMinute = commandsPerMinute == null ? new int[minute + 1] : Arrays.copyOf(commandsPerMinute, minute + 1);
+          commandsPerMinuteByPlayer.put(commandSources.get(currentSource), commandsPerMinute);
+        }
+        commandsPerMinute[minute]++;
+      }
+
+      buffer.position(operationStart + length);
+    }
+
+    return new ReplayStatistics(ticks, chatMessageCount, commandsPerMinuteByPlayer);
+  }
+
+  /**
+   * Chat messages are sent as a "GiveResourcesToPlayer" callback whose message table is flagged as chat.
+   */
+  private static boolean isChatMessage(String functionName, Object argument) {
+    if (!"GiveResourcesToPlayer".equals(functionName) || !(argument instanceof Map)) {
+      return false;
+    }
+    Object message = ((Map<?, ?>) argument).get("Msg");
+    return message instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) message).get("Chat"));
+  }
+
+  private static Object readLua(ByteBuffer buffer) {
+    int type = Byte.toUnsignedInt(buffer.get());
+    switch (type) {
+      case LUA_NUMBER:
+        return buffer.getFloat();
+      case LUA_STRING:
+        return readString(buffer);
+      case LUA_NIL:
+        skip(buffer, 1);
+        return null;
+      case LUA_BOOL:
+        return buffer.get() != 0;
+      case LUA_TABLE_START:
+        Map<Object, Object> table = new HashMap<>();
+        while (buffer.get(buffer.position()) != LUA_TABLE_END) {
+          Object key = readLua(buffer);
+          Object value = readLua(buffer);
+          table.put(key, value);
+        }
+        skip(buffer, 1);
+        return table;
+      default:
+        throw new IllegalArgumentException("Unknown lua type " + type + " at " + (buffer.position() - 1));
+    }
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int start = buffer.position();
+    int end = start;
+    while (buffer.get(end) != 0) {
+      end++;
+    }
+    String string = new String(buffer.array(), buffer.arrayOffset() + start, end - start, UTF_8);
+    buffer.position(end + 1);
+    return string;
+  }
+
+  private static void skip(ByteBuffer buffer, int bytes) {
+    buffer.position(buffer.position() + bytes);
+  }
+}
@@ -0,0 +1,53 @@
+package com.faforever.client.replay.analytics;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Statistics derived from the command stream of a single replay.
+ */
+@Value
+public class ReplayStatistics {
+
+  /** The simulation runs at 10 ticks per second. */
+  static final int TICKS_PER_MINUTE = 600;
+
+  /** The number of simulation ticks the game lasted. */
+  int ticks;
+  int chatMessageCount;
+  /** The number of commands each player issued per minute of game time, by player name. */
+  Map<String, int[]> commandsPerMinuteByPlayer;
+
+  public Duration getDuration() {
+    return Duration.ofMillis(ticks * 100L);
+  }
+
+  public int getCommandCount(String player) {
+    int[] commandsPerMinute = commandsPerMinuteByPlayer.get(player);
+    return commandsPerMinute == null ? 0 : Arrays.stream(commandsPerMinute).sum();
+  }
+
+  public int getCommandCount() {
+    return commandsPerMinuteByPlayer.keySet().stream().mapToInt(this::getCommandCount).sum();
+  }
+
+  /**
+   * Returns the average number of commands per minute the specified player issued over the whole game.
+   */
+  public double getAverageApm(String player) {
+    if (ticks == 0) {
+      return 0;
+    }
+    return getCommandCount(player) * (double) TICKS_PER_MINUTE / ticks;
+  }
+
+  /**
+   * Returns the average APM of the most active player.
+   */
+  public double getHighestAverageApm() {
+    return commandsPerMinuteByPlayer.keySet().stream().mapToDouble(this::getAverageApm).max().orElse(0);
+  }
+}
@@ -0,0 +1,213 @@
+package com.faforever.client.replay.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Per-game statistics of the local replays, keyed by replay file name. Each statistic is stored as a column of
+ * primitive values, so that the index stays small in memory and on disk.
+ * <p>
+ * Replays that can't be analyzed are kept as rows with all values set to {@link #FAILED}, so that they're only tried
+ * again once they've changed. No values are returned for those rows.
+ * <p>
+ * Instances are thread safe.
+ */
+public class ReplayStatisticsIndex {
+
+  private static final int FORMAT_VERSION = 1;
+  private static final int INITIAL_CAPACITY = 64;
+  /** The value of all columns of a replay that couldn't be analyzed, no statistic can be negative. */
+  private static final int FAILED = -1;
+
+  public enum Column {
+    DURATION_SECONDS,
+    COMMANDS,
+    CHAT_MESSAGES,
+    /** The average APM of the most active player. */
+    HIGHEST_AVERAGE_APM
+  }
+
+  private final Map<String, Integer> rowsByFileName;
+  private String[] fileNames;
+  private long[] lastModifiedTimes;
+  private long[] fileSizes;
+  /** Indexed by {@link Column#ordinal()}, then by row. */
+  private int[][] columns;
+  private int size;
+
+  public ReplayStatisticsIndex() {
+    this(INITIAL_CAPACITY);
+  }
+
+  private ReplayStatisticsIndex(int capacity) {
+    rowsByFileName = new HashMap<>();
+    fileNames = new String[capacity];
+    lastModifiedTimes = new long[capacity];
+    fileSizes = new long[capacity];
+    columns = new int[Column.values().length][capacity];
+  }
+
+  /**
+   * Reads an index that has previously been written using {@link #writeTo(Path)}.
+   */
+  static ReplayStatisticsIndex readFrom(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      int version = in.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported replay statistics index version: " + version);
+      }
+      int size = in.readInt();
+      int columnCount = in.readInt();
+      if (columnCount != Column.values().length) {
+        throw new IOException("Unexpected number of replay statistics columns: " + columnCount);
+      }
+
+      ReplayStatisticsIndex index = new ReplayStatisticsIndex(Math.max(size, INITIAL_CAPACITY));
+      for (int row = 0; row < size; row++) {
+        index.fileNames[row] = in.readUTF();
+        index.rowsByFileName.put(index.fileNames[row], row);
+      }
+      for (int row = 0; row < size; row++) {
+        index.lastModifiedTimes[row] = in.readLong();
+      }
+      for (int row = 0; row < size; row++) {
+        index.fileSizes[row] = in.readLong();
+      }
+      for (int[] column : index.columns) {
+        for (int row = 0; row < size; row++) {
+          column[row] = in.readInt();
+        }
+      }
+      index.size = size;
+      return index;
+    }
+  }
+
+  synchronized void writeTo(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(size);
+      out.writeInt(columns.length);
+      for (int row = 0; row < size; row++) {
+        out.writeUTF(fileNames[row]);
+      }
+      for (int row = 0; row < size; row++) {
+        out.writeLong(lastModifiedTimes[row]);
+      }
+      for (int row = 0; row < size; row++) {
+        out.writeLong(fileSizes[row]);
+      }
+      for (int[] column : columns) {
+        for (int row = 0; row < size; row++) {
+          out.writeInt(column[row]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of replays that have been analyzed successfully.
+   */
+  public synchronized int size() {
+    return (int) IntStream.range(0, size).filter(row -> !isFailed(row)).count();
+  }
+
+  /**
+   * Returns whether the statistics of the specified file have been calculated from its current version.
+   */
+  synchronized boolean isUpToDate(String fileName, long lastModifiedTime, long fileSize) {
+    Integer row = rowsByFileName.get(fileName);
+    return row != null && lastModifiedTimes[row] == lastModifiedTime && fileSizes[row] == fileSize;
+  }
+
+  synchronized void put(String fileName, long lastModifiedTime, long fileSize, ReplayStatistics statistics) {
+    int row = putRow(fileName, lastModifiedTime, fileSize);
+    columns[Column.DURATION_SECONDS.ordinal()][row] = (int) statistics.getDuration().getSeconds();
+    columns[Column.COMMANDS.ordinal()][row] = statistics.getCommandCount();
+    columns[Column.CHAT_MESSAGES.ordinal()][row] = statistics.getChatMessageCount();
+    columns[Column.HIGHEST_AVERAGE_APM.ordinal()][row] = (int) Math.round(statistics.getHighestAverageApm());
+  }
+
+  /**
+   * Records that the specified version of the file couldn't be analyzed.
+   */
+  synchronized void putFailed(String fileName, long lastModifiedTime, long fileSize) {
+    int row = putRow(fileName, lastModifiedTime, fileSize);
+    for (int[] column : columns) {
+      column[row] = FAILED;
+    }
+  }
+
+  private int putRow(String fileName, long lastModifiedTime, long fileSize) {
+    Integer row = rowsByFileName.get(fileName);
+    if (row == null) {
+      ensureCapacity(size + 1);
+      row = size++;
+      rowsByFileName.put(fileName, row);
+      fileNames[row] = fileName;
+    }
+    lastModifiedTimes[row] = lastModifiedTime;
+    fileSizes[row] = fileSize;
+    return row;
+  }
+
+  private boolean isFailed(int row) {
+    return columns[Column.DURATION_SECONDS.ordinal()][row] == FAILED;
+  }
+
+  /**
+   * Removes the statistics of all files but the specified ones.
+   */
+  synchronized void retainAll(Set<String> fileNamesToKeep) {
+    int newSize = 0;
+    rowsByFileName.clear();
+    for (int row = 0; row < size; row++) {
+      if (!fileNamesToKeep.contains(fileNames[row])) {
+        continue;
+      }
+      fileNames[newSize] = fileNames[row];
+      lastModifiedTimes[newSize] = lastModifiedTimes[row];
+      fileSizes[newSize] = fileSizes[row];
+      for (int[] column : columns) {
+        column[newSize] = column[row];
+      }
+      rowsByFileName.put(fileNames[newSize], newSize);
+      newSize++;
+    }
+    Arrays.fill(fileNames, newSize, size, null);
+    size = newSize;
+  }
+
+  public synchronized OptionalInt get(String fileName, Column column) {
+    Integer row = rowsByFileName.get(fileName);
+    if (row == null || isFailed(row)) {
+      return OptionalInt.empty();
+    }
+    return OptionalInt.of(columns[column.ordinal()][row]);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= fileNames.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, fileNames.length * 2);
+    fileNames = Arrays.copyOf(fileNames, newCapacity);
+    lastModifiedTimes = Arrays.copyOf(lastModifiedTimes, newCapacity);
+    fileSizes = Arrays.copyOf(fileSizes, newCapacity);
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = Arrays.copyOf(columns[i], newCapacity);
+    }
+  }
+}
@@ -14,7 +14,6 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.Locale;
-import java.util.Optional;
 import java.util.function.Consumer;
 
 @Component
@@ -56,12 +55,10 @@ public class LanguageItemController implements Controller<Node> {
     localLanguageLabel.setText(locale.getDisplayName(locale));
     translatedLanguageLabel.setText(locale.getDisplayName(i18n.getUserSpecificLocale()));
 
-    Optional.ofNullable(Strings.emptyToNull(locale.getCountry()))
-        .flatMap(countryFlagService::loadCountryFlag)
-        .ifPresent(image -> {
-          localeImageView.setImage(image);
-          localeImageView.setVisible(true);
-        });
+    String country = Strings.emptyToNull(locale.getCountry());
+    if (country != null && countryFlagService.setCountryFlag(localeImageView, country)) {
+      localeImageView.setVisible(true);
+    }
   }
 
   public void setOnSelectedListener(Consumer<Locale> listener) {
@@ -0,0 +1,8 @@
+package com.faforever.client.startup;
+
+/**
+ * Published once after the first frame of the main window has been shown. Initialization that isn't required to show
+ * the login window should be done when receiving this event rather than during bean initialization.
+ */
+public class MainWindowShownEvent {
+}
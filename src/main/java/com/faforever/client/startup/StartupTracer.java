@@ -0,0 +1,213 @@
+package com.faforever.client.startup;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Records the wall time spent on the critical path of the application startup, i.e. until the first frame of the login
+ * window has been shown. Time is recorded in spans (e.g. per bean creation or FXML load) and as milestones relative to
+ * the start of the JVM. Spans that are nested on the same thread are subtracted from their parent's "self" time, so
+ * the time spent creating a bean doesn't include the time spent creating its dependencies.
+ * <p>
+ * Once {@link #finish(Path)} has been called, no more spans are recorded and the report is written to a file whose
+ * lines are sorted so that reports of different versions can be compared using a diff tool.
+ */
+public class StartupTracer {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final Span NOOP_SPAN = new Span(null, null, null, 0);
+
+  private final long startNanos;
+  private final long jvmUptimeMillisAtStart;
+  private final Map<String, Long> milestones;
+  private final Map<String, SpanSummary> spanSummaries;
+  private final ThreadLocal<Deque<Span>> openSpans;
+  private volatile boolean finished;
+
+  public StartupTracer() {
+    startNanos = System.nanoTime();
+    jvmUptimeMillisAtStart = ManagementFactory.getRuntimeMXBean().getUptime();
+    milestones = new LinkedHashMap<>();
+    spanSummaries = new TreeMap<>();
+    openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+  }
+
+  /**
+   * Starts a span which needs to be closed on the same thread, preferably using try-with-resources.
+   *
+   * @param category the kind of work that is being traced, e.g. "bean" or "fxml"
+   * @param name what is being worked on, e.g. the bean name
+   */
+  public Span start(String category, String name) {
+    if (finished) {
+      return NOOP_SPAN;
+    }
+    Span span = new Span(this, category, name, System.nanoTime());
+    openSpans.get().push(span);
+    return span;
+  }
+
+  /**
+   * Records that the specified milestone has been reached now. Only the first time a milestone is reached is recorded.
+   */
+  public void milestone(String name) {
+    long millis = millisSinceJvmStart();
+    synchronized (milestones) {
+      milestones.putIfAbsent(name, millis);
+    }
+    logger.info("Startup milestone '{}' reached after {} ms", name, millis);
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Stops tracing and writes the report to the specified file.
+   */
+  public void finish(Path reportFile) {
+    finished = true;
+    try {
+      Files.createDirectories(reportFile.getParent());
+      Path tempFile = reportFile.resolveSibling(reportFile.getFileName() + ".tmp");
+      try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        writeReport(writer);
+      }
+      Files.move(tempFile, reportFile, StandardCopyOption.REPLACE_EXISTING);
+      logger.debug("Startup report has been written to: {}", reportFile);
+    } catch (IOException e) {
+      logger.warn("Startup report could not be written: " + reportFile, e);
+    }
+  }
+
+  void writeReport(Writer writer) throws IOException {
+    writer.write("# Milestones since JVM start (ms)\n");
+    synchronized (milestones) {
+      for (Map.Entry<String, Long> entry : milestones.entrySet()) {
+        writer.write(String.format("milestone\t%s\t%d%n", entry.getKey(), entry.getValue()));
+      }
+    }
+
+    writer.write("# Spans: category, name, count, total (ms), self (ms)\n");
+    synchronized (spanSummaries) {
+      for (SpanSummary summary : spanSummaries.values()) {
+        writer.write(String.format("%s\t%s\t%d\t%d\t%d%n", summary.category, summary.name, summary.count,
+            TimeUnit.NANOSECONDS.toMillis(summary.totalNanos), TimeUnit.NANOSECONDS.toMillis(summary.selfNanos)));
+      }
+    }
+  }
+
+  List<SpanRecord> getSpanRecords() {
+    synchronized (spanSummaries) {
+      List<SpanRecord> records = new ArrayList<>(spanSummaries.size());
+      spanSummaries.values().forEach(summary -> records.add(new SpanRecord(summary.category, summary.name,
+          summary.count, summary.totalNanos, summary.selfNanos)));
+      return records;
+    }
+  }
+
+  Map<String, Long> getMilestones() {
+    synchronized (milestones) {
+      return Map.copyOf(milestones);
+    }
+  }
+
+  private long millisSinceJvmStart() {
+    return jvmUptimeMillisAtStart + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  private void onSpanClosed(Span span, long totalNanos) {
+    Deque<Span> spans = openSpans.get();
+    // Spans that haven't been closed, e.g. because creating a bean failed, must not corrupt the stack
+    spans.removeFirstOccurrence(span);
+    Span parent = spans.peek();
+    if (parent != null) {
+      parent.childNanos += totalNanos;
+    }
+
+    synchronized (spanSummaries) {
+      SpanSummary summary = spanSummaries.computeIfAbsent(span.category + '\t' + span.name,
+          key -> new SpanSummary(span.category, span.name));
+      summary.count++;
+      summary.totalNanos += totalNanos;
+      summary.selfNanos += Math.max(0, totalNanos - span.childNanos);
+    }
+  }
+
+  public static class Span implements AutoCloseable {
+    private final StartupTracer tracer;
+    private final String category;
+    private final String name;
+    private final long startNanos;
+    private long childNanos;
+    private boolean closed;
+
+    private Span(StartupTracer tracer, String category, String name, long startNanos) {
+      this.tracer = tracer;
+      this.category = category;
+      this.name = name;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+      if (tracer == null || closed) {
+        return;
+      }
+      closed = true;
+      tracer.onSpanClosed(this, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Ends this span without recording it, e.g. because the work it traced has failed.
+     */
+    public void discard() {
+      if (tracer == null || closed) {
+        return;
+      }
+      closed = true;
+      tracer.openSpans.get().removeFirstOccurrence(this);
+    }
+  }
+
+  private static class SpanSummary {
+    private final String category;
+    private final String name;
+    private int count;
+    private long totalNanos;
+    private long selfNanos;
+
+    private SpanSummary(String category, String name) {
+      this.category = category;
+      this.name = name;
+    }
+  }
+
+  @Value
+  static class SpanRecord {
+    String category;
+    String name;
+    int count;
+    long totalNanos;
+    long selfNanos;
+  }
+}
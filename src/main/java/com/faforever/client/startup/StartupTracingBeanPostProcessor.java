@@ -0,0 +1,68 @@
+package com.faforever.client.startup;
+
+import com.faforever.client.startup.StartupTracer.Span;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Records the time it takes to create each bean, from its instantiation until it has been fully initialized.
+ * <p>
+ * The bean instance doesn't exist yet when its span is started, so spans can't be keyed by bean. Instead, beans that
+ * are created on the same thread are nested, and the spans are kept on a stack per thread. This also keeps apart
+ * prototype beans of the same name that are created concurrently. If creating a bean fails, it's never initialized
+ * and its span is discarded once the bean that depended on it has been initialized.
+ */
+public class StartupTracingBeanPostProcessor implements InstantiationAwareBeanPostProcessor {
+
+  private static final String CATEGORY = "bean";
+
+  private final StartupTracer startupTracer;
+  private final ThreadLocal<Deque<BeanSpan>> openSpans;
+
+  public StartupTracingBeanPostProcessor(StartupTracer startupTracer) {
+    this.startupTracer = startupTracer;
+    openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+  }
+
+  @Override
+  public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+    if (!startupTracer.isFinished()) {
+      openSpans.get().push(new BeanSpan(beanName, startupTracer.start(CATEGORY, beanName)));
+    }
+    return null;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    Deque<BeanSpan> spans = openSpans.get();
+    if (spans.stream().noneMatch(beanSpan -> beanSpan.beanName.equals(beanName))) {
+      // E.g. an object created by a factory bean, which has never been instantiated by the container
+      return bean;
+    }
+
+    BeanSpan beanSpan = spans.pop();
+    while (!beanSpan.beanName.equals(beanName)) {
+      // A dependency that failed to be created and has therefore never been initialized
+      beanSpan.span.discard();
+      beanSpan = spans.pop();
+    }
+    beanSpan.span.close();
+
+    if (spans.isEmpty()) {
+      openSpans.remove();
+    }
+    return bean;
+  }
+
+  private static class BeanSpan {
+    private final String beanName;
+    private final Span span;
+
+    private BeanSpan(String beanName, Span span) {
+      this.beanName = beanName;
+      this.span = span;
+    }
+  }
+}
@@ -6,6 +6,8 @@ import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.startup.StartupTracer;
+import com.faforever.client.startup.StartupTracer.Span;
 import com.github.nocatch.NoCatch.NoCatchRunnable;
 import com.jfoenix.assets.JFoenixResources;
 import com.jfoenix.controls.JFXDialog;
@@ -134,6 +136,7 @@ public class UiService implements InitializingBean, DisposableBean {
   private final MessageSource messageSource;
   private final ApplicationContext applicationContext;
   private final I18n i18n;
+  private final StartupTracer startupTracer;
 
   private WatchService watchService;
   private ObservableMap<String, Theme> themesByFolderName;
@@ -145,8 +148,9 @@ public class UiService implements InitializingBean, DisposableBean {
 
   public UiService(PreferencesService preferencesService, ExecutorService executorService,
                    CacheManager cacheManager, MessageSource messageSource, ApplicationContext applicationContext,
-                   I18n i18n) {
+                   I18n i18n, StartupTracer startupTracer) {
     this.i18n = i18n;
+    this.startupTracer = startupTracer;
     this.preferencesService = preferencesService;
     this.executorService = executorService;
     this.cacheManager = cacheManager;
@@ -409,7 +413,9 @@ public class UiService implements InitializingBean, DisposableBean {
     loader.setControllerFactory(applicationContext::getBean);
     loader.setLocation(getThemeFileUrl(relativePath));
     loader.setResources(resources);
-    noCatch((NoCatchRunnable) loader::load);
+    try (Span span = startupTracer.start("fxml", relativePath)) {
+      noCatch((NoCatchRunnable) loader::load);
+    }
     return loader.getController();
   }
 
@@ -165,6 +165,7 @@ public class ClientUpdateServiceImpl implements ClientUpdateService {
   public DownloadUpdateTask downloadAndInstallInBackground(UpdateInfo updateInfo) {
     DownloadUpdateTask task = applicationContext.getBean(DownloadUpdateTask.class);
     task.setUpdateInfo(updateInfo);
+    task.setCurrentVersion(currentVersion);
 
     taskService.submitTask(task).getFuture()
         .thenAccept(this::install)
@@ -0,0 +1,270 @@
+package com.faforever.client.update;
+
+import com.faforever.commons.io.ByteCountListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reconstructs a file from an older version of it and a binary patch, so that an update only needs to download the
+ * bytes that have changed. A patch has the following format, with all numbers in big endian:
+ * <pre>
+ * header:     "FAFDELTA" | format version (int) | SHA-256 of the base file (32 bytes)
+ *             | SHA-256 of the result (32 bytes) | size of the result (long)
+ * operations: COPY (1) | offset in the base file (long) | length (int)
+ *             INSERT (2) | length (int) | bytes
+ *             END (0)
+ * </pre>
+ * Both checksums are verified, so a patch that has been created for a different base file or that has been corrupted
+ * is rejected. Patches are created at release time by the {@code createUpdatePatch} Gradle task.
+ */
+final class DeltaPatch {
+
+  static final byte[] MAGIC = "FAFDELTA".getBytes(US_ASCII);
+  static final int FORMAT_VERSION = 1;
+  static final byte END = 0;
+  static final byte COPY = 1;
+  static final byte INSERT = 2;
+  static final int CHECKSUM_LENGTH = 32;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /** The size of the base file blocks that are looked for in the target file when creating a patch. */
+  static final int BLOCK_SIZE = 2048;
+
+  private DeltaPatch() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  /**
+   * Applies the patch read from the specified input stream to the base file and writes the result to the specified
+   * output stream.
+   *
+   * @param listener notified about the number of bytes of the result that have been written
+   * @throws IOException if the patch is invalid, doesn't match the base file or results in a corrupt file
+   */
+  static void apply(Path baseFile, InputStream patchInputStream, OutputStream outputStream, ByteCountListener listener) throws IOException {
+    DataInputStream patch = new DataInputStream(new BufferedInputStream(patchInputStream, BUFFER_SIZE));
+
+    byte[] magic = new byte[MAGIC.length];
+    patch.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a delta patch");
+    }
+    int formatVersion = patch.readInt();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException("Unsupported delta patch format version: " + formatVersion);
+    }
+    byte[] baseChecksum = readChecksum(patch);
+    byte[] resultChecksum = readChecksum(patch);
+    long resultSize = patch.readLong();
+
+    if (!Arrays.equals(sha256(baseFile), baseChecksum)) {
+      throw new IOException("Delta patch has not been created for base file: " + baseFile);
+    }
+
+    MessageDigest digest = newSha256();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long written = 0;
+    try (FileChannel base = FileChannel.open(baseFile, READ)) {
+      byte operation;
+      while ((operation = patch.readByte()) != END) {
+        int length;
+        switch (operation) {
+          case COPY:
+            long offset = patch.readLong();
+            length = patch.readInt();
+            if (offset < 0 || length < 0 || offset + length > base.size()) {
+              throw new IOException("Delta patch copies bytes outside of the base file");
+            }
+            copy(base, offset, length, buffer, outputStream, digest);
+            break;
+          case INSERT:
+            length = patch.readInt();
+            if (length < 0) {
+              throw new IOException("Delta patch inserts a negative number of bytes");
+            }
+            insert(patch, length, buffer, outputStream, digest);
+            break;
+          default:
+            throw new IOException("Unknown delta patch operation: " + operation);
+        }
+
+        written += length;
+        if (written > resultSize) {
+          throw new IOException("Delta patch results in more than the expected " + resultSize + " bytes");
+        }
+        listener.updateBytesWritten(written, resultSize);
+      }
+    }
+
+    if (written != resultSize || !Arrays.equals(digest.digest(), resultChecksum)) {
+      throw new IOException("Delta patch resulted in a corrupt file");
+    }
+  }
+
+  /**
+   * Writes a patch that turns {@code base} into {@code target} to the specified output stream. The base file is split
+   * into blocks of {@link #BLOCK_SIZE} bytes, which are found anywhere in the target using a rolling checksum, and
+   * every match is extended as far as both files are equal. Everything in between is inserted literally.
+   */
+  static void create(byte[] base, byte[] target, OutputStream outputStream) throws IOException {
+    DataOutputStream patch = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+    patch.write(MAGIC);
+    patch.writeInt(FORMAT_VERSION);
+    patch.write(newSha256().digest(base));
+    patch.write(newSha256().digest(target));
+    patch.writeLong(target.length);
+
+    Map<Integer, Integer> blockOffsets = new HashMap<>();
+    RollingChecksum checksum = new RollingChecksum();
+    for (int offset = 0; offset + BLOCK_SIZE <= base.length; offset += BLOCK_SIZE) {
+      checksum.reset(base, offset);
+      blockOffsets.putIfAbsent(checksum.value(), offset);
+    }
+
+    int literalStart = 0;
+    int position = 0;
+    if (target.length >= BLOCK_SIZE) {
+      checksum.reset(target, 0);
+    }
+    while (position + BLOCK_SIZE <= target.length) {
+      Integer offset = blockOffsets.get(checksum.value());
+      if (offset != null && Arrays.equals(base, offset, offset + BLOCK_SIZE, target, position, position + BLOCK_SIZE)) {
+        int length = BLOCK_SIZE;
+        while (offset + length < base.length && position + length < target.length && base[offset + length] == target[position + length]) {
+          length++;
+        }
+        int start = 0;
+        while (position - start > literalStart && offset - start > 0 && base[offset - start - 1] == target[position - start - 1]) {
+          start++;
+        }
+        writeInsert(patch, target, literalStart, position - start);
+        patch.writeByte(COPY);
+        patch.writeLong(offset - start);
+        patch.writeInt(length + start);
+
+        position += length;
+        literalStart = position;
+        if (position + BLOCK_SIZE <= target.length) {
+          checksum.reset(target, position);
+        }
+        continue;
+      }
+
+      if (position + BLOCK_SIZE < target.length) {
+        checksum.roll(target[position], target[position + BLOCK_SIZE]);
+      }
+      position++;
+    }
+    writeInsert(patch, target, literalStart, target.length);
+    patch.writeByte(END);
+    patch.flush();
+  }
+
+  private static void writeInsert(DataOutputStream patch, byte[] target, int from, int to) throws IOException {
+    if (from == to) {
+      return;
+    }
+    patch.writeByte(INSERT);
+    patch.writeInt(to - from);
+    patch.write(target, from, to - from);
+  }
+
+  private static void copy(FileChannel base, long offset, int length, byte[] buffer, OutputStream outputStream, MessageDigest digest) throws IOException {
+    long position = offset;
+    int remaining = length;
+    while (remaining > 0) {
+      ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, Math.min(remaining, buffer.length));
+      int read = base.read(byteBuffer, position);
+      if (read < 0) {
+        throw new IOException("Base file ended unexpectedly");
+      }
+      outputStream.write(buffer, 0, read);
+      digest.update(buffer, 0, read);
+      position += read;
+      remaining -= read;
+    }
+  }
+
+  private static void insert(DataInputStream patch, int length, byte[] buffer, OutputStream outputStream, MessageDigest digest) throws IOException {
+    int remaining = length;
+    while (remaining > 0) {
+      int chunk = Math.min(remaining, buffer.length);
+      patch.readFully(buffer, 0, chunk);
+      outputStream.write(buffer, 0, chunk);
+      digest.update(buffer, 0, chunk);
+      remaining -= chunk;
+    }
+  }
+
+  private static byte[] readChecksum(DataInputStream patch) throws IOException {
+    byte[] checksum = new byte[CHECKSUM_LENGTH];
+    patch.readFully(checksum);
+    return checksum;
+  }
+
+  static byte[] sha256(Path file) throws IOException {
+    MessageDigest digest = newSha256();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+      int read;
+      while ((read = channel.read(byteBuffer)) >= 0) {
+        digest.update(buffer, 0, read);
+        byteBuffer.clear();
+      }
+    }
+    return digest.digest();
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  /**
+   * The weak checksum of rsync over {@link #BLOCK_SIZE} bytes, which can be moved forward by one byte in constant time.
+   */
+  private static class RollingChecksum {
+    private int a;
+    private int b;
+
+    void reset(byte[] data, int offset) {
+      a = 0;
+      b = 0;
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        int value = data[offset + i] & 0xff;
+        a += value;
+        b += (BLOCK_SIZE - i) * value;
+      }
+    }
+
+    void roll(byte removed, byte added) {
+      a += (added & 0xff) - (removed & 0xff);
+      b += a - BLOCK_SIZE * (removed & 0xff);
+    }
+
+    int value() {
+      return (a & 0xffff) | (b << 16);
+    }
+  }
+}
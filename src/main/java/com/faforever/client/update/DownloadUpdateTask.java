@@ -1,10 +1,11 @@
 package com.faforever.client.update;
 
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.FileUtils;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.io.ByteCopier;
+import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -16,21 +17,33 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Downloads the installer of a client update. Installers are kept in a cache directory per version, so that the next
+ * update can be reconstructed from the installer of the current version and a {@link DeltaPatch}, which is published
+ * next to the new installer as {@code <installer>.from-<current version>.patch}. If there is no such patch or it can't
+ * be applied, the full installer is downloaded.
+ */
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class DownloadUpdateTask extends CompletableTask<Path> {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
 
   private final I18n i18n;
   private final PreferencesService preferencesService;
 
   private UpdateInfo updateInfo;
+  private String currentVersion;
 
   @Inject
   public DownloadUpdateTask(I18n i18n, PreferencesService preferencesService) {
@@ -43,25 +56,19 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
   @Override
   protected Path call() throws Exception {
     updateTitle(i18n.get("clientUpdateDownloadTask.title"));
-    URL url = updateInfo.getUrl();
 
     Path updateDirectory = preferencesService.getCacheDirectory().resolve("update");
-    Path targetFile = updateDirectory.resolve(updateInfo.getFileName());
+    Path targetFile = updateDirectory.resolve(Version.removePrefix(updateInfo.getName())).resolve(updateInfo.getFileName());
     Files.createDirectories(targetFile.getParent());
 
-    Path tempFile = Files.createTempFile(targetFile.getParent(), "update", null);
-
-      ResourceLocks.acquireDownloadLock();
-    try (InputStream inputStream = url.openStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
-      ByteCopier.from(inputStream)
-          .to(outputStream)
-          .totalBytes(updateInfo.getSize())
-          .listener(this::updateProgress)
-          .copy();
+    Path tempFile = Files.createTempFile(targetFile.getParent(), "update", TEMPORARY_FILE_SUFFIX);
 
+    try {
+      if (!tryDeltaDownload(updateDirectory, tempFile)) {
+        downloadFull(tempFile);
+      }
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
-      ResourceLocks.freeDownloadLock();
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
@@ -69,10 +76,100 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
       }
     }
 
+    deleteOutdatedInstallers(updateDirectory, targetFile.getParent());
     return targetFile;
   }
 
+  private void downloadFull(Path tempFile) throws IOException {
+    URL url = updateInfo.getUrl();
+    logger.info("Downloading full update from {}", url);
+
+    try (InputStream inputStream = url.openStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
+      ByteCopier.from(inputStream)
+          .to(outputStream)
+          .totalBytes(updateInfo.getSize())
+          .listener(this::updateProgress)
+          .copy();
+    }
+  }
+
+  /**
+   * @return {@code true} if the installer has been reconstructed from the installer of the current version
+   */
+  private boolean tryDeltaDownload(Path updateDirectory, Path tempFile) {
+    if (currentVersion == null) {
+      return false;
+    }
+    Optional<Path> baseFile = findInstaller(updateDirectory.resolve(Version.removePrefix(currentVersion)));
+    if (baseFile.isEmpty()) {
+      logger.debug("Installer of version {} is not available, delta update is not possible", currentVersion);
+      return false;
+    }
+
+    try {
+      URL deltaUrl = getDeltaUrl(updateInfo, currentVersion);
+      logger.info("Downloading delta update from {}", deltaUrl);
+
+      try (InputStream inputStream = deltaUrl.openStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        DeltaPatch.apply(baseFile.get(), inputStream, outputStream, this::updateProgress);
+      }
+      return true;
+    } catch (IOException e) {
+      logger.info("Delta update from version {} failed, falling back to full download", currentVersion, e);
+      return false;
+    }
+  }
+
+  @VisibleForTesting
+  static URL getDeltaUrl(UpdateInfo updateInfo, String fromVersion) throws MalformedURLException {
+    return new URL(updateInfo.getUrl(), updateInfo.getFileName() + ".from-" + Version.removePrefix(fromVersion) + ".patch");
+  }
+
+  private static Optional<Path> findInstaller(Path versionDirectory) {
+    if (!Files.isDirectory(versionDirectory)) {
+      return Optional.empty();
+    }
+    try (Stream<Path> files = Files.list(versionDirectory)) {
+      return files
+          .filter(Files::isRegularFile)
+          .filter(file -> !file.getFileName().toString().endsWith(TEMPORARY_FILE_SUFFIX))
+          .findFirst();
+    } catch (IOException e) {
+      logger.warn("Could not list installers in: {}", versionDirectory, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Deletes installers of all versions except the current and the downloaded one, which serves as base of the next
+   * delta update once it has been installed.
+   */
+  private void deleteOutdatedInstallers(Path updateDirectory, Path targetDirectory) {
+    Path currentVersionDirectory = currentVersion == null ? null : updateDirectory.resolve(Version.removePrefix(currentVersion));
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(updateDirectory)) {
+      for (Path entry : entries) {
+        if (entry.equals(targetDirectory) || entry.equals(currentVersionDirectory)) {
+          continue;
+        }
+        if (Files.isDirectory(entry)) {
+          FileUtils.deleteRecursively(entry);
+        } else {
+          Files.delete(entry);
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Could not delete outdated installers in: {}", updateDirectory, e);
+    }
+  }
+
   public void setUpdateInfo(UpdateInfo updateInfo) {
     this.updateInfo = updateInfo;
   }
+
+  /**
+   * Sets the version of the running client, whose installer may be used as base of a delta update.
+   */
+  public void setCurrentVersion(String currentVersion) {
+    this.currentVersion = currentVersion;
+  }
 }
@@ -74,7 +74,7 @@ public final class Version {
     }
   }
 
-  private static String removePrefix(String version) {
+  static String removePrefix(String version) {
     if (version.startsWith("v")) {
       return version.substring(1);
     } else {
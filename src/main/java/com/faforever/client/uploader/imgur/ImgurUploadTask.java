@@ -4,7 +4,6 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Imgur.Upload;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.io.ByteCopier;
 import com.google.common.io.BaseEncoding;
 import com.google.gson.Gson;
@@ -89,7 +88,6 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
     urlConnection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
     urlConnection.connect();
 
-    ResourceLocks.acquireUploadLock();
     try (OutputStream outputStream = urlConnection.getOutputStream()) {
       byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
       ByteCopier.from(new ByteArrayInputStream(bytes))
@@ -97,8 +95,6 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
           .totalBytes(bytes.length)
           .listener(this::updateProgress)
           .copy();
-    } finally {
-      ResourceLocks.freeUploadLock();
     }
 
     StringBuilder stringBuilder = new StringBuilder();
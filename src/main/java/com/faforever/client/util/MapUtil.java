@@ -0,0 +1,41 @@
+package com.faforever.client.util;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+public final class MapUtil {
+
+  private MapUtil() {
+    // Utility class
+  }
+
+  /**
+   * Makes the target map equal to the source map by removing, adding and replacing only the entries that differ. Unlike
+   * {@code clear()} followed by {@code putAll()}, this doesn't notify listeners of observable maps if nothing changed.
+   *
+   * @param source the desired content of the target map, {@code null} is treated like an empty map
+   * @return {@code true} if the target map has been modified
+   */
+  public static <K, V> boolean updateMap(Map<K, V> target, Map<? extends K, ? extends V> source) {
+    if (source == null || source.isEmpty()) {
+      if (target.isEmpty()) {
+        return false;
+      }
+      target.clear();
+      return true;
+    }
+
+    boolean changed = target.keySet().removeIf(key -> !source.containsKey(key));
+    for (Entry<? extends K, ? extends V> entry : source.entrySet()) {
+      K key = entry.getKey();
+      V value = entry.getValue();
+      V currentValue = target.get(key);
+      if (!Objects.equals(currentValue, value) || (currentValue == null && !target.containsKey(key))) {
+        target.put(key, value);
+        changed = true;
+      }
+    }
+    return changed;
+  }
+}
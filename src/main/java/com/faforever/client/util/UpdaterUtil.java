@@ -25,13 +25,12 @@ public class UpdaterUtil {
    * @throws IOException
    */
   public static void extractMoviesIfPresent(Path filePath, Path fafDataDirectory) throws IOException {
-    try {
-      ZipFile downloadedFile = new ZipFile(filePath.toFile());
+    try (ZipFile downloadedFile = new ZipFile(filePath.toFile())) {
       ZipEntry movieEntry = downloadedFile.getEntry(MOVIES_FOLDER_NAME);
       if (movieEntry != null && movieEntry.isDirectory()) {
         Enumeration<? extends ZipEntry> entries = downloadedFile.entries();
-        ZipEntry nextEntry = entries.nextElement();
-        for (; entries.hasMoreElements(); nextEntry = entries.nextElement()) {
+        while (entries.hasMoreElements()) {
+          ZipEntry nextEntry = entries.nextElement();
           String entryName = nextEntry.getName();
           if (!entryName.startsWith(MOVIES_FOLDER_NAME)) {
             continue;
@@ -39,8 +38,9 @@ public class UpdaterUtil {
           if (nextEntry.isDirectory()) {
             Files.createDirectories(fafDataDirectory.resolve(entryName));
           } else {
-            InputStream inputStream = downloadedFile.getInputStream(nextEntry);
-            Files.copy(inputStream, fafDataDirectory.resolve(entryName), StandardCopyOption.REPLACE_EXISTING);
+            try (InputStream inputStream = downloadedFile.getInputStream(nextEntry)) {
+              Files.copy(inputStream, fafDataDirectory.resolve(entryName), StandardCopyOption.REPLACE_EXISTING);
+            }
           }
         }
       }
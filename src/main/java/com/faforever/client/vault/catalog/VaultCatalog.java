@@ -0,0 +1,325 @@
+package com.faforever.client.vault.catalog;
+
+import com.faforever.client.query.RsqlFilter;
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A local copy of the searchable properties of vault entities, like maps or mods. Each property is stored in its own
+ * column, identified by the API property it has been read from (e.g. {@code statistics.plays}), so that the queries
+ * and sort configurations that are built for the API can be evaluated locally. The catalog only knows the IDs of the
+ * matching entities; the entities themselves still need to be loaded from the API.
+ * <p>
+ * The catalog remembers the latest update time of all entities it has seen, so that it can be synchronized
+ * incrementally. It's persisted column by column in a compressed file.
+ *
+ * @param <T> the type of the API entity the catalog's rows are read from
+ */
+public class VaultCatalog<T> {
+
+  private static final int MAGIC = 0x46414643;
+  private static final int FORMAT_VERSION = 1;
+
+  public enum ColumnType {
+    STRING, NUMBER, BOOLEAN, INSTANT
+  }
+
+  private final Function<T, String> idExtractor;
+  private final Function<T, Instant> updateTimeExtractor;
+  private final Map<String, Column<T>> columnDefinitions;
+  private final Map<String, List<Object>> columns;
+  private final List<String> ids;
+  private final Map<String, Integer> rowsById;
+  /** The update time up to which the catalog has been completely synced, or {@code null} if it hasn't been synced. */
+  private Instant syncedUntil;
+
+  public VaultCatalog(Function<T, String> idExtractor, Function<T, Instant> updateTimeExtractor, List<Column<T>> columnDefinitions) {
+    this.idExtractor = idExtractor;
+    this.updateTimeExtractor = updateTimeExtractor;
+    this.columnDefinitions = columnDefinitions.stream()
+        .collect(Collectors.toMap(Column::getName, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+    columns = new HashMap<>();
+    this.columnDefinitions.keySet().forEach(name -> columns.put(name, new ArrayList<>()));
+    ids = new ArrayList<>();
+    rowsById = new HashMap<>();
+  }
+
+  public static <T> Column<T> column(String name, ColumnType type, Function<T, Object> extractor) {
+    return new Column<>(name, type, extractor);
+  }
+
+  /**
+   * Inserts the specified entities or replaces the rows of entities that are already known. This doesn't advance the
+   * sync time, since the entities might be just one page of a sync; see {@link #markSynced(Instant)}.
+   *
+   * @return the latest update time of the specified entities, or {@code null} if none of them has one
+   */
+  public synchronized Instant upsert(List<T> entities) {
+    Instant latestUpdateTime = null;
+    for (T entity : entities) {
+      String id = idExtractor.apply(entity);
+      Integer row = rowsById.get(id);
+      if (row == null) {
+        row = ids.size();
+        ids.add(id);
+        rowsById.put(id, row);
+        columns.values().forEach(values -> values.add(null));
+      }
+      for (Column<T> column : columnDefinitions.values()) {
+        columns.get(column.getName()).set(row, normalize(column.getExtractor().apply(entity)));
+      }
+      Instant updateTime = updateTimeExtractor.apply(entity);
+      if (updateTime != null && (latestUpdateTime == null || updateTime.isAfter(latestUpdateTime))) {
+        latestUpdateTime = updateTime;
+      }
+    }
+    return latestUpdateTime;
+  }
+
+  /**
+   * Marks the catalog as completely synced up to the specified update time, which is only to be called once all
+   * entities updated before it have been upserted. The catalog counts as synced even if the API didn't return any
+   * entities, i.e. if {@code syncedUntil} is {@code null}.
+   */
+  public synchronized void markSynced(Instant syncedUntil) {
+    if (syncedUntil != null && (this.syncedUntil == null || syncedUntil.isAfter(this.syncedUntil))) {
+      this.syncedUntil = syncedUntil;
+    } else if (this.syncedUntil == null) {
+      this.syncedUntil = Instant.EPOCH;
+    }
+  }
+
+  public synchronized Optional<Instant> getSyncedUntil() {
+    return Optional.ofNullable(syncedUntil);
+  }
+
+  public synchronized int size() {
+    return ids.size();
+  }
+
+  /**
+   * Returns the IDs of the entities on the specified page of the filtered and sorted rows. Ties are broken by the
+   * numeric value of the ID.
+   *
+   * @param page the page number, starting at 1
+   * @throws IllegalArgumentException if the filter or the sort property refers to a property that is not in the
+   * catalog
+   */
+  public synchronized List<String> query(RsqlFilter filter, String sortProperty, boolean descending, int page, int count) {
+    filter.getSelectors().stream()
+        .filter(selector -> !columns.containsKey(selector))
+        .findFirst()
+        .ifPresent(selector -> {
+          throw new IllegalArgumentException("Property is not in the catalog: " + selector);
+        });
+    List<Object> sortColumn = columns.get(sortProperty);
+    if (sortColumn == null) {
+      throw new IllegalArgumentException("Sort property is not in the catalog: " + sortProperty);
+    }
+
+    Comparator<Object> valueOrder = descending ? (a, b) -> compareValues(b, a) : VaultCatalog::compareValues;
+    Comparator<Integer> bySortProperty = Comparator.comparing(sortColumn::get, Comparator.nullsLast(valueOrder));
+
+    return IntStream.range(0, ids.size()).boxed()
+        .filter(row -> filter.test(selector -> columns.get(selector).get(row)))
+        .sorted(bySortProperty.thenComparing(ids::get, VaultCatalog::compareIds))
+        .skip((long) Math.max(0, page - 1) * count)
+        .limit(count)
+        .map(ids::get)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Compares IDs numerically. Since the API's IDs are numbers without leading zeros, a shorter ID is smaller.
+   */
+  private static int compareIds(String a, String b) {
+    if (a.length() != b.length()) {
+      return Integer.compare(a.length(), b.length());
+    }
+    return a.compareTo(b);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compareValues(Object a, Object b) {
+    if (a instanceof Number && b instanceof Number) {
+      return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+    }
+    if (a instanceof String && b instanceof String) {
+      return String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b);
+    }
+    return ((Comparable<Object>) a).compareTo(b);
+  }
+
+  private static Object normalize(Object value) {
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    if (value instanceof Number && !(value instanceof Double || value instanceof Long)) {
+      Number number = (Number) value;
+      return number instanceof Float ? (Object) number.doubleValue() : (Object) number.longValue();
+    }
+    return value;
+  }
+
+  /**
+   * Writes the catalog to the specified file, replacing it only once it has been written completely.
+   */
+  public synchronized void writeTo(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (OutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)));
+         DataOutputStream out = new DataOutputStream(outputStream)) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(syncedUntil == null ? Long.MIN_VALUE : syncedUntil.toEpochMilli());
+      out.writeInt(ids.size());
+      for (String id : ids) {
+        out.writeUTF(id);
+      }
+      out.writeInt(columnDefinitions.size());
+      for (Column<T> column : columnDefinitions.values()) {
+        out.writeUTF(column.getName());
+        out.writeByte(column.getType().ordinal());
+        for (Object value : columns.get(column.getName())) {
+          writeValue(out, column.getType(), value);
+        }
+      }
+    }
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Replaces the content of this catalog by the content of the specified file. If the file has been written with
+   * different columns, the catalog is left empty and needs to be synced from scratch.
+   */
+  public synchronized void readFrom(Path file) throws IOException {
+    clear();
+    try (InputStream inputStream = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)));
+         DataInputStream in = new DataInputStream(inputStream)) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Not a vault catalog: " + file);
+      }
+      long syncedUntilMillis = in.readLong();
+      int rowCount = in.readInt();
+      List<String> fileIds = new ArrayList<>(rowCount);
+      for (int row = 0; row < rowCount; row++) {
+        fileIds.add(in.readUTF());
+      }
+
+      int columnCount = in.readInt();
+      Map<String, List<Object>> fileColumns = new HashMap<>();
+      for (int i = 0; i < columnCount; i++) {
+        String name = in.readUTF();
+        ColumnType type = ColumnType.values()[in.readByte()];
+        List<Object> values = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+          values.add(readValue(in, type));
+        }
+        Column<T> column = columnDefinitions.get(name);
+        if (column != null && column.getType() == type) {
+          fileColumns.put(name, values);
+        }
+      }
+      if (!fileColumns.keySet().equals(columns.keySet())) {
+        return;
+      }
+
+      ids.addAll(fileIds);
+      for (int row = 0; row < rowCount; row++) {
+        rowsById.put(fileIds.get(row), row);
+      }
+      columns.putAll(fileColumns);
+      syncedUntil = syncedUntilMillis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(syncedUntilMillis);
+    }
+  }
+
+  private void clear() {
+    ids.clear();
+    rowsById.clear();
+    columns.values().forEach(List::clear);
+    syncedUntil = null;
+  }
+
+  private static void writeValue(DataOutputStream out, ColumnType type, Object value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value == null) {
+      return;
+    }
+    switch (type) {
+      case STRING:
+        byte[] bytes = ((String) value).getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        break;
+      case NUMBER:
+        if (value instanceof Double) {
+          out.writeBoolean(true);
+          out.writeDouble((Double) value);
+        } else {
+          out.writeBoolean(false);
+          out.writeLong((Long) value);
+        }
+        break;
+      case BOOLEAN:
+        out.writeBoolean((Boolean) value);
+        break;
+      case INSTANT:
+        out.writeLong(((Instant) value).toEpochMilli());
+        break;
+      default:
+        throw new IllegalStateException("Unknown column type: " + type);
+    }
+  }
+
+  private static Object readValue(DataInputStream in, ColumnType type) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    switch (type) {
+      case STRING:
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+      case NUMBER:
+        return in.readBoolean() ? (Object) in.readDouble() : (Object) in.readLong();
+      case BOOLEAN:
+        return in.readBoolean();
+      case INSTANT:
+        return Instant.ofEpochMilli(in.readLong());
+      default:
+        throw new IllegalStateException("Unknown column type: " + type);
+    }
+  }
+
+  @Value
+  public static class Column<T> {
+    String name;
+    ColumnType type;
+    Function<T, Object> extractor;
+  }
+}
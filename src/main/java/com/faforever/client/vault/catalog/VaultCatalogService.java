@@ -0,0 +1,252 @@
+package com.faforever.client.vault.catalog;
+
+import com.faforever.client.api.FafApiAccessor;
+import com.faforever.client.api.dto.Map;
+import com.faforever.client.api.dto.MapVersion;
+import com.faforever.client.api.dto.Mod;
+import com.faforever.client.api.dto.ModVersion;
+import com.faforever.client.api.dto.Player;
+import com.faforever.client.api.dto.ReviewsSummary;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.query.RsqlFilter;
+import com.faforever.client.query.SearchablePropertyMappings;
+import com.faforever.client.vault.catalog.VaultCatalog.Column;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.BOOLEAN;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.INSTANT;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.NUMBER;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.STRING;
+import static com.faforever.client.vault.catalog.VaultCatalog.column;
+
+/**
+ * Keeps local catalogs of the maps and mods in the vault, so that searches can be filtered, sorted and paged without
+ * asking the API to do so. The catalogs contain the properties of {@link SearchablePropertyMappings} and are synced
+ * incrementally in background, at most every {@link #SYNC_INTERVAL}. As long as a catalog hasn't been synced, or if a
+ * query can't be evaluated locally, callers are expected to fall back to the API.
+ */
+@Lazy
+@Service
+@Slf4j
+public class VaultCatalogService {
+
+  private static final Duration SYNC_INTERVAL = Duration.ofMinutes(15);
+  private static final int SYNC_PAGE_SIZE = 1000;
+
+  private static final List<Column<Map>> MAP_COLUMNS = List.of(
+      column("id", NUMBER, map -> Long.parseLong(map.getId())),
+      column("displayName", STRING, Map::getDisplayName),
+      column("author.login", STRING, map -> Optional.ofNullable(map.getAuthor()).map(Player::getLogin).orElse(null)),
+      column("statistics.plays", NUMBER, map -> map.getStatistics() == null ? null : map.getStatistics().getPlays()),
+      column("statistics.downloads", NUMBER, map -> map.getStatistics() == null ? null : map.getStatistics().getDownloads()),
+      column("latestVersion.createTime", INSTANT, map -> fromLatestVersion(map.getLatestVersion(), version -> toInstant(version.getCreateTime()))),
+      column("latestVersion.updateTime", INSTANT, map -> fromLatestVersion(map.getLatestVersion(), version -> toInstant(version.getUpdateTime()))),
+      column("latestVersion.description", STRING, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getDescription)),
+      column("latestVersion.maxPlayers", NUMBER, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getMaxPlayers)),
+      column("latestVersion.width", NUMBER, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getWidth)),
+      column("latestVersion.height", NUMBER, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getHeight)),
+      column("latestVersion.folderName", STRING, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getFolderName)),
+      column("latestVersion.ranked", BOOLEAN, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getRanked)),
+      column("latestVersion.hidden", BOOLEAN, map -> fromLatestVersion(map.getLatestVersion(), MapVersion::getHidden)),
+      column("latestVersion.id", NUMBER, map -> fromLatestVersion(map.getLatestVersion(), version -> Long.parseLong(version.getId())))
+  );
+
+  private static final List<Column<Mod>> MOD_COLUMNS = List.of(
+      column("id", NUMBER, mod -> Long.parseLong(mod.getId())),
+      column("displayName", STRING, Mod::getDisplayName),
+      column("author", STRING, Mod::getAuthor),
+      column("uploader.login", STRING, mod -> Optional.ofNullable(mod.getUploader()).map(Player::getLogin).orElse(null)),
+      column("latestVersion.createTime", INSTANT, mod -> fromLatestVersion(mod.getLatestVersion(), version -> toInstant(version.getCreateTime()))),
+      column("latestVersion.updateTime", INSTANT, mod -> fromLatestVersion(mod.getLatestVersion(), version -> toInstant(version.getUpdateTime()))),
+      column("latestVersion.description", STRING, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::getDescription)),
+      column("latestVersion.id", NUMBER, mod -> fromLatestVersion(mod.getLatestVersion(), version -> Long.parseLong(version.getId()))),
+      column("latestVersion.uid", STRING, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::getUid)),
+      column("latestVersion.type", STRING, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::getType)),
+      column("latestVersion.ranked", BOOLEAN, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::isRanked)),
+      column("latestVersion.hidden", BOOLEAN, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::isHidden)),
+      column("latestVersion.filename", STRING, mod -> fromLatestVersion(mod.getLatestVersion(), ModVersion::getFilename)),
+      column(SearchablePropertyMappings.HIGHEST_RATED_MOD_KEY, NUMBER, mod -> Optional.ofNullable(mod.getLatestVersion())
+          .map(ModVersion::getModVersionReviewsSummary)
+          .map(ReviewsSummary::getLowerBound)
+          .orElse(null))
+  );
+
+  private final PreferencesService preferencesService;
+  private final ExecutorService executorService;
+  private final SyncedCatalog<Map> mapCatalog;
+  private final SyncedCatalog<Mod> modCatalog;
+
+  public VaultCatalogService(FafApiAccessor fafApiAccessor, PreferencesService preferencesService, ExecutorService executorService) {
+    this.preferencesService = preferencesService;
+    this.executorService = executorService;
+
+    // The API returns updated entities sorted by their update time, so that's what the catalog is synced by
+    mapCatalog = new SyncedCatalog<>("maps", new VaultCatalog<>(Map::getId, map -> toInstant(map.getUpdateTime()), MAP_COLUMNS),
+        fafApiAccessor::getMapsUpdatedSince);
+    modCatalog = new SyncedCatalog<>("mods", new VaultCatalog<>(Mod::getId, mod -> toInstant(mod.getUpdateTime()), MOD_COLUMNS),
+        fafApiAccessor::getModsUpdatedSince);
+  }
+
+  /**
+   * Returns the IDs of the maps on the specified page of the search result, or an empty optional if the search needs
+   * to be done by the API.
+   */
+  public Optional<List<String>> findMapIds(SearchConfig searchConfig, int page, int count) {
+    return findIds(mapCatalog, searchConfig, page, count);
+  }
+
+  /**
+   * Returns the IDs of the mods on the specified page of the search result, or an empty optional if the search needs
+   * to be done by the API.
+   */
+  public Optional<List<String>> findModIds(SearchConfig searchConfig, int page, int count) {
+    return findIds(modCatalog, searchConfig, page, count);
+  }
+
+  private <T> Optional<List<String>> findIds(SyncedCatalog<T> syncedCatalog, SearchConfig searchConfig, int page, int count) {
+    if (!preferencesService.getPreferences().getVaultPrefs().isLocalCatalogEnabled()) {
+      return Optional.empty();
+    }
+    syncInBackgroundIfOutdated(syncedCatalog);
+
+    VaultCatalog<T> catalog = syncedCatalog.catalog;
+    if (catalog.getSyncedUntil().isEmpty()) {
+      return Optional.empty();
+    }
+    try {
+      RsqlFilter filter = RsqlFilter.parse(excludeHidden(searchConfig.getSearchQuery()));
+      return Optional.of(catalog.query(filter, searchConfig.getSortConfig().getSortProperty(),
+          searchConfig.getSortConfig().getSortOrder() == SortOrder.DESC, page, count));
+    } catch (IllegalArgumentException e) {
+      log.debug("Search can't be evaluated locally, falling back to the API: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private void syncInBackgroundIfOutdated(SyncedCatalog<?> syncedCatalog) {
+    Instant lastSync = syncedCatalog.lastSync;
+    if (lastSync != null && lastSync.plus(SYNC_INTERVAL).isAfter(Instant.now())) {
+      return;
+    }
+    if (!syncedCatalog.syncing.compareAndSet(false, true)) {
+      return;
+    }
+    CompletableFuture.runAsync(() -> sync(syncedCatalog), executorService)
+        .whenComplete((aVoid, throwable) -> {
+          if (throwable != null) {
+            log.warn("Vault catalog '{}' could not be synced", syncedCatalog.name, throwable);
+          }
+          syncedCatalog.lastSync = Instant.now();
+          syncedCatalog.syncing.set(false);
+        });
+  }
+
+  @VisibleForTesting
+  <T> void sync(SyncedCatalog<T> syncedCatalog) {
+    VaultCatalog<T> catalog = syncedCatalog.catalog;
+    Path file = preferencesService.getCacheDirectory().resolve("vault").resolve(syncedCatalog.name + ".catalog");
+    if (syncedCatalog.lastSync == null && Files.exists(file)) {
+      try {
+        catalog.readFrom(file);
+      } catch (IOException e) {
+        log.warn("Vault catalog could not be read, syncing from scratch: {}", file, e);
+      }
+    }
+
+    OffsetDateTime since = catalog.getSyncedUntil().orElse(Instant.EPOCH).atOffset(ZoneOffset.UTC);
+    int sizeBefore = catalog.size();
+    int page = 1;
+    Instant syncedUntil = null;
+    List<T> entities;
+    do {
+      entities = syncedCatalog.pageLoader.load(since, page++, SYNC_PAGE_SIZE);
+      Instant latestUpdateTime = catalog.upsert(entities);
+      if (latestUpdateTime != null && (syncedUntil == null || latestUpdateTime.isAfter(syncedUntil))) {
+        syncedUntil = latestUpdateTime;
+      }
+    } while (entities.size() == SYNC_PAGE_SIZE);
+    // Only advanced once all pages have been loaded, so that an interrupted sync is repeated from where it started
+    catalog.markSynced(syncedUntil);
+    log.debug("Synced vault catalog '{}' since {}, {} new entries, {} in total",
+        syncedCatalog.name, since, catalog.size() - sizeBefore, catalog.size());
+
+    try {
+      catalog.writeTo(file);
+    } catch (IOException e) {
+      log.warn("Vault catalog could not be written: {}", file, e);
+    }
+  }
+
+  @VisibleForTesting
+  SyncedCatalog<Map> getMapCatalog() {
+    return mapCatalog;
+  }
+
+  @VisibleForTesting
+  SyncedCatalog<Mod> getModCatalog() {
+    return modCatalog;
+  }
+
+  /**
+   * Restricts the specified query to entities whose latest version isn't hidden, like the API searches do.
+   */
+  private static String excludeHidden(String query) {
+    String hiddenFilter = "latestVersion.hidden==\"false\"";
+    if (query == null || query.isBlank()) {
+      return hiddenFilter;
+    }
+    return "(" + query + ");" + hiddenFilter;
+  }
+
+  private static <V> Object fromLatestVersion(V latestVersion, Function<V, Object> extractor) {
+    return latestVersion == null ? null : extractor.apply(latestVersion);
+  }
+
+  private static Instant toInstant(OffsetDateTime offsetDateTime) {
+    return offsetDateTime == null ? null : offsetDateTime.toInstant();
+  }
+
+  @FunctionalInterface
+  interface PageLoader<T> {
+    List<T> load(OffsetDateTime since, int page, int count);
+  }
+
+  @VisibleForTesting
+  static class SyncedCatalog<T> {
+    private final String name;
+    private final VaultCatalog<T> catalog;
+    private final PageLoader<T> pageLoader;
+    private final AtomicBoolean syncing;
+    private volatile Instant lastSync;
+
+    private SyncedCatalog(String name, VaultCatalog<T> catalog, PageLoader<T> pageLoader) {
+      this.name = name;
+      this.catalog = catalog;
+      this.pageLoader = pageLoader;
+      syncing = new AtomicBoolean();
+    }
+
+    VaultCatalog<T> getCatalog() {
+      return catalog;
+    }
+  }
+}
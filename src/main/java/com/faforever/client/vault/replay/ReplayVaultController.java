@@ -10,12 +10,15 @@ import com.faforever.client.map.MapService.PreviewSize;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.replay.Replay;
 import com.faforever.client.replay.ReplayService;
+import com.faforever.client.replay.analytics.ReplayAnalyticsService;
+import com.faforever.client.replay.analytics.ReplayStatisticsIndex.Column;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.TimeService;
 import com.faforever.client.vault.map.MapPreviewTableCellController;
 import com.google.common.base.Joiner;
+import javafx.application.Platform;
 import javafx.beans.binding.StringBinding;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
@@ -46,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.OptionalInt;
 
 @Component
 @RequiredArgsConstructor
@@ -62,6 +66,7 @@ public class ReplayVaultController extends AbstractViewController<Node> {
   private final ReportingService reportingService;
   private final ApplicationContext applicationContext;
   private final UiService uiService;
+  private final ReplayAnalyticsService replayAnalyticsService;
 
   public Pane replayVaultRoot;
   public VBox loadingPane;
@@ -73,6 +78,8 @@ public class ReplayVaultController extends AbstractViewController<Node> {
   public TableColumn<Replay, Duration> durationColumn;
   public TableColumn<Replay, String> gameTypeColumn;
   public TableColumn<Replay, MapBean> mapColumn;
+  public TableColumn<Replay, Number> apmColumn;
+  public TableColumn<Replay, Number> chatMessagesColumn;
 
   private Boolean isDisplayingForFirstTime = true;
 
@@ -100,6 +107,9 @@ public class ReplayVaultController extends AbstractViewController<Node> {
 
     durationColumn.setCellValueFactory(this::durationCellValueFactory);
     durationColumn.setCellFactory(this::durationCellFactory);
+
+    apmColumn.setCellValueFactory(param -> statisticsCellValue(param.getValue(), Column.HIGHEST_AVERAGE_APM));
+    chatMessagesColumn.setCellValueFactory(param -> statisticsCellValue(param.getValue(), Column.CHAT_MESSAGES));
   }
 
   @Override
@@ -246,6 +256,14 @@ public class ReplayVaultController extends AbstractViewController<Node> {
     return new SimpleObjectProperty<>(Duration.between(startTime, endTime));
   }
 
+  private ObservableValue<Number> statisticsCellValue(Replay replay, Column column) {
+    if (replay.getReplayFile() == null) {
+      return new SimpleObjectProperty<>(null);
+    }
+    OptionalInt value = replayAnalyticsService.getIndex().get(replay.getReplayFile().getFileName().toString(), column);
+    return new SimpleObjectProperty<>(value.isPresent() ? value.getAsInt() : null);
+  }
+
   @EventListener
   public void onLocalReplaysChanged(LocalReplaysChangedEvent event) {
     Collection<Replay> newReplays = event.getNewReplays();
@@ -255,6 +273,11 @@ public class ReplayVaultController extends AbstractViewController<Node> {
     replayTableView.sort();
     replayTableView.setVisible(true);
     loadingPane.setVisible(false);
+
+    replayAnalyticsService.analyzeLocalReplays().thenRun(() -> Platform.runLater(() -> {
+      replayTableView.refresh();
+      replayTableView.sort();
+    }));
   }
   
   public Node getRoot() {
@@ -1,7 +1,45 @@
 isScrolledToBottom = true;
 window.onscroll = function (e) {
   isScrolledToBottom = window.scrollY + window.innerHeight + 20 >= document.documentElement.scrollHeight;
+  loadOlderMessagesIfAtTop();
 };
+// If there are only few messages, there's nothing to scroll, so the wheel needs to be observed as well
+window.onwheel = function (e) {
+  if (e.deltaY < 0) {
+    loadOlderMessagesIfAtTop();
+  }
+};
+
+function loadOlderMessagesIfAtTop() {
+  if (window.scrollY === 0 && window.chatTab) {
+    chatTab.loadOlderMessages();
+  }
+}
+
+/**
+ * Inserts an empty container for older messages above all others and returns the document's scroll height before, so
+ * that the scroll position can be restored once the messages have been added.
+ */
+function prependHistoryPage(pageId) {
+  var scrollHeight = document.documentElement.scrollHeight;
+  var page = document.createElement("div");
+  page.id = pageId;
+  page.className = "chat-history-page";
+  var container = document.getElementById("chat-container");
+  container.insertBefore(page, container.firstChild);
+  return scrollHeight;
+}
+
+function restoreScrollPosition(previousScrollHeight) {
+  window.scrollTo(0, window.scrollY + document.documentElement.scrollHeight - previousScrollHeight);
+}
+
+function removeHistoryPages() {
+  var pages = document.getElementsByClassName("chat-history-page");
+  while (pages.length > 0) {
+    pages[0].remove();
+  }
+}
 
 function link(input) {
   return Autolinker.link(input, {
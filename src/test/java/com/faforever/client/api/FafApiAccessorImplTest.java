@@ -27,12 +27,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -239,9 +238,7 @@ public class FafApiAccessorImplTest {
 
   @Test
   public void testUploadMod() throws Exception {
-    Path file = Files.createTempFile("foo", null);
-    instance.uploadMod(file, (written, total) -> {
-    });
+    instance.uploadMod(new ByteArrayResource(new byte[0]));
 
     verify(restOperations).postForEntity(eq("/mods/upload"), anyMap(), eq(String.class));
   }
@@ -18,6 +18,7 @@ import com.faforever.client.uploader.ImageUploadService;
 import com.faforever.client.user.UserService;
 import com.faforever.client.util.TimeService;
 import com.google.common.eventbus.EventBus;
+import javafx.animation.Animation.Status;
 import javafx.concurrent.Worker;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
@@ -43,6 +44,7 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.faforever.client.chat.AbstractChatTabController.CSS_CLASS_CHAT_ONLY;
 import static com.faforever.client.player.SocialStatus.FOE;
@@ -50,10 +52,12 @@ import static com.faforever.client.player.SocialStatus.FRIEND;
 import static com.faforever.client.player.SocialStatus.SELF;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.isEmptyString;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -92,10 +96,14 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
   private EventBus eventBus;
   @Mock
   private CountryFlagService countryFlagService;
+  @Mock
+  private ChatLogService chatLogService;
 
   private Preferences preferences;
   private AbstractChatTabController instance;
+  private TabPane tabPane;
   private CountDownLatch chatReadyLatch;
+  private int mentionCount;
 
 
   @Override
@@ -104,14 +112,14 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
 
     preferences = new Preferences();
 
-    when(uiService.getThemeFileUrl(any())).thenReturn(getClass().getResource("/" + UiService.CHAT_SECTION_EXTENDED));
+    when(uiService.getThemeFileUrl(any())).then(invocation -> getClass().getResource("/" + invocation.getArgument(0)));
     when(timeService.asShortTime(any())).thenReturn("123");
     when(userService.getUsername()).thenReturn("junit");
     when(preferencesService.getPreferences()).thenReturn(preferences);
 
     instance = new AbstractChatTabController(webViewConfigurer, userService, chatService, preferencesService,
         playerService, audioService, timeService, i18n, imageUploadService, notificationService, reportingService,
-        uiService, eventBus, countryFlagService) {
+        uiService, eventBus, countryFlagService, chatLogService) {
       private final Tab root = new Tab();
       private final WebView webView = new WebView();
       private final TextInputControl messageTextField = new TextField();
@@ -130,9 +138,14 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
       protected WebView getMessagesWebView() {
         return webView;
       }
+
+      @Override
+      protected void onMention(ChatMessage chatMessage) {
+        mentionCount++;
+      }
     };
 
-    TabPane tabPane = new TabPane(instance.getRoot());
+    tabPane = new TabPane(instance.getRoot());
     getRoot().getChildren().setAll(tabPane);
 
     chatReadyLatch = new CountDownLatch(1);
@@ -232,6 +245,128 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
     instance.onChatMessage(new ChatMessage("", Instant.now(), "junit", "Test action", true));
   }
 
+  @Test
+  public void testOnChatMessageKeepsLimitedHistory() {
+    preferences.getChat().setMaxMessages(2);
+    ChatMessage second = new ChatMessage("", Instant.now(), "junit", "Second");
+    ChatMessage third = new ChatMessage("", Instant.now(), "junit", "Third");
+
+    instance.onChatMessage(new ChatMessage("", Instant.now(), "junit", "First"));
+    instance.onChatMessage(second);
+    instance.onChatMessage(third);
+
+    assertThat(instance.getMessageHistory(), contains(second, third));
+  }
+
+  @Test
+  public void testHibernatesAfterBeingDeselected() throws Exception {
+    awaitChatReady();
+    assertThat(instance.hibernationTimer.getStatus(), is(Status.STOPPED));
+
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::selectOtherTab);
+    assertThat(instance.hibernationTimer.getStatus(), is(Status.RUNNING));
+
+    expectChatLoaded();
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::fireHibernationTimer);
+    awaitChatReady();
+
+    assertThat(instance.isHibernated(), is(true));
+    assertThat(WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () ->
+        instance.engine.executeScript("document.getElementById('chat-container') === null")), is(true));
+  }
+
+  @Test
+  public void testSelectedTabDoesNotHibernate() throws Exception {
+    awaitChatReady();
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::selectOtherTab);
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () -> tabPane.getSelectionModel().select(instance.getRoot()));
+
+    assertThat(instance.hibernationTimer.getStatus(), is(Status.STOPPED));
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::fireHibernationTimer);
+
+    assertThat(instance.isHibernated(), is(false));
+  }
+
+  @Test
+  public void testWakeUpRendersMessagesFromHistory() throws Exception {
+    awaitChatReady();
+    instance.onChatMessage(new ChatMessage("", Instant.now(), "other", "Before hibernation"));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(countRendered("Before hibernation"), is(1));
+
+    hibernate();
+    instance.onChatMessage(new ChatMessage("", Instant.now(), "other", "During hibernation"));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(countRendered("During hibernation"), is(0));
+
+    expectChatLoaded();
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () -> tabPane.getSelectionModel().select(instance.getRoot()));
+    awaitChatReady();
+
+    assertThat(instance.isHibernated(), is(false));
+    assertThat(countRendered("Before hibernation"), is(1));
+    assertThat(countRendered("During hibernation"), is(1));
+  }
+
+  @Test
+  public void testMentionIsOnlyHandledOnArrival() throws Exception {
+    awaitChatReady();
+    instance.onChatMessage(new ChatMessage("", Instant.now(), "other", "Hello junit"));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(mentionCount, is(1));
+
+    hibernate();
+    instance.onChatMessage(new ChatMessage("", Instant.now(), "other", "Are you there, junit?"));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(mentionCount, is(2));
+
+    expectChatLoaded();
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () -> tabPane.getSelectionModel().select(instance.getRoot()));
+    awaitChatReady();
+
+    assertThat(countRendered("Hello junit"), is(1));
+    assertThat(countRendered("Are you there, junit?"), is(1));
+    assertThat(mentionCount, is(2));
+  }
+
+  private void hibernate() throws Exception {
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::selectOtherTab);
+    expectChatLoaded();
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, this::fireHibernationTimer);
+    awaitChatReady();
+    assertThat(instance.isHibernated(), is(true));
+  }
+
+  private void selectOtherTab() {
+    Tab otherTab = new Tab();
+    tabPane.getTabs().add(otherTab);
+    tabPane.getSelectionModel().select(otherTab);
+  }
+
+  /** Simulates that the hibernation delay has passed, without waiting for it. */
+  private void fireHibernationTimer() {
+    instance.hibernationTimer.stop();
+    instance.hibernationTimer.getOnFinished().handle(null);
+  }
+
+  private void expectChatLoaded() {
+    chatReadyLatch = new CountDownLatch(1);
+  }
+
+  /**
+   * Waits until the web view has finished loading, and until the tab has rendered its messages in the same
+   * notification.
+   */
+  private void awaitChatReady() throws InterruptedException {
+    assertTrue("Web view was not loaded", chatReadyLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    WaitForAsyncUtils.waitForFxEvents();
+  }
+
+  private int countRendered(String text) {
+    return WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () -> (Integer) instance.engine.executeScript(
+        "document.body.textContent.split('" + text + "').length - 1"));
+  }
+
   @Test
   public void testHasFocus() {
     assertThat(instance.hasFocus(), is(true));
@@ -36,17 +36,21 @@ import org.mockito.Mock;
 import org.testfx.util.WaitForAsyncUtils;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static com.faforever.client.player.SocialStatus.FOE;
 import static com.faforever.client.theme.UiService.CHAT_CONTAINER;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -100,6 +104,8 @@ public class ChannelTabControllerTest extends AbstractPlainJavaFxTest {
   private CountryFlagService countryFlagService;
   @Mock
   private PlatformService platformService;
+  @Mock
+  private ChatLogService chatLogService;
   private Preferences preferences;
   private Channel defaultChannel;
 
@@ -110,7 +116,7 @@ public class ChannelTabControllerTest extends AbstractPlainJavaFxTest {
         audioService, timeService, i18n, imageUploadService,
         notificationService, reportingService,
         uiService, eventBus, webViewConfigurer, countryFlagService,
-        platformService);
+        platformService, chatLogService);
 
     defaultChannel = new Channel(CHANNEL_NAME);
     preferences = new Preferences();
@@ -182,6 +188,31 @@ public class ChannelTabControllerTest extends AbstractPlainJavaFxTest {
     assertEquals("", instance.searchField.getText());
   }
 
+  @Test
+  public void testOnSearchLogListsMatches() {
+    ChatMessage message = new ChatMessage(CHANNEL_NAME, Instant.now(), "junit", "hello world");
+    when(chatLogService.search(CHANNEL_NAME, "hello", 100)).thenReturn(completedFuture(List.of(message)));
+
+    WaitForAsyncUtils.waitForAsyncFx(5000, () -> {
+      instance.setChannel(defaultChannel);
+      instance.searchField.setVisible(true);
+      instance.searchField.setText(" hello ");
+      instance.onSearchLog();
+    });
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.logSearchResults.getItems(), contains(message));
+  }
+
+  @Test
+  public void testOnSearchLogIgnoresEmptyText() {
+    instance.searchField.setText(" ");
+
+    instance.onSearchLog();
+
+    verify(chatLogService, never()).search(any(), any(), anyInt());
+  }
+
   @Test
   public void onKeyReleasedTestEscape() {
     KeyEvent keyEvent = new KeyEvent(null, null, null, null, null, KeyCode.ESCAPE, false, false, false, false);
@@ -8,6 +8,7 @@ import com.faforever.client.clan.ClanTooltipController;
 import com.faforever.client.fx.MouseEvents;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.game.GameBuilder;
+import com.faforever.client.game.PlayerStatus;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.player.Player;
 import com.faforever.client.player.PlayerBuilder;
@@ -19,10 +20,10 @@ import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.TimeService;
 import com.google.common.eventbus.EventBus;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
-import javafx.scene.image.Image;
 import javafx.scene.input.ContextMenuEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.Pane;
@@ -35,11 +36,10 @@ import org.mockito.Mock;
 import org.testfx.util.WaitForAsyncUtils;
 
 import java.net.URL;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
-import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertFalse;
@@ -51,6 +51,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -91,15 +92,15 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
     testClan.setTag("e");
     testClan.setLeader(PlayerBuilder.create("test_player").defaultValues().id(2).get());
     when(clanService.getClanByTag(anyString())).thenReturn(CompletableFuture.completedFuture(Optional.of(testClan)));
-    when(countryFlagService.loadCountryFlag("US")).thenReturn(Optional.of(mock(Image.class)));
+    when(countryFlagService.setCountryFlag(any(), eq("US"))).thenReturn(true);
+    when(countryFlagService.setPlayerStatusIcon(any(), any())).thenReturn(true);
     when(playerService.isOnline(eq(2))).thenReturn(true);
     when(playerService.getCurrentPlayer()).thenReturn(Optional.of(new Player("junit")));
     clanTooltipControllerMock = mock(ClanTooltipController.class);
     when(uiService.loadFxml("theme/chat/clan_tooltip.fxml")).thenReturn(clanTooltipControllerMock);
     when(clanTooltipControllerMock.getRoot()).thenReturn(new Pane());
-    when(uiService.getThemeImage(UiService.CHAT_LIST_STATUS_HOSTING)).thenReturn(new Image(UiService.CHAT_LIST_STATUS_HOSTING));
-    when(uiService.getThemeImage(UiService.CHAT_LIST_STATUS_LOBBYING)).thenReturn(new Image(UiService.CHAT_LIST_STATUS_LOBBYING));
-    when(uiService.getThemeImage(UiService.CHAT_LIST_STATUS_PLAYING)).thenReturn(new Image(UiService.CHAT_LIST_STATUS_PLAYING));
+
+    when(uiService.currentThemeProperty()).thenReturn(new SimpleObjectProperty<>());
 
     instance = new ChatUserItemController(preferencesService, avatarService, countryFlagService, i18n, uiService, eventBus, clanService, playerService, platformService, timeService);
     loadFxml("theme/chat/chat_user_item.fxml", param -> instance);
@@ -125,14 +126,54 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
 
     assertThat(instance.clanMenu.getText(), is("[e]"));
     assertThat(instance.clanMenu.isVisible(), is(true));
-    verify(countryFlagService).loadCountryFlag("US");
-    assertThat(instance.countryTooltip, CoreMatchers.notNullValue());
-    assertThat(instance.avatarTooltip, CoreMatchers.notNullValue());
-    assertThat(instance.userTooltip, CoreMatchers.notNullValue());
+    verify(countryFlagService).setCountryFlag(instance.countryImageView, "US");
     instance.clanMenu.getOnMouseEntered().handle(null);
     verify(clanTooltipControllerMock).setClan(testClan);
   }
 
+  @Test
+  public void testTooltipsAreCreatedOnHover() throws Exception {
+    Player player = PlayerBuilder.create("junit")
+        .defaultValues()
+        .avatar(new AvatarBean(new URL("http://example.com/avatar.png"), "dog"))
+        .get();
+    instance.setChatUser(ChatChannelUserBuilder.create("junit").defaultValues().setPlayer(player).get());
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.countryTooltip, CoreMatchers.nullValue());
+    assertThat(instance.avatarTooltip, CoreMatchers.nullValue());
+    assertThat(instance.userTooltip, CoreMatchers.nullValue());
+    verify(uiService, never()).loadFxml("theme/chat/clan_tooltip.fxml");
+
+    instance.countryImageView.getOnMouseEntered().handle(null);
+    instance.avatarImageView.getOnMouseEntered().handle(null);
+    instance.usernameLabel.getOnMouseEntered().handle(null);
+
+    assertThat(instance.countryTooltip.getText(), is("US"));
+    assertThat(instance.avatarTooltip.getText(), is("dog"));
+    assertThat(instance.usernameLabel.getTooltip(), is(instance.userTooltip));
+  }
+
+  @Test
+  public void testOnlyChangedPlayerValuesAreApplied() throws Exception {
+    Player player = PlayerBuilder.create("junit")
+        .defaultValues()
+        .clan("e")
+        .get();
+    instance.setChatUser(ChatChannelUserBuilder.create("junit").defaultValues().setPlayer(player).get());
+    WaitForAsyncUtils.waitForFxEvents();
+
+    WaitForAsyncUtils.asyncFx(() -> {
+      player.setCountry("DE");
+      player.setIdleSince(Instant.now());
+    });
+    WaitForAsyncUtils.waitForFxEvents();
+
+    verify(clanService, times(1)).getClanByTag("e");
+    verify(countryFlagService, times(1)).setCountryFlag(instance.countryImageView, "US");
+    verify(countryFlagService, times(1)).setCountryFlag(instance.countryImageView, "DE");
+  }
+
   @Test
   public void testGetPlayer() {
     ChatChannelUser chatUser = ChatChannelUserBuilder.create("junit").defaultValues().get();
@@ -157,7 +198,7 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
     WaitForAsyncUtils.waitForFxEvents();
 
     assertTrue(instance.playerStatusIndicator.isVisible());
-    assertThat(instance.playerStatusIndicator.getImage().getUrl(), endsWith(Paths.get(UiService.CHAT_LIST_STATUS_LOBBYING).getFileName().toString()));
+    verify(countryFlagService).setPlayerStatusIcon(instance.playerStatusIndicator, PlayerStatus.LOBBYING);
   }
 
   @Test
@@ -177,7 +218,7 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
     WaitForAsyncUtils.waitForFxEvents();
 
     assertTrue(instance.playerStatusIndicator.isVisible());
-    assertThat(instance.playerStatusIndicator.getImage().getUrl(), endsWith(Paths.get(UiService.CHAT_LIST_STATUS_HOSTING).getFileName().toString()));
+    verify(countryFlagService).setPlayerStatusIcon(instance.playerStatusIndicator, PlayerStatus.HOSTING);
   }
 
   @Test
@@ -196,7 +237,7 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
     WaitForAsyncUtils.waitForFxEvents();
 
     assertTrue(instance.playerStatusIndicator.isVisible());
-    assertThat(instance.playerStatusIndicator.getImage().getUrl(), endsWith(Paths.get(UiService.CHAT_LIST_STATUS_PLAYING).getFileName().toString()));
+    verify(countryFlagService).setPlayerStatusIcon(instance.playerStatusIndicator, PlayerStatus.PLAYING);
   }
 
   @Test
@@ -211,7 +252,7 @@ public class ChatChannelUserItemControllerTest extends AbstractPlainJavaFxTest {
     WaitForAsyncUtils.waitForFxEvents();
 
     assertTrue(instance.playerStatusIndicator.isVisible());
-    assertThat(instance.playerStatusIndicator.getImage().getUrl(), endsWith(Paths.get(UiService.CHAT_LIST_STATUS_PLAYING).getFileName().toString()));
+    verify(countryFlagService).setPlayerStatusIcon(instance.playerStatusIndicator, PlayerStatus.PLAYING);
     player.setGame(null);
     WaitForAsyncUtils.waitForFxEvents();
 
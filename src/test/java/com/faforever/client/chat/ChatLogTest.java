@@ -0,0 +1,121 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatLog.Page;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ChatLogTest {
+
+  private static final String CHANNEL = "#aeolus";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path directory;
+  private ChatLog instance;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = temporaryFolder.getRoot().toPath().resolve("aeolus");
+    instance = new ChatLog(directory, CHANNEL);
+
+    instance.append(message("2019-05-01T23:58:00Z", "alice", "first"));
+    instance.append(message("2019-05-01T23:59:00Z", "bob", "second"));
+    instance.append(message("2019-05-02T00:01:00Z", "alice", "third"));
+    instance.append(message("2019-05-02T00:02:00Z", "carol", "fourth"));
+  }
+
+  @After
+  public void tearDown() {
+    instance.close();
+  }
+
+  @Test
+  public void testReadBeforeSpansSegments() throws Exception {
+    Page page = instance.readBefore(instance.end(), 3);
+    assertThat(texts(page.getMessages()), contains("second", "third", "fourth"));
+
+    page = instance.readBefore(page.getStart(), 3);
+    assertThat(texts(page.getMessages()), contains("first"));
+    assertThat(page.getMessages().get(0).getSource(), is(CHANNEL));
+
+    page = instance.readBefore(page.getStart(), 3);
+    assertThat(page.getMessages(), is(empty()));
+  }
+
+  @Test
+  public void testPositionOf() throws Exception {
+    Page page = instance.readBefore(instance.positionOf(Instant.parse("2019-05-02T00:02:00Z")), 10);
+    assertThat(texts(page.getMessages()), contains("first", "second", "third"));
+
+    page = instance.readBefore(instance.positionOf(Instant.parse("2019-05-03T12:00:00Z")), 1);
+    assertThat(texts(page.getMessages()), contains("fourth"));
+  }
+
+  @Test
+  public void testRebuildsIndexAndDropsIncompleteRecord() throws Exception {
+    instance.close();
+    Path logFile = directory.resolve("2019-05-02.log");
+    Files.write(logFile, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+    Files.delete(directory.resolve("2019-05-02.idx"));
+
+    ChatLog reopenedLog = new ChatLog(directory, CHANNEL);
+    reopenedLog.append(message("2019-05-02T00:03:00Z", "bob", "fifth"));
+
+    assertThat(texts(reopenedLog.readBefore(reopenedLog.end(), 3).getMessages()), contains("third", "fourth", "fifth"));
+    reopenedLog.close();
+  }
+
+  @Test
+  public void testSearch() throws Exception {
+    assertThat(texts(instance.search("ALICE", 10)), contains("third", "first"));
+    assertThat(texts(instance.search("i", 1)), contains("third"));
+    assertThat(instance.search("nothing", 10), is(empty()));
+  }
+
+  @Test
+  public void testSearchReadsLargeSegmentsInChunks() throws Exception {
+    for (int i = 0; i < 600; i++) {
+      instance.append(message("2019-05-03T00:00:00Z", "dave", "message " + i));
+    }
+
+    assertThat(texts(instance.search("message 1", 3)), contains("message 199", "message 198", "message 197"));
+    assertThat(texts(instance.search("message 0", 10)), contains("message 0"));
+  }
+
+  @Test
+  public void testDeleteSegmentsBefore() throws Exception {
+    instance.close();
+
+    ChatLog.deleteSegmentsBefore(directory, LocalDate.parse("2019-05-02"));
+
+    assertThat(Files.exists(directory.resolve("2019-05-01.log")), is(false));
+    assertThat(Files.exists(directory.resolve("2019-05-01.idx")), is(false));
+    ChatLog reopenedLog = new ChatLog(directory, CHANNEL);
+    assertThat(texts(reopenedLog.readBefore(reopenedLog.end(), 10).getMessages()), contains("third", "fourth"));
+  }
+
+  private static ChatMessage message(String time, String username, String text) {
+    return new ChatMessage(CHANNEL, Instant.parse(time), username, text);
+  }
+
+  private static List<String> texts(List<ChatMessage> messages) {
+    return messages.stream().map(ChatMessage::getMessage).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,94 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.game.PlayerStatus;
+import com.faforever.client.test.AbstractPlainJavaFxTest;
+import com.faforever.client.theme.Theme;
+import com.faforever.client.theme.UiService;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.image.ImageView;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class CountryFlagServiceTest extends AbstractPlainJavaFxTest {
+
+  @Mock
+  private UiService uiService;
+
+  private CountryFlagService instance;
+  private SimpleObjectProperty<Theme> currentTheme;
+
+  @Before
+  public void setUp() throws Exception {
+    currentTheme = new SimpleObjectProperty<>();
+    when(uiService.currentThemeProperty()).thenReturn(currentTheme);
+
+    instance = new CountryFlagService(uiService);
+    instance.afterPropertiesSet();
+  }
+
+  @Test
+  public void testGetCountryFlagUrl() {
+    assertThat(instance.getCountryFlagUrl("DE").get().toString(), endsWith("/images/flags/de.png"));
+    assertThat(instance.getCountryFlagUrl("A1").get().toString(), endsWith("/images/flags/earth.png"));
+    assertThat(instance.getCountryFlagUrl("XX").isPresent(), is(false));
+    assertThat(instance.getCountryFlagUrl(null).isPresent(), is(false));
+  }
+
+  @Test
+  public void testFlagsAndStatusIconsShareOneImage() {
+    mockThemeFiles();
+    ImageView germany = new ImageView();
+    ImageView france = new ImageView();
+    ImageView playing = new ImageView();
+
+    assertThat(instance.setCountryFlag(germany, "DE"), is(true));
+    assertThat(instance.setCountryFlag(france, "FR"), is(true));
+    assertThat(instance.setPlayerStatusIcon(playing, PlayerStatus.PLAYING), is(true));
+
+    assertThat(germany.getImage(), notNullValue());
+    assertThat(france.getImage(), sameInstance(germany.getImage()));
+    assertThat(playing.getImage(), sameInstance(germany.getImage()));
+    assertThat(germany.getViewport().getWidth(), is(16.0));
+    assertThat(germany.getViewport().equals(france.getViewport()), is(false));
+  }
+
+  @Test
+  public void testAtlasIsRebuiltWhenThemeChanges() {
+    mockThemeFiles();
+    ImageView before = new ImageView();
+    ImageView after = new ImageView();
+
+    instance.setPlayerStatusIcon(before, PlayerStatus.PLAYING);
+    currentTheme.set(new Theme());
+    instance.setPlayerStatusIcon(after, PlayerStatus.PLAYING);
+
+    assertThat(after.getImage(), not(sameInstance(before.getImage())));
+  }
+
+  @Test
+  public void testUnknownCountryLeavesImageViewUntouched() {
+    mockThemeFiles();
+    ImageView imageView = new ImageView();
+
+    assertThat(instance.setCountryFlag(imageView, "XX"), is(false));
+    assertThat(instance.setPlayerStatusIcon(imageView, PlayerStatus.IDLE), is(false));
+    assertThat(imageView.getImage(), nullValue());
+  }
+
+  private void mockThemeFiles() {
+    when(uiService.getThemeFileUrl(anyString()))
+        .thenAnswer(invocation -> new ClassPathResource(invocation.getArgument(0)).getURL());
+  }
+}
@@ -0,0 +1,47 @@
+package com.faforever.client.chat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UserNameIndexTest {
+
+  private UserNameIndex instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new UserNameIndex();
+    instance.add("Downlord");
+    instance.add("downer");
+    instance.add("Blackdown");
+    instance.add("Sheikah");
+  }
+
+  @Test
+  public void testStartingWith() {
+    assertThat(instance.startingWith("DOWN"), contains("downer", "Downlord"));
+    assertThat(instance.startingWith("x"), is(empty()));
+  }
+
+  @Test
+  public void testContaining() {
+    assertThat(instance.containing("Own"), containsInAnyOrder("Downlord", "downer", "Blackdown"));
+    assertThat(instance.containing("ow"), containsInAnyOrder("Downlord", "downer", "Blackdown"));
+    assertThat(instance.containing("ownl"), containsInAnyOrder("Downlord"));
+    assertThat(instance.containing("dwon"), is(empty()));
+  }
+
+  @Test
+  public void testRemove() {
+    instance.remove("DOWNLORD");
+
+    assertThat(instance.size(), is(3));
+    assertThat(instance.containing("own"), containsInAnyOrder("downer", "Blackdown"));
+    assertThat(instance.startingWith("down"), contains("downer"));
+  }
+}
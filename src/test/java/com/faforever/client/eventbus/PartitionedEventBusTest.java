@@ -0,0 +1,218 @@
+package com.faforever.client.eventbus;
+
+import com.faforever.client.eventbus.PartitionedEventBus.PartitionStatistics;
+import com.faforever.client.eventbus.PartitionedEventBus.SubscriberStatistics;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.Subscribe;
+import lombok.Value;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class PartitionedEventBusTest {
+
+  private LinkedBlockingQueue<Runnable> scheduledTasks;
+  private boolean inlineDispatch;
+  private PartitionedEventBus instance;
+  private Subscriber subscriber;
+
+  @Before
+  public void setUp() throws Exception {
+    scheduledTasks = new LinkedBlockingQueue<>();
+    instance = new PartitionedEventBus(scheduledTasks::add, () -> inlineDispatch);
+    subscriber = new Subscriber();
+    instance.register(subscriber);
+  }
+
+  @Test
+  public void testPostFromBackgroundThreadIsDispatchedAsynchronously() {
+    instance.post(new ValueEvent("a"));
+
+    assertThat(subscriber.valueEvents, is(empty()));
+    runScheduledTasks();
+    assertThat(subscriber.valueEvents, contains(new ValueEvent("a")));
+  }
+
+  @Test
+  public void testPostFromInlineThreadIsDispatchedImmediately() {
+    inlineDispatch = true;
+
+    instance.post(new ValueEvent("a"));
+
+    assertThat(subscriber.valueEvents, contains(new ValueEvent("a")));
+    assertThat(scheduledTasks, is(empty()));
+  }
+
+  @Test
+  public void testNonAsyncEventIsDispatchedImmediately() {
+    instance.post(new OtherEvent());
+
+    assertThat(subscriber.markerEvents, hasSize(1));
+    assertThat(scheduledTasks, is(empty()));
+  }
+
+  @Test
+  public void testEventsOfSameTypeAreDispatchedInOrder() {
+    instance.post(new ValueEvent("a"));
+    instance.post(new ValueEvent("b"));
+    instance.post(new ValueEvent("a"));
+
+    assertThat(scheduledTasks, hasSize(1));
+    runScheduledTasks();
+
+    assertThat(subscriber.valueEvents, contains(new ValueEvent("a"), new ValueEvent("b"), new ValueEvent("a")));
+    PartitionStatistics statistics = instance.getPartitionStatistics().get(0);
+    assertThat(statistics.getEventType(), is(ValueEvent.class));
+    assertThat(statistics.getMaxDepth(), is(3));
+    assertThat(statistics.getDepth(), is(0));
+  }
+
+  @Test
+  public void testAsyncEventTypesArePartitioned() {
+    instance.post(new ValueEvent("a"));
+    instance.post(new OtherValueEvent("a"));
+
+    assertThat(scheduledTasks, hasSize(2));
+  }
+
+  @Test
+  public void testEventPostedBySubscriberIsDispatchedAfterCurrentEvent() {
+    inlineDispatch = true;
+    List<String> calls = new ArrayList<>();
+    instance.register(new Object() {
+      @Subscribe
+      public void onValueEvent(ValueEvent event) {
+        calls.add("begin " + event.getValue());
+        if (event.getValue().equals("a")) {
+          instance.post(new ValueEvent("b"));
+        }
+        calls.add("end " + event.getValue());
+      }
+    });
+
+    instance.post(new ValueEvent("a"));
+
+    assertThat(calls, contains("begin a", "end a", "begin b", "end b"));
+    assertThat(subscriber.valueEvents, contains(new ValueEvent("a"), new ValueEvent("b")));
+  }
+
+  @Test
+  public void testSubscriberOfSupertypeReceivesEvent() {
+    inlineDispatch = true;
+
+    instance.post(new OtherEvent());
+
+    assertThat(subscriber.markerEvents, hasSize(1));
+  }
+
+  @Test
+  public void testUnhandledEventIsPostedAsDeadEvent() {
+    inlineDispatch = true;
+
+    instance.post("unhandled");
+
+    assertThat(subscriber.deadEvents, hasSize(1));
+    assertThat(subscriber.deadEvents.get(0).getEvent(), is("unhandled"));
+  }
+
+  @Test
+  public void testFailingSubscriberDoesNotAffectOthers() {
+    inlineDispatch = true;
+    FailingSubscriber failingSubscriber = new FailingSubscriber();
+    instance.register(failingSubscriber);
+
+    instance.post(new ValueEvent("a"));
+
+    assertThat(subscriber.valueEvents, contains(new ValueEvent("a")));
+  }
+
+  @Test
+  public void testUnregister() {
+    inlineDispatch = true;
+    instance.unregister(subscriber);
+
+    instance.post(new ValueEvent("a"));
+
+    assertThat(subscriber.valueEvents, is(empty()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnregisterUnknownSubscriber() {
+    instance.unregister(new Subscriber());
+  }
+
+  @Test
+  public void testSubscriberStatisticsAreRecorded() {
+    inlineDispatch = true;
+
+    instance.post(new ValueEvent("a"));
+    instance.post(new ValueEvent("b"));
+
+    SubscriberStatistics statistics = instance.getSubscriberStatistics().stream()
+        .filter(candidate -> candidate.getSubscriber().equals("Subscriber#onValueEvent"))
+        .findFirst().orElseThrow();
+    assertThat(statistics.getInvocations(), is(2L));
+  }
+
+  private void runScheduledTasks() {
+    Runnable task;
+    while ((task = scheduledTasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  @Value
+  @AsyncEvent
+  private static class ValueEvent {
+    String value;
+  }
+
+  @Value
+  @AsyncEvent
+  private static class OtherValueEvent {
+    String value;
+  }
+
+  private interface MarkerEvent {
+  }
+
+  private static class OtherEvent implements MarkerEvent {
+  }
+
+  private static class Subscriber {
+    private final List<ValueEvent> valueEvents = new ArrayList<>();
+    private final List<MarkerEvent> markerEvents = new ArrayList<>();
+    private final List<DeadEvent> deadEvents = new ArrayList<>();
+
+    @Subscribe
+    public void onValueEvent(ValueEvent event) {
+      valueEvents.add(event);
+    }
+
+    @Subscribe
+    public void onMarkerEvent(MarkerEvent event) {
+      markerEvents.add(event);
+    }
+
+    @Subscribe
+    public void onDeadEvent(DeadEvent event) {
+      deadEvents.add(event);
+    }
+  }
+
+  private static class FailingSubscriber {
+    @Subscribe
+    public void onValueEvent(ValueEvent event) {
+      throw new IllegalStateException("Expected by test");
+    }
+  }
+}
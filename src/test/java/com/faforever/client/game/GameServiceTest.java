@@ -12,6 +12,7 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.mod.ModService;
+import com.faforever.client.net.ConnectionState;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.patch.GameUpdater;
@@ -30,6 +31,7 @@ import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.ui.preferences.event.GameDirectoryChooseEvent;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
@@ -44,6 +46,7 @@ import org.springframework.util.ReflectionUtils;
 import org.testfx.util.WaitForAsyncUtils;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
@@ -62,6 +65,7 @@ import static com.faforever.client.remote.domain.GameStatus.OPEN;
 import static com.faforever.client.remote.domain.GameStatus.PLAYING;
 import static com.natpryce.hamcrest.reflection.HasAnnotationMatcher.hasAnnotation;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -70,6 +74,7 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -134,12 +139,15 @@ public class GameServiceTest extends AbstractPlainJavaFxTest {
   private ArgumentCaptor<Set<String>> simModsCaptor;
 
   private Player junitPlayer;
+  private SimpleObjectProperty<ConnectionState> connectionState;
 
   @Before
   public void setUp() throws Exception {
     junitPlayer = PlayerBuilder.create("JUnit").defaultValues().get();
 
     ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getServer().setReconnectGracePeriod(Duration.ofMillis(200));
+    connectionState = new SimpleObjectProperty<>(ConnectionState.CONNECTED);
 
     instance = new GameService(clientProperties, fafService, forgedAllianceService, mapService,
         preferencesService, gameUpdater, notificationService, i18n, executorService, playerService,
@@ -150,7 +158,7 @@ public class GameServiceTest extends AbstractPlainJavaFxTest {
 
     when(preferencesService.getPreferences()).thenReturn(preferences);
     when(preferencesService.isGamePathValid()).thenReturn(true);
-    when(fafService.connectionStateProperty()).thenReturn(new SimpleObjectProperty<>());
+    when(fafService.connectionStateProperty()).thenReturn(connectionState);
     when(replayService.start(anyInt(), any())).thenReturn(completedFuture(LOCAL_REPLAY_PORT));
     when(iceAdapter.start()).thenReturn(completedFuture(GPG_PORT));
     when(playerService.getCurrentPlayer()).thenReturn(Optional.of(junitPlayer));
@@ -307,6 +315,81 @@ public class GameServiceTest extends AbstractPlainJavaFxTest {
     assertThat(instance.getGames(), hasSize(2));
   }
 
+  @Test
+  public void testReconnectReconcilesGames() {
+    GameInfoMessage multiGameInfoMessage = new GameInfoMessage();
+    multiGameInfoMessage.setGames(asList(
+        GameInfoMessageBuilder.create(1).defaultValues().get(),
+        GameInfoMessageBuilder.create(2).defaultValues().get()
+    ));
+    gameInfoMessageListenerCaptor.getValue().accept(multiGameInfoMessage);
+    WaitForAsyncUtils.waitForFxEvents();
+    Game game1 = instance.getByUid(1);
+    Game game2 = instance.getByUid(2);
+
+    Platform.runLater(() -> {
+      connectionState.set(ConnectionState.DISCONNECTED);
+      connectionState.set(ConnectionState.CONNECTED);
+    });
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), hasSize(2));
+
+    multiGameInfoMessage = new GameInfoMessage();
+    multiGameInfoMessage.setGames(asList(
+        GameInfoMessageBuilder.create(1).defaultValues().title("Renamed").get(),
+        GameInfoMessageBuilder.create(3).defaultValues().get()
+    ));
+    gameInfoMessageListenerCaptor.getValue().accept(multiGameInfoMessage);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.getGames(), hasSize(2));
+    assertThat(instance.getByUid(1), sameInstance(game1));
+    assertThat(game1.getTitle(), is("Renamed"));
+    assertThat(instance.getByUid(2), nullValue());
+    assertThat(instance.getByUid(3), notNullValue());
+    verify(eventBus).post(new GameRemovedEvent(game2));
+  }
+
+  @Test
+  public void testGamesAreRemovedIfNotReconnectedWithinGracePeriod() throws Exception {
+    GameInfoMessage multiGameInfoMessage = new GameInfoMessage();
+    multiGameInfoMessage.setGames(singletonList(GameInfoMessageBuilder.create(1).defaultValues().get()));
+    gameInfoMessageListenerCaptor.getValue().accept(multiGameInfoMessage);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    Platform.runLater(() -> connectionState.set(ConnectionState.DISCONNECTED));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), hasSize(1));
+
+    Thread.sleep(500);
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), empty());
+  }
+
+  @Test
+  public void testUnconfirmedGamesAreRemovedAfterGracePeriodEvenIfReconnected() throws Exception {
+    GameInfoMessage multiGameInfoMessage = new GameInfoMessage();
+    multiGameInfoMessage.setGames(asList(
+        GameInfoMessageBuilder.create(1).defaultValues().get(),
+        GameInfoMessageBuilder.create(2).defaultValues().get()
+    ));
+    gameInfoMessageListenerCaptor.getValue().accept(multiGameInfoMessage);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    Platform.runLater(() -> {
+      connectionState.set(ConnectionState.DISCONNECTED);
+      connectionState.set(ConnectionState.CONNECTED);
+    });
+    gameInfoMessageListenerCaptor.getValue().accept(GameInfoMessageBuilder.create(1).defaultValues().get());
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), hasSize(2));
+
+    Thread.sleep(500);
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), hasSize(1));
+    assertThat(instance.getByUid(1), notNullValue());
+  }
+
   @Test
   public void testOnGameInfoAdd() {
     assertThat(instance.getGames(), empty());
@@ -3,14 +3,19 @@ package com.faforever.client.game;
 import com.faforever.client.fx.Controller;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.rating.RatingService;
 import com.faforever.client.remote.domain.GameStatus;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.CellDataFeatures;
 import javafx.scene.control.TableColumn.SortType;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
@@ -20,13 +25,19 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class GamesTableControllerTest extends AbstractPlainJavaFxTest {
@@ -43,6 +54,10 @@ public class GamesTableControllerTest extends AbstractPlainJavaFxTest {
   @Mock
   private PreferencesService preferencesService;
   @Mock
+  private RatingService ratingService;
+  @Mock
+  private PlayerService playerService;
+  @Mock
   private GameTooltipController gameTooltipController;
   @Mock
   private Controller<ImageView> imageViewController;
@@ -50,7 +65,7 @@ public class GamesTableControllerTest extends AbstractPlainJavaFxTest {
 
   @Before
   public void setUp() throws Exception {
-    instance = new GamesTableController(mapService, joinGameHelper, i18n, uiService, preferencesService);
+    instance = new GamesTableController(mapService, joinGameHelper, i18n, uiService, preferencesService, ratingService, playerService);
     preferences = new Preferences();
     when(preferencesService.getPreferences()).thenReturn(preferences);
     when(uiService.loadFxml("theme/play/game_tooltip.fxml")).thenReturn(gameTooltipController);
@@ -146,4 +161,37 @@ public class GamesTableControllerTest extends AbstractPlainJavaFxTest {
         equalTo(new Pair<>("passwordProtectionColumn", SortType.ASCENDING))
     );
   }
+
+  @Test
+  public void testQualityIsRecalculatedWhenRatingOfSeatedPlayerChanges() {
+    Game game = GameBuilder.create().defaultValues().get();
+    game.getTeams().put("2", List.of("junit"));
+    Player player = new Player("junit");
+    when(playerService.getPlayerForUsername("junit")).thenReturn(Optional.of(player));
+    when(ratingService.calculateQuality(game)).thenReturn(0.5, 0.7);
+
+    ObservableValue<Number> quality = instance.qualityColumn.getCellValueFactory()
+        .call(new CellDataFeatures<>(instance.gamesTable, instance.qualityColumn, game));
+    assertThat(quality.getValue().doubleValue(), is(0.5));
+    assertThat(quality.getValue().doubleValue(), is(0.5));
+
+    player.setGlobalRatingMean(2000);
+
+    assertThat(quality.getValue().doubleValue(), is(0.7));
+    verify(ratingService, times(2)).calculateQuality(game);
+  }
+
+  @Test
+  public void testQualityIsNotRecalculatedForEveryCellValueRequest() {
+    Game game = GameBuilder.create().defaultValues().get();
+    when(ratingService.calculateQuality(game)).thenReturn(0.5);
+    CellDataFeatures<Game, Number> cellDataFeatures = new CellDataFeatures<>(instance.gamesTable, instance.qualityColumn, game);
+
+    ObservableValue<Number> quality = instance.qualityColumn.getCellValueFactory().call(cellDataFeatures);
+    quality.getValue();
+
+    assertThat(instance.qualityColumn.getCellValueFactory().call(cellDataFeatures), sameInstance(quality));
+    instance.qualityColumn.getCellValueFactory().call(cellDataFeatures).getValue();
+    verify(ratingService, times(1)).calculateQuality(game);
+  }
 }
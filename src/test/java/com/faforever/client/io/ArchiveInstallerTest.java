@@ -0,0 +1,140 @@
+package com.faforever.client.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ArchiveInstallerTest {
+
+  @Rule
+  public TemporaryFolder targetDirectory = new TemporaryFolder();
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void testInstallReplacesOldVersion() throws Exception {
+    Path oldFolder = targetDirectory.newFolder("foo").toPath();
+    Files.createFile(oldFolder.resolve("old.txt"));
+
+    Path installedFolder = ArchiveInstaller.from(zip("foo/new.txt", "foo/bar/baz.txt"))
+        .to(targetDirectory.getRoot().toPath())
+        .install();
+
+    assertThat(installedFolder, is(oldFolder));
+    assertThat(Files.exists(installedFolder.resolve("new.txt")), is(true));
+    assertThat(Files.exists(installedFolder.resolve("bar/baz.txt")), is(true));
+    assertThat(Files.exists(installedFolder.resolve("old.txt")), is(false));
+    assertThat(listTargetDirectory(), contains("foo"));
+  }
+
+  @Test
+  public void testStaleStagingDirectoriesAreDeleted() throws Exception {
+    Path staleStagingDirectory = targetDirectory.newFolder(".stale" + ArchiveInstaller.STAGING_SUFFIX).toPath();
+    Files.createFile(staleStagingDirectory.resolve("half-written.txt"));
+    Files.setLastModifiedTime(staleStagingDirectory, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+    targetDirectory.newFolder(".recent" + ArchiveInstaller.STAGING_SUFFIX);
+
+    ArchiveInstaller.from(zip("foo/new.txt"))
+        .to(targetDirectory.getRoot().toPath())
+        .install();
+
+    assertThat(listTargetDirectory(), containsInAnyOrder(".recent" + ArchiveInstaller.STAGING_SUFFIX, "foo"));
+  }
+
+  @Test
+  public void testFailedVerificationLeavesTargetDirectoryUntouched() throws Exception {
+    Path oldFolder = targetDirectory.newFolder("foo").toPath();
+    Files.createFile(oldFolder.resolve("old.txt"));
+
+    expectedException.expect(IOException.class);
+    expectedException.expectMessage("incomplete");
+
+    try {
+      ArchiveInstaller.from(zip("foo/new.txt"))
+          .to(targetDirectory.getRoot().toPath())
+          .verifier(folder -> Files.exists(folder.resolve("mod_info.lua")))
+          .install();
+    } finally {
+      assertThat(Files.exists(oldFolder.resolve("old.txt")), is(true));
+      assertThat(listTargetDirectory(), contains("foo"));
+    }
+  }
+
+  @Test
+  public void testArchiveWithoutSingleTopLevelFolderIsRejected() throws Exception {
+    expectedException.expect(IOException.class);
+    expectedException.expectMessage("top-level folder");
+
+    try {
+      ArchiveInstaller.from(zip("foo/a.txt", "bar/b.txt"))
+          .to(targetDirectory.getRoot().toPath())
+          .install();
+    } finally {
+      assertThat(listTargetDirectory(), is(empty()));
+    }
+  }
+
+  @Test
+  public void testOldVersionIsRestoredIfNewVersionCannotBeMovedIntoPlace() throws Exception {
+    Path installedFolder = targetDirectory.newFolder("foo").toPath();
+    Files.createFile(installedFolder.resolve("old.txt"));
+    Path stagingDirectory = targetDirectory.newFolder(".staging" + ArchiveInstaller.STAGING_SUFFIX).toPath();
+    Path stagedFolder = Files.createDirectory(stagingDirectory.resolve("foo"));
+
+    expectedException.expect(IOException.class);
+    expectedException.expectMessage("locked");
+
+    try {
+      ArchiveInstaller.replace(stagedFolder, installedFolder, stagingDirectory, (source, target) -> {
+        if (source.equals(stagedFolder)) {
+          throw new IOException("Target is locked");
+        }
+        Files.move(source, target);
+      });
+    } finally {
+      assertThat(Files.exists(installedFolder.resolve("old.txt")), is(true));
+      assertThat(Files.exists(stagingDirectory.resolve("foo.old")), is(false));
+      assertThat(listTargetDirectory(), containsInAnyOrder(".staging" + ArchiveInstaller.STAGING_SUFFIX, "foo"));
+    }
+  }
+
+  private List<String> listTargetDirectory() throws IOException {
+    return Files.list(targetDirectory.getRoot().toPath())
+        .map(path -> path.getFileName().toString())
+        .collect(Collectors.toList());
+  }
+
+  private static InputStream zip(String... entryNames) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      for (String entryName : entryNames) {
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        zipOutputStream.write(entryName.getBytes(UTF_8));
+        zipOutputStream.closeEntry();
+      }
+    }
+    return new ByteArrayInputStream(outputStream.toByteArray());
+  }
+}
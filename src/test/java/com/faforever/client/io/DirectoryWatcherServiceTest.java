@@ -0,0 +1,76 @@
+package com.faforever.client.io;
+
+import com.faforever.client.io.DirectoryWatcherService.Registration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+
+public class DirectoryWatcherServiceTest {
+
+  @Rule
+  public TemporaryFolder directory = new TemporaryFolder();
+
+  private DirectoryWatcherService instance;
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() throws Exception {
+    executorService = Executors.newSingleThreadExecutor();
+    instance = new DirectoryWatcherService(executorService, Duration.ofMillis(100));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    instance.destroy();
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testChangesAreCoalescedPerTopLevelEntry() throws Exception {
+    Path root = directory.getRoot().toPath();
+    Path existingFolder = Files.createDirectory(root.resolve("existing"));
+
+    CompletableFuture<Set<Path>> changedEntriesFuture = new CompletableFuture<>();
+    Registration registration = instance.watch(root, changedEntriesFuture::complete, () -> {
+    });
+
+    Path newFolder = Files.createDirectory(root.resolve("new"));
+    Files.write(newFolder.resolve("new_scenario.lua"), new byte[]{1});
+    Files.write(newFolder.resolve("new_save.lua"), new byte[]{1});
+    Files.write(existingFolder.resolve("modified.lua"), new byte[]{1});
+    Files.write(root.resolve("download123.tmp"), new byte[]{1});
+
+    Set<Path> changedEntries = changedEntriesFuture.get(10, TimeUnit.SECONDS);
+    assertThat(changedEntries, containsInAnyOrder(newFolder, existingFolder));
+
+    registration.close();
+  }
+
+  @Test
+  public void testDeletedEntryIsReported() throws Exception {
+    Path root = directory.getRoot().toPath();
+    Path deletedFile = Files.createFile(root.resolve("replay.fafreplay"));
+
+    CompletableFuture<Set<Path>> changedEntriesFuture = new CompletableFuture<>();
+    instance.watch(root, changedEntriesFuture::complete, () -> {
+    });
+
+    Files.delete(deletedFile);
+
+    assertThat(changedEntriesFuture.get(10, TimeUnit.SECONDS), containsInAnyOrder(deletedFile));
+  }
+}
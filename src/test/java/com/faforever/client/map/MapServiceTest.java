@@ -2,6 +2,7 @@ package com.faforever.client.map;
 
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DirectoryWatcherService;
 import com.faforever.client.map.MapService.PreviewSize;
 import com.faforever.client.map.generator.MapGeneratorService;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
@@ -9,10 +10,12 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
+import com.faforever.client.vault.catalog.VaultCatalogService;
 import com.faforever.client.update.ClientConfiguration;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -35,6 +38,8 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -93,6 +98,10 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
   private MapGeneratorService mapGeneratorService;
   @Mock
   private EventBus eventBus;
+  @Mock
+  private DirectoryWatcherService directoryWatcherService;
+  @Mock
+  private VaultCatalogService vaultCatalogService;
 
   @Before
   public void setUp() throws Exception {
@@ -106,9 +115,11 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
     when(forgedAlliancePrefs.installationPathProperty()).thenReturn(new SimpleObjectProperty<>());
     when(preferencesService.getPreferences()).thenReturn(preferences);
     when(preferences.getForgedAlliance()).thenReturn(forgedAlliancePrefs);
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
     instance = new MapService(preferencesService, taskService, applicationContext,
-        fafService, assetService, i18n, uiService, mapGeneratorService, clientProperties, eventBus);
+        fafService, assetService, i18n, uiService, mapGeneratorService, clientProperties, eventBus, directoryWatcherService, vaultCatalogService);
     instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
 
     doAnswer(invocation -> {
       @SuppressWarnings("unchecked")
@@ -120,6 +131,7 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
 
     instance.officialMaps = ImmutableSet.of();
     instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
   }
 
   @Test
@@ -135,6 +147,7 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
     Files.copy(getClass().getResourceAsStream("/maps/SCMP_001/SCMP_001_scenario.lua"), scmp001.resolve("SCMP_001_scenario.lua"));
 
     instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
 
     ObservableList<MapBean> localMapBeans = instance.getInstalledMaps();
     assertThat(localMapBeans, hasSize(1));
@@ -185,10 +198,40 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
     Files.copy(getClass().getResourceAsStream("/maps/SCMP_001/SCMP_001_scenario.lua"), scmp001.resolve("SCMP_001_scenario.lua"));
 
     instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
 
     assertTrue(instance.isInstalled("ScMp_001"));
   }
 
+  @Test
+  public void testIndexedMapIsNotReadAgain() throws Exception {
+    instance.officialMaps = ImmutableSet.of("SCMP_001");
+
+    Path scmp001 = Files.createDirectory(mapsDirectory.resolve("SCMP_001"));
+    Path scenarioFile = scmp001.resolve("SCMP_001_scenario.lua");
+    Files.copy(getClass().getResourceAsStream("/maps/SCMP_001/SCMP_001_scenario.lua"), scenarioFile);
+
+    instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
+    assertTrue(Files.exists(cacheDirectory.getRoot().toPath().resolve("installed-maps.json")));
+
+    // Replace the scenario with invalid Lua of the same size and modification time, so it can only be read from the index
+    FileTime lastModified = Files.getLastModifiedTime(scenarioFile);
+    byte[] invalidLua = new byte[(int) Files.size(scenarioFile)];
+    Arrays.fill(invalidLua, (byte) '{');
+    Files.write(scenarioFile, invalidLua);
+    Files.setLastModifiedTime(scenarioFile, lastModified);
+
+    instance = new MapService(preferencesService, taskService, applicationContext,
+        fafService, assetService, i18n, uiService, mapGeneratorService, new ClientProperties(), eventBus, directoryWatcherService, vaultCatalogService);
+    instance.officialMaps = ImmutableSet.of("SCMP_001");
+    instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
+
+    assertThat(instance.getInstalledMaps(), hasSize(1));
+    assertThat(instance.getInstalledMaps().get(0).getDisplayName(), is("Burial Mounds"));
+  }
+
   @Test
   public void testLoadPreview() {
     for (PreviewSize previewSize : PreviewSize.values()) {
@@ -4,6 +4,7 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.MapGenerator;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
@@ -105,7 +106,7 @@ public class MapGeneratorServiceTest extends AbstractPlainJavaFxTest {
 
     instance = new MapGeneratorService(applicationContext, preferencesService, taskService, clientProperties);
 
-    instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
 
     when(downloadMapGeneratorTask.getFuture()).thenReturn(CompletableFuture.completedFuture(null));
     when(generateMapTask.getFuture()).thenReturn(CompletableFuture.completedFuture(null));
@@ -2,6 +2,7 @@ package com.faforever.client.mod;
 
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DirectoryWatcherService;
 import com.faforever.client.mod.ModVersion.ModType;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
@@ -9,13 +10,18 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.startup.MainWindowShownEvent;
 import com.faforever.client.task.TaskService;
+import com.faforever.client.test.AbstractPlainJavaFxTest;
+import com.faforever.client.vault.catalog.VaultCatalogService;
 import com.faforever.commons.io.ByteCopier;
+import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.hamcrest.Matchers;
@@ -23,11 +29,11 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
-import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.ClassPathResource;
+import org.testfx.util.WaitForAsyncUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,13 +49,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -58,8 +68,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@RunWith(MockitoJUnitRunner.class)
-public class ModServiceTest {
+public class ModServiceTest extends AbstractPlainJavaFxTest {
 
   public static final String BLACK_OPS_UNLEASHED_DIRECTORY_NAME = "BlackOpsUnleashed";
   private static final ClassPathResource BLACKOPS_SUPPORT_MOD_INFO = new ClassPathResource("/mods/blackops_support_mod_info.lua");
@@ -95,6 +104,10 @@ public class ModServiceTest {
   private AssetService assetService;
   @Mock
   private PlatformService platformService;
+  @Mock
+  private DirectoryWatcherService directoryWatcherService;
+  @Mock
+  private VaultCatalogService vaultCatalogService;
 
   private ModService instance;
   private Path gamePrefsPath;
@@ -103,7 +116,7 @@ public class ModServiceTest {
   @Before
   public void setUp() throws Exception {
     instance = new ModService(fafService, preferencesService, taskService, applicationContext, notificationService, i18n,
-        platformService, assetService);
+        platformService, assetService, directoryWatcherService, vaultCatalogService);
 
     gamePrefsPath = faDataDirectory.getRoot().toPath().resolve("game.prefs");
 
@@ -118,6 +131,8 @@ public class ModServiceTest {
     blackopsSupportPath = copyMod(BLACK_OPS_UNLEASHED_DIRECTORY_NAME, BLACKOPS_UNLEASHED_MOD_INFO);
 
     instance.afterPropertiesSet();
+    instance.onMainWindowShown(new MainWindowShownEvent());
+    WaitForAsyncUtils.waitForFxEvents();
   }
 
   private Path copyMod(String directoryName, ClassPathResource classPathResource) throws IOException {
@@ -146,6 +161,7 @@ public class ModServiceTest {
     copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
     assertThat(instance.getInstalledModVersions().size(), is(1));
     instance.loadInstalledMods();
+    WaitForAsyncUtils.waitForFxEvents();
     assertThat(instance.getInstalledModVersions().size(), is(2));
   }
 
@@ -154,13 +170,12 @@ public class ModServiceTest {
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     InstallModTask task = stubInstallModTask();
-    task.getFuture().complete(null);
-
     when(applicationContext.getBean(InstallModTask.class)).thenReturn(task);
 
     URL modUrl = new URL("http://example.com/some/mod.zip");
 
-    copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    Path modFolder = copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    task.getFuture().complete(modFolder);
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     instance.downloadAndInstallMod(modUrl).toCompletableFuture().get(TIMEOUT, TIMEOUT_UNIT);
@@ -173,13 +188,12 @@ public class ModServiceTest {
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     InstallModTask task = stubInstallModTask();
-    task.getFuture().complete(null);
-
     when(applicationContext.getBean(InstallModTask.class)).thenReturn(task);
 
     URL modUrl = new URL("http://example.com/some/mod.zip");
 
-    copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    Path modFolder = copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    task.getFuture().complete(modFolder);
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     StringProperty stringProperty = new SimpleStringProperty();
@@ -198,13 +212,12 @@ public class ModServiceTest {
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     InstallModTask task = stubInstallModTask();
-    task.getFuture().complete(null);
-
     when(applicationContext.getBean(InstallModTask.class)).thenReturn(task);
 
     URL modUrl = new URL("http://example.com/some/modVersion.zip");
 
-    copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    Path modFolder = copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    task.getFuture().complete(modFolder);
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     StringProperty stringProperty = new SimpleStringProperty();
@@ -219,10 +232,31 @@ public class ModServiceTest {
     assertThat(instance.getInstalledModVersions().size(), is(2));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testModFolderChangesAreAppliedOnFxThread() throws Exception {
+    ArgumentCaptor<Consumer<Set<Path>>> onEntriesChanged = ArgumentCaptor.forClass(Consumer.class);
+    verify(directoryWatcherService).watch(eq(modsDirectory.getRoot().toPath()), onEntriesChanged.capture(), any());
+    List<Boolean> changedOnFxThread = new ArrayList<>();
+    instance.getInstalledModVersions().addListener((ListChangeListener<ModVersion>) change ->
+        changedOnFxThread.add(Platform.isFxApplicationThread()));
+
+    Path modFolder = copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
+    Thread watcherThread = new Thread(() -> onEntriesChanged.getValue().accept(Set.of(modFolder, blackopsSupportPath)));
+    watcherThread.start();
+    watcherThread.join();
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.getInstalledModVersions(), hasSize(2));
+    assertThat(changedOnFxThread, everyItem(is(true)));
+    assertThat(changedOnFxThread, not(empty()));
+  }
+
   @Test
   public void testGetInstalledModUids() throws Exception {
     copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
     instance.loadInstalledMods();
+    WaitForAsyncUtils.waitForFxEvents();
 
     Set<String> installedModUids = instance.getInstalledModUids();
 
@@ -236,6 +270,7 @@ public class ModServiceTest {
     copyMod("EM", ECO_MANAGER_MOD_INFO);
 
     instance.loadInstalledMods();
+    WaitForAsyncUtils.waitForFxEvents();
     assertThat(instance.getInstalledModVersions().size(), is(2));
 
     Set<String> installedUiModsUids = instance.getInstalledUiModsUids();
@@ -290,6 +325,7 @@ public class ModServiceTest {
     copyMod("BlackopsSupport", BLACKOPS_SUPPORT_MOD_INFO);
     copyMod("EM", ECO_MANAGER_MOD_INFO);
     instance.loadInstalledMods();
+    WaitForAsyncUtils.waitForFxEvents();
 
     ArrayList<ModVersion> installedModVersions = new ArrayList<>(instance.getInstalledModVersions());
     installedModVersions.sort(Comparator.comparing(ModVersion::getDisplayName));
@@ -342,6 +378,7 @@ public class ModServiceTest {
     assertThat(instance.getInstalledModVersions().size(), is(1));
 
     instance.loadInstalledMods();
+    WaitForAsyncUtils.waitForFxEvents();
 
     assertThat(instance.getInstalledModVersions().size(), is(1));
   }
@@ -406,7 +443,7 @@ public class ModServiceTest {
   private InstallModTask stubInstallModTask() {
     return new InstallModTask(preferencesService, i18n) {
       @Override
-      protected Void call() {
+      protected Path call() {
         return null;
       }
     };
@@ -61,7 +61,7 @@ public class ModUploadControllerTest extends AbstractPlainJavaFxTest {
       return null;
     }).when(executorService).execute(any());
 
-    modUploadTask = new ModUploadTask(preferencesService, fafService, i18n) {
+    modUploadTask = new ModUploadTask(fafService, executorService, i18n) {
       @Override
       protected Void call() {
         return null;
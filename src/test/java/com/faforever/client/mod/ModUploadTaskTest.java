@@ -1,10 +1,9 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
-
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -12,13 +11,27 @@ import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.Resource;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
-import static org.hamcrest.collection.IsArrayWithSize.emptyArray;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.endsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,39 +42,62 @@ public class ModUploadTaskTest extends AbstractPlainJavaFxTest{
   public TemporaryFolder tempFolder = new TemporaryFolder();
   private ModUploadTask instance;
   @Mock
-  private PreferencesService preferencesService;
-  @Mock
   private FafService fafService;
   @Mock
   private I18n i18n;
+  private ExecutorService executorService;
+  private List<String> uploadedEntries;
 
   @Before
   public void setUp() throws Exception {
-    instance = new ModUploadTask(preferencesService, fafService, i18n);
+    executorService = Executors.newSingleThreadExecutor();
+    instance = new ModUploadTask(fafService, executorService, i18n);
+    uploadedEntries = new ArrayList<>();
 
-    when(preferencesService.getCacheDirectory()).thenReturn(tempFolder.getRoot().toPath().resolve("cache"));
     when(i18n.get(any())).thenReturn("");
   }
 
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
   @Test(expected = NullPointerException.class)
   public void testModPathNull() throws Exception {
     instance.call();
   }
 
-  @Test(expected = NullPointerException.class)
-  public void testProgressListenerNull() throws Exception {
-    instance.setModPath(Paths.get("."));
+  @Test(expected = IOException.class)
+  public void testCompressionFailureFailsUpload() throws Exception {
+    doAnswer(invocation -> readZipEntries(invocation.getArgument(0))).when(fafService).uploadMod(any());
+    instance.setModPath(Paths.get("does-not-exist"));
     instance.call();
   }
 
   @Test
   public void testCall() throws Exception {
-    instance.setModPath(tempFolder.newFolder("test-mod").toPath());
+    when(i18n.getUserSpecificLocale()).thenReturn(Locale.US);
+    doAnswer(invocation -> readZipEntries(invocation.getArgument(0))).when(fafService).uploadMod(any());
+    Path modFolder = tempFolder.newFolder("test-mod").toPath();
+    Files.writeString(modFolder.resolve("mod_info.lua"), "name = 'Test'");
+    instance.setModPath(modFolder);
 
     instance.call();
 
-    verify(fafService).uploadMod(any(), any());
+    verify(fafService).uploadMod(any());
+    assertThat(uploadedEntries, hasItem(endsWith("mod_info.lua")));
+  }
 
-    assertThat(Files.list(preferencesService.getCacheDirectory()).toArray(), emptyArray());
+  private Void readZipEntries(Resource resource) throws IOException {
+    try (InputStream inputStream = resource.getInputStream();
+         ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
+      ZipEntry entry;
+      while ((entry = zipInputStream.getNextEntry()) != null) {
+        uploadedEntries.add(entry.getName());
+      }
+      // Drain the stream so that compression errors are reported
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    }
+    return null;
   }
 }
@@ -0,0 +1,106 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.preferences.PreferencesService;
+import com.google.common.hash.Hashing;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FileIntegrityServiceTest {
+
+  @Rule
+  public TemporaryFolder dataDirectory = new TemporaryFolder();
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private PreferencesService preferencesService;
+
+  private FileIntegrityService instance;
+  private Path baseDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    baseDirectory = dataDirectory.getRoot().toPath();
+    Files.createDirectories(baseDirectory.resolve("bin"));
+    Files.createDirectories(baseDirectory.resolve("gamedata"));
+
+    instance = new FileIntegrityService(preferencesService);
+  }
+
+  @After
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  @Test
+  public void testFindOutdatedFiles() throws Exception {
+    FeaturedModFile upToDate = writeFile("bin", "init_faf.lua", "init");
+    FeaturedModFile changed = writeFile("gamedata", "units.nx2", "units");
+    changed.setMd5(md5("old units"));
+    FeaturedModFile missing = featuredModFile("gamedata", "effects.nx2", md5("effects"));
+
+    assertThat(instance.findOutdatedFiles(baseDirectory, Arrays.asList(upToDate, changed, missing)), contains(changed, missing));
+  }
+
+  @Test
+  public void testUnchangedFilesAreNotHashedAgain() throws Exception {
+    FeaturedModFile featuredModFile = writeFile("bin", "init_faf.lua", "init");
+    assertThat(instance.findOutdatedFiles(baseDirectory, Collections.singletonList(featuredModFile)), is(empty()));
+
+    // Same size and modification time, so the hash is taken from the manifest
+    Path file = baseDirectory.resolve("bin").resolve("init_faf.lua");
+    FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+    Files.write(file, "tini".getBytes(UTF_8));
+    Files.setLastModifiedTime(file, lastModifiedTime);
+
+    FileIntegrityService newInstance = new FileIntegrityService(preferencesService);
+    try {
+      assertThat(newInstance.findOutdatedFiles(baseDirectory, Collections.singletonList(featuredModFile)), is(empty()));
+
+      Files.setLastModifiedTime(file, FileTime.fromMillis(lastModifiedTime.toMillis() + 2000));
+      assertThat(newInstance.findOutdatedFiles(baseDirectory, Collections.singletonList(featuredModFile)), contains(featuredModFile));
+    } finally {
+      newInstance.destroy();
+    }
+  }
+
+  private FeaturedModFile writeFile(String group, String name, String content) throws Exception {
+    Files.write(baseDirectory.resolve(group).resolve(name), content.getBytes(UTF_8));
+    return featuredModFile(group, name, md5(content));
+  }
+
+  private static FeaturedModFile featuredModFile(String group, String name, String md5) {
+    FeaturedModFile featuredModFile = new FeaturedModFile();
+    featuredModFile.setId(group + "/" + name);
+    featuredModFile.setGroup(group);
+    featuredModFile.setName(name);
+    featuredModFile.setMd5(md5);
+    return featuredModFile;
+  }
+
+  private static String md5(String content) {
+    return Hashing.md5().hashString(content, UTF_8).toString();
+  }
+}
@@ -12,6 +12,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+
 public class FriendOnlineNotifierTest {
   @Mock
   private NotificationService notificationService;
@@ -42,9 +44,28 @@ public class FriendOnlineNotifierTest {
     preferencesService.getPreferences().getNotification().setFriendOnlineSoundEnabled(false);
     preferencesService.getPreferences().getNotification().setFriendOnlineToastEnabled(false);
 
-    instance.onUserOnline(new PlayerOnlineEvent(new Player("axel12")));
+    Player player = new Player("axel12");
+    player.setSocialStatus(SocialStatus.FRIEND);
+    instance.onPlayersChanged(new PlayersChangedEvent(List.of(player), List.of(player)));
 
     Mockito.verifyZeroInteractions(notificationService, audioService);
   }
 
+  @Test
+  public void testNotifiesOnlyFriendsThatCameOnline() {
+    preferencesService.getPreferences().getNotification().setFriendOnlineSoundEnabled(true);
+    preferencesService.getPreferences().getNotification().setFriendOnlineToastEnabled(false);
+
+    Player friendCameOnline = new Player("axel12");
+    friendCameOnline.setSocialStatus(SocialStatus.FRIEND);
+    Player friendChanged = new Player("junit");
+    friendChanged.setSocialStatus(SocialStatus.FRIEND);
+    Player otherCameOnline = new Player("other");
+
+    instance.onPlayersChanged(new PlayersChangedEvent(
+        List.of(friendCameOnline, friendChanged, otherCameOnline), List.of(friendCameOnline, otherCameOnline)));
+
+    Mockito.verify(audioService, Mockito.times(1)).playFriendOnlineSound();
+    Mockito.verifyZeroInteractions(notificationService);
+  }
 }
@@ -8,22 +8,27 @@ import com.faforever.client.remote.FafService;
 import com.faforever.client.remote.domain.GameStatus;
 import com.faforever.client.remote.domain.PlayersMessage;
 import com.faforever.client.remote.domain.SocialMessage;
+import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.user.UserService;
 import com.faforever.client.user.event.LoginSuccessEvent;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
-import javafx.beans.property.SimpleObjectProperty;
+import javafx.application.Platform;
 import javafx.collections.ObservableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.util.ReflectionUtils;
+import org.testfx.util.WaitForAsyncUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
 
 import static com.faforever.client.player.SocialStatus.FOE;
@@ -31,9 +36,11 @@ import static com.faforever.client.player.SocialStatus.FRIEND;
 import static com.natpryce.hamcrest.reflection.HasAnnotationMatcher.hasAnnotation;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -41,10 +48,11 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-public class PlayerServiceTest {
+public class PlayerServiceTest extends AbstractPlainJavaFxTest {
 
   @Mock
   private FafService fafService;
@@ -61,8 +69,6 @@ public class PlayerServiceTest {
 
     instance = new PlayerService(fafService, userService, eventBus);
 
-    when(fafService.connectionStateProperty()).thenReturn(new SimpleObjectProperty<>());
-
     instance.afterPropertiesSet();
   }
 
@@ -288,4 +294,196 @@ public class PlayerServiceTest {
     assertThat(player1.getGame(), is(nullValue()));
     assertThat(player2.getGame(), is(nullValue()));
   }
+
+  @Test
+  public void testOfflinePlayerIsEvicted() {
+    Player player = instance.createAndGetPlayerForUsername("junit");
+    player.setId(1);
+
+    instance.onUserOffline(new UserOfflineEvent("junit"));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertFalse(instance.getPlayerForUsername("junit").isPresent());
+    assertFalse(instance.isOnline(1));
+  }
+
+  @Test
+  public void testOfflinePlayerIsReusedWhileReferenced() {
+    Player player = instance.createAndGetPlayerForUsername("junit");
+
+    instance.onUserOffline(new UserOfflineEvent("junit"));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.createAndGetPlayerForUsername("junit"), sameInstance(player));
+  }
+
+  @Test
+  public void testOfflineFriendIsNotEvicted() {
+    Player player = instance.createAndGetPlayerForUsername("junit");
+    instance.addFriend(player);
+
+    instance.onUserOffline(new UserOfflineEvent("junit"));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertTrue(instance.getPlayerForUsername("junit").isPresent());
+  }
+
+  @Test
+  public void testOfflinePlayerInGameIsNotEvicted() {
+    Player player = instance.createAndGetPlayerForUsername("junit");
+    player.setGame(new Game());
+
+    instance.onUserOffline(new UserOfflineEvent("junit"));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertTrue(instance.getPlayerForUsername("junit").isPresent());
+  }
+
+  @Test
+  public void testPlayerReportedOfflineByServerIsEvicted() {
+    when(userService.getUsername()).thenReturn("me");
+    Consumer<PlayersMessage> playersInfoListener = capturePlayersInfoListener();
+
+    playersInfoListener.accept(playersMessage(playerInfo(1, "junit", null)));
+    WaitForAsyncUtils.waitForFxEvents();
+    assertTrue(instance.getPlayerForUsername("junit").isPresent());
+
+    playersInfoListener.accept(playersMessage(playerInfo(1, "junit", "offline")));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertFalse(instance.getPlayerForUsername("junit").isPresent());
+    assertFalse(instance.isOnline(1));
+  }
+
+  @Test
+  public void testFriendReportedOfflineByServerComesOnlineAgain() {
+    when(userService.getUsername()).thenReturn("me");
+    Consumer<PlayersMessage> playersInfoListener = capturePlayersInfoListener();
+    befriend(1, "friend");
+
+    playersInfoListener.accept(playersMessage(playerInfo(1, "friend", null)));
+    playersInfoListener.accept(playersMessage(playerInfo(1, "friend", "offline")));
+    playersInfoListener.accept(playersMessage(playerInfo(1, "friend", null)));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    List<PlayersChangedEvent> events = capturePlayersChangedEvents(2);
+    assertThat(events.get(0).getPlayersCameOnline(), hasSize(1));
+    assertThat(events.get(1).getPlayersCameOnline(), hasSize(1));
+    assertTrue(instance.getPlayerForUsername("friend").isPresent());
+  }
+
+  @Test
+  public void testFriendLeavingChatIsStillOnline() {
+    when(userService.getUsername()).thenReturn("me");
+    Consumer<PlayersMessage> playersInfoListener = capturePlayersInfoListener();
+    befriend(1, "friend");
+
+    playersInfoListener.accept(playersMessage(playerInfo(1, "friend", null)));
+    WaitForAsyncUtils.waitForFxEvents();
+    instance.onUserOffline(new UserOfflineEvent("friend"));
+    WaitForAsyncUtils.waitForFxEvents();
+    com.faforever.client.remote.domain.Player update = playerInfo(1, "friend", null);
+    update.setClan("ABC");
+    playersInfoListener.accept(playersMessage(update));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    List<PlayersChangedEvent> events = capturePlayersChangedEvents(2);
+    assertThat(events.get(0).getPlayersCameOnline(), hasSize(1));
+    assertThat(events.get(1).getPlayersCameOnline(), is(empty()));
+    assertThat(events.get(1).getPlayers(), contains(instance.getPlayerForUsername("friend").get()));
+  }
+
+  /**
+   * The player is looked up for the second info while the first one, which evicts it, has not been applied yet.
+   */
+  @Test
+  public void testPlayerComingOnlineWhileEvictionIsPendingIsRegistered() {
+    when(userService.getUsername()).thenReturn("me");
+    Consumer<PlayersMessage> playersInfoListener = capturePlayersInfoListener();
+    playersInfoListener.accept(playersMessage(playerInfo(1, "junit", null)));
+    WaitForAsyncUtils.waitForFxEvents();
+    Player player = instance.getPlayerForUsername("junit").get();
+
+    CountDownLatch fxThreadBlocked = new CountDownLatch(1);
+    Platform.runLater(() -> {
+      try {
+        fxThreadBlocked.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    playersInfoListener.accept(playersMessage(playerInfo(1, "junit", "offline")));
+    instance.onUserOffline(new UserOfflineEvent("junit"));
+    playersInfoListener.accept(playersMessage(playerInfo(1, "junit", null)));
+    fxThreadBlocked.countDown();
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.getPlayerForUsername("junit").get(), sameInstance(player));
+    assertTrue(instance.isOnline(1));
+    assertThat(instance.getOnlinePlayerCount(), is(1));
+  }
+
+  /**
+   * Simulates many players coming online, joining and leaving games and going offline again, as in a long session,
+   * and verifies that the number of known players doesn't grow.
+   */
+  @Test
+  public void testPlayerRegistryStaysBoundedOverSession() {
+    Player friend = instance.createAndGetPlayerForUsername("friend");
+    instance.addFriend(friend);
+
+    for (int round = 0; round < 100; round++) {
+      Game game = new Game();
+      game.setId(round + 1);
+      game.setStatus(GameStatus.OPEN);
+      game.setHost("player" + round + "_0");
+      for (int i = 0; i < 50; i++) {
+        String username = "player" + round + "_" + i;
+        instance.createAndGetPlayerForUsername(username).setId(round * 50 + i + 2);
+        game.getTeams().put(String.valueOf(i), List.of(username));
+      }
+      instance.onGameAdded(new GameAddedEvent(game));
+      instance.onGameRemoved(new GameRemovedEvent(game));
+      for (int i = 0; i < 50; i++) {
+        instance.onUserOffline(new UserOfflineEvent("player" + round + "_" + i));
+      }
+      WaitForAsyncUtils.waitForFxEvents();
+
+      assertThat(instance.getOnlinePlayerCount(), is(1));
+    }
+    assertTrue(instance.getPlayerForUsername("friend").isPresent());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Consumer<PlayersMessage> capturePlayersInfoListener() {
+    ArgumentCaptor<Consumer<PlayersMessage>> captor = ArgumentCaptor.forClass(Consumer.class);
+    verify(fafService).addOnMessageListener(eq(PlayersMessage.class), captor.capture());
+    return captor.getValue();
+  }
+
+  private List<PlayersChangedEvent> capturePlayersChangedEvents(int count) {
+    ArgumentCaptor<PlayersChangedEvent> captor = ArgumentCaptor.forClass(PlayersChangedEvent.class);
+    verify(eventBus, times(count)).post(captor.capture());
+    return captor.getAllValues();
+  }
+
+  private static PlayersMessage playersMessage(com.faforever.client.remote.domain.Player... players) {
+    PlayersMessage playersMessage = new PlayersMessage();
+    playersMessage.setPlayers(Arrays.asList(players));
+    return playersMessage;
+  }
+
+  private static com.faforever.client.remote.domain.Player playerInfo(int id, String login, String state) {
+    com.faforever.client.remote.domain.Player player = new com.faforever.client.remote.domain.Player();
+    player.setId(id);
+    player.setLogin(login);
+    player.setState(state);
+    return player;
+  }
+
+  private void befriend(int id, String username) {
+    Player player = instance.createAndGetPlayerForUsername(username);
+    player.setId(id);
+    instance.addFriend(player);
+  }
 }
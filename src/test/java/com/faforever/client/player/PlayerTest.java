@@ -3,6 +3,7 @@ package com.faforever.client.player;
 import com.faforever.client.game.Game;
 import com.faforever.client.game.PlayerStatus;
 import com.faforever.client.remote.domain.GameStatus;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -10,7 +11,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 
 
@@ -60,4 +63,44 @@ public class PlayerTest {
     instance.setGame(null);
     assertSame(instance.getStatus(), PlayerStatus.IDLE);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testPropertyIsInitializedWithValueSetBefore() {
+    instance.setClan("ABC");
+
+    assertEquals("ABC", instance.clanProperty().get());
+    assertSame(instance.clanProperty(), instance.clanProperty());
+
+    instance.setClan("XYZ");
+    assertEquals("XYZ", instance.clanProperty().get());
+    assertEquals("XYZ", instance.getClan());
+  }
+
+  @Test
+  public void testStatusPropertyFollowsGameStatus() {
+    Game game = new Game();
+    game.setStatus(GameStatus.OPEN);
+    game.setHost("someone");
+    instance.setGame(game);
+
+    ReadOnlyObjectProperty<PlayerStatus> statusProperty = instance.statusProperty();
+    assertSame(PlayerStatus.LOBBYING, statusProperty.get());
+
+    game.setStatus(GameStatus.PLAYING);
+    assertSame(PlayerStatus.PLAYING, statusProperty.get());
+
+    instance.setGame(null);
+    assertSame(PlayerStatus.IDLE, statusProperty.get());
+  }
+
+  @Test
+  public void testRatingsObservableIsInvalidatedWhenRatingIsSet() {
+    AtomicInteger invalidations = new AtomicInteger();
+    instance.ratingsObservable().addListener(observable -> invalidations.incrementAndGet());
+
+    instance.setGlobalRatingMean(1500);
+    instance.setLeaderboardRatingDeviation(100);
+
+    assertEquals(2, invalidations.get());
+  }
+}
@@ -0,0 +1,97 @@
+package com.faforever.client.player;
+
+import com.faforever.client.remote.domain.Avatar;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PlayerUpdateTest {
+
+  private com.faforever.client.remote.domain.Player dto;
+
+  @Before
+  public void setUp() throws Exception {
+    dto = createDto();
+  }
+
+  private static com.faforever.client.remote.domain.Player createDto() {
+    com.faforever.client.remote.domain.Player dto = new com.faforever.client.remote.domain.Player();
+    dto.setId(123);
+    dto.setLogin("junit");
+    dto.setClan("ABC");
+    dto.setCountry("DE");
+    dto.setNumberOfGames(42);
+    dto.setGlobalRating(new float[]{1500, 100});
+    dto.setLadderRating(new float[]{1200, 200});
+    Avatar avatar = new Avatar();
+    avatar.setUrl("http://example.com/avatar.png");
+    avatar.setTooltip("Avatar");
+    dto.setAvatar(avatar);
+    return dto;
+  }
+
+  @Test
+  public void testApplySetsChangedProperties() {
+    Player player = new Player("junit");
+
+    PlayerUpdate update = PlayerUpdate.of(player, dto, SocialStatus.FRIEND);
+    assertThat(player.getClan(), is((String) null));
+
+    assertThat(update.apply(), is(true));
+
+    assertThat(player.getId(), is(123));
+    assertThat(player.getClan(), is("ABC"));
+    assertThat(player.getCountry(), is("DE"));
+    assertThat(player.getNumberOfGames(), is(42));
+    assertThat(player.getGlobalRatingMean(), is(1500f));
+    assertThat(player.getGlobalRatingDeviation(), is(100f));
+    assertThat(player.getLeaderboardRatingMean(), is(1200f));
+    assertThat(player.getLeaderboardRatingDeviation(), is(200f));
+    assertThat(player.getAvatarUrl(), is("http://example.com/avatar.png"));
+    assertThat(player.getAvatarTooltip(), is("Avatar"));
+    assertThat(player.getSocialStatus(), is(SocialStatus.FRIEND));
+  }
+
+  @Test
+  public void testUnchangedPlayerIsNotChanged() {
+    Player player = new Player("junit");
+    PlayerUpdate.of(player, dto, SocialStatus.OTHER).apply();
+
+    assertThat(PlayerUpdate.of(player, dto, SocialStatus.OTHER).apply(), is(false));
+  }
+
+  @Test
+  public void testUpdatesAreComparedWhenApplied() {
+    Player player = new Player("junit");
+    PlayerUpdate.of(player, dto, SocialStatus.OTHER).apply();
+
+    // The rating changes and changes back before the first update is applied
+    com.faforever.client.remote.domain.Player changedDto = createDto();
+    changedDto.setGlobalRating(new float[]{1600, 100});
+    PlayerUpdate change = PlayerUpdate.of(player, changedDto, SocialStatus.OTHER);
+    PlayerUpdate changeBack = PlayerUpdate.of(player, createDto(), SocialStatus.OTHER);
+
+    assertThat(change.apply(), is(true));
+    assertThat(changeBack.apply(), is(true));
+    assertThat(player.getGlobalRatingMean(), is(1500f));
+  }
+
+  @Test
+  public void testOnlyChangedPropertiesAreSet() {
+    Player player = new Player("junit");
+    PlayerUpdate.of(player, dto, SocialStatus.OTHER).apply();
+    int[] clanChanges = new int[1];
+    int[] countryChanges = new int[1];
+    player.clanProperty().addListener(observable -> clanChanges[0]++);
+    player.countryProperty().addListener(observable -> countryChanges[0]++);
+
+    dto.setClan("XYZ");
+    PlayerUpdate.of(player, dto, SocialStatus.OTHER).apply();
+
+    assertThat(player.getClan(), is("XYZ"));
+    assertThat(clanChanges[0], is(1));
+    assertThat(countryChanges[0], is(0));
+  }
+}
@@ -0,0 +1,95 @@
+package com.faforever.client.preferences;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PreferencesWriterTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+  private AtomicReference<String> content;
+  private AtomicInteger serializations;
+  private AtomicInteger writes;
+  private PreferencesWriter instance;
+
+  @Before
+  public void setUp() throws Exception {
+    file = temporaryFolder.getRoot().toPath().resolve("prefs").resolve("client.prefs");
+    content = new AtomicReference<>("{}");
+    serializations = new AtomicInteger();
+    writes = new AtomicInteger();
+    instance = new PreferencesWriter(file, UTF_8, () -> {
+      serializations.incrementAndGet();
+      return content.get();
+    }, writes::incrementAndGet, 100);
+  }
+
+  @After
+  public void tearDown() {
+    instance.close();
+  }
+
+  @Test
+  public void testChangesAreCoalesced() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      content.set("{\"x\": " + i + "}");
+      instance.markDirty();
+    }
+    instance.flush();
+    Thread.sleep(300);
+
+    assertThat(new String(Files.readAllBytes(file), UTF_8), is("{\"x\": 49}"));
+    assertThat(writes.get(), is(1));
+    assertThat(instance.getStoreLatency().getCount(), is(1L));
+    assertThat(Files.exists(file.resolveSibling("client.prefs.tmp")), is(false));
+  }
+
+  @Test
+  public void testUnchangedContentIsNotWritten() throws Exception {
+    instance.flush();
+    instance.flush();
+
+    assertThat(serializations.get(), is(2));
+    assertThat(writes.get(), is(1));
+  }
+
+  @Test
+  public void testWriteIsRetriedIfSerializationFails() throws Exception {
+    AtomicInteger failures = new AtomicInteger(1);
+    instance.close();
+    instance = new PreferencesWriter(file, UTF_8, () -> {
+      if (failures.getAndDecrement() > 0) {
+        throw new IllegalStateException("Preferences are being modified");
+      }
+      return content.get();
+    }, writes::incrementAndGet, 100);
+
+    instance.markDirty();
+    Thread.sleep(600);
+
+    assertThat(new String(Files.readAllBytes(file), UTF_8), is("{}"));
+    assertThat(writes.get(), is(1));
+  }
+
+  @Test
+  public void testCloseWritesPendingChanges() throws Exception {
+    instance.markDirty();
+    instance.close();
+
+    assertThat(new String(Files.readAllBytes(file), UTF_8), is("{}"));
+  }
+}
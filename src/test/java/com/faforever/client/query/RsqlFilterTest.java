@@ -0,0 +1,75 @@
+package com.faforever.client.query;
+
+import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
+import com.github.rutledgepaulv.qbuilders.visitors.RSQLVisitor;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RsqlFilterTest {
+
+  private static final Map<String, Object> MAP = Map.of(
+      "displayName", "Seton's Clutch",
+      "latestVersion.maxPlayers", 8L,
+      "latestVersion.hidden", false,
+      "latestVersion.createTime", Instant.parse("2015-03-01T12:00:00Z")
+  );
+
+  @Test
+  public void testComparisons() {
+    assertThat(matches("displayName==\"seton's clutch\""), is(true));
+    assertThat(matches("displayName==\"*CLUTCH*\""), is(true));
+    assertThat(matches("displayName==\"*canis*\""), is(false));
+    assertThat(matches("displayName!=\"*canis*\""), is(true));
+    assertThat(matches("latestVersion.maxPlayers=ge=8"), is(true));
+    assertThat(matches("latestVersion.maxPlayers=gt=8"), is(false));
+    assertThat(matches("latestVersion.maxPlayers=in=(2,4,8)"), is(true));
+    assertThat(matches("latestVersion.maxPlayers=out=(2,4,8)"), is(false));
+    assertThat(matches("latestVersion.hidden==\"false\""), is(true));
+    assertThat(matches("latestVersion.createTime=lt=\"2016-01-01T00:00:00Z\""), is(true));
+    assertThat(matches("latestVersion.description=ex=false"), is(true));
+  }
+
+  @Test
+  public void testLogicalOperators() {
+    assertThat(matches("latestVersion.maxPlayers==8;latestVersion.hidden==true"), is(false));
+    assertThat(matches("latestVersion.maxPlayers==8,latestVersion.hidden==true"), is(true));
+    assertThat(matches("(latestVersion.maxPlayers==2,latestVersion.maxPlayers==8);displayName==\"*seton*\""), is(true));
+  }
+
+  @Test
+  public void testEvaluatesQueriesBuiltForTheApi() {
+    String query = new QBuilder<>().string("displayName").eq("*Seton*")
+        .and().intNum("latestVersion.maxPlayers").gte(6)
+        .query(new RSQLVisitor());
+
+    RsqlFilter filter = RsqlFilter.parse(query);
+
+    assertThat(filter.getSelectors(), containsInAnyOrder("displayName", "latestVersion.maxPlayers"));
+    assertThat(filter.test(MAP::get), is(true));
+  }
+
+  @Test
+  public void testEmptyQueryMatchesEverything() {
+    assertThat(RsqlFilter.parse("").test(MAP::get), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedOperator() {
+    RsqlFilter.parse("displayName=like=\"foo\"");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidQuery() {
+    RsqlFilter.parse("displayName==\"foo\";");
+  }
+
+  private static boolean matches(String query) {
+    return RsqlFilter.parse(query).test(MAP::get);
+  }
+}
@@ -0,0 +1,156 @@
+package com.faforever.client.rating;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.TrueSkill;
+import com.faforever.client.game.Game;
+import com.faforever.client.game.GameBuilder;
+import com.faforever.client.player.Player;
+import com.faforever.client.player.PlayerService;
+import com.faforever.client.replay.Replay;
+import com.faforever.client.replay.Replay.PlayerStats;
+import javafx.collections.FXCollections;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class JSkillsRatingServiceTest {
+
+  @Mock
+  private PlayerService playerService;
+
+  private JSkillsRatingService instance;
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.initMocks(this);
+
+    ClientProperties clientProperties = new ClientProperties();
+    TrueSkill trueSkill = clientProperties.getTrueSkill();
+    trueSkill.setInitialMean(1500);
+    trueSkill.setInitialStandardDeviation(500);
+    trueSkill.setBeta(240);
+    trueSkill.setDynamicFactor(10);
+    trueSkill.setDrawProbability(0.1f);
+
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    instance = new JSkillsRatingService(clientProperties, playerService, executorService);
+
+    when(playerService.getPlayerForUsername(anyString())).thenAnswer(invocation -> {
+      Player player = new Player((String) invocation.getArgument(0));
+      player.setGlobalRatingMean(1500);
+      player.setGlobalRatingDeviation(100);
+      return Optional.of(player);
+    });
+  }
+
+  @Test
+  public void testCalculateQualityReplayIsMemoized() throws Exception {
+    Replay replay = new Replay();
+    replay.setId(42);
+    replay.getTeamPlayerStats().put("2", List.of(playerStats(1, 1500, 100)));
+    replay.getTeamPlayerStats().put("3", List.of(playerStats(2, 1500, 100)));
+
+    double quality = instance.calculateQuality(replay);
+    replay.getTeamPlayerStats().put("3", List.of(playerStats(2, 2500, 100)));
+
+    assertThat(instance.calculateQuality(replay), is(quality));
+  }
+
+  @Test
+  public void testCalculateQualitiesPrecalculatesInBackground() throws Exception {
+    Replay replay = new Replay();
+    replay.setId(42);
+    replay.getTeamPlayerStats().put("2", List.of(playerStats(1, 1500, 100)));
+    replay.getTeamPlayerStats().put("3", List.of(playerStats(2, 1500, 100)));
+
+    instance.calculateQualities(List.of(replay)).get();
+    replay.getTeamPlayerStats().clear();
+
+    assertThat(instance.calculateQuality(replay), greaterThan(0d));
+  }
+
+  @Test
+  public void testCalculateQualityReplayWithOneTeam() throws Exception {
+    Replay replay = new Replay();
+    replay.getTeamPlayerStats().put("2", List.of(playerStats(1, 1500, 100)));
+
+    assertTrue(Double.isNaN(instance.calculateQuality(replay)));
+  }
+
+  @Test
+  public void testCalculateQualityGameWithoutOpponent() throws Exception {
+    Game game = GameBuilder.create().defaultValues().get();
+    game.setTeams(FXCollections.observableHashMap());
+    game.getTeams().put("2", List.of("player1"));
+    game.getTeams().put("null", List.of("observer"));
+
+    assertTrue(Double.isNaN(instance.calculateQuality(game)));
+  }
+
+  @Test
+  public void testCalculateQualityGameTreatsNoTeamAsIndividualTeams() throws Exception {
+    Game game = GameBuilder.create().defaultValues().get();
+    game.setTeams(FXCollections.observableHashMap());
+    game.getTeams().put("1", List.of("player1", "player2"));
+
+    assertThat(instance.calculateQuality(game), greaterThan(0d));
+  }
+
+  @Test
+  public void testCalculateQualityGameUpdatesWhenTeamsChange() throws Exception {
+    Game game = GameBuilder.create().defaultValues().get();
+    game.setTeams(FXCollections.observableHashMap());
+    game.getTeams().put("2", List.of("player1"));
+    game.getTeams().put("3", List.of("player2"));
+
+    double balancedQuality = instance.calculateQuality(game);
+
+    Player strongPlayer = new Player("strong");
+    strongPlayer.setGlobalRatingMean(2500);
+    strongPlayer.setGlobalRatingDeviation(100);
+    when(playerService.getPlayerForUsername("strong")).thenReturn(Optional.of(strongPlayer));
+    game.getTeams().put("3", List.of("strong"));
+
+    assertThat(instance.calculateQuality(game), lessThan(balancedQuality));
+  }
+
+  @Test
+  public void testCalculateQualityEvenTeamsTwoVsTwoToEightVsEight() throws Exception {
+    for (int teamSize = 2; teamSize <= 8; teamSize++) {
+      Game game = GameBuilder.create().defaultValues().get();
+      game.setId(teamSize);
+      game.setTeams(FXCollections.observableHashMap());
+      game.getTeams().put("2", playerNames("a", teamSize));
+      game.getTeams().put("3", playerNames("b", teamSize));
+
+      assertThat(instance.calculateQuality(game), greaterThan(0.5));
+    }
+  }
+
+  private static List<String> playerNames(String prefix, int count) {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      names.add(prefix + i);
+    }
+    return names;
+  }
+
+  private static PlayerStats playerStats(int playerId, double mean, double deviation) {
+    return new PlayerStats(playerId, mean, deviation, null, null, 0, null);
+  }
+}
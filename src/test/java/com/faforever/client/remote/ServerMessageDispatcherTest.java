@@ -0,0 +1,109 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.fa.relay.GpgServerMessage;
+import com.faforever.client.fa.relay.GpgServerMessageType;
+import com.faforever.client.fa.relay.HostGameMessage;
+import com.faforever.client.remote.domain.FafServerMessage;
+import com.faforever.client.remote.domain.FafServerMessageType;
+import com.faforever.client.remote.domain.GameInfoMessage;
+import com.faforever.client.remote.domain.NoticeMessage;
+import com.faforever.client.remote.domain.ServerMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ServerMessageDispatcherTest {
+
+  private ServerMessageDispatcher instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new ServerMessageDispatcher();
+  }
+
+  @Test
+  public void testDispatchToListenersOfTypeAndSuperclasses() {
+    List<String> received = new ArrayList<>();
+    instance.addListener(GameInfoMessage.class, message -> received.add("gameInfo"));
+    instance.addListener(FafServerMessage.class, message -> received.add("fafServerMessage"));
+    instance.addListener(ServerMessage.class, message -> received.add("serverMessage"));
+    instance.addListener(GpgServerMessage.class, message -> received.add("gpgServerMessage"));
+
+    instance.dispatch(new GameInfoMessage());
+    assertThat(received, contains("gameInfo", "fafServerMessage", "serverMessage"));
+
+    received.clear();
+    instance.dispatch(new HostGameMessage());
+    assertThat(received, contains("serverMessage", "gpgServerMessage"));
+  }
+
+  @Test
+  public void testRemoveListener() {
+    List<ServerMessage> received = new ArrayList<>();
+    Consumer<NoticeMessage> listener = received::add;
+    instance.addListener(NoticeMessage.class, listener);
+    instance.removeListener(NoticeMessage.class, listener);
+
+    instance.dispatch(new NoticeMessage());
+
+    assertThat(received, is(empty()));
+  }
+
+  @Test
+  public void testListenerAddedWhileDispatching() {
+    List<String> received = new ArrayList<>();
+    instance.addListener(NoticeMessage.class, message -> {
+      received.add("first");
+      instance.addListener(NoticeMessage.class, secondMessage -> received.add("second"));
+    });
+
+    instance.dispatch(new NoticeMessage());
+    assertThat(received, contains("first"));
+
+    received.clear();
+    instance.dispatch(new NoticeMessage());
+    assertThat(received, contains("first", "second"));
+  }
+
+  @Test
+  public void testStatistics() {
+    instance.addListener(NoticeMessage.class, message -> sleep(3));
+
+    instance.dispatch(new NoticeMessage());
+    instance.dispatch(new NoticeMessage());
+    instance.dispatch(new HostGameMessage());
+
+    assertThat(instance.getMessageCount(FafServerMessageType.NOTICE), is(2L));
+    assertThat(instance.getMessageCount(GpgServerMessageType.HOST_GAME), is(1L));
+    assertThat(instance.getMessageCount(FafServerMessageType.GAME_INFO), is(0L));
+
+    ServerMessageDispatcher.LatencyHistogram histogram = instance.getLatencyHistogram(FafServerMessageType.NOTICE);
+    long belowOneMillisecond = 0;
+    long total = 0;
+    for (int bucket = 0; bucket < ServerMessageDispatcher.LatencyHistogram.BUCKETS; bucket++) {
+      total += histogram.getCount(bucket);
+      if (bucket <= 10) {
+        belowOneMillisecond += histogram.getCount(bucket);
+      }
+    }
+    assertThat(total, is(2L));
+    assertThat(belowOneMillisecond, is(0L));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
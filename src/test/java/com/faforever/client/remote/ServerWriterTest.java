@@ -0,0 +1,47 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.remote.domain.ClientMessage;
+import com.faforever.client.remote.domain.ListPersonalAvatarsMessage;
+import com.faforever.client.remote.io.QDataInputStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ServerWriterTest {
+
+  private ByteArrayOutputStream outputStream;
+  private ServerWriter instance;
+
+  @Before
+  public void setUp() throws Exception {
+    outputStream = new ByteArrayOutputStream();
+    instance = new ServerWriter(outputStream);
+    instance.registerMessageSerializer(new ClientMessageSerializer(), ClientMessage.class);
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    instance.write(new ListPersonalAvatarsMessage());
+    instance.write(new ListPersonalAvatarsMessage());
+
+    byte[] bytes = outputStream.toByteArray();
+    QDataInputStream inputStream = new QDataInputStream(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+    int blockSize = inputStream.readInt();
+    assertThat(blockSize, is(bytes.length / 2 - 4));
+    String message = inputStream.readQString();
+    assertThat(message, containsString("\"command\": \"avatar\""));
+    assertThat(message, containsString("\"action\": \"list_avatar\""));
+    assertThat(message.length() * 2, is(blockSize - 4));
+
+    inputStream.skipBlockSize();
+    assertThat(inputStream.readQString(), is(message));
+  }
+}
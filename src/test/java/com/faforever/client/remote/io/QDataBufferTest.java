@@ -0,0 +1,60 @@
+package com.faforever.client.remote.io;
+
+import com.google.common.primitives.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class QDataBufferTest {
+
+  private QDataBuffer instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new QDataBuffer();
+  }
+
+  @Test
+  public void testWriterEncodesUtf16() throws Exception {
+    String testString = "test string \u00fc\uD83D\uDE00";
+
+    instance.asWriter().write(testString);
+
+    assertArrayEquals(testString.getBytes(StandardCharsets.UTF_16BE), instance.toByteArray());
+    assertThat(instance.toString(0), is(testString));
+  }
+
+  @Test
+  public void testReserveAndPutInt32() throws Exception {
+    int sizePosition = instance.reserveInt32();
+    instance.asWriter().write("test string");
+    instance.putInt32(sizePosition, instance.size() - 4);
+
+    byte[] stringLengthBytes = new byte[]{0x00, 0x00, 0x00, 0x16};
+    byte[] stringBytes = "test string".getBytes(StandardCharsets.UTF_16BE);
+
+    assertArrayEquals(Bytes.concat(stringLengthBytes, stringBytes), instance.toByteArray());
+  }
+
+  @Test
+  public void testGrowAndReset() throws Exception {
+    byte[] bytes = new byte[100_000];
+    bytes[99_999] = 0x11;
+    instance.write(0x22);
+    instance.write(bytes);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    instance.writeTo(outputStream);
+    assertArrayEquals(Bytes.concat(new byte[]{0x22}, bytes), outputStream.toByteArray());
+
+    instance.reset();
+    instance.write(0x33);
+    assertArrayEquals(new byte[]{0x33}, instance.toByteArray());
+  }
+}
@@ -9,6 +9,7 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.query.LogicalNodeController;
 import com.faforever.client.query.SpecificationController;
+import com.faforever.client.rating.RatingService;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
@@ -67,6 +68,8 @@ public class OnlineReplayVaultControllerTest extends AbstractPlainJavaFxTest {
   private PreferencesService preferencesService;
   @Mock
   private ReportingService reportingService;
+  @Mock
+  private RatingService ratingService;
 
   @Captor
   private ArgumentCaptor<Consumer<SearchConfig>> searchListenerCaptor;
@@ -90,10 +93,11 @@ public class OnlineReplayVaultControllerTest extends AbstractPlainJavaFxTest {
     when(replayService.findById(anyInt())).thenReturn(CompletableFuture.completedFuture(Optional.of(testReplay)));
     when(replayService.getOwnReplays(anyInt(),anyInt())).thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
     when(preferencesService.getPreferences()).thenReturn(new Preferences());
+    when(ratingService.calculateQualities(any())).thenReturn(CompletableFuture.completedFuture(null));
     sortOrder = preferencesService.getPreferences().getVaultPrefs().getOnlineReplaySortConfig();
     standardSearchConfig = new SearchConfig(sortOrder, "query");
 
-    instance = new OnlineReplayVaultController(replayService, uiService, notificationService, i18n, preferencesService, reportingService);
+    instance = new OnlineReplayVaultController(replayService, uiService, notificationService, i18n, preferencesService, reportingService, ratingService);
 
     loadFxml("theme/vault/replay/online_replays.fxml", clazz -> {
       if (SearchController.class.isAssignableFrom(clazz)) {
@@ -0,0 +1,105 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.task.TaskService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReplayCacheTest {
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private ApplicationContext applicationContext;
+  @Mock
+  private TaskService taskService;
+  @Mock
+  private PreferencesService preferencesService;
+
+  private ClientProperties clientProperties;
+  private ReplayCache instance;
+  private Path replayFile;
+  private CompletableFuture<Path> downloadFuture;
+  private ReplayDownloadTask replayDownloadTask;
+
+  @Before
+  public void setUp() throws Exception {
+    clientProperties = new ClientProperties();
+    instance = new ReplayCache(applicationContext, taskService, preferencesService, clientProperties);
+
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    replayFile = cacheDirectory.getRoot().toPath().resolve("replays").resolve("123.fafreplay");
+
+    downloadFuture = new CompletableFuture<>();
+    replayDownloadTask = mock(ReplayDownloadTask.class);
+    when(replayDownloadTask.getFuture()).thenReturn(downloadFuture);
+    when(applicationContext.getBean(ReplayDownloadTask.class)).thenReturn(replayDownloadTask);
+    doAnswer(invocation -> invocation.getArgument(0)).when(taskService).submitTask(any());
+  }
+
+  @Test
+  public void testConcurrentRequestsShareDownload() throws Exception {
+    CompletableFuture<Path> first = instance.get(123);
+    CompletableFuture<Path> second = instance.get(123);
+
+    verify(taskService, times(1)).submitTask(replayDownloadTask);
+    verify(replayDownloadTask).setTargetFile(replayFile);
+
+    completeDownload(new byte[]{1, 2, 3});
+
+    assertThat(first.get(), is(replayFile));
+    assertThat(second.get(), is(replayFile));
+  }
+
+  @Test
+  public void testCachedReplayIsNotDownloadedAgain() throws Exception {
+    instance.get(123);
+    completeDownload(new byte[]{1, 2, 3});
+
+    assertThat(instance.get(123).get(), is(replayFile));
+    assertThat(instance.getSize(123).get(), is(3));
+    verify(taskService, times(1)).submitTask(replayDownloadTask);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedReplays() throws Exception {
+    clientProperties.getReplay().setCacheSize(4);
+    Path oldReplayFile = replayFile.resolveSibling("1.fafreplay");
+    Files.createDirectories(replayFile.getParent());
+    Files.write(oldReplayFile, new byte[]{1, 2});
+
+    instance.get(123);
+    completeDownload(new byte[]{1, 2, 3});
+
+    assertThat(Files.exists(oldReplayFile), is(false));
+    assertThat(Files.exists(replayFile), is(true));
+  }
+
+  private void completeDownload(byte[] content) throws Exception {
+    Files.createDirectories(replayFile.getParent());
+    Files.write(replayFile, content);
+    downloadFuture.complete(replayFile);
+  }
+}
@@ -5,6 +5,7 @@ import com.faforever.client.fx.PlatformService;
 import com.faforever.client.game.GameService;
 import com.faforever.client.game.KnownFeaturedMod;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DirectoryWatcherService;
 import com.faforever.client.main.event.LocalReplaysChangedEvent;
 import com.faforever.client.map.MapBeanBuilder;
 import com.faforever.client.map.MapService;
@@ -38,19 +39,16 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
-import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -182,13 +180,16 @@ public class ReplayServiceTest {
   private ExecutorService executorService;
   @Mock
   private UserService userService;
+  @Mock
+  private DirectoryWatcherService directoryWatcherService;
 
   @Before
   public void setUp() throws Exception {
     MockitoAnnotations.initMocks(this);
 
     instance = new ReplayService(new ClientProperties(), preferencesService, userService, replayFileReader, notificationService, gameService, playerService,
-        taskService, i18n, reportingService, applicationContext, platformService, fafService, modService, mapService, publisher, mapGeneratorService, executorService);
+        taskService, i18n, reportingService, applicationContext, platformService, fafService, modService, mapService, publisher, mapGeneratorService, executorService, directoryWatcherService,
+        new ReplayCache(applicationContext, taskService, preferencesService, new ClientProperties()));
 
     when(preferencesService.getReplaysDirectory()).thenReturn(replayDirectory.getRoot().toPath());
     when(preferencesService.getCorruptedReplaysDirectory()).thenReturn(replayDirectory.getRoot().toPath().resolve("corrupt"));
@@ -303,9 +304,7 @@ public class ReplayServiceTest {
   }
 
   @Test
-  public void testLocalReplaysWatchEvent() throws Exception {
-    WatchKey watchKey = mock(WatchKey.class);
-
+  public void testLocalReplaysChanged() throws Exception {
     Path newReplayFile = replayDirectory.newFile("newReplay.fafreplay").toPath();
     LocalReplayInfo newReplayInfo = new LocalReplayInfo();
     newReplayInfo.setUid(123);
@@ -316,24 +315,13 @@ public class ReplayServiceTest {
     when(replayFileReader.parseMetaData(newReplayFile)).thenReturn(newReplayInfo);
     when(modService.getFeaturedMod(any())).thenReturn(CompletableFuture.completedFuture(null));
     when(mapService.findByMapFolderName(any())).thenReturn(CompletableFuture.completedFuture(Optional.of(MapBeanBuilder.create().defaultValues().get())));
-    WatchEvent watchEventForNewReplay = mock(WatchEvent.class);
-    when(watchEventForNewReplay.kind()).thenReturn(ENTRY_CREATE);
-    when(watchEventForNewReplay.context()).thenReturn(newReplayFile);
 
     Replay deletedReplay = mock(Replay.class);
     instance.localReplays.add(deletedReplay);
-    Path deletedReplayFile = replayDirectory.newFile("deletedReplay.fafreplay").toPath();
+    Path deletedReplayFile = replayDirectory.getRoot().toPath().resolve("deletedReplay.fafreplay");
     when(deletedReplay.getReplayFile()).thenReturn(deletedReplayFile);
-    WatchEvent watchEventForDeletedReplay = mock(WatchEvent.class);
-    when(watchEventForDeletedReplay.kind()).thenReturn(ENTRY_DELETE);
-    when(watchEventForDeletedReplay.context()).thenReturn(deletedReplayFile);
-
-    List<WatchEvent<?>> eventsList = new ArrayList<WatchEvent<?>>();
-    eventsList.add(watchEventForNewReplay);
-    eventsList.add(watchEventForDeletedReplay);
-    when(watchKey.pollEvents()).thenReturn(eventsList);
 
-    instance.onLocalReplaysWatchEvent(watchKey);
+    instance.onLocalReplaysChanged(Set.of(newReplayFile, deletedReplayFile));
     verify(publisher).publishEvent(argThat((LocalReplaysChangedEvent event) ->
         event.getNewReplays().stream().findFirst().get().getReplayFile() == newReplayFile
             && event.getDeletedReplays().stream().findFirst().get().getReplayFile() == deletedReplayFile
@@ -0,0 +1,124 @@
+package com.faforever.client.replay.analytics;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.replay.ReplayFileReader;
+import com.faforever.client.replay.ReplayFileReaderImpl;
+import com.faforever.client.replay.analytics.ReplayStatisticsIndex.Column;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReplayAnalyticsServiceTest {
+
+  @Rule
+  public TemporaryFolder replaysDirectory = new TemporaryFolder();
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private PreferencesService preferencesService;
+  @Mock
+  private ReplayFileReader replayFileReader;
+
+  private ReplayAnalyticsService instance;
+
+  @Before
+  public void setUp() throws Exception {
+    when(preferencesService.getReplaysDirectory()).thenReturn(replaysDirectory.getRoot().toPath());
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    ReplayFileReaderImpl replayFileReaderImpl = new ReplayFileReaderImpl();
+    when(replayFileReader.readRawReplayData(any())).thenAnswer(invocation -> replayFileReaderImpl.readRawReplayData(invocation.getArgument(0)));
+
+    copyTestReplay("1.fafreplay");
+    Files.write(replaysDirectory.getRoot().toPath().resolve("2.fafreplay"), new byte[]{1, 2, 3});
+
+    instance = new ReplayAnalyticsService(preferencesService, replayFileReader, new ClientProperties());
+  }
+
+  @After
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  @Test
+  public void testAnalyzeLocalReplays() throws Exception {
+    ReplayStatisticsIndex index = instance.analyzeLocalReplays().get();
+
+    assertThat(index.size(), is(1));
+    assertThat(index.get("1.fafreplay", Column.COMMANDS), is(OptionalInt.of(773)));
+    assertThat(index.get("1.fafreplay", Column.CHAT_MESSAGES), is(OptionalInt.of(76)));
+    assertThat(index.get("1.fafreplay", Column.DURATION_SECONDS), is(OptionalInt.of(260)));
+    assertThat(index.get("1.fafreplay", Column.HIGHEST_AVERAGE_APM), is(OptionalInt.of(35)));
+    assertThat(index.get("2.fafreplay", Column.COMMANDS), is(OptionalInt.empty()));
+    assertThat(instance.getIndex(), is(index));
+  }
+
+  @Test
+  public void testAnalyzeOnlyNewReplays() throws Exception {
+    instance.analyzeLocalReplays().get();
+    copyTestReplay("3.fafreplay");
+    Files.delete(replaysDirectory.getRoot().toPath().resolve("1.fafreplay"));
+
+    ReplayStatisticsIndex index = instance.analyzeLocalReplays().get();
+
+    assertThat(index.size(), is(1));
+    assertThat(index.get("1.fafreplay", Column.COMMANDS), is(OptionalInt.empty()));
+    assertThat(index.get("3.fafreplay", Column.COMMANDS).isPresent(), is(true));
+    verify(replayFileReader, times(1)).readRawReplayData(replaysDirectory.getRoot().toPath().resolve("1.fafreplay"));
+    verify(replayFileReader, times(1)).readRawReplayData(replaysDirectory.getRoot().toPath().resolve("3.fafreplay"));
+  }
+
+  @Test
+  public void testFailedReplaysAreOnlyAnalyzedAgainOnceChanged() throws Exception {
+    Path unreadableReplay = replaysDirectory.getRoot().toPath().resolve("2.fafreplay");
+    instance.analyzeLocalReplays().get();
+    instance.analyzeLocalReplays().get();
+    verify(replayFileReader, times(1)).readRawReplayData(unreadableReplay);
+
+    Files.write(unreadableReplay, new byte[]{1, 2, 3, 4});
+    ReplayStatisticsIndex index = instance.analyzeLocalReplays().get();
+
+    verify(replayFileReader, times(2)).readRawReplayData(unreadableReplay);
+    assertThat(index.size(), is(1));
+    assertThat(index.get("1.fafreplay", Column.COMMANDS), is(OptionalInt.of(773)));
+  }
+
+  @Test
+  public void testIndexIsReadFromCache() throws Exception {
+    instance.analyzeLocalReplays().get();
+    instance.destroy();
+
+    instance = new ReplayAnalyticsService(preferencesService, replayFileReader, new ClientProperties());
+    ReplayStatisticsIndex index = instance.analyzeLocalReplays().get();
+
+    assertThat(index.get("1.fafreplay", Column.COMMANDS), is(OptionalInt.of(773)));
+    verify(replayFileReader, times(1)).readRawReplayData(replaysDirectory.getRoot().toPath().resolve("1.fafreplay"));
+  }
+
+  private void copyTestReplay(String fileName) throws Exception {
+    Path replayFile = replaysDirectory.getRoot().toPath().resolve(fileName);
+    try (InputStream inputStream = new BufferedInputStream(getClass().getResourceAsStream("/replay/test.fafreplay"))) {
+      Files.copy(inputStream, replayFile);
+    }
+  }
+}
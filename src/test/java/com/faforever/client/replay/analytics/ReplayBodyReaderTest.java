@@ -0,0 +1,48 @@
+package com.faforever.client.replay.analytics;
+
+import com.faforever.client.replay.ReplayFileReaderImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReplayBodyReaderTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testRead() throws Exception {
+    Path replayFile = temporaryFolder.getRoot().toPath().resolve("test.fafreplay");
+    try (InputStream inputStream = new BufferedInputStream(getClass().getResourceAsStream("/replay/test.fafreplay"))) {
+      Files.copy(inputStream, replayFile);
+    }
+
+    ReplayStatistics statistics = ReplayBodyReader.read(new ReplayFileReaderImpl().readRawReplayData(replayFile));
+
+    assertThat(statistics.getTicks(), is(2607));
+    assertThat(statistics.getDuration(), is(Duration.ofMillis(260_700)));
+    assertThat(statistics.getChatMessageCount(), is(76));
+    assertThat(statistics.getCommandCount(), is(773));
+    assertThat(statistics.getCommandCount("Tokyto"), is(154));
+    assertThat(statistics.getCommandCount("Downlord"), is(0));
+    assertThat(statistics.getCommandsPerMinuteByPlayer().get("Tokyto"), is(new int[]{11, 15, 51, 60, 17}));
+    assertThat(statistics.getHighestAverageApm(), closeTo(35.44, 0.01));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadTruncated() throws Exception {
+    ReplayBodyReader.read(Arrays.copyOf("Supreme Commander v1.50.3675".getBytes(), 40));
+  }
+}
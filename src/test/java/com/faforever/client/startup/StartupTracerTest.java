@@ -0,0 +1,89 @@
+package com.faforever.client.startup;
+
+import com.faforever.client.startup.StartupTracer.Span;
+import com.faforever.client.startup.StartupTracer.SpanRecord;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+
+public class StartupTracerTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private StartupTracer instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new StartupTracer();
+  }
+
+  @Test
+  public void testNestedSpansAreSubtractedFromSelfTime() throws Exception {
+    try (Span outer = instance.start("bean", "outer")) {
+      try (Span inner = instance.start("bean", "inner")) {
+        Thread.sleep(50);
+      }
+    }
+
+    List<SpanRecord> records = instance.getSpanRecords();
+    assertThat(records, hasSize(2));
+    SpanRecord inner = records.get(0);
+    SpanRecord outer = records.get(1);
+    assertThat(inner.getName(), is("inner"));
+    assertThat(outer.getName(), is("outer"));
+    assertThat(outer.getTotalNanos(), greaterThanOrEqualTo(inner.getTotalNanos()));
+    assertThat(outer.getSelfNanos(), lessThan(inner.getSelfNanos()));
+  }
+
+  @Test
+  public void testSpansOfSameNameAreAggregated() {
+    instance.start("fxml", "theme/login.fxml").close();
+    instance.start("fxml", "theme/login.fxml").close();
+
+    List<SpanRecord> records = instance.getSpanRecords();
+    assertThat(records, hasSize(1));
+    assertThat(records.get(0).getCount(), is(2));
+  }
+
+  @Test
+  public void testUnclosedSpanDoesNotAffectSiblings() {
+    instance.start("bean", "failed");
+    try (Span span = instance.start("bean", "sibling")) {
+      // nothing
+    }
+    instance.start("bean", "next").close();
+
+    assertThat(instance.getSpanRecords(), hasSize(2));
+  }
+
+  @Test
+  public void testFinishWritesReportAndStopsTracing() throws Exception {
+    instance.milestone("loginWindowInteractive");
+    instance.start("bean", "mapService").close();
+
+    Path reportFile = temporaryFolder.getRoot().toPath().resolve("logs").resolve("startup-report.txt");
+    instance.finish(reportFile);
+    instance.start("bean", "afterStartup").close();
+
+    assertThat(instance.getMilestones(), hasKey("loginWindowInteractive"));
+    assertThat(instance.getSpanRecords(), hasSize(1));
+    String report = new String(Files.readAllBytes(reportFile), UTF_8);
+    assertThat(report, containsString("milestone\tloginWindowInteractive\t"));
+    assertThat(report, containsString("bean\tmapService\t1\t"));
+  }
+}
@@ -0,0 +1,55 @@
+package com.faforever.client.startup;
+
+import com.faforever.client.startup.StartupTracer.SpanRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+
+public class StartupTracingBeanPostProcessorTest {
+
+  private StartupTracer startupTracer;
+  private StartupTracingBeanPostProcessor instance;
+
+  @Before
+  public void setUp() throws Exception {
+    startupTracer = new StartupTracer();
+    instance = new StartupTracingBeanPostProcessor(startupTracer);
+  }
+
+  @Test
+  public void testNestedBeansOfSameNameAreTracedSeparately() {
+    instance.postProcessBeforeInstantiation(Object.class, "prototype");
+    instance.postProcessBeforeInstantiation(Object.class, "prototype");
+    instance.postProcessAfterInitialization(new Object(), "prototype");
+    instance.postProcessAfterInitialization(new Object(), "prototype");
+
+    List<SpanRecord> records = startupTracer.getSpanRecords();
+    assertThat(records, hasSize(1));
+    assertThat(records.get(0).getCount(), is(2));
+  }
+
+  @Test
+  public void testSpanOfFailedDependencyIsDiscarded() {
+    instance.postProcessBeforeInstantiation(Object.class, "bean");
+    instance.postProcessBeforeInstantiation(Object.class, "failingDependency");
+    instance.postProcessAfterInitialization(new Object(), "bean");
+
+    List<SpanRecord> records = startupTracer.getSpanRecords();
+    assertThat(records, hasSize(1));
+    assertThat(records.get(0).getName(), is("bean"));
+  }
+
+  @Test
+  public void testBeanThatHasNotBeenInstantiatedIsIgnored() {
+    instance.postProcessBeforeInstantiation(Object.class, "bean");
+    instance.postProcessAfterInitialization(new Object(), "factoryBeanObject");
+
+    assertThat(startupTracer.getSpanRecords(), is(empty()));
+  }
+}
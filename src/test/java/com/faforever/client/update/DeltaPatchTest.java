@@ -0,0 +1,69 @@
+package com.faforever.client.update;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class DeltaPatchTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testPatchOnlyContainsChangedBytes() throws Exception {
+    Random random = new Random(42);
+    byte[] base = new byte[256 * 1024];
+    random.nextBytes(base);
+
+    // Replace some bytes, insert a few in the middle and move the first block to the end
+    byte[] changed = new byte[100];
+    random.nextBytes(changed);
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    target.write(base, DeltaPatch.BLOCK_SIZE, 50_000);
+    target.write(changed, 0, changed.length);
+    target.write(base, DeltaPatch.BLOCK_SIZE + 50_000 + 30, base.length - DeltaPatch.BLOCK_SIZE - 50_000 - 30);
+    target.write(base, 0, DeltaPatch.BLOCK_SIZE);
+
+    byte[] patch = createAndApply(base, target.toByteArray());
+
+    assertThat(patch.length, lessThan(1024));
+  }
+
+  @Test
+  public void testUnrelatedFiles() throws Exception {
+    Random random = new Random(42);
+    byte[] base = new byte[10_000];
+    random.nextBytes(base);
+    byte[] target = new byte[5_000];
+    random.nextBytes(target);
+
+    createAndApply(base, target);
+    createAndApply(new byte[0], target);
+    createAndApply(base, new byte[0]);
+  }
+
+  private byte[] createAndApply(byte[] base, byte[] target) throws IOException {
+    ByteArrayOutputStream patch = new ByteArrayOutputStream();
+    DeltaPatch.create(base, target, patch);
+
+    Path baseFile = temporaryFolder.newFile().toPath();
+    Files.write(baseFile, base);
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    DeltaPatch.apply(baseFile, new ByteArrayInputStream(patch.toByteArray()), result, (written, total) -> {
+    });
+
+    assertArrayEquals(target, result.toByteArray());
+    return patch.toByteArray();
+  }
+}
@@ -0,0 +1,105 @@
+package com.faforever.client.update;
+
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.test.AbstractPlainJavaFxTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+public class DownloadUpdateTaskTest extends AbstractPlainJavaFxTest {
+
+  private static final String FILE_NAME = "dfc_installer.exe";
+  private static final byte[] OLD_INSTALLER = "header|old jar content|footer".getBytes(UTF_8);
+  private static final byte[] NEW_INSTALLER = "header|new and improved jar content|footer".getBytes(UTF_8);
+
+  /** Stands in for the file server that hosts installers and patches. */
+  @Rule
+  public TemporaryFolder fileServer = new TemporaryFolder();
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private I18n i18n;
+  @Mock
+  private PreferencesService preferencesService;
+
+  private DownloadUpdateTask instance;
+  private Path updateDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    updateDirectory = cacheDirectory.getRoot().toPath().resolve("update");
+
+    instance = new DownloadUpdateTask(i18n, preferencesService);
+    instance.setUpdateInfo(new UpdateInfo("v1.1.0", FILE_NAME, fileServer.getRoot().toPath().resolve(FILE_NAME).toUri().toURL(),
+        NEW_INSTALLER.length, null, false));
+    instance.setCurrentVersion("1.0.0");
+  }
+
+  @Test
+  public void testDeltaUpdate() throws Exception {
+    Path oldInstaller = cacheInstaller("1.0.0", OLD_INSTALLER);
+    publishPatch("1.0.0", oldInstaller, NEW_INSTALLER);
+    // No full installer is published, so the update can only succeed using the patch
+
+    Path result = instance.call();
+
+    assertThat(result, is(updateDirectory.resolve("1.1.0").resolve(FILE_NAME)));
+    assertArrayEquals(NEW_INSTALLER, Files.readAllBytes(result));
+  }
+
+  @Test
+  public void testFallsBackToFullDownloadIfPatchDoesNotMatch() throws Exception {
+    cacheInstaller("1.0.0", OLD_INSTALLER);
+    Path otherBase = fileServer.newFile("other_base").toPath();
+    Files.write(otherBase, "something else".getBytes(UTF_8));
+    publishPatch("1.0.0", otherBase, NEW_INSTALLER);
+    Files.write(fileServer.getRoot().toPath().resolve(FILE_NAME), NEW_INSTALLER);
+
+    Path result = instance.call();
+
+    assertArrayEquals(NEW_INSTALLER, Files.readAllBytes(result));
+  }
+
+  @Test
+  public void testFullDownloadWithoutCachedInstallerDeletesOutdatedInstallers() throws Exception {
+    Path outdatedInstaller = cacheInstaller("0.9.0", OLD_INSTALLER);
+    Files.write(updateDirectory.resolve("legacy.exe"), OLD_INSTALLER);
+    Files.write(fileServer.getRoot().toPath().resolve(FILE_NAME), NEW_INSTALLER);
+
+    Path result = instance.call();
+
+    assertArrayEquals(NEW_INSTALLER, Files.readAllBytes(result));
+    assertThat(Files.exists(outdatedInstaller), is(false));
+    assertThat(Files.exists(updateDirectory.resolve("legacy.exe")), is(false));
+  }
+
+  private Path cacheInstaller(String version, byte[] content) throws IOException {
+    Path installer = updateDirectory.resolve(version).resolve(FILE_NAME);
+    Files.createDirectories(installer.getParent());
+    Files.write(installer, content);
+    return installer;
+  }
+
+  private void publishPatch(String fromVersion, Path baseFile, byte[] target) throws Exception {
+    Path patchFile = fileServer.getRoot().toPath().resolve(FILE_NAME + ".from-" + fromVersion + ".patch");
+    try (OutputStream outputStream = Files.newOutputStream(patchFile)) {
+      DeltaPatch.create(Files.readAllBytes(baseFile), target, outputStream);
+    }
+  }
+}
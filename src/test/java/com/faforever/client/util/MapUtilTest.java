@@ -0,0 +1,69 @@
+package com.faforever.client.util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class MapUtilTest {
+
+  private ObservableMap<String, List<String>> target;
+  private List<String> changes;
+
+  @Before
+  public void setUp() throws Exception {
+    target = FXCollections.observableHashMap();
+    target.put("1", List.of("a", "b"));
+    target.put("2", List.of("c"));
+
+    changes = new ArrayList<>();
+    target.addListener((MapChangeListener<String, List<String>>) change -> changes.add(change.getKey()));
+  }
+
+  @Test
+  public void testEqualMapDoesNotFireChanges() {
+    Map<String, List<String>> source = new HashMap<>();
+    source.put("1", List.of("a", "b"));
+    source.put("2", List.of("c"));
+
+    assertThat(MapUtil.updateMap(target, source), is(false));
+    assertThat(changes, is(empty()));
+  }
+
+  @Test
+  public void testOnlyDifferingEntriesAreChanged() {
+    Map<String, List<String>> source = new HashMap<>();
+    source.put("1", List.of("a", "b"));
+    source.put("2", List.of("c", "d"));
+    source.put("3", List.of("e"));
+
+    assertThat(MapUtil.updateMap(target, source), is(true));
+    assertThat(target, is(source));
+    assertThat(changes, contains("2", "3"));
+  }
+
+  @Test
+  public void testRemovedEntriesAreRemoved() {
+    assertThat(MapUtil.updateMap(target, Map.of("2", List.of("c"))), is(true));
+    assertThat(target, is(Map.of("2", List.of("c"))));
+    assertThat(changes, contains("1"));
+  }
+
+  @Test
+  public void testNullSourceClearsTarget() {
+    assertThat(MapUtil.updateMap(target, null), is(true));
+    assertThat(target.isEmpty(), is(true));
+    assertThat(MapUtil.updateMap(target, null), is(false));
+  }
+}
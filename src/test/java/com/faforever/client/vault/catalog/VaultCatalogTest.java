@@ -0,0 +1,124 @@
+package com.faforever.client.vault.catalog;
+
+import com.faforever.client.query.RsqlFilter;
+import lombok.Value;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.BOOLEAN;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.INSTANT;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.NUMBER;
+import static com.faforever.client.vault.catalog.VaultCatalog.ColumnType.STRING;
+import static com.faforever.client.vault.catalog.VaultCatalog.column;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VaultCatalogTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private VaultCatalog<Entity> instance;
+
+  @Before
+  public void setUp() {
+    instance = newCatalog();
+    Instant latestUpdateTime = instance.upsert(List.of(
+        new Entity("1", "Seton's Clutch", 8, false, Instant.parse("2019-01-01T00:00:00Z")),
+        new Entity("2", "Canis River", 2, false, Instant.parse("2019-01-03T00:00:00Z")),
+        new Entity("3", "Hidden Map", 4, true, Instant.parse("2019-01-02T00:00:00Z")),
+        new Entity("4", "Theta Passage", 2, false, null)
+    ));
+    instance.markSynced(latestUpdateTime);
+  }
+
+  @Test
+  public void testQueryFiltersSortsAndPages() {
+    RsqlFilter filter = RsqlFilter.parse("latestVersion.hidden==\"false\"");
+
+    assertThat(instance.query(filter, "latestVersion.maxPlayers", true, 1, 2), contains("1", "2"));
+    assertThat(instance.query(filter, "latestVersion.maxPlayers", true, 2, 2), contains("4"));
+    assertThat(instance.query(filter, "latestVersion.maxPlayers", true, 3, 2), is(empty()));
+    assertThat(instance.query(filter, "displayName", false, 1, 10), contains("2", "1", "4"));
+  }
+
+  @Test
+  public void testUpsertReplacesRowWithoutAdvancingSyncTime() {
+    Instant latestUpdateTime = instance.upsert(List.of(new Entity("2", "Canis River", 2, true, Instant.parse("2019-02-01T00:00:00Z"))));
+
+    assertThat(latestUpdateTime, is(Instant.parse("2019-02-01T00:00:00Z")));
+    assertThat(instance.size(), is(4));
+    assertThat(instance.getSyncedUntil().get(), is(Instant.parse("2019-01-03T00:00:00Z")));
+    assertThat(instance.query(RsqlFilter.parse("latestVersion.hidden==true"), "displayName", false, 1, 10), contains("2", "3"));
+  }
+
+  @Test
+  public void testTiesAreBrokenByNumericId() {
+    instance.upsert(List.of(
+        new Entity("10", "Canis River", 2, false, null),
+        new Entity("9", "Canis River", 2, false, null)
+    ));
+
+    assertThat(instance.query(RsqlFilter.parse("displayName==\"Canis River\""), "displayName", false, 1, 10),
+        contains("2", "9", "10"));
+  }
+
+  @Test
+  public void testMarkSynced() {
+    VaultCatalog<Entity> catalog = newCatalog();
+    assertThat(catalog.getSyncedUntil().isPresent(), is(false));
+
+    catalog.markSynced(null);
+    assertThat(catalog.getSyncedUntil().get(), is(Instant.EPOCH));
+
+    catalog.markSynced(Instant.parse("2019-02-01T00:00:00Z"));
+    catalog.markSynced(Instant.parse("2019-01-01T00:00:00Z"));
+    catalog.markSynced(null);
+    assertThat(catalog.getSyncedUntil().get(), is(Instant.parse("2019-02-01T00:00:00Z")));
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    Path file = temporaryFolder.getRoot().toPath().resolve("maps.catalog");
+    instance.writeTo(file);
+
+    VaultCatalog<Entity> readCatalog = newCatalog();
+    readCatalog.readFrom(file);
+
+    assertThat(readCatalog.size(), is(4));
+    assertThat(readCatalog.getSyncedUntil(), is(instance.getSyncedUntil()));
+    assertThat(readCatalog.query(RsqlFilter.parse("displayName==\"*passage*\""), "id", false, 1, 10), contains("4"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testQueryWithUnknownPropertyIsRejected() {
+    instance.query(RsqlFilter.parse("statistics.plays=gt=10"), "displayName", false, 1, 10);
+  }
+
+  private static VaultCatalog<Entity> newCatalog() {
+    return new VaultCatalog<>(Entity::getId, Entity::getUpdateTime, List.of(
+        column("id", NUMBER, entity -> Long.parseLong(entity.getId())),
+        column("displayName", STRING, Entity::getDisplayName),
+        column("latestVersion.maxPlayers", NUMBER, Entity::getMaxPlayers),
+        column("latestVersion.hidden", BOOLEAN, Entity::isHidden),
+        column("updateTime", INSTANT, Entity::getUpdateTime)
+    ));
+  }
+
+  @Value
+  private static class Entity {
+    String id;
+    String displayName;
+    int maxPlayers;
+    boolean hidden;
+    Instant updateTime;
+  }
+}
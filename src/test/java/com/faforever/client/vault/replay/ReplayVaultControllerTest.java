@@ -7,6 +7,8 @@ import com.faforever.client.notification.NotificationService;
 import com.faforever.client.replay.Replay;
 import com.faforever.client.replay.ReplayInfoBeanBuilder;
 import com.faforever.client.replay.ReplayService;
+import com.faforever.client.replay.analytics.ReplayAnalyticsService;
+import com.faforever.client.replay.analytics.ReplayStatisticsIndex;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
@@ -23,6 +25,7 @@ import org.springframework.context.ApplicationContext;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +35,7 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 public class ReplayVaultControllerTest extends AbstractPlainJavaFxTest {
 
@@ -56,11 +60,13 @@ public class ReplayVaultControllerTest extends AbstractPlainJavaFxTest {
   private UiService uiService;
   @Mock
   private ExecutorService executorService;
+  @Mock
+  private ReplayAnalyticsService replayAnalyticsService;
 
   @Before
   public void setUp() throws Exception {
     instance = new ReplayVaultController(notificationService, replayService, mapService, taskService, i18n, timeService,
-        reportingService, applicationContext, uiService);
+        reportingService, applicationContext, uiService, replayAnalyticsService);
 
     loadFxml("theme/vault/replay/replay_vault.fxml", clazz -> instance);
   }
@@ -80,6 +86,8 @@ public class ReplayVaultControllerTest extends AbstractPlainJavaFxTest {
         ReplayInfoBeanBuilder.create().get()
     );
 
+    when(replayAnalyticsService.analyzeLocalReplays()).thenReturn(CompletableFuture.completedFuture(new ReplayStatisticsIndex()));
+
     CountDownLatch loadedLatch = new CountDownLatch(1);
     instance.replayTableView.getItems().addListener((InvalidationListener) observable -> loadedLatch.countDown());
 
@@ -0,0 +1,59 @@
+package com.faforever.client.update;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Creates the {@link DeltaPatch} that updates one installer to another. This is run at release time, see the
+ * {@code createUpdatePatch} Gradle task, and the patch is to be published next to the new installer as
+ * {@code <installer>.from-<base version>.patch}, which is where {@link DownloadUpdateTask} looks for it.
+ * <p>
+ * The patch works on the installers as they are published. Their payload is compressed, so a small change of the
+ * application can change a large part of the installer. The generator therefore reports the size of the patch relative
+ * to the installer and doesn't write a patch that saves too little. Clients then download the full installer.
+ */
+public final class DeltaPatchGenerator {
+
+  /** Patches larger than this fraction of the target installer aren't worth publishing. */
+  private static final double MAX_PATCH_SIZE_RATIO = 0.5;
+
+  private DeltaPatchGenerator() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      System.err.println("Usage: DeltaPatchGenerator <base installer> <target installer> <patch file>");
+      System.exit(1);
+    }
+    Path baseFile = Paths.get(args[0]);
+    Path targetFile = Paths.get(args[1]);
+    Path patchFile = Paths.get(args[2]);
+
+    Path tempFile = Files.createTempFile(patchFile.toAbsolutePath().getParent(), "patch", ".tmp");
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        DeltaPatch.create(Files.readAllBytes(baseFile), Files.readAllBytes(targetFile), outputStream);
+      }
+
+      long patchSize = Files.size(tempFile);
+      long targetSize = Files.size(targetFile);
+      double ratio = (double) patchSize / targetSize;
+      System.out.printf("Patch to update %s to %s is %d bytes, %.1f%% of the installer (%d bytes)%n",
+          baseFile.getFileName(), targetFile.getFileName(), patchSize, ratio * 100, targetSize);
+
+      if (ratio > MAX_PATCH_SIZE_RATIO) {
+        System.out.printf("Not writing %s since it's larger than %.0f%% of the installer%n", patchFile, MAX_PATCH_SIZE_RATIO * 100);
+        return;
+      }
+      Files.move(tempFile, patchFile, StandardCopyOption.REPLACE_EXISTING);
+      System.out.println("Created " + patchFile);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+}